@@ -0,0 +1,594 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.codegen;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.Name;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Generates a `JsonDecoder`/`JsonEncoder` codec for every class annotated with `io.nats.jparse.bind.JsonCodec`.
+ * <p>
+ * For a class `Foo` the processor writes `FooJsonCodec` into the same package. The decoder dispatches keys with a
+ * switch on the key length followed by character comparisons, stores values straight into fields, setters or
+ * constructor locals, and reads scalars through typed `JsonReader` calls. The encoder writes fields through direct
+ * access or getters. Collections and maps of supported types are handled inline; other types are delegated to the
+ * runtime binder, which in turn uses their generated codec when they have one.
+ * <p>
+ * Supported classes have a non-private no-argument constructor with writable fields or setters, or a non-private
+ * constructor with one parameter per instance field, matched to the fields by name and type in any order.
+ */
+@SupportedAnnotationTypes(JsonCodecProcessor.ANNOTATION)
+public class JsonCodecProcessor extends AbstractProcessor {
+
+    static final String ANNOTATION = "io.nats.jparse.bind.JsonCodec";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.CLASS) {
+                    error(element, "@JsonCodec can only be applied to classes");
+                    continue;
+                }
+                try {
+                    generate((TypeElement) element);
+                } catch (CodecException e) {
+                    error(e.element, e.getMessage());
+                } catch (IOException e) {
+                    error(element, "Unable to write codec: " + e.getMessage());
+                }
+            }
+        }
+        return true;
+    }
+
+    private void generate(final TypeElement type) throws IOException {
+        if (type.getModifiers().contains(Modifier.PRIVATE) || type.getModifiers().contains(Modifier.ABSTRACT)
+                || type.getNestingKind() == NestingKind.MEMBER && !type.getModifiers().contains(Modifier.STATIC)) {
+            throw new CodecException(type, "@JsonCodec classes must be concrete, non-private and static if nested");
+        }
+        final String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        final String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        final String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1))
+                .replace('$', '_');
+        final String codecName = simpleName + "JsonCodec";
+
+        final CodecWriter writer = new CodecWriter(type, codecName);
+        final String source = writer.write(packageName);
+        final String qualifiedName = packageName.isEmpty() ? codecName : packageName + "." + codecName;
+        try (Writer out = processingEnv.getFiler().createSourceFile(qualifiedName, type).openWriter()) {
+            out.write(source);
+        }
+    }
+
+    private void error(final Element element, final String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private static final class CodecException extends RuntimeException {
+        private final Element element;
+
+        private CodecException(final Element element, final String message) {
+            super(message);
+            this.element = element;
+        }
+    }
+
+    /**
+     * Writes the source of one codec class.
+     */
+    private final class CodecWriter {
+
+        private final TypeElement type;
+        private final String typeName;
+        private final String codecName;
+        private final List<VariableElement> fields = new ArrayList<>();
+        private final boolean constructorMode;
+        private final int[] constructorFields;
+        private final StringBuilder helpers = new StringBuilder();
+        private final Map<String, String> codecFields = new LinkedHashMap<>();
+        private int helperCount;
+
+        private CodecWriter(final TypeElement type, final String codecName) {
+            this.type = type;
+            this.typeName = type.getQualifiedName().toString();
+            this.codecName = codecName;
+            for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+                final Set<Modifier> modifiers = field.getModifiers();
+                if (!modifiers.contains(Modifier.STATIC) && !modifiers.contains(Modifier.TRANSIENT)) {
+                    fields.add(field);
+                }
+            }
+            this.constructorMode = !hasNoArgConstructor();
+            this.constructorFields = constructorMode ? findFieldConstructor() : null;
+            if (constructorMode && constructorFields == null) {
+                throw new CodecException(type, "@JsonCodec classes need a non-private no-argument constructor "
+                        + "or a constructor with one parameter named after each field, of the field's type");
+            }
+        }
+
+        private String write(final String packageName) {
+            final StringBuilder out = new StringBuilder(4096);
+            if (!packageName.isEmpty()) {
+                out.append("package ").append(packageName).append(";\n\n");
+            }
+            out.append("import io.nats.jparse.bind.JsonCodecSupport;\n");
+            out.append("import io.nats.jparse.bind.JsonDecoder;\n");
+            out.append("import io.nats.jparse.bind.JsonEncoder;\n");
+            out.append("import io.nats.jparse.parser.JsonReader;\n");
+            out.append("import io.nats.jparse.writer.JsonWriter;\n\n");
+            out.append("/**\n * Generated by ").append(JsonCodecProcessor.class.getName()).append(" for {@link ")
+                    .append(typeName).append("}. Do not edit.\n */\n");
+            out.append("public final class ").append(codecName).append(" implements JsonDecoder<").append(typeName)
+                    .append(">, JsonEncoder<").append(typeName).append("> {\n\n");
+
+            final String decode = decodeMethod();
+            final String encode = encodeMethod();
+            final String fieldIndex = fieldIndexMethod();
+
+            for (Map.Entry<String, String> entry : codecFields.entrySet()) {
+                out.append("    private static final ").append(entry.getValue()).append(' ').append(entry.getKey())
+                        .append(" = new ").append(entry.getValue()).append("();\n");
+            }
+            if (!codecFields.isEmpty()) {
+                out.append('\n');
+            }
+            out.append(decode).append(encode).append(fieldIndex).append(helpers).append("}\n");
+            return out.toString();
+        }
+
+        private String decodeMethod() {
+            final StringBuilder out = new StringBuilder();
+            out.append("    @Override\n    public ").append(typeName).append(" decode(final JsonReader reader) {\n");
+            out.append("        if (reader.currentType() == JsonReader.NULL) {\n            return null;\n        }\n");
+            out.append("        if (reader.currentType() != JsonReader.START_OBJECT) {\n");
+            out.append("            throw JsonCodecSupport.mismatch(\"object\", reader);\n        }\n");
+            if (constructorMode) {
+                for (int index = 0; index < fields.size(); index++) {
+                    final TypeMirror fieldType = fields.get(index).asType();
+                    out.append("        ").append(fieldType).append(" v").append(index).append(" = ")
+                            .append(defaultValue(fieldType)).append(";\n");
+                }
+            } else {
+                out.append("        final ").append(typeName).append(" target = new ").append(typeName).append("();\n");
+            }
+            out.append("        while (reader.nextToken() == JsonReader.KEY) {\n");
+            out.append("            final int field = fieldIndex(reader.stringView());\n");
+            out.append("            reader.nextToken();\n");
+            out.append("            switch (field) {\n");
+            for (int index = 0; index < fields.size(); index++) {
+                final VariableElement field = fields.get(index);
+                final TypeMirror fieldType = field.asType();
+                out.append("                case ").append(index).append(":\n");
+                final String value = readExpression(fieldType);
+                final String store = constructorMode ? "v" + index + " = " + value : store(field, value);
+                if (fieldType.getKind().isPrimitive()) {
+                    out.append("                    if (reader.currentType() != JsonReader.NULL) {\n");
+                    out.append("                        ").append(store).append(";\n");
+                    out.append("                    }\n");
+                } else {
+                    out.append("                    ").append(store).append(";\n");
+                }
+                out.append("                    break;\n");
+            }
+            out.append("                default:\n                    reader.skipChildren();\n            }\n        }\n");
+            if (constructorMode) {
+                out.append("        return new ").append(typeName).append('(');
+                for (int index = 0; index < constructorFields.length; index++) {
+                    out.append(index == 0 ? "" : ", ").append('v').append(constructorFields[index]);
+                }
+                out.append(");\n");
+            } else {
+                out.append("        return target;\n");
+            }
+            out.append("    }\n\n");
+            return out.toString();
+        }
+
+        private String encodeMethod() {
+            final StringBuilder out = new StringBuilder();
+            out.append("    @Override\n    public void encode(final ").append(typeName)
+                    .append(" value, final JsonWriter writer) {\n");
+            out.append("        if (value == null) {\n            writer.writeNull();\n            return;\n        }\n");
+            out.append("        writer.beginObject();\n");
+            for (VariableElement field : fields) {
+                out.append("        writer.rawKey(\"").append(field.getSimpleName()).append("\");\n");
+                out.append("        ").append(writeStatement(field.asType(), load(field))).append('\n');
+            }
+            out.append("        writer.endObject();\n    }\n\n");
+            return out.toString();
+        }
+
+        private String fieldIndexMethod() {
+            final Map<Integer, List<Integer>> byLength = new TreeMap<>();
+            for (int index = 0; index < fields.size(); index++) {
+                byLength.computeIfAbsent(fields.get(index).getSimpleName().length(), length -> new ArrayList<>())
+                        .add(index);
+            }
+            final StringBuilder out = new StringBuilder();
+            out.append("    private static int fieldIndex(final CharSequence key) {\n");
+            out.append("        switch (key.length()) {\n");
+            for (Map.Entry<Integer, List<Integer>> entry : byLength.entrySet()) {
+                out.append("            case ").append(entry.getKey()).append(":\n");
+                for (int index : entry.getValue()) {
+                    final String name = fields.get(index).getSimpleName().toString();
+                    out.append("                if (");
+                    for (int position = 0; position < name.length(); position++) {
+                        out.append(position == 0 ? "" : "\n                        && ").append("key.charAt(")
+                                .append(position).append(") == ").append(charLiteral(name.charAt(position)));
+                    }
+                    out.append(") {\n                    return ").append(index).append(";\n                }\n");
+                }
+                out.append("                return -1;\n");
+            }
+            out.append("            default:\n                return -1;\n        }\n    }\n");
+            return out.toString();
+        }
+
+        private String readExpression(final TypeMirror type) {
+            switch (type.getKind()) {
+                case INT:
+                    return "JsonCodecSupport.readInt(reader)";
+                case LONG:
+                    return "JsonCodecSupport.readLong(reader)";
+                case DOUBLE:
+                    return "JsonCodecSupport.readDouble(reader)";
+                case FLOAT:
+                    return "JsonCodecSupport.readFloat(reader)";
+                case SHORT:
+                    return "JsonCodecSupport.readShort(reader)";
+                case BYTE:
+                    return "JsonCodecSupport.readByte(reader)";
+                case BOOLEAN:
+                    return "JsonCodecSupport.readBoolean(reader)";
+                case CHAR:
+                    return "JsonCodecSupport.readChar(reader)";
+                case DECLARED:
+                    break;
+                default:
+                    return "JsonCodecSupport.read(reader, " + erasure(type) + ".class)";
+            }
+            final String raw = erasure(type);
+            if (raw.equals("java.lang.String")) {
+                return "JsonCodecSupport.readString(reader)";
+            }
+            final List<? extends TypeMirror> arguments = ((DeclaredType) type).getTypeArguments();
+            final String collection = collectionImplementation(raw);
+            if (collection != null && arguments.size() == 1) {
+                return readCollectionHelper(type, collection, arguments.get(0)) + "(reader)";
+            }
+            final String map = mapImplementation(raw);
+            if (map != null && arguments.size() == 2 && erasure(arguments.get(0)).equals("java.lang.String")) {
+                return readMapHelper(type, map, arguments.get(1)) + "(reader)";
+            }
+            final String codec = codecField(type);
+            if (codec != null) {
+                return codec + ".decode(reader)";
+            }
+            return "JsonCodecSupport.read(reader, " + raw + ".class)";
+        }
+
+        private String writeStatement(final TypeMirror type, final String value) {
+            switch (type.getKind()) {
+                case INT:
+                case LONG:
+                case SHORT:
+                case BYTE:
+                    return "writer.writeLong(" + value + ");";
+                case DOUBLE:
+                case FLOAT:
+                    return "writer.writeDouble(" + value + ");";
+                case BOOLEAN:
+                    return "writer.writeBoolean(" + value + ");";
+                case CHAR:
+                    return "writer.writeString(String.valueOf(" + value + "));";
+                case DECLARED:
+                    break;
+                default:
+                    return "JsonCodecSupport.write(" + value + ", writer);";
+            }
+            final String raw = erasure(type);
+            if (raw.equals("java.lang.String")) {
+                return "writer.writeString(" + value + ");";
+            }
+            final List<? extends TypeMirror> arguments = ((DeclaredType) type).getTypeArguments();
+            if (isIterable(raw) && arguments.size() == 1) {
+                return writeIterableHelper(type, arguments.get(0)) + "(" + value + ", writer);";
+            }
+            if (mapImplementation(raw) != null && arguments.size() == 2
+                    && erasure(arguments.get(0)).equals("java.lang.String")) {
+                return writeMapHelper(type, arguments.get(1)) + "(" + value + ", writer);";
+            }
+            final String codec = codecField(type);
+            if (codec != null) {
+                return codec + ".encode(" + value + ", writer);";
+            }
+            return "JsonCodecSupport.write(" + value + ", writer);";
+        }
+
+        private String readCollectionHelper(final TypeMirror type, final String implementation,
+                                            final TypeMirror element) {
+            final String name = "read" + helperCount++;
+            final String elementType = boxed(element);
+            helpers.append("\n    private static ").append(type).append(' ').append(name)
+                    .append("(final JsonReader reader) {\n");
+            helpers.append("        if (reader.currentType() == JsonReader.NULL) {\n            return null;\n        }\n");
+            helpers.append("        if (reader.currentType() != JsonReader.START_ARRAY) {\n");
+            helpers.append("            throw JsonCodecSupport.mismatch(\"array\", reader);\n        }\n");
+            helpers.append("        final ").append(implementation).append('<').append(elementType)
+                    .append("> values = new ").append(implementation).append("<>();\n");
+            helpers.append("        while (reader.nextToken() != JsonReader.END_ARRAY) {\n");
+            helpers.append("            values.add(").append(readExpression(element)).append(");\n        }\n");
+            helpers.append("        return values;\n    }\n");
+            return name;
+        }
+
+        private String readMapHelper(final TypeMirror type, final String implementation, final TypeMirror value) {
+            final String name = "read" + helperCount++;
+            helpers.append("\n    private static ").append(type).append(' ').append(name)
+                    .append("(final JsonReader reader) {\n");
+            helpers.append("        if (reader.currentType() == JsonReader.NULL) {\n            return null;\n        }\n");
+            helpers.append("        if (reader.currentType() != JsonReader.START_OBJECT) {\n");
+            helpers.append("            throw JsonCodecSupport.mismatch(\"object\", reader);\n        }\n");
+            helpers.append("        final ").append(implementation).append("<String, ").append(boxed(value))
+                    .append("> values = new ").append(implementation).append("<>();\n");
+            helpers.append("        while (reader.nextToken() == JsonReader.KEY) {\n");
+            helpers.append("            final String key = reader.stringValue();\n");
+            helpers.append("            reader.nextToken();\n");
+            helpers.append("            values.put(key, ").append(readExpression(value)).append(");\n        }\n");
+            helpers.append("        return values;\n    }\n");
+            return name;
+        }
+
+        private String writeIterableHelper(final TypeMirror type, final TypeMirror element) {
+            final String name = "write" + helperCount++;
+            helpers.append("\n    private static void ").append(name).append("(final ").append(type)
+                    .append(" values, final JsonWriter writer) {\n");
+            helpers.append("        if (values == null) {\n            writer.writeNull();\n            return;\n        }\n");
+            helpers.append("        writer.beginArray();\n");
+            helpers.append("        for (").append(boxed(element)).append(" item : values) {\n");
+            helpers.append("            ").append(writeStatement(element, "item")).append("\n        }\n");
+            helpers.append("        writer.endArray();\n    }\n");
+            return name;
+        }
+
+        private String writeMapHelper(final TypeMirror type, final TypeMirror value) {
+            final String name = "write" + helperCount++;
+            helpers.append("\n    private static void ").append(name).append("(final ").append(type)
+                    .append(" values, final JsonWriter writer) {\n");
+            helpers.append("        if (values == null) {\n            writer.writeNull();\n            return;\n        }\n");
+            helpers.append("        writer.beginObject();\n");
+            helpers.append("        for (java.util.Map.Entry<String, ").append(boxed(value))
+                    .append("> entry : values.entrySet()) {\n");
+            helpers.append("            writer.key(entry.getKey());\n");
+            helpers.append("            ").append(writeStatement(value, "entry.getValue()")).append("\n        }\n");
+            helpers.append("        writer.endObject();\n    }\n");
+            return name;
+        }
+
+        /**
+         * Returns the static field holding the generated codec of an annotated type, or null if it has none.
+         */
+        private String codecField(final TypeMirror type) {
+            final Element element = processingEnv.getTypeUtils().asElement(type);
+            if (!(element instanceof TypeElement) || !hasCodecAnnotation(element)) {
+                return null;
+            }
+            final TypeElement typeElement = (TypeElement) element;
+            final String packageName = processingEnv.getElementUtils().getPackageOf(typeElement).getQualifiedName()
+                    .toString();
+            final String binaryName = processingEnv.getElementUtils().getBinaryName(typeElement).toString();
+            final String codecClass = (packageName.isEmpty() ? "" : packageName + ".")
+                    + (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1))
+                    .replace('$', '_') + "JsonCodec";
+            final String field = "CODEC_" + typeElement.getSimpleName().toString().toUpperCase();
+            codecFields.put(field, codecClass);
+            return field;
+        }
+
+        private boolean hasCodecAnnotation(final Element element) {
+            for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+                if (mirror.getAnnotationType().toString().equals(ANNOTATION)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private String store(final VariableElement field, final String value) {
+            final Set<Modifier> modifiers = field.getModifiers();
+            if (!modifiers.contains(Modifier.PRIVATE) && !modifiers.contains(Modifier.FINAL)) {
+                return "target." + field.getSimpleName() + " = " + value;
+            }
+            final String setter = "set" + capitalize(field.getSimpleName().toString());
+            for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+                if (method.getSimpleName().contentEquals(setter) && method.getParameters().size() == 1
+                        && !method.getModifiers().contains(Modifier.PRIVATE)
+                        && processingEnv.getTypeUtils().isSameType(method.getParameters().get(0).asType(),
+                        field.asType())) {
+                    return "target." + setter + "(" + value + ")";
+                }
+            }
+            throw new CodecException(field, "Field " + field.getSimpleName()
+                    + " needs to be non-private and non-final, or have a non-private setter " + setter);
+        }
+
+        private String load(final VariableElement field) {
+            if (!field.getModifiers().contains(Modifier.PRIVATE)) {
+                return "value." + field.getSimpleName();
+            }
+            final String name = field.getSimpleName().toString();
+            final String[] candidates = {"get" + capitalize(name), "is" + capitalize(name), name};
+            for (String candidate : candidates) {
+                for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+                    if (method.getSimpleName().contentEquals(candidate) && method.getParameters().isEmpty()
+                            && !method.getModifiers().contains(Modifier.PRIVATE)
+                            && !method.getModifiers().contains(Modifier.STATIC)
+                            && processingEnv.getTypeUtils().isSameType(method.getReturnType(), field.asType())) {
+                        return "value." + candidate + "()";
+                    }
+                }
+            }
+            throw new CodecException(field, "Field " + name + " needs to be non-private or have a non-private getter");
+        }
+
+        private boolean hasNoArgConstructor() {
+            for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+                if (constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private int[] findFieldConstructor() {
+            for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+                final List<? extends VariableElement> parameters = constructor.getParameters();
+                if (constructor.getModifiers().contains(Modifier.PRIVATE) || parameters.size() != fields.size()) {
+                    continue;
+                }
+                final int[] parameterFields = new int[parameters.size()];
+                boolean matches = true;
+                for (int index = 0; index < parameters.size() && matches; index++) {
+                    parameterFields[index] = fieldNamed(parameters.get(index).getSimpleName());
+                    matches = parameterFields[index] >= 0 && processingEnv.getTypeUtils().isSameType(
+                            processingEnv.getTypeUtils().erasure(parameters.get(index).asType()),
+                            processingEnv.getTypeUtils().erasure(fields.get(parameterFields[index]).asType()));
+                }
+                if (matches) {
+                    return parameterFields;
+                }
+            }
+            return null;
+        }
+
+        private int fieldNamed(final Name name) {
+            for (int index = 0; index < fields.size(); index++) {
+                if (fields.get(index).getSimpleName().contentEquals(name)) {
+                    return index;
+                }
+            }
+            return -1;
+        }
+
+        private String erasure(final TypeMirror type) {
+            final TypeMirror erased = processingEnv.getTypeUtils().erasure(type);
+            if (erased.getKind() == TypeKind.DECLARED) {
+                return ((TypeElement) ((DeclaredType) erased).asElement()).getQualifiedName().toString();
+            }
+            return erased.toString();
+        }
+
+        private String boxed(final TypeMirror type) {
+            if (type.getKind().isPrimitive()) {
+                return processingEnv.getTypeUtils().boxedClass((javax.lang.model.type.PrimitiveType) type)
+                        .getQualifiedName().toString();
+            }
+            return type.toString();
+        }
+
+        private String collectionImplementation(final String raw) {
+            switch (raw) {
+                case "java.util.List":
+                case "java.util.Collection":
+                case "java.lang.Iterable":
+                case "java.util.ArrayList":
+                    return "java.util.ArrayList";
+                case "java.util.Set":
+                case "java.util.LinkedHashSet":
+                    return "java.util.LinkedHashSet";
+                default:
+                    return null;
+            }
+        }
+
+        private boolean isIterable(final String raw) {
+            return collectionImplementation(raw) != null || raw.equals("java.util.HashSet")
+                    || raw.equals("java.util.LinkedList") || raw.equals("java.util.TreeSet");
+        }
+
+        private String mapImplementation(final String raw) {
+            switch (raw) {
+                case "java.util.Map":
+                case "java.util.LinkedHashMap":
+                    return "java.util.LinkedHashMap";
+                default:
+                    return null;
+            }
+        }
+
+        private String defaultValue(final TypeMirror type) {
+            switch (type.getKind()) {
+                case BOOLEAN:
+                    return "false";
+                case CHAR:
+                    return "'\\0'";
+                case LONG:
+                    return "0L";
+                case FLOAT:
+                    return "0f";
+                case DOUBLE:
+                    return "0d";
+                case INT:
+                case SHORT:
+                case BYTE:
+                    return "0";
+                default:
+                    return "null";
+            }
+        }
+
+        private String charLiteral(final char ch) {
+            if (ch >= 0x20 && ch < 0x7F && ch != '\'' && ch != '\\') {
+                return "'" + ch + "'";
+            }
+            return String.format("'\\u%04x'", (int) ch);
+        }
+
+        private String capitalize(final String name) {
+            return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        }
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Deterministic synthetic JSON documents for the benchmarks, so no corpus has to be downloaded or checked in.
+ * <p>
+ * Every shape is generated from a fixed seed, so a shape is the same document on every machine and every run. All
+ * documents are strict JSON and nest no deeper than any of the compared parsers allow by default.
+ */
+public final class CorpusGenerator {
+
+    /**
+     * The document shapes.
+     */
+    public enum Shape {
+        /** A single small message, about 180 bytes. */
+        TINY,
+        /** An array of 40 mixed records, about 7 KB. */
+        MEDIUM,
+        /** An array of mixed records, about 100 MB. */
+        LARGE,
+        /** Arrays of integers and doubles, about 180 KB. */
+        NUMERIC,
+        /** Records of long strings with escapes and non-ASCII text, about 200 KB. */
+        STRING,
+        /** Objects and arrays nested 500 deep. */
+        DEEP,
+        /** One object with 10,000 keys. */
+        WIDE
+    }
+
+    private static final long SEED = 0x6A70617273654CL;
+
+    private static final int LARGE_SIZE = 100 * 1024 * 1024;
+
+    private static final String[] WORDS = {"alpha", "bravo", "charlie", "delta", "echo", "foxtrot", "golf",
+            "hotel", "india", "juliet", "kilo", "lima", "mike", "november", "oscar", "papa", "quebec", "romeo"};
+
+    private static final String[] TEXT = {"plain text", "tab\\there", "quote \\\"q\\\"", "line\\nbreak",
+            "caf\u00e9 cr\u00e8me", "\u65e5\u672c\u8a9e", "emoji \\ud83d\\ude00", "slash \\/ back \\\\"};
+
+    private static final Map<Shape, String> CACHE = new ConcurrentHashMap<>();
+
+    private CorpusGenerator() {
+    }
+
+    /**
+     * Returns the document for a shape; documents are generated once per JVM.
+     *
+     * @param shape the shape
+     * @return the document
+     */
+    public static String document(final Shape shape) {
+        return CACHE.computeIfAbsent(shape, CorpusGenerator::generate);
+    }
+
+    /**
+     * Generates the document for a shape.
+     *
+     * @param shape the shape
+     * @return a new copy of the document
+     */
+    public static String generate(final Shape shape) {
+        final SplittableRandom random = new SplittableRandom(SEED + shape.ordinal());
+        final StringBuilder json;
+        switch (shape) {
+            case TINY:
+                json = new StringBuilder(256);
+                record(json, random, 0);
+                return json.toString();
+            case MEDIUM:
+                return records(random, 40, 16 * 1024);
+            case LARGE:
+                return large(random);
+            case NUMERIC:
+                return numeric(random);
+            case STRING:
+                return strings(random);
+            case DEEP:
+                return deep(random);
+            case WIDE:
+                return wide(random);
+            default:
+                throw new IllegalArgumentException("Unknown shape " + shape);
+        }
+    }
+
+    private static String records(final SplittableRandom random, final int count, final int capacity) {
+        final StringBuilder json = new StringBuilder(capacity).append('[');
+        for (int index = 0; index < count; index++) {
+            if (index > 0) {
+                json.append(',');
+            }
+            record(json, random, index);
+        }
+        return json.append(']').toString();
+    }
+
+    private static String large(final SplittableRandom random) {
+        final StringBuilder json = new StringBuilder(LARGE_SIZE + 4096).append('[');
+        for (int index = 0; json.length() < LARGE_SIZE; index++) {
+            if (index > 0) {
+                json.append(',');
+            }
+            record(json, random, index);
+        }
+        return json.append(']').toString();
+    }
+
+    private static void record(final StringBuilder json, final SplittableRandom random, final int index) {
+        json.append("{\"id\":").append(index)
+                .append(",\"subject\":\"").append(word(random)).append('.').append(word(random)).append('.')
+                .append(random.nextInt(1000)).append('"')
+                .append(",\"active\":").append(random.nextBoolean())
+                .append(",\"score\":").append(random.nextInt(100_000) / 100.0)
+                .append(",\"owner\":").append(random.nextInt(4) == 0 ? "null" : "\"" + word(random) + "\"")
+                .append(",\"tags\":[");
+        final int tags = random.nextInt(5);
+        for (int tag = 0; tag < tags; tag++) {
+            if (tag > 0) {
+                json.append(',');
+            }
+            json.append('"').append(word(random)).append('"');
+        }
+        json.append("],\"meta\":{\"created\":").append(1_600_000_000_000L + random.nextInt(Integer.MAX_VALUE))
+                .append(",\"region\":\"").append(word(random)).append("\",\"ratio\":")
+                .append(random.nextDouble()).append("}}");
+    }
+
+    private static String numeric(final SplittableRandom random) {
+        final StringBuilder json = new StringBuilder(256 * 1024).append("{\"ints\":[");
+        for (int index = 0; index < 10_000; index++) {
+            if (index > 0) {
+                json.append(',');
+            }
+            json.append(random.nextInt() >> random.nextInt(32));
+        }
+        json.append("],\"doubles\":[");
+        for (int index = 0; index < 5_000; index++) {
+            if (index > 0) {
+                json.append(',');
+            }
+            json.append(random.nextInt(3) == 0 ? random.nextDouble() * 1e-6 : (random.nextDouble() - 0.5) * 1e6);
+        }
+        json.append("],\"matrix\":[");
+        for (int row = 0; row < 100; row++) {
+            json.append(row > 0 ? ",[" : "[");
+            for (int column = 0; column < 20; column++) {
+                if (column > 0) {
+                    json.append(',');
+                }
+                json.append(random.nextInt(1_000_000) / 1000.0);
+            }
+            json.append(']');
+        }
+        return json.append("]}").toString();
+    }
+
+    private static String strings(final SplittableRandom random) {
+        final StringBuilder json = new StringBuilder(256 * 1024).append('[');
+        for (int index = 0; json.length() < 200 * 1024; index++) {
+            if (index > 0) {
+                json.append(',');
+            }
+            json.append("{\"name\":\"").append(word(random)).append(' ').append(word(random))
+                    .append("\",\"body\":\"");
+            final int parts = 8 + random.nextInt(24);
+            for (int part = 0; part < parts; part++) {
+                json.append(random.nextInt(3) == 0 ? TEXT[random.nextInt(TEXT.length)] : word(random)).append(' ');
+            }
+            json.append("\"}");
+        }
+        return json.append(']').toString();
+    }
+
+    private static String deep(final SplittableRandom random) {
+        final int depth = 500;
+        final StringBuilder json = new StringBuilder(depth * 48);
+        for (int level = 0; level < depth; level++) {
+            if (level % 2 == 0) {
+                json.append("{\"level\":").append(level).append(",\"name\":\"").append(word(random))
+                        .append("\",\"next\":");
+            } else {
+                json.append('[').append(random.nextInt(100)).append(",true,");
+            }
+        }
+        json.append("null");
+        for (int level = depth - 1; level >= 0; level--) {
+            json.append(level % 2 == 0 ? '}' : ']');
+        }
+        return json.toString();
+    }
+
+    private static String wide(final SplittableRandom random) {
+        final StringBuilder json = new StringBuilder(512 * 1024).append('{');
+        for (int index = 0; index < 10_000; index++) {
+            if (index > 0) {
+                json.append(',');
+            }
+            json.append("\"").append(word(random)).append('_').append(index).append("\":");
+            switch (random.nextInt(4)) {
+                case 0:
+                    json.append(random.nextInt());
+                    break;
+                case 1:
+                    json.append('"').append(word(random)).append('"');
+                    break;
+                case 2:
+                    json.append(random.nextBoolean());
+                    break;
+                default:
+                    json.append('[').append(random.nextInt(10)).append(',').append(random.nextInt(10)).append(']');
+            }
+        }
+        return json.append('}').toString();
+    }
+
+    private static String word(final SplittableRandom random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+}
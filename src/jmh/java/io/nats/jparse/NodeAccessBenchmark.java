@@ -0,0 +1,251 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse;
+
+import io.nats.jparse.node.ArrayNode;
+import io.nats.jparse.node.Node;
+import io.nats.jparse.node.ObjectNode;
+import io.nats.jparse.node.RootNode;
+import io.nats.jparse.parser.JsonParser;
+import io.nats.jparse.path.PathNode;
+import io.nats.jparse.source.Sources;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of reading a parsed document, kept apart from the cost of parsing it.
+ * <p>
+ * `size` is both the width of the object and the length of the arrays. Every access is measured three ways:
+ * <ul>
+ *     <li>`parse*` parses the document and touches nothing, the baseline.</li>
+ *     <li>`cold*` parses and then does the access once. Subtracting the baseline gives the first-access cost, where
+ *     the lazy overlay builds `childrenTokens` and scans keys in `lookupElement`.</li>
+ *     <li>`warm*` repeats the access on a node parsed during setup, so only the cached lookup path is left.</li>
+ * </ul>
+ * A regression in the overlay shows up as a `cold` score moving away from its baseline while the `parse` score
+ * stays put.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NodeAccessBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int size;
+
+    private final JsonParser parser = Json.builder().build();
+
+    private char[] objectJson;
+    private char[] arrayJson;
+    private char[] pathJson;
+
+    private String[] keys;
+    private String lastKey;
+    private String pathText;
+    private PathNode path;
+
+    private ObjectNode object;
+    private ObjectNode sameObject;
+    private ArrayNode array;
+    private RootNode pathRoot;
+
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = new String[size];
+        final StringBuilder builder = new StringBuilder(size * 24).append('{');
+        for (int i = 0; i < size; i++) {
+            keys[i] = "field" + i;
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append('"').append(keys[i]).append("\":");
+            appendValue(builder, i);
+        }
+        objectJson = builder.append('}').toString().toCharArray();
+        lastKey = keys[size - 1];
+
+        builder.setLength(0);
+        builder.append('[');
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append(i * 1.25 - 3.5);
+        }
+        arrayJson = builder.append(']').toString().toCharArray();
+
+        builder.setLength(0);
+        builder.append("{\"store\":{\"name\":\"main\",\"items\":[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append("{\"id\":").append(i).append(",\"price\":").append(i + 0.99).append('}');
+        }
+        pathJson = builder.append("]}}").toString().toCharArray();
+        pathText = "store.items[" + (size - 1) + "].price";
+        path = Path.toPath(pathText);
+
+        object = parser.parse(Sources.charSource(objectJson)).getObjectNode();
+        sameObject = parser.parse(Sources.charSource(objectJson)).getObjectNode();
+        array = parser.parse(Sources.charSource(arrayJson)).getArrayNode();
+        pathRoot = parser.parse(Sources.charSource(pathJson));
+        if (object.getNode(lastKey) == null || Path.atPath(path, pathRoot) == null || !object.equals(sameObject)) {
+            throw new IllegalStateException("Benchmark documents do not match their accessors");
+        }
+    }
+
+    private static void appendValue(final StringBuilder builder, final int i) {
+        switch (i % 5) {
+            case 0:
+                builder.append(i);
+                break;
+            case 1:
+                builder.append("\"value ").append(i).append('"');
+                break;
+            case 2:
+                builder.append(i / 7.0);
+                break;
+            case 3:
+                builder.append(i % 2 == 0);
+                break;
+            default:
+                builder.append("{\"id\":").append(i).append(",\"tags\":[\"a\",\"b\"]}");
+        }
+    }
+
+    private String nextKey() {
+        final int index = cursor;
+        cursor = index + 1 == size ? 0 : index + 1;
+        return keys[index];
+    }
+
+    private int nextIndex() {
+        final int index = cursor;
+        cursor = index + 1 == size ? 0 : index + 1;
+        return index;
+    }
+
+    @Benchmark
+    public ObjectNode parseObject() {
+        return parser.parse(Sources.charSource(objectJson)).getObjectNode();
+    }
+
+    @Benchmark
+    public ArrayNode parseArray() {
+        return parser.parse(Sources.charSource(arrayJson)).getArrayNode();
+    }
+
+    @Benchmark
+    public RootNode parsePathDocument() {
+        return parser.parse(Sources.charSource(pathJson));
+    }
+
+    @Benchmark
+    public Node coldGetNode() {
+        return parseObject().getNode(lastKey);
+    }
+
+    @Benchmark
+    public Node warmGetNode() {
+        return object.getNode(nextKey());
+    }
+
+    @Benchmark
+    public Node coldGetNodeAt() {
+        return parseArray().getNodeAt(size - 1);
+    }
+
+    @Benchmark
+    public Node warmGetNodeAt() {
+        return array.getNodeAt(nextIndex());
+    }
+
+    @Benchmark
+    public Node coldAtPath() {
+        return Path.atPath(path, parsePathDocument());
+    }
+
+    @Benchmark
+    public Node warmAtPath() {
+        return Path.atPath(path, pathRoot);
+    }
+
+    @Benchmark
+    public Node warmAtPathText() {
+        return Path.atPath(pathText, pathRoot);
+    }
+
+    @Benchmark
+    public void coldEntrySet(final Blackhole blackhole) {
+        for (Map.Entry<CharSequence, Node> entry : parseObject().entrySet()) {
+            blackhole.consume(entry.getKey());
+            blackhole.consume(entry.getValue());
+        }
+    }
+
+    @Benchmark
+    public void warmEntrySet(final Blackhole blackhole) {
+        for (Map.Entry<CharSequence, Node> entry : object.entrySet()) {
+            blackhole.consume(entry.getKey());
+            blackhole.consume(entry.getValue());
+        }
+    }
+
+    @Benchmark
+    public int coldHashCode() {
+        return parseObject().hashCode();
+    }
+
+    @Benchmark
+    public boolean coldEquals() {
+        return parseObject().equals(parseObject());
+    }
+
+    @Benchmark
+    public boolean warmEquals() {
+        return object.equals(sameObject);
+    }
+
+    @Benchmark
+    public double[] coldGetDoubleArray() {
+        return parseArray().getDoubleArray();
+    }
+
+    @Benchmark
+    public double[] warmGetDoubleArray() {
+        return array.getDoubleArray();
+    }
+}
@@ -0,0 +1,297 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jsoniter.JsonIterator;
+import io.nats.jparse.parser.JsonEventParser;
+import io.nats.jparse.parser.JsonParser;
+import io.nats.jparse.parser.functable.JsonParserFunctions;
+import io.nats.jparse.source.CharSource;
+import io.nats.jparse.source.Sources;
+import io.nats.jparse.token.TokenEventListener;
+import org.noggit.JSONParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parse throughput of every parser over every source type and document shape, side by side with Jackson, jsoniter
+ * and noggit.
+ * <p>
+ * Documents come from `CorpusGenerator`, so every run measures the same bytes. Each combination of `engine`,
+ * `source` and `shape` is its own trial in its own fork, so the per-engine dispatch in `parse` stays monomorphic.
+ * Run it with the GC profiler to get allocation per operation next to time, which `./gradlew jmh` does for every
+ * benchmark, or narrow the matrix from the jmh jar:
+ * <pre>
+ * java -jar build/libs/jparse-*-jmh.jar ParseMatrixBenchmark -prof gc -p shape=MEDIUM,WIDE -p source=CHARS
+ * </pre>
+ * The `source` parameter is the form the document arrives in. The jparse engines wrap it with the matching
+ * `Sources` factory on every operation, as callers do. The other libraries read the same form where they have an
+ * API for it: Jackson reads all four, jsoniter has no `char[]` input and reads the `String`, noggit has no byte
+ * input and decodes the bytes first.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms6g", "-Xmx6g"})
+public class ParseMatrixBenchmark {
+
+    /**
+     * The parser under test.
+     */
+    public enum Engine {
+        /** `JsonFastParser`, the builder default. */
+        FAST,
+        /** `JsonFastParser` with comments and unquoted keys enabled. */
+        RELAXED,
+        /** `JsonStrictParser`. */
+        STRICT,
+        /** `JsonFuncParser`, selected by setting a key parse function. */
+        FUNC,
+        /** `JsonEventFastParser` with a listener that counts events. */
+        EVENT,
+        /** Jackson streaming `JsonParser`, every token read. */
+        JACKSON_STREAM,
+        /** Jackson `ObjectMapper.readTree`. */
+        JACKSON_TREE,
+        /** jsoniter `JsonIterator.read`. */
+        JSONITER,
+        /** noggit `JSONParser`, every event read. */
+        NOGGIT
+    }
+
+    /**
+     * The form the document arrives in.
+     */
+    public enum Source {
+        STRING,
+        CHARS,
+        OFFSET_CHARS,
+        UTF8_BYTES
+    }
+
+    private interface Workload {
+        Object run() throws Exception;
+    }
+
+    @Param
+    public Engine engine;
+
+    @Param
+    public Source source;
+
+    @Param
+    public CorpusGenerator.Shape shape;
+
+    private String string;
+    private char[] chars;
+    private int offset;
+    private byte[] bytes;
+
+    private Workload workload;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        final String document = CorpusGenerator.document(shape);
+        switch (source) {
+            case STRING:
+                string = document;
+                break;
+            case CHARS:
+                chars = document.toCharArray();
+                break;
+            case OFFSET_CHARS:
+                offset = 7;
+                chars = new char[document.length() + offset];
+                Arrays.fill(chars, 0, offset, ' ');
+                document.getChars(0, document.length(), chars, offset);
+                break;
+            case UTF8_BYTES:
+                bytes = document.getBytes(StandardCharsets.UTF_8);
+                break;
+            default:
+                throw new IllegalStateException("Unknown source " + source);
+        }
+        workload = workload();
+        if (workload.run() == null) {
+            throw new IllegalStateException(engine + " produced no result");
+        }
+    }
+
+    @Benchmark
+    public Object parse() throws Exception {
+        return workload.run();
+    }
+
+    private Workload workload() {
+        switch (engine) {
+            case FAST:
+                return jparse(Json.builder().build());
+            case RELAXED:
+                return jparse(Json.builder().setAllowComments(true).setSupportNoQuoteKeys(true).build());
+            case STRICT:
+                return jparse(Json.builder().setStrict(true).build());
+            case FUNC:
+                return jparse(Json.builder().setParseKey(JsonParserFunctions::parseKeyNoEncode).build());
+            case EVENT:
+                return events(Json.builder().buildEventParser());
+            case JACKSON_STREAM:
+                return jacksonStream(new JsonFactory());
+            case JACKSON_TREE:
+                return jacksonTree(new ObjectMapper());
+            case JSONITER:
+                return jsoniter();
+            case NOGGIT:
+                return noggit();
+            default:
+                throw new IllegalStateException("Unknown engine " + engine);
+        }
+    }
+
+    private CharSource charSource() {
+        switch (source) {
+            case STRING:
+                return Sources.stringSource(string);
+            case CHARS:
+                return Sources.charSource(chars);
+            case OFFSET_CHARS:
+                return Sources.charSource(offset, chars);
+            default:
+                return Sources.byteSource(bytes);
+        }
+    }
+
+    private Workload jparse(final JsonParser parser) {
+        return () -> parser.parse(charSource());
+    }
+
+    private Workload events(final JsonEventParser parser) {
+        final EventCounter counter = new EventCounter();
+        return () -> {
+            counter.count = 0;
+            parser.parseWithEvents(charSource(), counter);
+            return counter.count;
+        };
+    }
+
+    private Workload jacksonStream(final JsonFactory factory) {
+        return () -> {
+            int count = 0;
+            try (com.fasterxml.jackson.core.JsonParser parser = jacksonParser(factory)) {
+                for (JsonToken token = parser.nextToken(); token != null; token = parser.nextToken()) {
+                    count++;
+                }
+            }
+            return count;
+        };
+    }
+
+    private Workload jacksonTree(final ObjectMapper mapper) {
+        return () -> {
+            try (com.fasterxml.jackson.core.JsonParser parser = jacksonParser(mapper.getFactory())) {
+                return mapper.readTree(parser);
+            }
+        };
+    }
+
+    private com.fasterxml.jackson.core.JsonParser jacksonParser(final JsonFactory factory) throws Exception {
+        switch (source) {
+            case STRING:
+                return factory.createParser(string);
+            case CHARS:
+                return factory.createParser(chars);
+            case OFFSET_CHARS:
+                return factory.createParser(chars, offset, chars.length - offset);
+            default:
+                return factory.createParser(bytes);
+        }
+    }
+
+    private Workload jsoniter() {
+        switch (source) {
+            case UTF8_BYTES:
+                return () -> JsonIterator.parse(bytes).read();
+            case STRING:
+                return () -> JsonIterator.parse(string).read();
+            default:
+                final String text = new String(chars, offset, chars.length - offset);
+                return () -> JsonIterator.parse(text).read();
+        }
+    }
+
+    private Workload noggit() {
+        return () -> {
+            final JSONParser parser;
+            switch (source) {
+                case STRING:
+                    parser = new JSONParser(string);
+                    break;
+                case UTF8_BYTES:
+                    parser = new JSONParser(new String(bytes, StandardCharsets.UTF_8));
+                    break;
+                default:
+                    parser = new JSONParser(chars, offset, chars.length);
+            }
+            int count = 0;
+            for (int event = parser.nextEvent(); event != JSONParser.EOF; event = parser.nextEvent()) {
+                count++;
+            }
+            return count;
+        };
+    }
+
+    private static final class EventCounter implements TokenEventListener {
+
+        private int count;
+
+        @Override
+        public void start(final int tokenId, final int index, final CharSource source) {
+            count++;
+        }
+
+        @Override
+        public void end(final int tokenId, final int index, final CharSource source) {
+        }
+    }
+
+    public static void main(final String... args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(ParseMatrixBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -15,13 +15,16 @@
  */
 package io.nats.jparse;
 
+import io.nats.jparse.bind.JsonBinder;
 import io.nats.jparse.node.ArrayNode;
 import io.nats.jparse.node.Node;
 import io.nats.jparse.node.ObjectNode;
 import io.nats.jparse.node.RootNode;
 import io.nats.jparse.parser.JsonParser;
 import io.nats.jparse.parser.JsonParserBuilder;
+import io.nats.jparse.parser.JsonReader;
 import io.nats.jparse.source.CharSource;
+import io.nats.jparse.source.Sources;
 import io.nats.jparse.token.Token;
 
 import java.util.List;
@@ -44,6 +47,8 @@ public class Json {
      */
     private static final JsonParser PARSER = builder().build();
 
+    private static final AtomicReference<ParseCache> cacheRef = new AtomicReference<>();
+
     /** Environment variable for turning on strict parse support. */
     public static String J_PARSE_JSON_STRICT = "J_PARSE_JSON_STRICT";
 
@@ -87,6 +92,41 @@ public class Json {
         return builderRef.get().cloneBuilder();
     }
 
+    /**
+     * Enables the parse cache for the `String` methods of this class, replacing any cache enabled before.
+     * Repeated documents are then parsed once and served from the cache while they stay among the
+     * `maxEntries` most recently used.
+     *
+     * @param maxEntries The maximum number of cached documents
+     * @return The new cache, which exposes its hit and miss counts
+     */
+    public static ParseCache enableParseCache(final int maxEntries) {
+        final ParseCache cache = new ParseCache(PARSER, builderRef.get().objectsKeysCanBeEncoded(), maxEntries);
+        cacheRef.set(cache);
+        return cache;
+    }
+
+    /**
+     * Disables the parse cache.
+     */
+    public static void disableParseCache() {
+        cacheRef.set(null);
+    }
+
+    /**
+     * Returns the parse cache, or null if it is not enabled.
+     *
+     * @return The parse cache or null
+     */
+    public static ParseCache parseCache() {
+        return cacheRef.get();
+    }
+
+    private static RootNode parse(final String json) {
+        final ParseCache cache = cacheRef.get();
+        return cache == null ? PARSER.parse(json) : cache.parse(json);
+    }
+
     /**
      * Returns a string containing a "nicely formatted" version of the input JSON string.
      *
@@ -115,7 +155,7 @@ public class Json {
      * @return An `ArrayNode` representing the parsed JSON data
      */
     public static ArrayNode toArrayNode(final String json) {
-        return PARSER.parse(json).getArrayNode();
+        return parse(json).getArrayNode();
     }
 
     /**
@@ -125,7 +165,7 @@ public class Json {
      * @return An `ObjectNode` representing the parsed JSON data
      */
     public static ObjectNode toObjectNode(final String json) {
-        return PARSER.parse(json).getObjectNode();
+        return parse(json).getObjectNode();
     }
 
     /**
@@ -135,7 +175,7 @@ public class Json {
      * @return A `RootNode` representing the parsed JSON data
      */
     public static RootNode toRootNode(final String json) {
-        return PARSER.parse(json);
+        return parse(json);
     }
 
     /**
@@ -228,6 +268,65 @@ public class Json {
         return PARSER.scan(json);
     }
 
+    /**
+     * Creates a pull-style `JsonReader` over the input JSON string.
+     *
+     * @param json The JSON string to read
+     * @return A `JsonReader` positioned before the first token
+     */
+    public static JsonReader reader(final String json) {
+        return new JsonReader(Sources.stringSource(json));
+    }
+
+    /**
+     * Creates a pull-style `JsonReader` over the input `CharSource`.
+     *
+     * @param json The JSON char source to read
+     * @return A `JsonReader` positioned before the first token
+     */
+    public static JsonReader reader(final CharSource json) {
+        return new JsonReader(json);
+    }
+
+    /**
+     * Binds the input JSON string to an instance of a class without building a node tree.
+     *
+     * @param json The JSON string to bind
+     * @param type The class to bind to
+     * @param <T>  The bound type
+     * @return The bound value
+     * @see JsonBinder
+     */
+    public static <T> T bind(final String json, final Class<T> type) {
+        return JsonBinder.bind(Sources.stringSource(json), type);
+    }
+
+    /**
+     * Binds the input `CharSource` to an instance of a class without building a node tree.
+     *
+     * @param json The JSON char source to bind
+     * @param type The class to bind to
+     * @param <T>  The bound type
+     * @return The bound value
+     * @see JsonBinder
+     */
+    public static <T> T bind(final CharSource json, final Class<T> type) {
+        return JsonBinder.bind(json, type);
+    }
+
+    /**
+     * Binds the input JSON array to a list of instances of a class without building a node tree.
+     *
+     * @param json        The JSON array to bind
+     * @param elementType The class of the elements
+     * @param <T>         The element type
+     * @return The bound list
+     * @see JsonBinder
+     */
+    public static <T> List<T> bindList(final String json, final Class<T> elementType) {
+        return JsonBinder.bindList(Sources.stringSource(json), elementType);
+    }
+
 
     /**
      * Serialize the given {@link Object} to a String, the object must be a `Node`.
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse;
+
+import io.nats.jparse.node.RootNode;
+import io.nats.jparse.node.support.TokenList;
+import io.nats.jparse.parser.JsonParser;
+import io.nats.jparse.source.CharSource;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A size bounded LRU cache of parsed documents used by the `Json` facade once enabled with
+ * `Json.enableParseCache(int)`.
+ * <p>
+ * Documents are keyed by a 64-bit hash of their characters plus their length, and a hit is confirmed by comparing
+ * the cached text, so a hash collision can never return another document. A hit skips the scan entirely: the cached
+ * token list and character source are immutable once parsed and are shared, and every hit gets its own `RootNode`
+ * over them, so the lazily built node state is never shared between threads.
+ */
+public final class ParseCache {
+
+    private static final long PRIME_1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME_2 = 0xC2B2AE3D27D4EB4FL;
+
+    private final JsonParser parser;
+    private final boolean objectsKeysCanBeEncoded;
+    private final int maxEntries;
+    private final LruMap entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    ParseCache(final JsonParser parser, final boolean objectsKeysCanBeEncoded, final int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive " + maxEntries);
+        }
+        this.parser = parser;
+        this.objectsKeysCanBeEncoded = objectsKeysCanBeEncoded;
+        this.maxEntries = maxEntries;
+        this.entries = new LruMap(maxEntries);
+    }
+
+    /**
+     * Returns the root node of a document, parsing it only if it is not cached.
+     *
+     * @param json the document
+     * @return a root node of the document, not shared with other callers
+     */
+    public RootNode parse(final String json) {
+        final Key key = new Key(hash(json), json.length());
+        Cached entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        if (entry != null && entry.json.equals(json)) {
+            hits.increment();
+            return new RootNode(entry.tokens, entry.source, objectsKeysCanBeEncoded);
+        }
+        misses.increment();
+        final RootNode rootNode = parser.parse(json);
+        entry = new Cached(json, (TokenList) rootNode.tokens(), rootNode.charSource());
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+        return rootNode;
+    }
+
+    /**
+     * Returns the number of lookups answered from the cache.
+     *
+     * @return the hit count
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that had to parse.
+     *
+     * @return the miss count
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of cached documents.
+     *
+     * @return the number of cached documents
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Returns the maximum number of cached documents.
+     *
+     * @return the maximum number of cached documents
+     */
+    public int maxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Removes all cached documents. The hit and miss counts are kept.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Hashes the characters of a document four at a time into 64 bits.
+     */
+    static long hash(final CharSequence chars) {
+        final int length = chars.length();
+        long hash = length * PRIME_1;
+        int index = 0;
+        for (; index + 4 <= length; index += 4) {
+            final long block = chars.charAt(index) | (long) chars.charAt(index + 1) << 16
+                    | (long) chars.charAt(index + 2) << 32 | (long) chars.charAt(index + 3) << 48;
+            hash = Long.rotateLeft(hash ^ block * PRIME_2, 31) * PRIME_1;
+        }
+        for (; index < length; index++) {
+            hash = Long.rotateLeft(hash ^ chars.charAt(index) * PRIME_2, 23) * PRIME_1;
+        }
+        hash ^= hash >>> 33;
+        hash *= PRIME_2;
+        return hash ^ hash >>> 29;
+    }
+
+    private static final class LruMap extends LinkedHashMap<Key, Cached> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int maxEntries;
+
+        private LruMap(final int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Key, Cached> eldest) {
+            return size() > maxEntries;
+        }
+    }
+
+    private static final class Key {
+        private final long hash;
+        private final int length;
+
+        private Key(final long hash, final int length) {
+            this.hash = hash;
+            this.length = length;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) o;
+            return hash == other.hash && length == other.length;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (hash ^ hash >>> 32);
+        }
+    }
+
+    private static final class Cached {
+        private final String json;
+        private final TokenList tokens;
+        private final CharSource source;
+
+        private Cached(final String json, final TokenList tokens, final CharSource source) {
+            this.json = json;
+            this.tokens = tokens;
+            this.source = source;
+        }
+    }
+}
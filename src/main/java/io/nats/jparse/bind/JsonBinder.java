@@ -0,0 +1,169 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.bind;
+
+import io.nats.jparse.parser.JsonReader;
+import io.nats.jparse.source.CharSource;
+import io.nats.jparse.source.support.UnexpectedCharacterException;
+import io.nats.jparse.writer.JsonWriter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binds JSON to Java objects without building a node tree.
+ * <p>
+ * Values are read with a `JsonReader` straight from the `CharSource`. Each class gets a binding plan the first time
+ * it is bound; the plan holds `MethodHandle`s for the constructor and setters and a pre-hashed key table, and is cached
+ * for the life of the class. Classes annotated with `@JsonCodec` and compiled with the codegen processor use their
+ * generated codec instead, which needs no reflection at all.
+ * <pre>
+ *     final Employee employee = Json.bind(Sources.stringSource(json), Employee.class);
+ * </pre>
+ * Unknown keys are skipped, JSON null leaves primitives at their default, and a type mismatch throws
+ * `IllegalStateException`.
+ */
+public final class JsonBinder {
+
+    private static final ClassValue<ValueBinder> PLANS = new ClassValue<ValueBinder>() {
+        @Override
+        protected ValueBinder computeValue(final Class<?> type) {
+            final Object codec = generatedCodec(type);
+            if (codec instanceof JsonDecoder) {
+                final JsonDecoder<?> decoder = (JsonDecoder<?>) codec;
+                return decoder::decode;
+            }
+            return ObjectBinder.create(type);
+        }
+    };
+
+    private static final ClassValue<JsonEncoder<Object>> ENCODERS = new ClassValue<JsonEncoder<Object>>() {
+        @Override
+        @SuppressWarnings("unchecked")
+        protected JsonEncoder<Object> computeValue(final Class<?> type) {
+            final Object codec = generatedCodec(type);
+            if (codec instanceof JsonEncoder) {
+                return (JsonEncoder<Object>) codec;
+            }
+            return ObjectEncoder.create(type);
+        }
+    };
+
+    private JsonBinder() {
+    }
+
+    /**
+     * Binds a JSON document to an instance of a class.
+     *
+     * @param source the JSON document
+     * @param type   the class to bind to
+     * @param <T>    the bound type
+     * @return the bound value, null if the document is JSON null
+     */
+    public static <T> T bind(final CharSource source, final Class<T> type) {
+        final JsonReader reader = new JsonReader(source);
+        reader.nextToken();
+        final Object value = ValueBinders.forType(type).read(reader);
+        checkEnd(reader, source);
+        return cast(type, value);
+    }
+
+    /**
+     * Binds a JSON array to a list of instances of a class.
+     *
+     * @param source      the JSON document, an array
+     * @param elementType the class of the elements
+     * @param <T>         the element type
+     * @return the bound list
+     */
+    public static <T> List<T> bindList(final CharSource source, final Class<T> elementType) {
+        final JsonReader reader = new JsonReader(source);
+        if (reader.nextToken() != JsonReader.START_ARRAY) {
+            throw new UnexpectedCharacterException("Binding list", "Expected an array", source);
+        }
+        final ValueBinder binder = ValueBinders.forType(elementType);
+        final List<T> list = new ArrayList<>();
+        while (reader.nextToken() != JsonReader.END_ARRAY) {
+            list.add(cast(elementType, binder.read(reader)));
+        }
+        checkEnd(reader, source);
+        return list;
+    }
+
+    /**
+     * Writes an object as JSON, through its generated codec if it has one and through its fields otherwise.
+     *
+     * @param value  the value to write, may be null
+     * @param writer the writer
+     */
+    public static void encode(final Object value, final JsonWriter writer) {
+        ObjectEncoder.writeValue(value, writer);
+    }
+
+    /**
+     * Returns the encoder used for instances of a class.
+     *
+     * @param type the class
+     * @param <T>  the encoded type
+     * @return the generated codec of the class or a field based encoder
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> JsonEncoder<T> encoder(final Class<T> type) {
+        return (JsonEncoder<T>) ENCODERS.get(type);
+    }
+
+    /**
+     * Returns the name of the codec class generated for a class, e.g. `a.b.Outer_InnerJsonCodec` for `a.b.Outer.Inner`.
+     *
+     * @param type the annotated class
+     * @return the binary name of its generated codec
+     */
+    public static String codecClassName(final Class<?> type) {
+        final String name = type.getName();
+        final int dot = name.lastIndexOf('.');
+        return name.substring(0, dot + 1) + name.substring(dot + 1).replace('$', '_') + "JsonCodec";
+    }
+
+    static JsonEncoder<Object> objectEncoder(final Class<?> type) {
+        return ENCODERS.get(type);
+    }
+
+    static ValueBinder objectBinder(final Class<?> type) {
+        return PLANS.get(type);
+    }
+
+    private static Object generatedCodec(final Class<?> type) {
+        if (type.getAnnotation(JsonCodec.class) == null) {
+            return null;
+        }
+        try {
+            return Class.forName(codecClassName(type), true, type.getClassLoader()).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static void checkEnd(final JsonReader reader, final CharSource source) {
+        if (reader.nextToken() != JsonReader.END_DOCUMENT) {
+            throw new UnexpectedCharacterException("Binding", "Junk after the root value", source);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T cast(final Class<T> type, final Object value) {
+        return type.isPrimitive() ? (T) value : type.cast(value);
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.bind;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a class for compile-time codec generation.
+ * <p>
+ * With the `jparse-codegen` annotation processor on the processor path, every annotated class `Foo` gets a generated
+ * `FooJsonCodec` in the same package (nested classes are flattened with `_`, so `Outer.Inner` gets
+ * `Outer_InnerJsonCodec`). The codec implements `JsonDecoder` and `JsonEncoder` with plain field stores and a switch
+ * on the key, and `JsonBinder` uses it instead of building a reflective plan.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface JsonCodec {
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.bind;
+
+import io.nats.jparse.parser.JsonReader;
+import io.nats.jparse.writer.JsonWriter;
+
+/**
+ * Runtime helpers called by generated codecs. Not intended to be called directly.
+ */
+public final class JsonCodecSupport {
+
+    private static final ClassValue<ValueBinder> BINDERS = new ClassValue<ValueBinder>() {
+        @Override
+        protected ValueBinder computeValue(final Class<?> type) {
+            return ValueBinders.forType(type);
+        }
+    };
+
+    private JsonCodecSupport() {
+    }
+
+    /**
+     * Reads an `int`, failing if the current value is not a number.
+     *
+     * @param reader the reader positioned on the value
+     * @return the value
+     */
+    public static int readInt(final JsonReader reader) {
+        checkNumber(reader);
+        return reader.intValue();
+    }
+
+    /**
+     * Reads a `long`, failing if the current value is not a number.
+     *
+     * @param reader the reader positioned on the value
+     * @return the value
+     */
+    public static long readLong(final JsonReader reader) {
+        checkNumber(reader);
+        return reader.longValue();
+    }
+
+    /**
+     * Reads a `double`, failing if the current value is not a number.
+     *
+     * @param reader the reader positioned on the value
+     * @return the value
+     */
+    public static double readDouble(final JsonReader reader) {
+        checkNumber(reader);
+        return reader.doubleValue();
+    }
+
+    /**
+     * Reads a `float`, failing if the current value is not a number.
+     *
+     * @param reader the reader positioned on the value
+     * @return the value
+     */
+    public static float readFloat(final JsonReader reader) {
+        checkNumber(reader);
+        return (float) reader.doubleValue();
+    }
+
+    /**
+     * Reads a `short`, failing if the current value is not a number.
+     *
+     * @param reader the reader positioned on the value
+     * @return the value
+     */
+    public static short readShort(final JsonReader reader) {
+        checkNumber(reader);
+        return (short) reader.intValue();
+    }
+
+    /**
+     * Reads a `byte`, failing if the current value is not a number.
+     *
+     * @param reader the reader positioned on the value
+     * @return the value
+     */
+    public static byte readByte(final JsonReader reader) {
+        checkNumber(reader);
+        return (byte) reader.intValue();
+    }
+
+    /**
+     * Reads a `boolean`, failing if the current value is not a boolean.
+     *
+     * @param reader the reader positioned on the value
+     * @return the value
+     */
+    public static boolean readBoolean(final JsonReader reader) {
+        if (reader.currentType() != JsonReader.BOOLEAN) {
+            throw mismatch("boolean", reader);
+        }
+        return reader.booleanValue();
+    }
+
+    /**
+     * Reads a `char` from a single character string.
+     *
+     * @param reader the reader positioned on the value
+     * @return the value
+     */
+    public static char readChar(final JsonReader reader) {
+        return (Character) ValueBinders.CHARACTER_BINDER.read(reader);
+    }
+
+    /**
+     * Reads a string, or null for JSON null. Numbers and booleans are read as their text.
+     *
+     * @param reader the reader positioned on the value
+     * @return the value
+     */
+    public static String readString(final JsonReader reader) {
+        return (String) ValueBinders.STRING_BINDER.read(reader);
+    }
+
+    /**
+     * Reads any other type through the runtime binder of its class, which uses a generated codec when one exists.
+     *
+     * @param reader the reader positioned on the value
+     * @param type   the class to bind to
+     * @param <T>    the bound type
+     * @return the bound value
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T read(final JsonReader reader, final Class<T> type) {
+        return (T) BINDERS.get(type).read(reader);
+    }
+
+    /**
+     * Writes any value by its runtime type.
+     *
+     * @param value  the value
+     * @param writer the writer
+     */
+    public static void write(final Object value, final JsonWriter writer) {
+        ObjectEncoder.writeValue(value, writer);
+    }
+
+    /**
+     * Creates the exception thrown when the current value does not have the expected type.
+     *
+     * @param expected a description of the expected value
+     * @param reader   the reader positioned on the value
+     * @return the exception to throw
+     */
+    public static IllegalStateException mismatch(final String expected, final JsonReader reader) {
+        return ValueBinders.mismatch(expected, reader);
+    }
+
+    private static void checkNumber(final JsonReader reader) {
+        if (!ValueBinders.isNumber(reader)) {
+            throw mismatch("number", reader);
+        }
+    }
+}
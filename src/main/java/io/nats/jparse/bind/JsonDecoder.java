@@ -0,0 +1,35 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.bind;
+
+import io.nats.jparse.parser.JsonReader;
+
+/**
+ * Decodes one value from a `JsonReader`.
+ *
+ * @param <T> the decoded type
+ */
+public interface JsonDecoder<T> {
+
+    /**
+     * Decodes the current value. The reader is positioned on the first token of the value and is left on its last
+     * token, the scalar itself or the matching end of a container.
+     *
+     * @param reader the reader positioned on the value
+     * @return the decoded value, null for JSON null
+     */
+    T decode(JsonReader reader);
+}
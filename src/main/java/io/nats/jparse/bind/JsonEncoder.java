@@ -0,0 +1,34 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.bind;
+
+import io.nats.jparse.writer.JsonWriter;
+
+/**
+ * Encodes one value to a `JsonWriter`.
+ *
+ * @param <T> the encoded type
+ */
+public interface JsonEncoder<T> {
+
+    /**
+     * Writes the value as a single JSON value.
+     *
+     * @param value  the value, may be null
+     * @param writer the writer
+     */
+    void encode(T value, JsonWriter writer);
+}
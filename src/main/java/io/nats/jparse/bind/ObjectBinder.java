@@ -0,0 +1,468 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.bind;
+
+import io.nats.jparse.parser.JsonReader;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static io.nats.jparse.parser.JsonReader.*;
+
+/**
+ * The binding plan of one class, built once and cached by `JsonBinder`.
+ * <p>
+ * Classes with a no-argument constructor are populated through setters named after their fields, or through the
+ * fields themselves. Other classes are created through the constructor whose parameters match the instance fields,
+ * by name when the class was compiled with `-parameters`, which is the shape of immutable value classes. Without
+ * parameter names the constructor whose parameter types are the field types in declaration order is used, but only
+ * when no two parameters share a type; otherwise the fields they set cannot be told apart and binding fails.
+ * Records are always created through their canonical constructor, named after their components, when
+ * `RecordSupport` can see them.
+ * <p>
+ * Constructor arguments are collected during the single pass over the object into three slot arrays, one of
+ * `long` for integral, `char` and `boolean` parameters, one of `double` for floating point parameters and one for
+ * references, and the constructor handle reads its arguments straight from those slots, so primitive components are
+ * never boxed.
+ * <p>
+ * Keys are dispatched through an open addressing table of pre-hashed property names, hashed straight from the
+ * reader's view of the key, so no key strings are created.
+ */
+final class ObjectBinder implements ValueBinder {
+
+    private static final int KIND_REFERENCE = 0;
+    private static final int KIND_INT = 1;
+    private static final int KIND_LONG = 2;
+    private static final int KIND_DOUBLE = 3;
+    private static final int KIND_BOOLEAN = 4;
+    private static final int KIND_CHAR = 5;
+    private static final int KIND_SHORT = 6;
+    private static final int KIND_BYTE = 7;
+
+    private static final int SLOT_LONG = 0;
+    private static final int SLOT_DOUBLE = 1;
+    private static final int SLOT_OBJECT = 2;
+
+    private static final Class<?>[] SLOT_TYPES = {long[].class, double[].class, Object[].class};
+
+    private static final long[] NO_LONGS = new long[0];
+    private static final double[] NO_DOUBLES = new double[0];
+    private static final Object[] NO_OBJECTS = new Object[0];
+
+    private final Class<?> type;
+    private final Property[] table;
+    private final int mask;
+    private final MethodHandle constructor;
+    private final boolean withConstructor;
+    private final int longSlots;
+    private final int doubleSlots;
+    private final int objectSlots;
+
+    private ObjectBinder(final Class<?> type, final List<Property> properties, final MethodHandle constructor,
+                         final boolean withConstructor, final int[] slotCounts) {
+        this.type = type;
+        this.constructor = constructor;
+        this.withConstructor = withConstructor;
+        this.longSlots = slotCounts[SLOT_LONG];
+        this.doubleSlots = slotCounts[SLOT_DOUBLE];
+        this.objectSlots = slotCounts[SLOT_OBJECT];
+        int size = 4;
+        while (size < properties.size() * 2) {
+            size <<= 1;
+        }
+        this.table = new Property[size];
+        this.mask = size - 1;
+        for (Property property : properties) {
+            int slot = property.hash & mask;
+            while (table[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = property;
+        }
+    }
+
+    static ObjectBinder create(final Class<?> type) {
+        if (type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+            throw new IllegalStateException("Cannot bind JSON to abstract type " + type.getName());
+        }
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        final List<Field> fields = instanceFields(type);
+        try {
+            if (RecordSupport.isRecord(type)) {
+                return createForConstructor(type, lookup, fields, RecordSupport.componentNames(type));
+            }
+            final Constructor<?> noArgs = findConstructor(type, new Class<?>[0]);
+            if (noArgs != null) {
+                return createForSetters(type, lookup, fields, noArgs);
+            }
+            return createForConstructor(type, lookup, fields, null);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access members of " + type.getName(), e);
+        }
+    }
+
+    private static ObjectBinder createForSetters(final Class<?> type, final MethodHandles.Lookup lookup,
+                                                 final List<Field> fields, final Constructor<?> noArgs)
+            throws IllegalAccessException {
+        final List<Property> properties = new ArrayList<>(fields.size());
+        for (Field field : fields) {
+            MethodHandle setter = null;
+            final Method method = findSetter(type, field);
+            if (method != null) {
+                method.setAccessible(true);
+                setter = lookup.unreflect(method);
+            } else if (!Modifier.isFinal(field.getModifiers())) {
+                field.setAccessible(true);
+                setter = lookup.unreflectSetter(field);
+            }
+            if (setter != null) {
+                final int kind = kind(field.getType());
+                final Class<?> valueType = kind == KIND_REFERENCE ? Object.class : field.getType();
+                properties.add(new Property(field.getName(), kind, field.getType().isPrimitive(),
+                        ValueBinders.forType(field.getGenericType()),
+                        setter.asType(MethodType.methodType(void.class, Object.class, valueType)), -1));
+            }
+        }
+        noArgs.setAccessible(true);
+        final MethodHandle constructor = lookup.unreflectConstructor(noArgs).asType(MethodType.methodType(Object.class));
+        return new ObjectBinder(type, properties, constructor, false, new int[3]);
+    }
+
+    private static ObjectBinder createForConstructor(final Class<?> type, final MethodHandles.Lookup lookup,
+                                                     final List<Field> fields, final String[] componentNames)
+            throws IllegalAccessException {
+        final Constructor<?> constructor = componentNames != null ? findConstructor(type, fieldTypes(fields))
+                : findValueConstructor(type, fields);
+        if (constructor == null) {
+            throw new IllegalStateException("No no-argument constructor or constructor matching the fields of "
+                    + type.getName());
+        }
+        final Parameter[] parameters = constructor.getParameters();
+        final Type[] genericTypes = constructor.getGenericParameterTypes();
+        final List<Property> properties = new ArrayList<>(parameters.length);
+        final int[] slotCounts = new int[3];
+        final MethodHandle[] slotReaders = new MethodHandle[parameters.length];
+        final int[] slotArrays = new int[parameters.length];
+        for (int index = 0; index < parameters.length; index++) {
+            final Class<?> parameterType = parameters[index].getType();
+            final String name = componentNames != null ? componentNames[index]
+                    : parameters[index].isNamePresent() ? parameters[index].getName() : fields.get(index).getName();
+            final Type genericType = genericTypes.length == parameters.length ? genericTypes[index]
+                    : fields.get(index).getGenericType();
+            final int slotArray = slotArray(parameterType);
+            final int slot = slotCounts[slotArray]++;
+            properties.add(new Property(name, constructorKind(parameterType), parameterType.isPrimitive(),
+                    ValueBinders.forType(genericType), null, slot));
+            slotArrays[index] = slotArray;
+            slotReaders[index] = MethodHandles.explicitCastArguments(
+                    MethodHandles.insertArguments(MethodHandles.arrayElementGetter(SLOT_TYPES[slotArray]), 1, slot),
+                    MethodType.methodType(parameterType, SLOT_TYPES[slotArray]));
+        }
+        constructor.setAccessible(true);
+        final MethodHandle handle = MethodHandles.permuteArguments(
+                MethodHandles.filterArguments(lookup.unreflectConstructor(constructor), 0, slotReaders),
+                MethodType.methodType(type, SLOT_TYPES), slotArrays)
+                .asType(MethodType.methodType(Object.class, SLOT_TYPES));
+        return new ObjectBinder(type, properties, handle, true, slotCounts);
+    }
+
+    @Override
+    public Object read(final JsonReader reader) {
+        final int tokenType = reader.currentType();
+        if (tokenType == NULL) {
+            return null;
+        } else if (tokenType != START_OBJECT) {
+            throw ValueBinders.mismatch("object for " + type.getSimpleName(), reader);
+        }
+        try {
+            return withConstructor ? readWithConstructor(reader) : readWithSetters(reader);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Unable to bind " + type.getName(), e);
+        }
+    }
+
+    private Object readWithSetters(final JsonReader reader) throws Throwable {
+        final Object target = (Object) constructor.invokeExact();
+        while (reader.nextToken() == KEY) {
+            final Property property = lookup(reader.stringView());
+            reader.nextToken();
+            if (property == null) {
+                reader.skipChildren();
+                continue;
+            }
+            if (reader.currentType() == NULL && property.primitive) {
+                continue;
+            }
+            switch (property.kind) {
+                case KIND_INT:
+                    checkNumber(reader);
+                    property.setter.invokeExact(target, reader.intValue());
+                    break;
+                case KIND_LONG:
+                    checkNumber(reader);
+                    property.setter.invokeExact(target, reader.longValue());
+                    break;
+                case KIND_DOUBLE:
+                    checkNumber(reader);
+                    property.setter.invokeExact(target, reader.doubleValue());
+                    break;
+                case KIND_BOOLEAN:
+                    if (reader.currentType() != BOOLEAN) {
+                        throw ValueBinders.mismatch("boolean", reader);
+                    }
+                    property.setter.invokeExact(target, reader.booleanValue());
+                    break;
+                default:
+                    property.setter.invokeExact(target, property.binder.read(reader));
+            }
+        }
+        return target;
+    }
+
+    private Object readWithConstructor(final JsonReader reader) throws Throwable {
+        final long[] longs = longSlots == 0 ? NO_LONGS : new long[longSlots];
+        final double[] doubles = doubleSlots == 0 ? NO_DOUBLES : new double[doubleSlots];
+        final Object[] objects = objectSlots == 0 ? NO_OBJECTS : new Object[objectSlots];
+        while (reader.nextToken() == KEY) {
+            final Property property = lookup(reader.stringView());
+            reader.nextToken();
+            if (property == null) {
+                reader.skipChildren();
+                continue;
+            }
+            if (reader.currentType() == NULL && property.primitive) {
+                continue;
+            }
+            switch (property.kind) {
+                case KIND_INT:
+                    checkNumber(reader);
+                    longs[property.slot] = reader.intValue();
+                    break;
+                case KIND_LONG:
+                    checkNumber(reader);
+                    longs[property.slot] = reader.longValue();
+                    break;
+                case KIND_DOUBLE:
+                    checkNumber(reader);
+                    doubles[property.slot] = reader.doubleValue();
+                    break;
+                case KIND_BOOLEAN:
+                    if (reader.currentType() != BOOLEAN) {
+                        throw ValueBinders.mismatch("boolean", reader);
+                    }
+                    longs[property.slot] = reader.booleanValue() ? 1 : 0;
+                    break;
+                case KIND_SHORT:
+                    checkNumber(reader);
+                    longs[property.slot] = ValueBinders.shortValue(reader);
+                    break;
+                case KIND_BYTE:
+                    checkNumber(reader);
+                    longs[property.slot] = ValueBinders.byteValue(reader);
+                    break;
+                case KIND_CHAR:
+                    longs[property.slot] = (Character) property.binder.read(reader);
+                    break;
+                default:
+                    objects[property.slot] = property.binder.read(reader);
+            }
+        }
+        return (Object) constructor.invokeExact(longs, doubles, objects);
+    }
+
+    private Property lookup(final CharSequence key) {
+        final int length = key.length();
+        int hash = 0;
+        for (int index = 0; index < length; index++) {
+            hash = 31 * hash + key.charAt(index);
+        }
+        int slot = hash & mask;
+        Property property;
+        while ((property = table[slot]) != null) {
+            if (property.hash == hash && property.matches(key)) {
+                return property;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    private static void checkNumber(final JsonReader reader) {
+        if (!ValueBinders.isNumber(reader)) {
+            throw ValueBinders.mismatch("number", reader);
+        }
+    }
+
+    private static int kind(final Class<?> type) {
+        if (type == int.class) {
+            return KIND_INT;
+        } else if (type == long.class) {
+            return KIND_LONG;
+        } else if (type == double.class) {
+            return KIND_DOUBLE;
+        } else if (type == boolean.class) {
+            return KIND_BOOLEAN;
+        }
+        return KIND_REFERENCE;
+    }
+
+    private static int constructorKind(final Class<?> type) {
+        if (type == short.class) {
+            return KIND_SHORT;
+        } else if (type == byte.class) {
+            return KIND_BYTE;
+        } else if (type == float.class) {
+            return KIND_DOUBLE;
+        } else if (type == char.class) {
+            return KIND_CHAR;
+        }
+        return kind(type);
+    }
+
+    private static int slotArray(final Class<?> type) {
+        if (!type.isPrimitive()) {
+            return SLOT_OBJECT;
+        } else if (type == double.class || type == float.class) {
+            return SLOT_DOUBLE;
+        }
+        return SLOT_LONG;
+    }
+
+    private static Class<?>[] fieldTypes(final List<Field> fields) {
+        final Class<?>[] fieldTypes = new Class<?>[fields.size()];
+        for (int index = 0; index < fieldTypes.length; index++) {
+            fieldTypes[index] = fields.get(index).getType();
+        }
+        return fieldTypes;
+    }
+
+    private static List<Field> instanceFields(final Class<?> type) {
+        final List<Field> fields = new ArrayList<>();
+        if (type.getSuperclass() != null && type.getSuperclass() != Object.class) {
+            fields.addAll(instanceFields(type.getSuperclass()));
+        }
+        for (Field field : type.getDeclaredFields()) {
+            final int modifiers = field.getModifiers();
+            if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers) && !field.isSynthetic()) {
+                fields.add(field);
+            }
+        }
+        return fields;
+    }
+
+    private static Method findSetter(final Class<?> type, final Field field) {
+        final String name = "set" + Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1);
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            try {
+                return current.getDeclaredMethod(name, field.getType());
+            } catch (NoSuchMethodException e) {
+                // keep looking in the superclass
+            }
+        }
+        return null;
+    }
+
+    private static Constructor<?> findConstructor(final Class<?> type, final Class<?>[] parameterTypes) {
+        try {
+            return type.getDeclaredConstructor(parameterTypes);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static Constructor<?> findValueConstructor(final Class<?> type, final List<Field> fields) {
+        for (Constructor<?> constructor : type.getDeclaredConstructors()) {
+            final Parameter[] parameters = constructor.getParameters();
+            if (parameters.length != fields.size() || parameters.length == 0 || !parameters[0].isNamePresent()) {
+                continue;
+            }
+            final Class<?>[] reordered = new Class<?>[parameters.length];
+            for (int index = 0; index < parameters.length; index++) {
+                for (Field field : fields) {
+                    if (field.getName().equals(parameters[index].getName())) {
+                        reordered[index] = field.getType();
+                    }
+                }
+            }
+            if (Arrays.equals(reordered, constructor.getParameterTypes())) {
+                return constructor;
+            }
+        }
+        final Constructor<?> byFieldOrder = findConstructor(type, fieldTypes(fields));
+        if (byFieldOrder != null && hasRepeatedType(byFieldOrder.getParameterTypes())
+                && !byFieldOrder.getParameters()[0].isNamePresent()) {
+            throw new IllegalStateException("Cannot tell which fields the parameters of the constructor of "
+                    + type.getName() + " set, as several share a type; compile it with -parameters or make it a record");
+        }
+        return byFieldOrder;
+    }
+
+    private static boolean hasRepeatedType(final Class<?>[] types) {
+        for (int index = 1; index < types.length; index++) {
+            for (int other = 0; other < index; other++) {
+                if (types[index] == types[other]) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static final class Property {
+        private final String name;
+        private final int hash;
+        private final int kind;
+        private final boolean primitive;
+        private final ValueBinder binder;
+        private final MethodHandle setter;
+        private final int slot;
+
+        private Property(final String name, final int kind, final boolean primitive, final ValueBinder binder,
+                         final MethodHandle setter, final int slot) {
+            this.name = name;
+            this.hash = name.hashCode();
+            this.kind = kind;
+            this.primitive = primitive;
+            this.binder = binder;
+            this.setter = setter;
+            this.slot = slot;
+        }
+
+        private boolean matches(final CharSequence key) {
+            if (key.length() != name.length()) {
+                return false;
+            }
+            for (int index = 0; index < name.length(); index++) {
+                if (key.charAt(index) != name.charAt(index)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.bind;
+
+import io.nats.jparse.writer.JsonWriter;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes the instance fields of a class through field getter `MethodHandle`s. Used when no generated codec exists.
+ */
+final class ObjectEncoder implements JsonEncoder<Object> {
+
+    private final String[] names;
+    private final MethodHandle[] getters;
+
+    private ObjectEncoder(final String[] names, final MethodHandle[] getters) {
+        this.names = names;
+        this.getters = getters;
+    }
+
+    static ObjectEncoder create(final Class<?> type) {
+        final List<Field> fields = new ArrayList<>();
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            final List<Field> declared = new ArrayList<>();
+            for (Field field : current.getDeclaredFields()) {
+                final int modifiers = field.getModifiers();
+                if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers) && !field.isSynthetic()) {
+                    declared.add(field);
+                }
+            }
+            fields.addAll(0, declared);
+        }
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        final String[] names = new String[fields.size()];
+        final MethodHandle[] getters = new MethodHandle[fields.size()];
+        try {
+            for (int index = 0; index < names.length; index++) {
+                final Field field = fields.get(index);
+                field.setAccessible(true);
+                names[index] = field.getName();
+                getters[index] = lookup.unreflectGetter(field)
+                        .asType(MethodType.methodType(Object.class, Object.class));
+            }
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access fields of " + type.getName(), e);
+        }
+        return new ObjectEncoder(names, getters);
+    }
+
+    @Override
+    public void encode(final Object value, final JsonWriter writer) {
+        if (value == null) {
+            writer.writeNull();
+            return;
+        }
+        writer.beginObject();
+        try {
+            for (int index = 0; index < names.length; index++) {
+                writer.rawKey(names[index]);
+                writeValue((Object) getters[index].invokeExact(value), writer);
+            }
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Unable to encode " + value.getClass().getName(), e);
+        }
+        writer.endObject();
+    }
+
+    /**
+     * Writes any value by its runtime type, the inverse of the natural mapping used for `Object` properties.
+     */
+    static void writeValue(final Object value, final JsonWriter writer) {
+        if (value == null) {
+            writer.writeNull();
+        } else if (value instanceof CharSequence) {
+            writer.writeString((CharSequence) value);
+        } else if (value instanceof Boolean) {
+            writer.writeBoolean((Boolean) value);
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            writer.writeLong(((Number) value).longValue());
+        } else if (value instanceof Double || value instanceof Float) {
+            writer.writeDouble(((Number) value).doubleValue());
+        } else if (value instanceof BigDecimal || value instanceof BigInteger) {
+            writer.writeRaw(value.toString());
+        } else if (value instanceof Character) {
+            writer.writeString(String.valueOf(value));
+        } else if (value instanceof Enum) {
+            writer.writeString(((Enum<?>) value).name());
+        } else if (value instanceof Map) {
+            writer.beginObject();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                writer.key(String.valueOf(entry.getKey()));
+                writeValue(entry.getValue(), writer);
+            }
+            writer.endObject();
+        } else if (value instanceof Iterable) {
+            writer.beginArray();
+            for (Object item : (Iterable<?>) value) {
+                writeValue(item, writer);
+            }
+            writer.endArray();
+        } else if (value.getClass().isArray()) {
+            writer.beginArray();
+            final int length = Array.getLength(value);
+            for (int index = 0; index < length; index++) {
+                writeValue(Array.get(value, index), writer);
+            }
+            writer.endArray();
+        } else {
+            JsonBinder.objectEncoder(value.getClass()).encode(value, writer);
+        }
+    }
+}
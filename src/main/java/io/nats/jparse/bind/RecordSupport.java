@@ -0,0 +1,49 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.bind;
+
+/**
+ * Record introspection for the binder.
+ * <p>
+ * The library targets Java 8, so this version never reports a record. The jar carries a Java 17 version of this
+ * class under `META-INF/versions/17`, which answers through `Class.isRecord()` and `Class.getRecordComponents()`,
+ * so records bind through their canonical constructor on newer runtimes.
+ */
+final class RecordSupport {
+
+    private RecordSupport() {
+    }
+
+    /**
+     * Returns true if the type is a record.
+     *
+     * @param type the type
+     * @return always false before Java 16
+     */
+    static boolean isRecord(final Class<?> type) {
+        return false;
+    }
+
+    /**
+     * Returns the component names of a record in canonical constructor order.
+     *
+     * @param type the record type
+     * @return the component names
+     */
+    static String[] componentNames(final Class<?> type) {
+        throw new IllegalStateException(type.getName() + " is not a record");
+    }
+}
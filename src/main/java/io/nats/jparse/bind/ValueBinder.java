@@ -0,0 +1,35 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.bind;
+
+import io.nats.jparse.parser.JsonReader;
+
+/**
+ * Reads one value from a `JsonReader` into a Java object.
+ * <p>
+ * When `read` is called the reader is positioned on the first token of the value. When it returns the reader is
+ * positioned on the last token of the value, the scalar itself or the matching end of a container.
+ */
+interface ValueBinder {
+
+    /**
+     * Reads the current value.
+     *
+     * @param reader the reader positioned on the first token of the value
+     * @return the bound value, null for JSON null
+     */
+    Object read(JsonReader reader);
+}
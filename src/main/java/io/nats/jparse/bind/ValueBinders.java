@@ -0,0 +1,425 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.bind;
+
+import io.nats.jparse.parser.JsonReader;
+import io.nats.jparse.token.TokenTypes;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static io.nats.jparse.parser.JsonReader.*;
+
+/**
+ * Creates the `ValueBinder` for a Java type.
+ */
+final class ValueBinders {
+
+    private ValueBinders() {
+    }
+
+    static final ValueBinder STRING_BINDER = reader -> {
+        switch (reader.currentType()) {
+            case STRING:
+                return reader.stringValue();
+            case NULL:
+                return null;
+            case INT:
+            case FLOAT:
+            case BOOLEAN:
+                return reader.text();
+            default:
+                throw mismatch("string", reader);
+        }
+    };
+
+    static final ValueBinder BOOLEAN_BINDER = reader -> {
+        switch (reader.currentType()) {
+            case BOOLEAN:
+                return reader.booleanValue();
+            case NULL:
+                return null;
+            default:
+                throw mismatch("boolean", reader);
+        }
+    };
+
+    static final ValueBinder INTEGER_BINDER = reader -> isNumber(reader)
+            ? (Object) reader.intValue() : nullOrMismatch(reader);
+
+    static final ValueBinder LONG_BINDER = reader -> isNumber(reader)
+            ? (Object) reader.longValue() : nullOrMismatch(reader);
+
+    static final ValueBinder DOUBLE_BINDER = reader -> isNumber(reader)
+            ? (Object) reader.doubleValue() : nullOrMismatch(reader);
+
+    static final ValueBinder FLOAT_BINDER = reader -> isNumber(reader)
+            ? (Object) (float) reader.doubleValue() : nullOrMismatch(reader);
+
+    static final ValueBinder SHORT_BINDER = reader -> isNumber(reader)
+            ? (Object) shortValue(reader) : nullOrMismatch(reader);
+
+    static final ValueBinder BYTE_BINDER = reader -> isNumber(reader)
+            ? (Object) byteValue(reader) : nullOrMismatch(reader);
+
+    static final ValueBinder CHARACTER_BINDER = reader -> {
+        switch (reader.currentType()) {
+            case STRING:
+                final CharSequence chars = reader.stringView();
+                if (chars.length() != 1) {
+                    throw mismatch("single character string", reader);
+                }
+                return chars.charAt(0);
+            case NULL:
+                return null;
+            default:
+                throw mismatch("character", reader);
+        }
+    };
+
+    /**
+     * Big numbers are also accepted as strings, which is how they are often sent to keep their precision.
+     */
+    static final ValueBinder BIG_DECIMAL_BINDER = reader -> isNumber(reader) || reader.currentType() == STRING
+            ? new BigDecimal(reader.text()) : nullOrMismatch(reader);
+
+    static final ValueBinder BIG_INTEGER_BINDER = reader -> isNumber(reader) || reader.currentType() == STRING
+            ? new BigDecimal(reader.text()).toBigInteger() : nullOrMismatch(reader);
+
+    /**
+     * Binds any value to its natural Java type: maps, lists, `Long`, `Double`, `String`, `Boolean` or null.
+     */
+    static final ValueBinder ANY_BINDER = new ValueBinder() {
+        @Override
+        public Object read(final JsonReader reader) {
+            switch (reader.currentType()) {
+                case START_OBJECT:
+                    final Map<String, Object> map = new LinkedHashMap<>();
+                    while (reader.nextToken() == KEY) {
+                        final String key = reader.stringValue();
+                        reader.nextToken();
+                        map.put(key, read(reader));
+                    }
+                    return map;
+                case START_ARRAY:
+                    final List<Object> list = new ArrayList<>();
+                    while (reader.nextToken() != END_ARRAY) {
+                        list.add(read(reader));
+                    }
+                    return list;
+                case INT:
+                    if ((reader.numberFlags() & TokenTypes.NUMBER_FITS_LONG_FLAG) != 0) {
+                        return reader.longValue();
+                    }
+                    return BIG_INTEGER_BINDER.read(reader);
+                case FLOAT:
+                    return reader.doubleValue();
+                case STRING:
+                    return reader.stringValue();
+                case BOOLEAN:
+                    return reader.booleanValue();
+                case NULL:
+                    return null;
+                default:
+                    throw mismatch("value", reader);
+            }
+        }
+    };
+
+    /**
+     * Returns the binder for a type. Classes that are not built in are bound with a cached `ObjectBinder`, looked up
+     * lazily so that recursive types do not recurse while their plan is built.
+     *
+     * @param type the Java type
+     * @return the binder
+     */
+    static ValueBinder forType(final Type type) {
+        if (type instanceof Class) {
+            return forClass((Class<?>) type);
+        } else if (type instanceof ParameterizedType) {
+            final ParameterizedType parameterized = (ParameterizedType) type;
+            final Class<?> raw = (Class<?>) parameterized.getRawType();
+            final Type[] arguments = parameterized.getActualTypeArguments();
+            if (Map.class.isAssignableFrom(raw)) {
+                return mapBinder(forType(arguments[1]));
+            } else if (Collection.class.isAssignableFrom(raw)) {
+                return collectionBinder(raw, forType(arguments[0]));
+            }
+            return forClass(raw);
+        } else if (type instanceof GenericArrayType) {
+            final Type component = ((GenericArrayType) type).getGenericComponentType();
+            return arrayBinder(component instanceof Class ? (Class<?>) component : Object.class, forType(component));
+        } else if (type instanceof WildcardType) {
+            return forType(((WildcardType) type).getUpperBounds()[0]);
+        }
+        return ANY_BINDER;
+    }
+
+    private static ValueBinder forClass(final Class<?> type) {
+        if (type == String.class || type == CharSequence.class) {
+            return STRING_BINDER;
+        } else if (type == int.class || type == Integer.class) {
+            return INTEGER_BINDER;
+        } else if (type == long.class || type == Long.class) {
+            return LONG_BINDER;
+        } else if (type == double.class || type == Double.class) {
+            return DOUBLE_BINDER;
+        } else if (type == boolean.class || type == Boolean.class) {
+            return BOOLEAN_BINDER;
+        } else if (type == float.class || type == Float.class) {
+            return FLOAT_BINDER;
+        } else if (type == short.class || type == Short.class) {
+            return SHORT_BINDER;
+        } else if (type == byte.class || type == Byte.class) {
+            return BYTE_BINDER;
+        } else if (type == char.class || type == Character.class) {
+            return CHARACTER_BINDER;
+        } else if (type == BigDecimal.class) {
+            return BIG_DECIMAL_BINDER;
+        } else if (type == BigInteger.class) {
+            return BIG_INTEGER_BINDER;
+        } else if (type == Object.class || type == Number.class) {
+            return ANY_BINDER;
+        } else if (type.isEnum()) {
+            return enumBinder(type);
+        } else if (type.isArray()) {
+            return arrayBinder(type.getComponentType(), forType(type.getComponentType()));
+        } else if (Map.class.isAssignableFrom(type)) {
+            return mapBinder(ANY_BINDER);
+        } else if (Collection.class.isAssignableFrom(type)) {
+            return collectionBinder(type, ANY_BINDER);
+        } else if (type.isPrimitive() || type.isInterface()) {
+            throw new IllegalStateException("Cannot bind JSON to " + type.getName());
+        }
+        return reader -> JsonBinder.objectBinder(type).read(reader);
+    }
+
+    private static ValueBinder collectionBinder(final Class<?> type, final ValueBinder elementBinder) {
+        final boolean set = Set.class.isAssignableFrom(type);
+        return reader -> {
+            switch (reader.currentType()) {
+                case START_ARRAY:
+                    final Collection<Object> collection = set ? new LinkedHashSet<>() : new ArrayList<>();
+                    while (reader.nextToken() != END_ARRAY) {
+                        collection.add(elementBinder.read(reader));
+                    }
+                    return collection;
+                case NULL:
+                    return null;
+                default:
+                    throw mismatch("array", reader);
+            }
+        };
+    }
+
+    private static ValueBinder mapBinder(final ValueBinder valueBinder) {
+        return reader -> {
+            switch (reader.currentType()) {
+                case START_OBJECT:
+                    final Map<String, Object> map = new LinkedHashMap<>();
+                    while (reader.nextToken() == KEY) {
+                        final String key = reader.stringValue();
+                        reader.nextToken();
+                        map.put(key, valueBinder.read(reader));
+                    }
+                    return map;
+                case NULL:
+                    return null;
+                default:
+                    throw mismatch("object", reader);
+            }
+        };
+    }
+
+    private static ValueBinder arrayBinder(final Class<?> componentType, final ValueBinder elementBinder) {
+        if (componentType == int.class) {
+            return reader -> {
+                if (reader.currentType() != START_ARRAY) {
+                    return nullOrMismatch(reader);
+                }
+                int[] values = new int[8];
+                int size = 0;
+                while (reader.nextToken() != END_ARRAY) {
+                    if (!isNumber(reader)) {
+                        throw mismatch("number", reader);
+                    }
+                    if (size == values.length) {
+                        values = Arrays.copyOf(values, size * 2);
+                    }
+                    values[size++] = reader.intValue();
+                }
+                return Arrays.copyOf(values, size);
+            };
+        } else if (componentType == long.class) {
+            return reader -> {
+                if (reader.currentType() != START_ARRAY) {
+                    return nullOrMismatch(reader);
+                }
+                long[] values = new long[8];
+                int size = 0;
+                while (reader.nextToken() != END_ARRAY) {
+                    if (!isNumber(reader)) {
+                        throw mismatch("number", reader);
+                    }
+                    if (size == values.length) {
+                        values = Arrays.copyOf(values, size * 2);
+                    }
+                    values[size++] = reader.longValue();
+                }
+                return Arrays.copyOf(values, size);
+            };
+        } else if (componentType == double.class) {
+            return reader -> {
+                if (reader.currentType() != START_ARRAY) {
+                    return nullOrMismatch(reader);
+                }
+                double[] values = new double[8];
+                int size = 0;
+                while (reader.nextToken() != END_ARRAY) {
+                    if (!isNumber(reader)) {
+                        throw mismatch("number", reader);
+                    }
+                    if (size == values.length) {
+                        values = Arrays.copyOf(values, size * 2);
+                    }
+                    values[size++] = reader.doubleValue();
+                }
+                return Arrays.copyOf(values, size);
+            };
+        }
+        return reader -> {
+            if (reader.currentType() != START_ARRAY) {
+                return nullOrMismatch(reader);
+            }
+            final List<Object> list = new ArrayList<>();
+            while (reader.nextToken() != END_ARRAY) {
+                list.add(elementBinder.read(reader));
+            }
+            final Object array = Array.newInstance(componentType, list.size());
+            for (int index = 0; index < list.size(); index++) {
+                Array.set(array, index, list.get(index));
+            }
+            return array;
+        };
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ValueBinder enumBinder(final Class<?> type) {
+        final Map<String, Object> constants = new HashMap<>();
+        for (Object constant : type.getEnumConstants()) {
+            constants.put(((Enum) constant).name(), constant);
+        }
+        return reader -> {
+            switch (reader.currentType()) {
+                case STRING:
+                    final Object constant = constants.get(reader.stringValue());
+                    if (constant == null) {
+                        throw mismatch(type.getSimpleName() + " constant", reader);
+                    }
+                    return constant;
+                case NULL:
+                    return null;
+                default:
+                    throw mismatch(type.getSimpleName() + " constant", reader);
+            }
+        };
+    }
+
+    /**
+     * Reads the current number as a `short`.
+     *
+     * @param reader the reader positioned on a number
+     * @return the value
+     * @throws IllegalStateException if the value does not fit in a `short`
+     */
+    static short shortValue(final JsonReader reader) {
+        final int value = reader.intValue();
+        if (value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+            throw outOfRange("a short", reader);
+        }
+        return (short) value;
+    }
+
+    /**
+     * Reads the current number as a `byte`.
+     *
+     * @param reader the reader positioned on a number
+     * @return the value
+     * @throws IllegalStateException if the value does not fit in a `byte`
+     */
+    static byte byteValue(final JsonReader reader) {
+        final int value = reader.intValue();
+        if (value < Byte.MIN_VALUE || value > Byte.MAX_VALUE) {
+            throw outOfRange("a byte", reader);
+        }
+        return (byte) value;
+    }
+
+    private static IllegalStateException outOfRange(final String type, final JsonReader reader) {
+        return new IllegalStateException("Number " + reader.text() + " does not fit in " + type);
+    }
+
+    static boolean isNumber(final JsonReader reader) {
+        final int type = reader.currentType();
+        return type == INT || type == FLOAT;
+    }
+
+    private static Object nullOrMismatch(final JsonReader reader) {
+        if (reader.currentType() == NULL) {
+            return null;
+        }
+        throw mismatch("number", reader);
+    }
+
+    static IllegalStateException mismatch(final String expected, final JsonReader reader) {
+        return new IllegalStateException("Expected " + expected + " but found " + typeName(reader.currentType())
+                + " at index " + reader.startIndex());
+    }
+
+    private static String typeName(final int type) {
+        switch (type) {
+            case START_OBJECT:
+                return "object";
+            case START_ARRAY:
+                return "array";
+            case STRING:
+                return "string";
+            case INT:
+            case FLOAT:
+                return "number";
+            case BOOLEAN:
+                return "boolean";
+            case NULL:
+                return "null";
+            default:
+                return "token " + type;
+        }
+    }
+}
@@ -17,7 +17,9 @@ package io.nats.jparse.node;
 
 import io.nats.jparse.node.support.CharSequenceUtils;
 import io.nats.jparse.source.CharSource;
+import io.nats.jparse.token.NumberToken;
 import io.nats.jparse.token.Token;
+import io.nats.jparse.token.TokenTypes;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -63,6 +65,12 @@ public class NumberNode extends Number implements ScalarNode, CharSequence {
      */
     private int hashCode;
 
+    /**
+     * Number classification bits recorded by the scanner, or zero if the token was not classified.
+     * Used to pick the cheapest decode without rescanning the digits.
+     */
+    private final int numberFlags;
+
 
     /**
      * Constructs a NumberNode with the specified token, source, and element type.
@@ -75,6 +83,7 @@ public class NumberNode extends Number implements ScalarNode, CharSequence {
         this.token = token;
         this.source = source;
         this.elementType = elementType;
+        this.numberFlags = token instanceof NumberToken ? ((NumberToken) token).numberFlags : 0;
     }
 
     /**
@@ -114,6 +123,13 @@ public class NumberNode extends Number implements ScalarNode, CharSequence {
      */
     @Override
     public double doubleValue() {
+        if ((numberFlags & TokenTypes.NUMBER_FITS_LONG_FLAG) != 0) {
+            final long value = source.getLong(token.startIndex, token.endIndex);
+            /* Only the double parse keeps the sign of -0. */
+            if (value != 0) {
+                return value;
+            }
+        }
         return source.getDouble(token.startIndex, token.endIndex);
     }
 
@@ -139,12 +155,24 @@ public class NumberNode extends Number implements ScalarNode, CharSequence {
      * Returns the value of the number node as an Object.
      * If the number node represents an integer, an Integer object is returned.
      * If the number node represents a long, a Long object is returned.
+     * If the number node represents an integer too large for a long, a BigInteger object is returned.
      * Otherwise, a Double object is returned.
      *
      * @return the value of the number node as an Object
      */
     @Override
     public Object value() {
+        if (numberFlags != 0) {
+            if ((numberFlags & TokenTypes.NUMBER_FITS_INT_FLAG) != 0) {
+                return intValue();
+            } else if ((numberFlags & TokenTypes.NUMBER_FITS_LONG_FLAG) != 0) {
+                return longValue();
+            } else if (elementType == NodeType.INT) {
+                return bigIntegerValue();
+            } else {
+                return this.doubleValue();
+            }
+        }
         if (isInteger()) {
             return intValue();
         } else if (isLong()) {
@@ -299,6 +327,9 @@ public class NumberNode extends Number implements ScalarNode, CharSequence {
     public boolean isInteger() {
         switch (elementType) {
             case INT:
+                if (numberFlags != 0) {
+                    return (numberFlags & TokenTypes.NUMBER_FITS_INT_FLAG) != 0;
+                }
                 return source.isInteger(this.token.startIndex, this.token.endIndex);
             default:
                 return false;
@@ -313,6 +344,10 @@ public class NumberNode extends Number implements ScalarNode, CharSequence {
     public boolean isLong() {
         switch (elementType) {
             case INT:
+                if (numberFlags != 0) {
+                    return (numberFlags & (TokenTypes.NUMBER_FITS_INT_FLAG | TokenTypes.NUMBER_FITS_LONG_FLAG))
+                            == TokenTypes.NUMBER_FITS_LONG_FLAG;
+                }
                 return !source.isInteger(this.token.startIndex, this.token.endIndex);
             default:
                 return false;
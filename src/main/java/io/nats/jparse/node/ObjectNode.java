@@ -20,6 +20,7 @@ import io.nats.jparse.node.support.TokenSubList;
 import io.nats.jparse.source.CharSource;
 import io.nats.jparse.token.Token;
 import io.nats.jparse.token.TokenTypes;
+import io.nats.jparse.writer.JsonEdit;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -96,6 +97,15 @@ public class ObjectNode extends AbstractMap<CharSequence, Node> implements Colle
         return keys();
     }
 
+    /**
+     * Returns an edit overlay that re-emits this object with changes spliced into the original text.
+     *
+     * @return a new edit overlay over this object
+     */
+    public JsonEdit edit() {
+        return new JsonEdit(this);
+    }
+
     /**
      * Returns the number of key-value pairs in the object node.
      *
@@ -21,6 +21,7 @@ import io.nats.jparse.node.support.TokenSubList;
 import io.nats.jparse.path.PathNode;
 import io.nats.jparse.source.CharSource;
 import io.nats.jparse.token.Token;
+import io.nats.jparse.writer.JsonEdit;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -128,6 +129,15 @@ public class RootNode implements CollectionNode {
         return root;
     }
 
+    /**
+     * Returns an edit overlay that re-emits this document with changes spliced into the original text.
+     *
+     * @return a new edit overlay over this document
+     */
+    public JsonEdit edit() {
+        return new JsonEdit(this);
+    }
+
     /**
      * Returns the path node associated with the root node.
      * If the root node has not been created yet, it will be lazily created.
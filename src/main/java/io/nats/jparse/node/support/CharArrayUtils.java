@@ -15,6 +15,8 @@
  */
 package io.nats.jparse.node.support;
 
+import static io.nats.jparse.token.TokenTypes.*;
+
 /**
  * Utility class for working with character arrays.
  */
@@ -45,6 +47,22 @@ public class CharArrayUtils {
      * Value of 1000s place in hexadecimal.
      */
     private final static int HEX_1000s = 16 * 16 * 16;
+    /**
+     * Digits of the max int value.
+     */
+    private final static char[] MAX_INT_DIGITS = String.valueOf(Integer.MAX_VALUE).toCharArray();
+    /**
+     * Digits of the min int value without the sign.
+     */
+    private final static char[] MIN_INT_DIGITS = String.valueOf(Integer.MIN_VALUE).substring(1).toCharArray();
+    /**
+     * Digits of the max long value.
+     */
+    private final static char[] MAX_LONG_DIGITS = String.valueOf(Long.MAX_VALUE).toCharArray();
+    /**
+     * Digits of the min long value without the sign.
+     */
+    private final static char[] MIN_LONG_DIGITS = String.valueOf(Long.MIN_VALUE).substring(1).toCharArray();
 
     /**
 
@@ -206,4 +224,83 @@ public class CharArrayUtils {
         }
         return false;
     }
+
+    /**
+     * Classifies an integer number that was just scanned. Numbers with fewer digits than the max int are
+     * classified from their length alone; only numbers at the int or long boundary compare their digits.
+     *
+     * @param chars      the character array
+     * @param startIndex the start index of the number, sign included
+     * @param endIndex   the end index of the number (exclusive)
+     * @return the number classification bits (@see TokenTypes)
+     */
+    public static int integerNumberFlags(final char[] chars, final int startIndex, final int endIndex) {
+        final char first = chars[startIndex];
+        final boolean negative = first == '-';
+        int from = negative || first == '+' ? startIndex + 1 : startIndex;
+        final int digitCount = endIndex - from;
+        int flags = digitCount < NUMBER_DIGIT_COUNT_MASK ? digitCount : NUMBER_DIGIT_COUNT_MASK;
+        if (negative) {
+            flags |= NUMBER_NEGATIVE_FLAG;
+        }
+
+        if (digitCount < MAX_INT_DIGITS.length) {
+            return flags | NUMBER_FITS_INT_FLAG | NUMBER_FITS_LONG_FLAG;
+        }
+
+        while (from < endIndex - 1 && chars[from] == '0') {
+            from++;
+        }
+        final int length = endIndex - from;
+        if (fitsWithin(chars, from, length, negative ? MIN_INT_DIGITS : MAX_INT_DIGITS)) {
+            flags |= NUMBER_FITS_INT_FLAG | NUMBER_FITS_LONG_FLAG;
+        } else if (fitsWithin(chars, from, length, negative ? MIN_LONG_DIGITS : MAX_LONG_DIGITS)) {
+            flags |= NUMBER_FITS_LONG_FLAG;
+        }
+        return flags;
+    }
+
+    /**
+     * Classifies a float number that was just scanned.
+     *
+     * @param chars            the character array
+     * @param startIndex       the start index of the number, sign included
+     * @param mantissaEndIndex the end index of the mantissa (exclusive), which is the exponent marker if any
+     * @param hasDecimalPoint  whether the mantissa has a decimal point
+     * @param hasExponent      whether the number has an exponent part
+     * @return the number classification bits (@see TokenTypes)
+     */
+    public static int floatNumberFlags(final char[] chars, final int startIndex, final int mantissaEndIndex,
+                                       final boolean hasDecimalPoint, final boolean hasExponent) {
+        final char first = chars[startIndex];
+        final boolean negative = first == '-';
+        int digitCount = mantissaEndIndex - startIndex;
+        if (negative || first == '+') {
+            digitCount--;
+        }
+        if (hasDecimalPoint) {
+            digitCount--;
+        }
+        int flags = digitCount < NUMBER_DIGIT_COUNT_MASK ? digitCount : NUMBER_DIGIT_COUNT_MASK;
+        if (negative) {
+            flags |= NUMBER_NEGATIVE_FLAG;
+        }
+        if (hasExponent) {
+            flags |= NUMBER_EXPONENT_FLAG;
+        }
+        return flags;
+    }
+
+    private static boolean fitsWithin(final char[] chars, final int from, final int length, final char[] limit) {
+        if (length != limit.length) {
+            return length < limit.length;
+        }
+        for (int i = 0; i < length; i++) {
+            final int diff = chars[from + i] - limit[i];
+            if (diff != 0) {
+                return diff < 0;
+            }
+        }
+        return true;
+    }
 }
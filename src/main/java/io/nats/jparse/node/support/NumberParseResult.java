@@ -15,6 +15,8 @@
  */
 package io.nats.jparse.node.support;
 
+import io.nats.jparse.token.TokenTypes;
+
 import java.util.Objects;
 
 /**
@@ -22,12 +24,15 @@ import java.util.Objects;
  * <p>
  * The NumberParseResult class represents the result of a number parsing operation.
  * It provides methods to access the end index of the parsed number and to check if the parsed number was a float.
+ * It also carries the number classification bits (digit count, sign, exponent, int/long fit) recorded while scanning,
+ * see `TokenTypes.NUMBER_DIGIT_COUNT_MASK`. A value of zero means the number was not classified.
  * The class also overrides the equals, hashCode, and toString methods for proper object comparison and string
  * representation.
  */
 public final class NumberParseResult {
     private final int endIndex;
     private final boolean wasFloat;
+    private final int numberFlags;
 
     /**
      * Constructs a new NumberParseResult.
@@ -36,8 +41,20 @@ public final class NumberParseResult {
      * @param wasFloat indicates whether the parsed number was a float
      */
     public NumberParseResult(int endIndex, boolean wasFloat) {
+        this(endIndex, wasFloat, 0);
+    }
+
+    /**
+     * Constructs a new NumberParseResult with number classification bits.
+     *
+     * @param endIndex    the end index of the parsed number
+     * @param wasFloat    indicates whether the parsed number was a float
+     * @param numberFlags the number classification bits recorded while scanning
+     */
+    public NumberParseResult(int endIndex, boolean wasFloat, int numberFlags) {
         this.endIndex = endIndex;
         this.wasFloat = wasFloat;
+        this.numberFlags = numberFlags;
     }
 
     /**
@@ -58,6 +75,24 @@ public final class NumberParseResult {
         return wasFloat;
     }
 
+    /**
+     * Returns the number classification bits recorded while scanning.
+     *
+     * @return the number classification bits, or zero if the number was not classified
+     */
+    public int numberFlags() {
+        return numberFlags;
+    }
+
+    /**
+     * Returns the token type for the parsed number.
+     *
+     * @return `FLOAT_TOKEN` if the parsed number was a float, otherwise `INT_TOKEN`
+     */
+    public int tokenType() {
+        return wasFloat ? TokenTypes.FLOAT_TOKEN : TokenTypes.INT_TOKEN;
+    }
+
     /**
      * Checks if this NumberParseResult is equal to another object.
      *
@@ -70,7 +105,8 @@ public final class NumberParseResult {
         if (obj == null || obj.getClass() != this.getClass()) return false;
         final NumberParseResult that = (NumberParseResult) obj;
         return this.endIndex == that.endIndex &&
-                this.wasFloat == that.wasFloat;
+                this.wasFloat == that.wasFloat &&
+                this.numberFlags == that.numberFlags;
     }
 
     /**
@@ -80,7 +116,7 @@ public final class NumberParseResult {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(endIndex, wasFloat);
+        return Objects.hash(endIndex, wasFloat, numberFlags);
     }
 
     /**
@@ -92,6 +128,7 @@ public final class NumberParseResult {
     public String toString() {
         return "NumberParseResult[" +
                 "endIndex=" + endIndex + ", " +
-                "wasFloat=" + wasFloat + ']';
+                "wasFloat=" + wasFloat + ", " +
+                "numberFlags=" + numberFlags + ']';
     }
 }
@@ -0,0 +1,230 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.node.support;
+
+import io.nats.jparse.node.RootNode;
+import io.nats.jparse.parser.JsonParser;
+import io.nats.jparse.source.CharSource;
+import io.nats.jparse.source.Sources;
+import io.nats.jparse.token.NumberToken;
+import io.nats.jparse.token.Token;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Persists the token index of a JSON file to a binary sidecar file, so the file can be reopened without scanning it.
+ * <p>
+ * The sidecar has a fixed header followed by one fixed width record per token:
+ * <pre>
+ * int  magic           'JPTI'
+ * int  version         1
+ * long sourceLength    length of the JSON file in bytes
+ * long sourceChecksum  CRC32 of the JSON file bytes
+ * int  tokenCount
+ * int  tokensChecksum  CRC32 of the token records
+ * then tokenCount records of three ints: startIndex, endIndex, type | numberFlags &lt;&lt; 8 | NUMBER_TOKEN_BIT
+ * </pre>
+ * Both files are memory mapped when loading. The JSON bytes are checksummed and decoded straight from the mapping,
+ * and the token records are decoded in bulk from the mapped sidecar, so a `RootNode` is rebuilt without running
+ * any parser. A sidecar whose source length, source checksum or token checksum does not match is rejected.
+ * <p>
+ * A sidecar is written to a temporary file in its directory and then moved over the old one, so a reader opening it
+ * at the same time sees either the old or the new sidecar, never a partly written one.
+ */
+public final class TokenIndexFile {
+
+    private static final int MAGIC = 0x4A505449;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int RECORD_INTS = 3;
+    private static final int NUMBER_TOKEN_BIT = 1 << 31;
+    private static final int TYPE_MASK = 0xFF;
+
+    private TokenIndexFile() {
+    }
+
+    /**
+     * Opens a JSON file through its sidecar, parsing the file and writing the sidecar when it is missing or stale.
+     *
+     * @param json    the UTF-8 JSON file
+     * @param sidecar the token index sidecar file
+     * @param parser  the parser used when the sidecar cannot be used
+     * @return the root node over the file content
+     * @throws IllegalStateException if either file cannot be read or written
+     */
+    public static RootNode open(final Path json, final Path sidecar, final JsonParser parser) {
+        try (FileChannel channel = FileChannel.open(json, StandardOpenOption.READ)) {
+            final MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            final long checksum = checksum(bytes);
+            final CharSource source = decode(bytes, StandardCharsets.UTF_8);
+            if (Files.exists(sidecar)) {
+                final TokenList tokens = readTokens(sidecar, bytes.capacity(), checksum, false);
+                if (tokens != null) {
+                    return new RootNode(tokens, source, true);
+                }
+            }
+            final RootNode rootNode = parser.parse(source);
+            writeTokens(rootNode.tokens(), bytes.capacity(), checksum, sidecar);
+            return rootNode;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Loads the tokens of a JSON file from its sidecar.
+     *
+     * @param json    the JSON file the sidecar was written for
+     * @param sidecar the token index sidecar file
+     * @return the tokens
+     * @throws IllegalStateException if the sidecar is invalid or does not match the JSON file
+     */
+    public static TokenList read(final Path json, final Path sidecar) {
+        try (FileChannel channel = FileChannel.open(json, StandardOpenOption.READ)) {
+            final MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return readTokens(sidecar, bytes.capacity(), checksum(bytes), true);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Writes the sidecar of a JSON file.
+     *
+     * @param json    the JSON file the tokens were parsed from
+     * @param tokens  the tokens of the JSON file
+     * @param sidecar the token index sidecar file to write
+     * @throws IllegalStateException if either file cannot be read or written
+     */
+    public static void write(final Path json, final List<Token> tokens, final Path sidecar) {
+        try (FileChannel channel = FileChannel.open(json, StandardOpenOption.READ)) {
+            final MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            writeTokens(tokens, bytes.capacity(), checksum(bytes), sidecar);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void writeTokens(final List<Token> tokens, final long sourceLength, final long sourceChecksum,
+                                    final Path sidecar) throws IOException {
+        final int count = tokens.size();
+        final ByteBuffer records = ByteBuffer.allocate(count * RECORD_INTS * Integer.BYTES);
+        final IntBuffer ints = records.asIntBuffer();
+        for (int index = 0; index < count; index++) {
+            final Token token = tokens.get(index);
+            ints.put(token.startIndex);
+            ints.put(token.endIndex);
+            ints.put(token instanceof NumberToken
+                    ? token.type | ((NumberToken) token).numberFlags << 8 | NUMBER_TOKEN_BIT : token.type);
+        }
+        final CRC32 crc = new CRC32();
+        crc.update(records.array(), 0, records.capacity());
+
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putLong(sourceLength).putLong(sourceChecksum)
+                .putInt(count).putInt((int) crc.getValue());
+        header.flip();
+
+        /* Readers may open the sidecar at any time, so it is replaced whole instead of rewritten in place. */
+        final Path directory = sidecar.toAbsolutePath().getParent();
+        final Path temp = Files.createTempFile(directory, sidecar.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (header.hasRemaining()) {
+                    out.write(header);
+                }
+                while (records.hasRemaining()) {
+                    out.write(records);
+                }
+            }
+            Files.move(temp, sidecar, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static TokenList readTokens(final Path sidecar, final long sourceLength, final long sourceChecksum,
+                                        final boolean strict) throws IOException {
+        try (FileChannel channel = FileChannel.open(sidecar, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size < HEADER_SIZE) {
+                return reject(strict, "Token index is truncated");
+            }
+            final MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (mapped.getInt() != MAGIC || mapped.getInt() != VERSION) {
+                return reject(strict, "Not a version " + VERSION + " token index");
+            }
+            if (mapped.getLong() != sourceLength || mapped.getLong() != sourceChecksum) {
+                return reject(strict, "Token index does not match the JSON file");
+            }
+            final int count = mapped.getInt();
+            final int tokensChecksum = mapped.getInt();
+            if (count <= 0 || size != HEADER_SIZE + (long) count * RECORD_INTS * Integer.BYTES) {
+                return reject(strict, "Token index is truncated");
+            }
+            final CRC32 crc = new CRC32();
+            crc.update(mapped.duplicate());
+            if ((int) crc.getValue() != tokensChecksum) {
+                return reject(strict, "Token index is corrupt");
+            }
+
+            final int[] records = new int[count * RECORD_INTS];
+            mapped.asIntBuffer().get(records);
+            final Token[] tokens = new Token[count];
+            for (int index = 0, offset = 0; index < count; index++, offset += RECORD_INTS) {
+                final int word = records[offset + 2];
+                tokens[index] = (word & NUMBER_TOKEN_BIT) != 0
+                        ? new NumberToken(records[offset], records[offset + 1], word & TYPE_MASK,
+                        (word & ~NUMBER_TOKEN_BIT) >>> 8)
+                        : new Token(records[offset], records[offset + 1], word);
+            }
+            return new TokenList(tokens);
+        }
+    }
+
+    private static TokenList reject(final boolean strict, final String message) {
+        if (strict) {
+            throw new IllegalStateException(message);
+        }
+        return null;
+    }
+
+    private static long checksum(final MappedByteBuffer bytes) {
+        final CRC32 crc = new CRC32();
+        crc.update(bytes.duplicate());
+        return crc.getValue();
+    }
+
+    private static CharSource decode(final MappedByteBuffer bytes, final Charset charset) {
+        final CharBuffer chars = charset.decode(bytes.duplicate());
+        final char[] array = chars.array();
+        return Sources.charSource(chars.limit() == array.length ? array : Arrays.copyOf(array, chars.limit()));
+    }
+}
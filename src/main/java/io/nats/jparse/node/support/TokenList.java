@@ -32,6 +32,7 @@ public class TokenList extends AbstractList<Token> {
 
     private Token[] tokens;
     private int index = 0;
+    private int growthCount;
 
     /**
      * Constructs an empty TokenList with an initial capacity of 32.
@@ -71,6 +72,7 @@ public class TokenList extends AbstractList<Token> {
             final Token[] newTokens = new Token[length * 2];
             System.arraycopy(tokens, 0, newTokens, 0, length);
             tokens = newTokens;
+            growthCount++;
         }
         tokens[index] = token;
         index++;
@@ -132,6 +134,15 @@ public class TokenList extends AbstractList<Token> {
         return index;
     }
 
+    /**
+     * Returns how many times the backing array has been grown since the list was created.
+     *
+     * @return the number of times the backing array was grown
+     */
+    public int getGrowthCount() {
+        return growthCount;
+    }
+
     /**
      * Returns the array of tokens in the list.
      *
@@ -150,6 +161,7 @@ public class TokenList extends AbstractList<Token> {
             final Token[] newTokens = new Token[length * 2];
             System.arraycopy(tokens, 0, newTokens, 0, length);
             tokens = newTokens;
+            growthCount++;
         }
         index++;
     }
@@ -0,0 +1,256 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.node.support;
+
+import io.nats.jparse.node.RootNode;
+import io.nats.jparse.source.CharSource;
+import io.nats.jparse.source.Sources;
+import io.nats.jparse.token.NumberToken;
+import io.nats.jparse.token.Token;
+import io.nats.jparse.token.TokenTypes;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Compact binary encoding of the tokens of a UTF-8 JSON message, small enough to travel with the message as a
+ * header or sidecar payload, so consumers can rebuild the `RootNode` without scanning the message again.
+ * <p>
+ * Layout, where varints are unsigned LEB128 and signed values are zigzag encoded:
+ * <pre>
+ * byte   'J', 'T'        magic
+ * byte   version         1
+ * varint sourceLength    length of the message in bytes
+ * int    sourceChecksum  CRC32 of the message bytes, big endian
+ * varint tokenCount
+ * then per token:
+ *   byte   type, with bit 7 set when number classification bits follow
+ *   varint numberFlags   number tokens only
+ *   svarint startIndex - previous startIndex
+ *   svarint endIndex - startIndex
+ * </pre>
+ * Tokens are stored in document order, so start deltas and lengths are small and most tokens take three or four
+ * bytes. Decoding checks the version, the message length and checksum, the token types and that every token lies
+ * within the message, so an encoding that does not belong to the message is rejected instead of producing a broken
+ * overlay.
+ */
+public final class TokenListCodec {
+
+    /**
+     * The encoding version written by `encode`.
+     */
+    public static final int VERSION = 1;
+
+    private static final byte MAGIC_0 = 'J';
+    private static final byte MAGIC_1 = 'T';
+    private static final int NUMBER_FLAGS_BIT = 0x80;
+
+    private TokenListCodec() {
+    }
+
+    /**
+     * Encodes the tokens parsed from a UTF-8 message.
+     *
+     * @param tokens the tokens parsed from the message
+     * @param source the message bytes
+     * @return the encoded tokens
+     */
+    public static byte[] encode(final List<Token> tokens, final byte[] source) {
+        final int count = tokens.size();
+        final Output out = new Output(16 + count * 4);
+        out.write(MAGIC_0);
+        out.write(MAGIC_1);
+        out.write(VERSION);
+        out.writeVarint(source.length);
+        out.writeInt(checksum(source));
+        out.writeVarint(count);
+        int previousStart = 0;
+        for (int index = 0; index < count; index++) {
+            final Token token = tokens.get(index);
+            if (token instanceof NumberToken) {
+                out.write(token.type | NUMBER_FLAGS_BIT);
+                out.writeVarint(((NumberToken) token).numberFlags);
+            } else {
+                out.write(token.type);
+            }
+            out.writeVarint(zigzag(token.startIndex - previousStart));
+            out.writeVarint(zigzag(token.endIndex - token.startIndex));
+            previousStart = token.startIndex;
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes tokens encoded for a message.
+     *
+     * @param encoded the encoded tokens
+     * @param source  the message bytes the tokens were encoded for
+     * @return the tokens
+     * @throws IllegalStateException if the encoding is invalid or was written for another message
+     */
+    public static TokenList decode(final byte[] encoded, final byte[] source) {
+        return decode(encoded, source, charLength(source));
+    }
+
+    /**
+     * Rebuilds the root node of a message from its encoded tokens, without scanning the message.
+     *
+     * @param encoded the encoded tokens
+     * @param source  the message bytes the tokens were encoded for
+     * @return the root node over the message
+     * @throws IllegalStateException if the encoding is invalid or was written for another message
+     */
+    public static RootNode toRootNode(final byte[] encoded, final byte[] source) {
+        final CharSource chars = Sources.byteSource(source, StandardCharsets.UTF_8);
+        final TokenList tokens = decode(encoded, source, charLength(source));
+        return new RootNode(tokens, chars, true);
+    }
+
+    private static TokenList decode(final byte[] encoded, final byte[] source, final int charLength) {
+        final Input in = new Input(encoded);
+        if (encoded.length < 3 || in.read() != MAGIC_0 || in.read() != MAGIC_1) {
+            throw new IllegalStateException("Not an encoded token list");
+        }
+        final int version = in.read();
+        if (version != VERSION) {
+            throw new IllegalStateException("Unsupported token list version " + version);
+        }
+        if (in.readVarint() != source.length || in.readInt() != checksum(source)) {
+            throw new IllegalStateException("Encoded token list does not match the message");
+        }
+        final int count = in.readVarint();
+        if (count <= 0 || count > encoded.length) {
+            throw new IllegalStateException("Invalid token count " + count);
+        }
+        final Token[] tokens = new Token[count];
+        int start = 0;
+        for (int index = 0; index < count; index++) {
+            final int typeByte = in.read();
+            final int type = typeByte & ~NUMBER_FLAGS_BIT;
+            if (type > TokenTypes.NULL_TOKEN) {
+                throw new IllegalStateException("Invalid token type " + type + " at token " + index);
+            }
+            final int numberFlags = (typeByte & NUMBER_FLAGS_BIT) != 0 ? in.readVarint() : -1;
+            start += unzigzag(in.readVarint());
+            final int end = start + unzigzag(in.readVarint());
+            if (start < 0 || end < start || end > charLength) {
+                throw new IllegalStateException("Token " + index + " is outside of the message");
+            }
+            tokens[index] = numberFlags < 0 ? new Token(start, end, type) : new NumberToken(start, end, type, numberFlags);
+        }
+        if (!in.isAtEnd()) {
+            throw new IllegalStateException("Trailing bytes after encoded token list");
+        }
+        return new TokenList(tokens);
+    }
+
+    private static int charLength(final byte[] source) {
+        int length = 0;
+        for (byte b : source) {
+            if ((b & 0xC0) != 0x80) {
+                length += (b & 0xF8) == 0xF0 ? 2 : 1;
+            }
+        }
+        return length;
+    }
+
+    private static int checksum(final byte[] source) {
+        final CRC32 crc = new CRC32();
+        crc.update(source, 0, source.length);
+        return (int) crc.getValue();
+    }
+
+    private static int zigzag(final int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unzigzag(final int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static final class Output {
+        private byte[] buffer;
+        private int size;
+
+        private Output(final int capacity) {
+            this.buffer = new byte[capacity];
+        }
+
+        private void write(final int value) {
+            if (size == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        private void writeVarint(int value) {
+            while ((value & ~0x7F) != 0) {
+                write((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            write(value);
+        }
+
+        private void writeInt(final int value) {
+            write(value >>> 24);
+            write(value >>> 16);
+            write(value >>> 8);
+            write(value);
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+    }
+
+    private static final class Input {
+        private final byte[] buffer;
+        private int position;
+
+        private Input(final byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        private int read() {
+            if (position >= buffer.length) {
+                throw new IllegalStateException("Encoded token list is truncated");
+            }
+            return buffer[position++] & 0xFF;
+        }
+
+        private int readVarint() {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                final int b = read();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalStateException("Malformed varint in encoded token list");
+        }
+
+        private int readInt() {
+            return read() << 24 | read() << 16 | read() << 8 | read();
+        }
+
+        private boolean isAtEnd() {
+            return position == buffer.length;
+        }
+    }
+}
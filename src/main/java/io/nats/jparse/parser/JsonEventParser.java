@@ -17,6 +17,7 @@ package io.nats.jparse.parser;
 
 
 import io.nats.jparse.node.support.ParseConstants;
+import io.nats.jparse.parser.event.JsonValueEventListener;
 import io.nats.jparse.source.CharSource;
 import io.nats.jparse.source.Sources;
 import io.nats.jparse.token.TokenEventListener;
@@ -71,4 +72,24 @@ public interface JsonEventParser extends ParseConstants {
     default void parseWithEvents(final String source) {
         parseWithEvents(Sources.stringSource(source), tokenEvents());
     }
+
+    /**
+     * Parses the given character source, handing decoded values to a `JsonValueHandler`.
+     *
+     * @param source  the `CharSource` to parse
+     * @param handler the `JsonValueHandler` to receive typed values
+     */
+    default void parseWithValues(final CharSource source, final JsonValueHandler handler) {
+        parseWithEvents(source, new JsonValueEventListener(handler));
+    }
+
+    /**
+     * Parses the given string, handing decoded values to a `JsonValueHandler`.
+     *
+     * @param source  the string to parse
+     * @param handler the `JsonValueHandler` to receive typed values
+     */
+    default void parseWithValues(final String source, final JsonValueHandler handler) {
+        parseWithValues(Sources.stringSource(source), handler);
+    }
 }
@@ -17,14 +17,17 @@ package io.nats.jparse.parser;
 
 
 import io.nats.jparse.node.support.ParseConstants;
+import io.nats.jparse.parser.event.JsonEventAbstractParser;
 import io.nats.jparse.parser.event.JsonEventFastParser;
 import io.nats.jparse.parser.event.JsonEventStrictParser;
+import io.nats.jparse.parser.event.JsonFeedParser;
 import io.nats.jparse.parser.functable.JsonFuncParser;
 import io.nats.jparse.parser.functable.JsonParserFunctions;
 import io.nats.jparse.parser.functable.ParseFunction;
 import io.nats.jparse.parser.functable.ParsePartFunction;
 import io.nats.jparse.parser.indexoverlay.JsonFastParser;
 import io.nats.jparse.parser.indexoverlay.JsonStrictParser;
+import io.nats.jparse.source.CharSource;
 import io.nats.jparse.source.support.UnexpectedCharacterException;
 import io.nats.jparse.token.TokenEventListener;
 
@@ -87,6 +90,21 @@ public class JsonParserBuilder {
      */
     private boolean supportNoQuoteKeys;
 
+    /**
+     * The maximum number of nested objects and arrays allowed when parsing JSON.
+     */
+    private int maxDepth = ParseConstants.NEST_LEVEL;
+
+    /**
+     * Whether parse errors are thrown without stack traces.
+     */
+    private boolean stacklessErrors;
+
+    /**
+     * Where the parsers built from this builder record what they parse, or null to record nothing.
+     */
+    private ParseMetrics parseMetrics;
+
 
     /**
      * Builds a new instance of `JsonParser`.
@@ -164,6 +182,72 @@ public class JsonParserBuilder {
         return this;
     }
 
+    /**
+     * Gets the maximum number of nested objects and arrays allowed when parsing JSON.
+     *
+     * @return the maximum depth
+     */
+    public int maxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Sets the maximum number of nested objects and arrays allowed when parsing JSON.
+     * Deeper input is rejected with an `UnexpectedCharacterException`.
+     *
+     * @param maxDepth the maximum depth
+     * @return the modified builder
+     */
+    public JsonParserBuilder setMaxDepth(int maxDepth) {
+        this.maxDepth = maxDepth;
+        return this;
+    }
+
+    /**
+     * Gets whether parse errors are thrown without stack traces.
+     *
+     * @return `true` if parse errors have no stack traces
+     */
+    public boolean stacklessErrors() {
+        return stacklessErrors;
+    }
+
+    /**
+     * Sets whether the `UnexpectedCharacterException`s thrown by the parsers built from this builder have no stack
+     * traces. Filling in stack traces dominates the cost of rejecting malformed input, so this is worth turning on
+     * when much of the input is rejected and the exceptions are handled rather than logged.
+     *
+     * @param stacklessErrors `true` to throw parse errors without stack traces
+     * @return the modified builder
+     */
+    public JsonParserBuilder setStacklessErrors(boolean stacklessErrors) {
+        this.stacklessErrors = stacklessErrors;
+        return this;
+    }
+
+    /**
+     * Gets the metrics the built parsers record into.
+     *
+     * @return the metrics, or null if parsers built from this builder record nothing
+     */
+    public ParseMetrics parseMetrics() {
+        return parseMetrics;
+    }
+
+    /**
+     * Sets the metrics the built parsers record into. Several builders may share one `ParseMetrics`: every parser
+     * type counts the entries of the token list a document parses into, and parse times are kept per parser type.
+     * Without metrics the builder returns the parser itself, so there is no cost at all when this is left unset;
+     * with metrics, tree parsers walk each finished token list once more to count numbers, strings and depth.
+     *
+     * @param parseMetrics the metrics to record into, or null to record nothing
+     * @return the modified builder
+     */
+    public JsonParserBuilder setParseMetrics(ParseMetrics parseMetrics) {
+        this.parseMetrics = parseMetrics;
+        return this;
+    }
+
     /**
      * Gets whether object keys can be encoded when parsing JSON.
      *
@@ -342,75 +426,50 @@ public class JsonParserBuilder {
     /**
      * Returns a new instance of `JsonParser`.
      * <p>
-     * The `JsonParserBuilder.build()` function returns an instance of `JsonParser`.
-     * If any of the following conditions are met: `supportNoQuoteKeys` is `true`,
-     * `allowHashComment` is `true`, `allowSlashSlashComment` is `true`,
-     * `allowSlashStarComment` is `true`, or `parseKey` is not `null`,
-     * the function sets up a parse function table for the JSON parser. It then
-     * returns a new instance of `JsonParser`.
-     * <p>
-     * The function first checks if any of the conditions for setting up a parse
-     * function table are true. If so, it sets up an array of `ParseFunction`
-     * objects and populates it with parsing functions based on the type of JSON
-     * element being parsed.
-     * <p>
-     * If `isAllowHashComment()` is true, the function sets the hash character `#`
-     * to a function that skips the comment until the end of the line.
-     * <p>
-     * If `isSupportNoQuoteKeys()` is true and `getParseKey()` is null, the function
-     * sets the parse function for keys to `JsonParserFunctions::parseKeyNoQuote`.
-     * <p>
-     * If `isAllowSlashStarComment()` or `isAllowSlashSlashComment()` is true, the
-     * function sets the forward slash `/` character to a function that handles
-     * comments. If the next character is another forward slash, the function skips
-     * to the end of the line. If the next character is an asterisk, it skips
-     * everything until it reaches a closing asterisk-slash sequence.
+     * If `strict()` is true, the function returns a new instance of `JsonStrictParser`.
      * <p>
-     * After setting up the parse function table, the function returns a new
-     * instance of `JsonFuncParser` with the table, default parse function, and
-     * parse function for keys.
+     * If a custom parse function table, default parse function or key parse function
+     * has been set, the function sets up the parse function table and returns a new
+     * instance of `JsonFuncParser`. The string start token is assigned the
+     * `JsonParserFunctions::parseString` function, the null start token the
+     * `JsonParserFunctions::parseNull` function, and the numbers, minus and plus signs
+     * the `JsonParserFunctions::parseNumber` function. If `isAllowHashComment()` is
+     * true, the hash character `#` skips the comment until the end of the line. If
+     * `isAllowSlashStarComment()` or `isAllowSlashSlashComment()` is true, the forward
+     * slash `/` character skips a `//` comment to the end of the line or a `/*`
+     * comment to the closing asterisk-slash sequence. If `isSupportNoQuoteKeys()` is
+     * true and `getParseKey()` is null, keys are parsed with
+     * `JsonParserFunctions::parseKeyNoQuote`.
      * <p>
-     * If none of the above conditions are met but `strict()` is true, the function
-     * returns a new instance of `JsonStrictParser`. If `strict()` is false, the
-     * function returns a new instance of `JsonFastParser`.
+     * Otherwise the function returns a `JsonFastParser`, which handles comments and
+     * unquoted keys itself, specialized for its options through
+     * `JsonFastParser.specialized` where the runtime supports it.
      * <p>
-     * The `JsonParserBuilder.build()` function checks if any of the conditions for
-     * setting up a parse function table are true. If so, it sets up an array of
-     * `ParseFunction` objects and populates it with parsing functions. If none of
-     * those conditions are true but `strict()` is true, it returns a new instance
-     * of `JsonStrictParser`. If `strict()` is false, it returns a new instance of
-     * `JsonFastParser`.
-     * <p>
-     * The `ParseFunction` array is populated with parsing functions based on the
-     * type of JSON element being parsed. For example, the string start token is
-     * assigned the `JsonParserFunctions::parseString` function, while the null
-     * start token is assigned the `JsonParserFunctions::parseNull` function.
-     * The `JsonParserFunctions::parseNumber` function is assigned to all numbers,
-     * and the minus and plus signs.
-     * <p>
-     * If `isAllowHashComment()` is true, the function sets the hash character `#`
-     * to a function that skips the comment until the end of the line.
-     * <p>
-     * If `isSupportNoQuoteKeys()` is true and `getParseKey()` is null, the function
-     * sets the parse function for keys to `JsonParserFunctions::parseKeyNoQuote`.
-     * <p>
-     * If `isAllowSlashStarComment()` or `isAllowSlashSlashComment()` is true, the
-     * function sets the forward slash `/` character to a function that handles
-     * comments. If the next character is another forward slash, the function skips
-     * to the end of the line. If the next character is an asterisk, it skips
-     * everything until it reaches a closing asterisk-slash  sequence.
-     * <p>
-     * After setting up the parse function table, the function returns a new
-     * instance of `JsonFuncParser` with the parse function table, default parse function, and
-     * parse function for keys.
+     * If parse metrics are set, the parser is wrapped so that every document it parses is recorded in them.
      *
      * @return a new instance of `JsonParser`
      */
     public JsonParser build() {
+        final JsonParser built = buildParser();
+        final JsonParser parser = stacklessErrors() ? new StacklessErrorsParser(built) : built;
+        return parseMetrics == null ? parser : new MeteredParser(parser, parseMetrics, parserName());
+    }
 
+    private String parserName() {
         if (strict()) {
-            return new JsonStrictParser(objectsKeysCanBeEncoded());
-        } else if (isSupportNoQuoteKeys() || isAllowHashComment() || isAllowSlashSlashComment() || isAllowSlashStarComment() || parseKey != null) {
+            return "JsonStrictParser";
+        } else if (funcTable != null || defaultFunc != null || parseKey != null) {
+            return "JsonFuncParser";
+        } else {
+            return "JsonFastParser";
+        }
+    }
+
+    private JsonParser buildParser() {
+
+        if (strict()) {
+            return new JsonStrictParser(objectsKeysCanBeEncoded(), maxDepth());
+        } else if (funcTable != null || defaultFunc != null || parseKey != null) {
             final ParseFunction[] funcTable = this.getFuncTable();
             funcTable[ParseConstants.STRING_START_TOKEN] = JsonParserFunctions::parseString;
             funcTable[ParseConstants.NULL_START] = JsonParserFunctions::parseNull;
@@ -451,7 +510,8 @@ public class JsonParserBuilder {
             return new JsonFuncParser(objectsKeysCanBeEncoded(), Arrays.copyOf(funcTable, funcTable.length),
                     this.getDefaultFunc(), this.getParseKey());
         } else {
-            return new JsonFastParser(objectsKeysCanBeEncoded());
+            return JsonFastParser.specialized(objectsKeysCanBeEncoded(), maxDepth(), isAllowHashComment(),
+                    isAllowSlashSlashComment(), isAllowSlashStarComment(), isSupportNoQuoteKeys());
         }
     }
 
@@ -462,11 +522,43 @@ public class JsonParserBuilder {
      * @return a new instance of `JsonEventParser`
      */
     public JsonEventParser buildEventParser() {
-        if (strict()) {
-            return new JsonEventStrictParser(objectsKeysCanBeEncoded(), tokenEventListener());
-        } else {
-            return new JsonEventFastParser(objectsKeysCanBeEncoded(), tokenEventListener());
+        final JsonEventAbstractParser parser = strict()
+                ? new JsonEventStrictParser(objectsKeysCanBeEncoded(), tokenEventListener(), maxDepth())
+                : new JsonEventFastParser(objectsKeysCanBeEncoded(), tokenEventListener(), maxDepth());
+        if (parseMetrics != null) {
+            return new MeteredParser(stacklessErrors() ? new StacklessErrorsParser(parser) : parser, parseMetrics,
+                    strict() ? "JsonEventStrictParser" : "JsonEventFastParser");
         }
+        return stacklessErrors() ? new StacklessErrorsParser(parser) : parser;
+    }
+
+    /**
+     * Returns a new instance of `JsonFeedParser` that sends events to the configured `TokenEventListener`.
+     *
+     * @return a new instance of `JsonFeedParser`
+     */
+    public JsonFeedParser buildFeedParser() {
+        return new JsonFeedParser(tokenEventListener(), maxDepth());
+    }
+
+    /**
+     * Returns a new instance of `JsonValidator`, which checks strict JSON up to the configured maximum depth
+     * without producing tokens.
+     *
+     * @return a new instance of `JsonValidator`
+     */
+    public JsonValidator buildValidator() {
+        return new JsonValidator(maxDepth());
+    }
+
+    /**
+     * Returns a new `JsonReader` over the source that stops at the configured maximum depth.
+     *
+     * @param source the character source to read
+     * @return a new instance of `JsonReader`
+     */
+    public JsonReader buildReader(final CharSource source) {
+        return new JsonReader(source, maxDepth());
     }
 
     /**
@@ -475,7 +567,8 @@ public class JsonParserBuilder {
      * @return a new instance
      */
     public JsonParserBuilder cloneBuilder() {
-        return new JsonParserBuilder().setStrict(strict()).setTokenEventListener(tokenEventListener()).setObjectsKeysCanBeEncoded(objectsKeysCanBeEncoded());
+        return new JsonParserBuilder().setStrict(strict()).setTokenEventListener(tokenEventListener()).setObjectsKeysCanBeEncoded(objectsKeysCanBeEncoded()).setMaxDepth(maxDepth())
+                .setStacklessErrors(stacklessErrors()).setParseMetrics(parseMetrics());
     }
 
 }
@@ -0,0 +1,496 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.parser;
+
+import io.nats.jparse.node.support.NumberParseResult;
+import io.nats.jparse.node.support.ParseConstants;
+import io.nats.jparse.source.CharSource;
+import io.nats.jparse.source.support.CharSourceView;
+import io.nats.jparse.source.support.UnexpectedCharacterException;
+import io.nats.jparse.token.TokenTypes;
+
+import java.util.Arrays;
+
+/**
+ * A pull-style cursor over a `CharSource`.
+ * <p>
+ * The caller drives the parse with `nextToken()` and reads the current value with the typed accessors. No
+ * `TokenList` is built and no callbacks are made, so decoders can keep their state in local variables.
+ * Values are only decoded when an accessor asks for them.
+ * <pre>
+ *     final JsonReader reader = new JsonReader(Sources.stringSource(json));
+ *     while (reader.nextToken() != JsonReader.END_DOCUMENT) {
+ *         ...
+ *     }
+ * </pre>
+ */
+public class JsonReader implements ParseConstants {
+
+    /**
+     * No token has been read yet.
+     */
+    public static final int NONE = 0;
+
+    /**
+     * Start of a JSON object.
+     */
+    public static final int START_OBJECT = 1;
+
+    /**
+     * End of a JSON object.
+     */
+    public static final int END_OBJECT = 2;
+
+    /**
+     * Start of a JSON array.
+     */
+    public static final int START_ARRAY = 3;
+
+    /**
+     * End of a JSON array.
+     */
+    public static final int END_ARRAY = 4;
+
+    /**
+     * An attribute key.
+     */
+    public static final int KEY = 5;
+
+    /**
+     * A string value.
+     */
+    public static final int STRING = 6;
+
+    /**
+     * An integer value.
+     */
+    public static final int INT = 7;
+
+    /**
+     * A floating point value.
+     */
+    public static final int FLOAT = 8;
+
+    /**
+     * A boolean value.
+     */
+    public static final int BOOLEAN = 9;
+
+    /**
+     * A null value.
+     */
+    public static final int NULL = 10;
+
+    /**
+     * The end of the input has been reached.
+     */
+    public static final int END_DOCUMENT = 11;
+
+    private static final int ROOT_VALUE = 0;
+    private static final int ROOT_DONE = 1;
+    private static final int OBJECT_FIRST = 2;
+    private static final int OBJECT_VALUE = 3;
+    private static final int OBJECT_NEXT = 4;
+    private static final int ARRAY_FIRST = 5;
+    private static final int ARRAY_NEXT = 6;
+
+    private final CharSource source;
+    private final int maxDepth;
+    private final CharSourceView view = new CharSourceView();
+    private int[] states = new int[16];
+    private int depth;
+    private int currentType = NONE;
+    private int startIndex;
+    private int endIndex;
+    private int numberFlags;
+    private boolean escaped;
+
+    /**
+     * Construct a JsonReader positioned before the first token of the source.
+     *
+     * @param source the character source to read
+     */
+    public JsonReader(final CharSource source) {
+        this(source, NEST_LEVEL);
+    }
+
+    /**
+     * Construct a JsonReader positioned before the first token of the source.
+     *
+     * @param source   the character source to read
+     * @param maxDepth the maximum number of nested objects and arrays
+     */
+    public JsonReader(final CharSource source, final int maxDepth) {
+        this.source = source;
+        this.maxDepth = maxDepth;
+        this.states[0] = ROOT_VALUE;
+    }
+
+    /**
+     * Advances to the next token.
+     *
+     * @return the type of the new current token
+     */
+    public int nextToken() {
+        if (currentType == NONE) {
+            source.next();
+        }
+        int ch = peek();
+        switch (states[depth]) {
+            case ROOT_VALUE:
+                states[depth] = ROOT_DONE;
+                return readValue(ch);
+
+            case ROOT_DONE:
+                if (ch != ETX) {
+                    throw new UnexpectedCharacterException("Reading JSON", "Junk after the root value", source, ch);
+                }
+                return currentType = END_DOCUMENT;
+
+            case OBJECT_FIRST:
+                if (ch == OBJECT_END_TOKEN) {
+                    return endContainer(END_OBJECT);
+                }
+                return readKey(ch);
+
+            case OBJECT_VALUE:
+                states[depth] = OBJECT_NEXT;
+                return readValue(ch);
+
+            case OBJECT_NEXT:
+                if (ch == OBJECT_END_TOKEN) {
+                    return endContainer(END_OBJECT);
+                } else if (ch == OBJECT_ATTRIBUTE_SEP) {
+                    source.next();
+                    return readKey(peek());
+                }
+                throw new UnexpectedCharacterException("Reading Object", "Expected ',' or '}'", source, ch);
+
+            case ARRAY_FIRST:
+                if (ch == ARRAY_END_TOKEN) {
+                    return endContainer(END_ARRAY);
+                }
+                states[depth] = ARRAY_NEXT;
+                return readValue(ch);
+
+            case ARRAY_NEXT:
+                if (ch == ARRAY_END_TOKEN) {
+                    return endContainer(END_ARRAY);
+                } else if (ch == ARRAY_SEP) {
+                    source.next();
+                    return readValue(peek());
+                }
+                throw new UnexpectedCharacterException("Reading Array", "Expected ',' or ']'", source, ch);
+
+            default:
+                throw new IllegalStateException("Unknown reader state " + states[depth]);
+        }
+    }
+
+    /**
+     * Skips the children of the current object or array so that the next call to `nextToken()` returns the token
+     * after its matching end. Does nothing if the current token is not the start of a container.
+     */
+    public void skipChildren() {
+        if (currentType != START_OBJECT && currentType != START_ARRAY) {
+            return;
+        }
+        final int containerDepth = depth;
+        while (depth >= containerDepth) {
+            nextToken();
+        }
+    }
+
+    /**
+     * Returns the type of the current token, one of the constants defined by this class.
+     *
+     * @return the current token type
+     */
+    public int currentType() {
+        return currentType;
+    }
+
+    /**
+     * Returns the nesting depth of the current position, zero being the root level.
+     *
+     * @return the nesting depth
+     */
+    public int depth() {
+        return depth;
+    }
+
+    /**
+     * Returns the start index of the current scalar or key in the source (strings and keys exclude the quotes).
+     *
+     * @return the start index
+     */
+    public int startIndex() {
+        return startIndex;
+    }
+
+    /**
+     * Returns the end index of the current scalar or key in the source.
+     *
+     * @return the end index
+     */
+    public int endIndex() {
+        return endIndex;
+    }
+
+    /**
+     * Returns the number classification bits of the current number (@see TokenTypes).
+     *
+     * @return the number classification bits
+     */
+    public int numberFlags() {
+        return numberFlags;
+    }
+
+    /**
+     * Returns the current number as a long. A float is truncated toward zero.
+     *
+     * @return the long value
+     * @throws IllegalStateException if the number does not fit in a long
+     */
+    public long longValue() {
+        if (currentType == INT) {
+            if ((numberFlags & TokenTypes.NUMBER_FITS_LONG_FLAG) == 0) {
+                throw outOfRange("a long");
+            }
+            return source.getLong(startIndex, endIndex);
+        } else if (currentType == FLOAT) {
+            final double value = source.getDouble(startIndex, endIndex);
+            if (!(value >= -0x1p63 && value < 0x1p63)) {
+                throw outOfRange("a long");
+            }
+            return (long) value;
+        }
+        throw new IllegalStateException("Current token is not a number " + currentType);
+    }
+
+    /**
+     * Returns the current number as an int. A float is truncated toward zero.
+     *
+     * @return the int value
+     * @throws IllegalStateException if the number does not fit in an int
+     */
+    public int intValue() {
+        if (currentType == INT) {
+            if ((numberFlags & TokenTypes.NUMBER_FITS_INT_FLAG) == 0) {
+                throw outOfRange("an int");
+            }
+            return source.getInt(startIndex, endIndex);
+        } else if (currentType == FLOAT) {
+            final double value = source.getDouble(startIndex, endIndex);
+            if (!(value > Integer.MIN_VALUE - 1.0 && value < Integer.MAX_VALUE + 1.0)) {
+                throw outOfRange("an int");
+            }
+            return (int) value;
+        }
+        throw new IllegalStateException("Current token is not a number " + currentType);
+    }
+
+    private IllegalStateException outOfRange(final String type) {
+        return new IllegalStateException("Number " + source.getString(startIndex, endIndex) + " does not fit in " + type);
+    }
+
+    /**
+     * Returns the current number as a double.
+     *
+     * @return the double value
+     */
+    public double doubleValue() {
+        if (currentType == INT && (numberFlags & TokenTypes.NUMBER_FITS_LONG_FLAG) != 0) {
+            final long value = source.getLong(startIndex, endIndex);
+            /* Only the double parse keeps the sign of -0. */
+            if (value != 0) {
+                return value;
+            }
+            return source.getDouble(startIndex, endIndex);
+        } else if (currentType == INT || currentType == FLOAT) {
+            return source.getDouble(startIndex, endIndex);
+        }
+        throw new IllegalStateException("Current token is not a number " + currentType);
+    }
+
+    /**
+     * Returns the current boolean value.
+     *
+     * @return the boolean value
+     */
+    public boolean booleanValue() {
+        if (currentType == BOOLEAN) {
+            return source.getChartAt(startIndex) == 't';
+        }
+        throw new IllegalStateException("Current token is not a boolean " + currentType);
+    }
+
+    /**
+     * Returns the current key or string value as a reused view. Strings without escapes are not copied; escaped
+     * strings are decoded. The view is only valid until the next call to `nextToken()`.
+     *
+     * @return the current key or string
+     */
+    public CharSequence stringView() {
+        checkString();
+        return escaped ? source.getEncodedString(startIndex, endIndex) : view.set(source, startIndex, endIndex);
+    }
+
+    /**
+     * Returns the current key or string value as a decoded `String`.
+     *
+     * @return the current key or string
+     */
+    public String stringValue() {
+        checkString();
+        return source.toEncodedStringIfNeeded(startIndex, endIndex);
+    }
+
+    /**
+     * Returns the text of the current scalar exactly as it appears in the source, without decoding escapes.
+     *
+     * @return the source text of the current scalar or key
+     */
+    public String text() {
+        return source.getString(startIndex, endIndex);
+    }
+
+    private void checkString() {
+        if (currentType != STRING && currentType != KEY) {
+            throw new IllegalStateException("Current token is not a string or key " + currentType);
+        }
+    }
+
+    private int peek() {
+        final int ch = source.getCurrentCharSafe();
+        switch (ch) {
+            case NEW_LINE_WS:
+            case CARRIAGE_RETURN_WS:
+            case TAB_WS:
+            case SPACE_WS:
+                return source.nextSkipWhiteSpace();
+            default:
+                return ch;
+        }
+    }
+
+    private int readKey(final int ch) {
+        if (ch != STRING_START_TOKEN) {
+            throw new UnexpectedCharacterException("Reading Key", "Expected '\"'", source, ch);
+        }
+        readString();
+        if (peek() != ATTRIBUTE_SEP) {
+            throw new UnexpectedCharacterException("Reading Key", "Expected ':'", source, source.getCurrentCharSafe());
+        }
+        source.next();
+        states[depth] = OBJECT_VALUE;
+        return currentType = KEY;
+    }
+
+    private void readString() {
+        startIndex = source.getIndex() + 1;
+        endIndex = source.findEndOfEncodedStringFast();
+        escaped = source.stringEscaped();
+    }
+
+    private int readValue(final int ch) {
+        switch (ch) {
+            case OBJECT_START_TOKEN:
+                source.next();
+                return startContainer(OBJECT_FIRST, START_OBJECT);
+
+            case ARRAY_START_TOKEN:
+                source.next();
+                return startContainer(ARRAY_FIRST, START_ARRAY);
+
+            case STRING_START_TOKEN:
+                readString();
+                return currentType = STRING;
+
+            case TRUE_BOOLEAN_START:
+                startIndex = source.getIndex();
+                endIndex = source.findTrueEnd();
+                return currentType = BOOLEAN;
+
+            case FALSE_BOOLEAN_START:
+                startIndex = source.getIndex();
+                endIndex = source.findFalseEnd();
+                return currentType = BOOLEAN;
+
+            case NULL_START:
+                startIndex = source.getIndex();
+                endIndex = source.findNullEnd();
+                return currentType = NULL;
+
+            case NUM_0:
+            case NUM_1:
+            case NUM_2:
+            case NUM_3:
+            case NUM_4:
+            case NUM_5:
+            case NUM_6:
+            case NUM_7:
+            case NUM_8:
+            case NUM_9:
+            case MINUS:
+                return readNumber();
+
+            case PLUS:
+                throw new UnexpectedCharacterException("Parsing JSON Int Number", "Int can't start with a plus ", source, ch);
+
+            default:
+                throw new UnexpectedCharacterException("Reading Value", "Unexpected character", source, ch);
+        }
+    }
+
+    private int readNumber() {
+        startIndex = source.getIndex();
+        final NumberParseResult numberParse = source.findEndOfNumber();
+        endIndex = numberParse.endIndex();
+        numberFlags = numberParse.numberFlags();
+        if (!numberParse.wasFloat()) {
+            return currentType = INT;
+        }
+        /* findEndOfNumber only checks the integer part for a leading zero when there is no fraction or exponent. */
+        final int intStart = source.getChartAt(startIndex) == MINUS ? startIndex + 1 : startIndex;
+        if (source.getChartAt(intStart) == NUM_0 && intStart + 1 < endIndex && isDigit(source.getChartAt(intStart + 1))) {
+            throw new UnexpectedCharacterException("Parsing JSON Float Number", "Number can't start with a 0 ", source,
+                    NUM_0, intStart);
+        }
+        return currentType = FLOAT;
+    }
+
+    private static boolean isDigit(final char ch) {
+        return ch >= NUM_0 && ch <= NUM_9;
+    }
+
+    private int startContainer(final int state, final int type) {
+        if (depth >= maxDepth) {
+            throw new UnexpectedCharacterException("Next level violation", "Too many levels " + (depth + 1), source);
+        }
+        if (++depth >= states.length) {
+            states = Arrays.copyOf(states, states.length * 2);
+        }
+        states[depth] = state;
+        return currentType = type;
+    }
+
+    private int endContainer(final int type) {
+        source.next();
+        depth--;
+        return currentType = type;
+    }
+}
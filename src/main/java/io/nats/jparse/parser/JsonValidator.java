@@ -0,0 +1,466 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.parser;
+
+/**
+ * Checks that a document is strict RFC 8259 JSON without producing tokens or nodes.
+ * <p>
+ * `validate` runs the same grammar as `JsonStrictParser` in a single pass over the characters, keeping only a bit
+ * per open container, and returns a primitive result: `VALID`, or an error code and the offset of the offending
+ * character packed into one `long`. Nothing is allocated and nothing is thrown for invalid input; a message is only
+ * built when `message` is asked for one.
+ * <pre>
+ * final long result = validator.validate(json);
+ * if (!JsonValidator.isValid(result)) {
+ *     reject(JsonValidator.errorCode(result), JsonValidator.errorOffset(result));
+ * }
+ * </pre>
+ * A validator keeps its container stack between calls, so an instance must not be shared between threads.
+ */
+public final class JsonValidator {
+
+    /**
+     * The result of a valid document.
+     */
+    public static final long VALID = 0L;
+
+    /**
+     * Error code: a character that cannot appear at this point of the document.
+     */
+    public static final int ERROR_UNEXPECTED_CHARACTER = 1;
+
+    /**
+     * Error code: the document ends before its last value is complete.
+     */
+    public static final int ERROR_UNEXPECTED_END = 2;
+
+    /**
+     * Error code: a malformed number.
+     */
+    public static final int ERROR_INVALID_NUMBER = 3;
+
+    /**
+     * Error code: a control character inside a string.
+     */
+    public static final int ERROR_CONTROL_CHARACTER = 4;
+
+    /**
+     * Error code: an invalid escape sequence inside a string.
+     */
+    public static final int ERROR_INVALID_ESCAPE = 5;
+
+    /**
+     * Error code: a misspelled `true`, `false` or `null`.
+     */
+    public static final int ERROR_INVALID_LITERAL = 6;
+
+    /**
+     * Error code: a comma before the end of an object or array.
+     */
+    public static final int ERROR_TRAILING_COMMA = 7;
+
+    /**
+     * Error code: more nested objects and arrays than the maximum depth.
+     */
+    public static final int ERROR_TOO_DEEP = 8;
+
+    /**
+     * Error code: content after the end of the document.
+     */
+    public static final int ERROR_TRAILING_CONTENT = 9;
+
+    private static final int STEP_VALUE = 0;
+    private static final int STEP_AFTER_VALUE = 1;
+
+    private final int maxDepth;
+    private final long[] arrays;
+
+    private int errorCode;
+    private int errorOffset;
+
+    /**
+     * Create a new `JsonValidator` instance.
+     *
+     * @param maxDepth The maximum number of nested objects and arrays.
+     */
+    public JsonValidator(final int maxDepth) {
+        this.maxDepth = maxDepth;
+        this.arrays = new long[(maxDepth >>> 6) + 1];
+    }
+
+    /**
+     * Validates a document.
+     *
+     * @param json the document
+     * @return `VALID`, or the error code and offset of the first error
+     */
+    public long validate(final CharSequence json) {
+        final int length = json.length();
+        int index = skipWhiteSpace(json, 0, length);
+        int depth = 0;
+        int step = STEP_VALUE;
+
+        while (true) {
+            if (step == STEP_VALUE) {
+                if (index >= length) {
+                    return error(ERROR_UNEXPECTED_END, index);
+                }
+                final char ch = json.charAt(index);
+                switch (ch) {
+                    case '{':
+                    case '[':
+                        if (depth >= maxDepth) {
+                            return error(ERROR_TOO_DEEP, index);
+                        }
+                        setArray(depth, ch == '[');
+                        depth++;
+                        index = skipWhiteSpace(json, index + 1, length);
+                        if (index < length && json.charAt(index) == (ch == '[' ? ']' : '}')) {
+                            depth--;
+                            index++;
+                            step = STEP_AFTER_VALUE;
+                        } else if (ch == '{') {
+                            index = member(json, index, length, false);
+                        }
+                        break;
+                    case '"':
+                        index = string(json, index, length);
+                        step = STEP_AFTER_VALUE;
+                        break;
+                    case 't':
+                        index = literal(json, index, length, "true");
+                        step = STEP_AFTER_VALUE;
+                        break;
+                    case 'f':
+                        index = literal(json, index, length, "false");
+                        step = STEP_AFTER_VALUE;
+                        break;
+                    case 'n':
+                        index = literal(json, index, length, "null");
+                        step = STEP_AFTER_VALUE;
+                        break;
+                    case '-':
+                    case '0':
+                    case '1':
+                    case '2':
+                    case '3':
+                    case '4':
+                    case '5':
+                    case '6':
+                    case '7':
+                    case '8':
+                    case '9':
+                        index = number(json, index, length);
+                        step = STEP_AFTER_VALUE;
+                        break;
+                    default:
+                        return error(ERROR_UNEXPECTED_CHARACTER, index);
+                }
+                if (index < 0) {
+                    return error(errorCode, errorOffset);
+                }
+                continue;
+            }
+
+            index = skipWhiteSpace(json, index, length);
+            if (depth == 0) {
+                return index == length ? VALID : error(ERROR_TRAILING_CONTENT, index);
+            }
+            if (index >= length) {
+                return error(ERROR_UNEXPECTED_END, index);
+            }
+            final char ch = json.charAt(index);
+            final boolean inArray = isArray(depth - 1);
+            if (ch == ',') {
+                index = skipWhiteSpace(json, index + 1, length);
+                if (index < length && json.charAt(index) == (inArray ? ']' : '}')) {
+                    return error(ERROR_TRAILING_COMMA, index);
+                }
+                if (!inArray && (index = member(json, index, length, true)) < 0) {
+                    return error(errorCode, errorOffset);
+                }
+                step = STEP_VALUE;
+            } else if (ch == (inArray ? ']' : '}')) {
+                depth--;
+                index++;
+            } else {
+                return error(ERROR_UNEXPECTED_CHARACTER, index);
+            }
+        }
+    }
+
+    /**
+     * Returns true if a result is `VALID`.
+     *
+     * @param result the result of `validate`
+     * @return true if the document is valid
+     */
+    public static boolean isValid(final long result) {
+        return result == VALID;
+    }
+
+    /**
+     * Returns the error code of a result.
+     *
+     * @param result the result of `validate`
+     * @return the error code, or 0 if the document is valid
+     */
+    public static int errorCode(final long result) {
+        return (int) (result >>> 32);
+    }
+
+    /**
+     * Returns the offset of the offending character of a result.
+     *
+     * @param result the result of `validate`
+     * @return the offset, or -1 if the document is valid
+     */
+    public static int errorOffset(final long result) {
+        return result == VALID ? -1 : (int) result;
+    }
+
+    /**
+     * Describes a result.
+     *
+     * @param result the result of `validate`
+     * @return the description
+     */
+    public static String message(final long result) {
+        if (result == VALID) {
+            return "Valid JSON";
+        }
+        return describe(errorCode(result)) + " at offset " + errorOffset(result);
+    }
+
+    /**
+     * Describes a result, showing the characters around the error.
+     *
+     * @param result the result of `validate`
+     * @param json   the validated document
+     * @return the description
+     */
+    public static String message(final long result, final CharSequence json) {
+        if (result == VALID) {
+            return message(result);
+        }
+        final int offset = errorOffset(result);
+        final int from = Math.max(0, offset - 20);
+        final int to = Math.min(json.length(), offset + 20);
+        final StringBuilder builder = new StringBuilder(message(result)).append('\n');
+        for (int index = from; index < to; index++) {
+            final char ch = json.charAt(index);
+            builder.append(ch < ' ' ? ' ' : ch);
+        }
+        builder.append('\n');
+        for (int index = from; index < offset; index++) {
+            builder.append('.');
+        }
+        return builder.append('^').toString();
+    }
+
+    private static String describe(final int errorCode) {
+        switch (errorCode) {
+            case ERROR_UNEXPECTED_CHARACTER:
+                return "Unexpected character";
+            case ERROR_UNEXPECTED_END:
+                return "Unexpected end of document";
+            case ERROR_INVALID_NUMBER:
+                return "Invalid number";
+            case ERROR_CONTROL_CHARACTER:
+                return "Control character in string";
+            case ERROR_INVALID_ESCAPE:
+                return "Invalid escape sequence";
+            case ERROR_INVALID_LITERAL:
+                return "Invalid literal";
+            case ERROR_TRAILING_COMMA:
+                return "Trailing comma";
+            case ERROR_TOO_DEEP:
+                return "Too many levels";
+            case ERROR_TRAILING_CONTENT:
+                return "Content after the end of the document";
+            default:
+                return "Error " + errorCode;
+        }
+    }
+
+    private static long error(final int code, final int offset) {
+        return (long) code << 32 | offset & 0xFFFFFFFFL;
+    }
+
+    private int fail(final int code, final int offset) {
+        errorCode = code;
+        errorOffset = offset;
+        return -1;
+    }
+
+    private boolean isArray(final int depth) {
+        return (arrays[depth >>> 6] & 1L << depth) != 0;
+    }
+
+    private void setArray(final int depth, final boolean array) {
+        if (array) {
+            arrays[depth >>> 6] |= 1L << depth;
+        } else {
+            arrays[depth >>> 6] &= ~(1L << depth);
+        }
+    }
+
+    private static int skipWhiteSpace(final CharSequence json, int index, final int length) {
+        for (; index < length; index++) {
+            switch (json.charAt(index)) {
+                case ' ':
+                case '\t':
+                case '\n':
+                case '\r':
+                    continue;
+                default:
+                    return index;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Validates an object key and its colon, returning the index of the member value.
+     */
+    private int member(final CharSequence json, int index, final int length, final boolean afterComma) {
+        if (index >= length) {
+            return fail(ERROR_UNEXPECTED_END, index);
+        }
+        if (json.charAt(index) != '"') {
+            return fail(ERROR_UNEXPECTED_CHARACTER, index);
+        }
+        index = string(json, index, length);
+        if (index < 0) {
+            return index;
+        }
+        index = skipWhiteSpace(json, index, length);
+        if (index >= length) {
+            return fail(ERROR_UNEXPECTED_END, index);
+        }
+        if (json.charAt(index) != ':') {
+            return fail(ERROR_UNEXPECTED_CHARACTER, index);
+        }
+        return skipWhiteSpace(json, index + 1, length);
+    }
+
+    private int string(final CharSequence json, int index, final int length) {
+        for (index++; index < length; index++) {
+            final char ch = json.charAt(index);
+            if (ch == '"') {
+                return index + 1;
+            } else if (ch == '\\') {
+                if (++index >= length) {
+                    break;
+                }
+                switch (json.charAt(index)) {
+                    case '"':
+                    case '\\':
+                    case '/':
+                    case 'b':
+                    case 'f':
+                    case 'n':
+                    case 'r':
+                    case 't':
+                        break;
+                    case 'u':
+                        if (index + 4 >= length) {
+                            return fail(ERROR_UNEXPECTED_END, length);
+                        }
+                        for (int hex = index + 1; hex <= index + 4; hex++) {
+                            if (Character.digit(json.charAt(hex), 16) < 0) {
+                                return fail(ERROR_INVALID_ESCAPE, hex);
+                            }
+                        }
+                        index += 4;
+                        break;
+                    default:
+                        return fail(ERROR_INVALID_ESCAPE, index);
+                }
+            } else if (ch < ' ') {
+                return fail(ERROR_CONTROL_CHARACTER, index);
+            }
+        }
+        return fail(ERROR_UNEXPECTED_END, length);
+    }
+
+    private int number(final CharSequence json, int index, final int length) {
+        if (json.charAt(index) == '-') {
+            index++;
+        }
+        if (index >= length) {
+            return fail(ERROR_UNEXPECTED_END, index);
+        }
+        char ch = json.charAt(index);
+        if (ch == '0') {
+            index++;
+        } else if (ch >= '1' && ch <= '9') {
+            index = digits(json, index + 1, length);
+        } else {
+            return fail(ERROR_INVALID_NUMBER, index);
+        }
+        if (index < length && json.charAt(index) == '.') {
+            final int fraction = index + 1;
+            index = digits(json, fraction, length);
+            if (index == fraction) {
+                return fail(ERROR_INVALID_NUMBER, index);
+            }
+        }
+        if (index < length && ((ch = json.charAt(index)) == 'e' || ch == 'E')) {
+            index++;
+            if (index < length && ((ch = json.charAt(index)) == '+' || ch == '-')) {
+                index++;
+            }
+            final int exponent = index;
+            index = digits(json, exponent, length);
+            if (index == exponent) {
+                return fail(ERROR_INVALID_NUMBER, index);
+            }
+        }
+        if (index < length && isNumberContinuation(json.charAt(index))) {
+            return fail(ERROR_INVALID_NUMBER, index);
+        }
+        return index;
+    }
+
+    private static boolean isNumberContinuation(final char ch) {
+        return ch >= '0' && ch <= '9' || ch == '.' || ch == 'e' || ch == 'E' || ch == '+' || ch == '-';
+    }
+
+    private static int digits(final CharSequence json, int index, final int length) {
+        while (index < length) {
+            final char ch = json.charAt(index);
+            if (ch < '0' || ch > '9') {
+                break;
+            }
+            index++;
+        }
+        return index;
+    }
+
+    private int literal(final CharSequence json, final int index, final int length, final String literal) {
+        final int end = index + literal.length();
+        for (int position = index + 1; position < end; position++) {
+            if (position >= length) {
+                return fail(ERROR_UNEXPECTED_END, position);
+            }
+            if (json.charAt(position) != literal.charAt(position - index)) {
+                return fail(ERROR_INVALID_LITERAL, position);
+            }
+        }
+        return end;
+    }
+}
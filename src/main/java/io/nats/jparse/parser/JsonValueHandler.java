@@ -0,0 +1,102 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.parser;
+
+import java.math.BigInteger;
+
+/**
+ * Receives typed values from an event parser.
+ * <p>
+ * Unlike `TokenEventListener`, which only reports token ids and indexes, a `JsonValueHandler` is handed values that
+ * the parser has already decoded. Keys and strings are passed as flyweight `CharSequence` views that are reused for
+ * the next callback, so call `toString()` on a view if it has to outlive the callback.
+ *
+ * @see JsonEventParser#parseWithValues(io.nats.jparse.source.CharSource, JsonValueHandler)
+ */
+public interface JsonValueHandler {
+
+    /**
+     * Called when a JSON object starts.
+     */
+    void beginObject();
+
+    /**
+     * Called when a JSON object ends.
+     */
+    void endObject();
+
+    /**
+     * Called when a JSON array starts.
+     */
+    void beginArray();
+
+    /**
+     * Called when a JSON array ends.
+     */
+    void endArray();
+
+    /**
+     * Called for an attribute key. The view is only valid until the callback returns.
+     *
+     * @param key the decoded key
+     */
+    void onKey(CharSequence key);
+
+    /**
+     * Called for an integer value that fits in a `long`.
+     *
+     * @param value the value
+     */
+    void onLong(long value);
+
+    /**
+     * Called for a float value.
+     *
+     * @param value the value
+     */
+    void onDouble(double value);
+
+    /**
+     * Called for an integer value too large for a `long`.
+     * <p>
+     * The default forwards to `onDouble`, which keeps the magnitude but drops the digits beyond what a `double`
+     * can hold. Override it to keep the exact value.
+     *
+     * @param value the value
+     */
+    default void onBigInteger(BigInteger value) {
+        onDouble(value.doubleValue());
+    }
+
+    /**
+     * Called for a string value. The view is only valid until the callback returns.
+     *
+     * @param value the decoded string
+     */
+    void onString(CharSequence value);
+
+    /**
+     * Called for a boolean value.
+     *
+     * @param value the value
+     */
+    void onBoolean(boolean value);
+
+    /**
+     * Called for a null value.
+     */
+    void onNull();
+}
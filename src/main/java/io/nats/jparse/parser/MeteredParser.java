@@ -0,0 +1,202 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.parser;
+
+import io.nats.jparse.node.RootNode;
+import io.nats.jparse.node.support.TokenList;
+import io.nats.jparse.source.CharSource;
+import io.nats.jparse.token.Token;
+import io.nats.jparse.token.TokenEventListener;
+import io.nats.jparse.token.TokenTypes;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Wraps a parser so that every document it parses is recorded in a `ParseMetrics`. Returned by `JsonParserBuilder`
+ * when metrics are set; without them the builder returns the parser itself.
+ * <p>
+ * Tokens are counted the same way for every parser type: the entries of the token list the document parses into,
+ * which are objects, arrays, keys, attribute values and scalars. Event parses count the same tokens from their
+ * events and leave the caller's `string` and `number` callbacks intact. Tree parses walk the finished token list
+ * once more to count numbers, strings and depth, which is the cost metrics add to them.
+ */
+final class MeteredParser implements JsonParser, JsonEventParser {
+
+    private final JsonParser parser;
+    private final JsonEventParser eventParser;
+    private final ParseMetrics metrics;
+    private final ParseMetrics.ParseTimes times;
+
+    MeteredParser(final JsonParser parser, final ParseMetrics metrics, final String name) {
+        this.parser = parser;
+        this.eventParser = parser instanceof JsonEventParser ? (JsonEventParser) parser : null;
+        this.metrics = metrics;
+        this.times = metrics.parseTimes(name);
+    }
+
+    @Override
+    public List<Token> scan(final CharSource source) {
+        final long start = System.nanoTime();
+        final List<Token> tokens;
+        try {
+            tokens = parser.scan(source);
+        } catch (RuntimeException e) {
+            metrics.recordFailure(times, System.nanoTime() - start);
+            throw e;
+        }
+        record(System.nanoTime() - start, source, tokens);
+        return tokens;
+    }
+
+    @Override
+    public RootNode parse(final CharSource source) {
+        final long start = System.nanoTime();
+        final RootNode root;
+        try {
+            root = parser.parse(source);
+        } catch (RuntimeException e) {
+            metrics.recordFailure(times, System.nanoTime() - start);
+            throw e;
+        }
+        record(System.nanoTime() - start, source, root.tokens());
+        return root;
+    }
+
+    private void record(final long nanos, final CharSource source, final List<Token> tokens) {
+        final int size = tokens.size();
+        int numbers = 0;
+        int strings = 0;
+        int maxDepth = 0;
+        int depth = 0;
+        int[] containerEnds = new int[16];
+        for (int i = 0; i < size; i++) {
+            final Token token = tokens.get(i);
+            while (depth > 0 && token.startIndex >= containerEnds[depth - 1]) {
+                depth--;
+            }
+            switch (token.type) {
+                case TokenTypes.OBJECT_TOKEN:
+                case TokenTypes.ARRAY_TOKEN:
+                    if (depth == containerEnds.length) {
+                        containerEnds = Arrays.copyOf(containerEnds, depth * 2);
+                    }
+                    containerEnds[depth++] = token.endIndex;
+                    maxDepth = Math.max(maxDepth, depth);
+                    break;
+                case TokenTypes.INT_TOKEN:
+                case TokenTypes.FLOAT_TOKEN:
+                    numbers++;
+                    break;
+                case TokenTypes.STRING_TOKEN:
+                    strings++;
+                    break;
+            }
+        }
+        final int growths = tokens instanceof TokenList ? ((TokenList) tokens).getGrowthCount() : 0;
+        metrics.recordDocument(times, nanos, source.getIndex(), size, maxDepth, growths, numbers, strings);
+    }
+
+    @Override
+    public TokenEventListener tokenEvents() {
+        return eventParser().tokenEvents();
+    }
+
+    @Override
+    public void parseWithEvents(final CharSource source, final TokenEventListener tokenEvents) {
+        final JsonEventParser eventParser = eventParser();
+        final CountingListener counter = new CountingListener(tokenEvents);
+        final long start = System.nanoTime();
+        try {
+            eventParser.parseWithEvents(source, counter);
+        } catch (RuntimeException e) {
+            metrics.recordFailure(times, System.nanoTime() - start);
+            throw e;
+        }
+        metrics.recordDocument(times, System.nanoTime() - start, source.getIndex(), counter.tokens, counter.maxDepth,
+                0, counter.numbers, counter.strings);
+    }
+
+    private JsonEventParser eventParser() {
+        if (eventParser == null) {
+            throw new IllegalStateException(parser.getClass().getName() + " does not produce events");
+        }
+        return eventParser;
+    }
+
+    private static final class CountingListener implements TokenEventListener {
+
+        private final TokenEventListener listener;
+        private int tokens;
+        private int numbers;
+        private int strings;
+        private int depth;
+        private int maxDepth;
+
+        private CountingListener(final TokenEventListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void start(final int tokenId, final int index, final CharSource source) {
+            switch (tokenId) {
+                case TokenTypes.OBJECT_TOKEN:
+                case TokenTypes.ARRAY_TOKEN:
+                    maxDepth = Math.max(maxDepth, ++depth);
+                    tokens++;
+                    break;
+                case TokenTypes.INT_TOKEN:
+                case TokenTypes.FLOAT_TOKEN:
+                    numbers++;
+                    tokens++;
+                    break;
+                case TokenTypes.STRING_TOKEN:
+                    strings++;
+                    tokens++;
+                    break;
+                case TokenTypes.ARRAY_ITEM_TOKEN:
+                    /* Array items frame their value in events but have no token of their own. */
+                    break;
+                default:
+                    tokens++;
+            }
+            listener.start(tokenId, index, source);
+        }
+
+        @Override
+        public void end(final int tokenId, final int index, final CharSource source) {
+            if (tokenId == TokenTypes.OBJECT_TOKEN || tokenId == TokenTypes.ARRAY_TOKEN) {
+                depth--;
+            }
+            listener.end(tokenId, index, source);
+        }
+
+        @Override
+        public void string(final int startIndex, final int endIndex, final boolean escaped, final CharSource source) {
+            strings++;
+            tokens++;
+            listener.string(startIndex, endIndex, escaped, source);
+        }
+
+        @Override
+        public void number(final int tokenId, final int startIndex, final int endIndex, final int numberFlags,
+                           final CharSource source) {
+            numbers++;
+            tokens++;
+            listener.number(tokenId, startIndex, endIndex, numberFlags, source);
+        }
+    }
+}
@@ -0,0 +1,288 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.parser;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters for what parsers parse, for export to an application's own metrics system.
+ * <p>
+ * Register an instance with `JsonParserBuilder.setParseMetrics` and every parser built from that builder records
+ * each document it parses. The counters are `LongAdder`s and `LongAccumulator`s, so parsers on many threads record
+ * without taking locks or contending on one cache line. Parse times go into a histogram per parser type with
+ * power-of-two buckets: bucket `i` counts parses that took at least `2^(i-1)` and less than `2^i` nanoseconds, the
+ * last bucket counts everything slower, and bucket `0` counts parses the clock saw as instant.
+ * <p>
+ * Call `snapshot()` to read the counters. A snapshot taken while parsers are running is not atomic across counters,
+ * but each counter in it is a value the counter really had.
+ */
+public final class ParseMetrics {
+
+    /**
+     * The number of buckets in each parse time histogram. The last bucket starts at about 4.6 minutes.
+     */
+    public static final int TIME_BUCKETS = 40;
+
+    private final LongAdder documents = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder characters = new LongAdder();
+    private final LongAdder tokens = new LongAdder();
+    private final LongAccumulator maxTokens = new LongAccumulator(Math::max, 0);
+    private final LongAccumulator maxDepth = new LongAccumulator(Math::max, 0);
+    private final LongAdder tokenListGrowths = new LongAdder();
+    private final LongAdder numbers = new LongAdder();
+    private final LongAdder strings = new LongAdder();
+    private final ConcurrentMap<String, ParseTimes> parseTimes = new ConcurrentHashMap<>();
+
+    /**
+     * Creates metrics with every counter at zero.
+     */
+    public ParseMetrics() {
+    }
+
+    /**
+     * Returns the exclusive upper bound of a parse time bucket.
+     *
+     * @param bucket the bucket, from `0` to `TIME_BUCKETS - 1`
+     * @return the bound in nanoseconds, or `Long.MAX_VALUE` for the last bucket
+     */
+    public static long bucketUpperBoundNanos(final int bucket) {
+        if (bucket < 0 || bucket >= TIME_BUCKETS) {
+            throw new IllegalArgumentException("No parse time bucket " + bucket);
+        }
+        return bucket == TIME_BUCKETS - 1 ? Long.MAX_VALUE : 1L << bucket;
+    }
+
+    ParseTimes parseTimes(final String parser) {
+        return parseTimes.computeIfAbsent(parser, name -> new ParseTimes());
+    }
+
+    void recordDocument(final ParseTimes times, final long nanos, final int characters, final int tokens,
+                        final int depth, final int tokenListGrowths, final int numbers, final int strings) {
+        times.record(nanos);
+        this.documents.increment();
+        this.characters.add(characters);
+        this.tokens.add(tokens);
+        this.maxTokens.accumulate(tokens);
+        this.maxDepth.accumulate(depth);
+        if (tokenListGrowths != 0) {
+            this.tokenListGrowths.add(tokenListGrowths);
+        }
+        this.numbers.add(numbers);
+        this.strings.add(strings);
+    }
+
+    void recordFailure(final ParseTimes times, final long nanos) {
+        times.record(nanos);
+        failures.increment();
+    }
+
+    /**
+     * Reads the current value of every counter.
+     *
+     * @return the counters as they are now
+     */
+    public Snapshot snapshot() {
+        final Map<String, long[]> times = new LinkedHashMap<>();
+        parseTimes.forEach((parser, histogram) -> times.put(parser, histogram.counts()));
+        return new Snapshot(documents.sum(), failures.sum(), characters.sum(), tokens.sum(), maxTokens.get(),
+                maxDepth.get(), tokenListGrowths.sum(), numbers.sum(), strings.sum(), times);
+    }
+
+    static final class ParseTimes {
+
+        private final LongAdder[] buckets = new LongAdder[TIME_BUCKETS];
+
+        ParseTimes() {
+            for (int i = 0; i < TIME_BUCKETS; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void record(final long nanos) {
+            buckets[Math.min(64 - Long.numberOfLeadingZeros(Math.max(nanos, 0)), TIME_BUCKETS - 1)].increment();
+        }
+
+        long[] counts() {
+            final long[] counts = new long[TIME_BUCKETS];
+            for (int i = 0; i < TIME_BUCKETS; i++) {
+                counts[i] = buckets[i].sum();
+            }
+            return counts;
+        }
+    }
+
+    /**
+     * The counters of a `ParseMetrics` at one point in time.
+     */
+    public static final class Snapshot {
+
+        private final long documents;
+        private final long failures;
+        private final long characters;
+        private final long tokens;
+        private final long maxTokens;
+        private final long maxDepth;
+        private final long tokenListGrowths;
+        private final long numbers;
+        private final long strings;
+        private final Map<String, long[]> parseTimes;
+
+        Snapshot(final long documents, final long failures, final long characters, final long tokens,
+                 final long maxTokens, final long maxDepth, final long tokenListGrowths, final long numbers,
+                 final long strings, final Map<String, long[]> parseTimes) {
+            this.documents = documents;
+            this.failures = failures;
+            this.characters = characters;
+            this.tokens = tokens;
+            this.maxTokens = maxTokens;
+            this.maxDepth = maxDepth;
+            this.tokenListGrowths = tokenListGrowths;
+            this.numbers = numbers;
+            this.strings = strings;
+            this.parseTimes = Collections.unmodifiableMap(parseTimes);
+        }
+
+        /**
+         * Returns the number of documents parsed successfully.
+         *
+         * @return the number of documents
+         */
+        public long documents() {
+            return documents;
+        }
+
+        /**
+         * Returns the number of parses that threw.
+         *
+         * @return the number of failed parses
+         */
+        public long failures() {
+            return failures;
+        }
+
+        /**
+         * Returns the number of characters read by successful parses.
+         *
+         * @return the number of characters
+         */
+        public long characters() {
+            return characters;
+        }
+
+        /**
+         * Returns the number of tokens produced by successful parses. Event parsers count the tokens the same document
+         * would have in a token list, so the count does not depend on the parser type.
+         *
+         * @return the number of tokens
+         */
+        public long tokens() {
+            return tokens;
+        }
+
+        /**
+         * Returns the average number of tokens per document.
+         *
+         * @return the tokens per document, or `0` before the first document
+         */
+        public double tokensPerDocument() {
+            return documents == 0 ? 0 : (double) tokens / documents;
+        }
+
+        /**
+         * Returns the largest number of tokens in a single document.
+         *
+         * @return the most tokens in one document
+         */
+        public long maxTokens() {
+            return maxTokens;
+        }
+
+        /**
+         * Returns the deepest nesting of objects and arrays in any document.
+         *
+         * @return the maximum depth
+         */
+        public long maxDepth() {
+            return maxDepth;
+        }
+
+        /**
+         * Returns how many times a token list had to grow its backing array.
+         *
+         * @return the number of token list growths
+         */
+        public long tokenListGrowths() {
+            return tokenListGrowths;
+        }
+
+        /**
+         * Returns the number of number tokens produced, each of which is decoded when its value is read.
+         *
+         * @return the number of number tokens
+         */
+        public long numbers() {
+            return numbers;
+        }
+
+        /**
+         * Returns the number of string tokens produced, keys included, each of which is decoded when its value is
+         * read.
+         *
+         * @return the number of string tokens
+         */
+        public long strings() {
+            return strings;
+        }
+
+        /**
+         * Returns the parse time histogram of each parser type, keyed by parser class name. Failed parses are
+         * included.
+         *
+         * @return the bucket counts per parser, see `ParseMetrics.bucketUpperBoundNanos`
+         */
+        public Map<String, long[]> parseTimes() {
+            return parseTimes;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder builder = new StringBuilder("ParseMetrics{documents=").append(documents)
+                    .append(", failures=").append(failures)
+                    .append(", characters=").append(characters)
+                    .append(", tokens=").append(tokens)
+                    .append(", maxTokens=").append(maxTokens)
+                    .append(", maxDepth=").append(maxDepth)
+                    .append(", tokenListGrowths=").append(tokenListGrowths)
+                    .append(", numbers=").append(numbers)
+                    .append(", strings=").append(strings)
+                    .append(", parseTimes={");
+            String separator = "";
+            for (Map.Entry<String, long[]> entry : parseTimes.entrySet()) {
+                builder.append(separator).append(entry.getKey()).append('=').append(Arrays.toString(entry.getValue()));
+                separator = ", ";
+            }
+            return builder.append("}}").toString();
+        }
+    }
+}
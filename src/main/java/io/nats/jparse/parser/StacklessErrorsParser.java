@@ -0,0 +1,82 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.parser;
+
+import io.nats.jparse.node.RootNode;
+import io.nats.jparse.source.CharSource;
+import io.nats.jparse.source.support.UnexpectedCharacterException;
+import io.nats.jparse.token.Token;
+import io.nats.jparse.token.TokenEventListener;
+
+import java.util.List;
+
+/**
+ * Wraps a parser so that the `UnexpectedCharacterException`s it throws have no stack trace, which makes rejecting
+ * malformed input about as cheap as accepting it. Returned by `JsonParserBuilder` when stackless errors are enabled.
+ */
+final class StacklessErrorsParser implements JsonParser, JsonEventParser {
+
+    private final JsonParser parser;
+    private final JsonEventParser eventParser;
+
+    StacklessErrorsParser(final JsonParser parser) {
+        this.parser = parser;
+        this.eventParser = parser instanceof JsonEventParser ? (JsonEventParser) parser : null;
+    }
+
+    @Override
+    public List<Token> scan(final CharSource source) {
+        final boolean previous = UnexpectedCharacterException.captureStackTraces(false);
+        try {
+            return parser.scan(source);
+        } finally {
+            UnexpectedCharacterException.captureStackTraces(previous);
+        }
+    }
+
+    @Override
+    public RootNode parse(final CharSource source) {
+        final boolean previous = UnexpectedCharacterException.captureStackTraces(false);
+        try {
+            return parser.parse(source);
+        } finally {
+            UnexpectedCharacterException.captureStackTraces(previous);
+        }
+    }
+
+    @Override
+    public TokenEventListener tokenEvents() {
+        return eventParser().tokenEvents();
+    }
+
+    @Override
+    public void parseWithEvents(final CharSource source, final TokenEventListener tokenEvents) {
+        final JsonEventParser eventParser = eventParser();
+        final boolean previous = UnexpectedCharacterException.captureStackTraces(false);
+        try {
+            eventParser.parseWithEvents(source, tokenEvents);
+        } finally {
+            UnexpectedCharacterException.captureStackTraces(previous);
+        }
+    }
+
+    private JsonEventParser eventParser() {
+        if (eventParser == null) {
+            throw new IllegalStateException(parser.getClass().getName() + " does not produce events");
+        }
+        return eventParser;
+    }
+}
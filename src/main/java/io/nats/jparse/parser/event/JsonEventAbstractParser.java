@@ -25,6 +25,7 @@ import io.nats.jparse.token.Token;
 import io.nats.jparse.token.TokenEventListener;
 import io.nats.jparse.token.TokenTypes;
 
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -36,92 +37,86 @@ public abstract class JsonEventAbstractParser implements JsonEventParser, JsonPa
      * This field determines if objects keys can be encoded.
      */
     protected final boolean objectsKeysCanBeEncoded;
-    final TokenEventListener arrayItemListener = new TokenEventListener() {
-        @Override
-        public void start(int tokenId, int index, CharSource source) {
-        }
 
-        @Override
-        public void end(int tokenId, int index, CharSource source) {
-        }
-    };
-    final TokenEventListener exceptionListener = new TokenEventListener() {
-        @Override
-        public void start(int tokenId, int index, CharSource source) {
-            throw new UnexpectedCharacterException("while doing event parsing", "Unknown token id " + tokenId, source);
-        }
+    /**
+     * The maximum number of nested objects and arrays.
+     */
+    protected final int maxDepth;
+    private final TokenEventListener tokenEventListener;
 
-        @Override
-        public void end(int tokenId, int index, CharSource source) {
+    /**
+     * Token type per open depth, reused across parses.
+     */
+    private int[] frameTypes = new int[32];
 
-        }
-    };
-    private final TokenEventListener tokenEventListener;
-    private final TokenEventListener stringListener = new JsonEventStrictParser.ScalarListener(TokenTypes.STRING_TOKEN);
-    private final TokenEventListener floatListener = new JsonEventStrictParser.ScalarListener(TokenTypes.FLOAT_TOKEN);
-    private final TokenEventListener intListener = new JsonEventStrictParser.ScalarListener(TokenTypes.INT_TOKEN);
-    private final TokenEventListener booleanListener = new JsonEventStrictParser.ScalarListener(TokenTypes.BOOLEAN_TOKEN);
-    private final TokenEventListener nullListener = new JsonEventStrictParser.ScalarListener(TokenTypes.NULL_TOKEN);
-    final TokenEventListener base = new TokenEventListener() {
+    /**
+     * Start index per open depth, reused across parses.
+     */
+    private int[] frameStartIndexes = new int[32];
 
-        private int stackIndex = -1;
-        private TokenEventListener[] stack = new TokenEventListener[8];
+    /**
+     * Token list place-holder index per open depth, or -1 if the frame is not a container.
+     */
+    private int[] frameTokenListIndexes = new int[32];
+
+    /**
+     * Current depth into the frame arrays.
+     */
+    private int frameIndex = -1;
+
+    /**
+     * Builds the token list from events. Open tokens are tracked in primitive per-depth arrays so that
+     * no listener objects are allocated per object, array, key or value.
+     */
+    final TokenEventListener base = new TokenEventListener() {
 
         @Override
         public void start(final int tokenId, final int index, final CharSource source) {
 
-            TokenEventListener listener;
+            final int tokenListIndex;
             switch (tokenId) {
                 case TokenTypes.OBJECT_TOKEN:
-                    listener = new ComplexListener(TokenTypes.OBJECT_TOKEN);
-                    break;
                 case TokenTypes.ARRAY_TOKEN:
-                    listener = new ComplexListener(TokenTypes.ARRAY_TOKEN);
-                    break;
-                case TokenTypes.ARRAY_ITEM_TOKEN:
-                    listener = arrayItemListener;
-                    break;
                 case TokenTypes.ATTRIBUTE_KEY_TOKEN:
-                    listener = new ComplexListener(TokenTypes.ATTRIBUTE_KEY_TOKEN);
-                    break;
                 case TokenTypes.ATTRIBUTE_VALUE_TOKEN:
-                    listener = new ComplexListener(TokenTypes.ATTRIBUTE_VALUE_TOKEN);
+                    tokenListIndex = tokenList.getIndex();
+                    tokenList.placeHolder();
                     break;
+                case TokenTypes.ARRAY_ITEM_TOKEN:
                 case TokenTypes.STRING_TOKEN:
-                    listener = stringListener;
-                    break;
                 case TokenTypes.FLOAT_TOKEN:
-                    listener = floatListener;
-                    break;
                 case TokenTypes.INT_TOKEN:
-                    listener = intListener;
-                    break;
                 case TokenTypes.BOOLEAN_TOKEN:
-                    listener = booleanListener;
-                    break;
                 case TokenTypes.NULL_TOKEN:
-                    listener = nullListener;
+                    tokenListIndex = -1;
                     break;
                 default:
-                    listener = exceptionListener;
-                    break;
+                    throw new UnexpectedCharacterException("while doing event parsing", "Unknown token id " + tokenId, source);
             }
 
-            listener.start(tokenId, index, source);
-            stackIndex++;
-            if (stackIndex >= stack.length) {
-                TokenEventListener[] stackNew = new TokenEventListener[stack.length * 2];
-                System.arraycopy(stack, 0, stackNew, 0, stack.length);
-                stack = stackNew;
+            final int depth = ++frameIndex;
+            if (depth >= frameTypes.length) {
+                growFrames();
             }
-            stack[stackIndex] = listener;
+            frameTypes[depth] = tokenId;
+            frameStartIndexes[depth] = index;
+            frameTokenListIndexes[depth] = tokenListIndex;
         }
 
         @Override
-        public void end(int tokenId, int index, CharSource source) {
-            stack[stackIndex].end(tokenId, index, source);
-            stack[stackIndex] = null;
-            stackIndex--;
+        public void end(final int tokenId, final int index, final CharSource source) {
+            final int depth = frameIndex--;
+            final int tokenType = frameTypes[depth];
+            if (tokenType == TokenTypes.ARRAY_ITEM_TOKEN) {
+                return;
+            }
+            final Token token = new Token(frameStartIndexes[depth], index, tokenType);
+            final int tokenListIndex = frameTokenListIndexes[depth];
+            if (tokenListIndex == -1) {
+                tokenList.add(token);
+            } else {
+                tokenList.set(tokenListIndex, token);
+            }
         }
     };
     private TokenList tokenList;
@@ -133,13 +128,25 @@ public abstract class JsonEventAbstractParser implements JsonEventParser, JsonPa
      * @param tokenEventListener token listener
      */
     public JsonEventAbstractParser(boolean objectsKeysCanBeEncoded, TokenEventListener tokenEventListener) {
+        this(objectsKeysCanBeEncoded, tokenEventListener, NEST_LEVEL);
+    }
+
+    /**
+     * Construct JsonEventAbstractParser.
+     * @param objectsKeysCanBeEncoded can object keys be encoded
+     * @param tokenEventListener token listener
+     * @param maxDepth the maximum number of nested objects and arrays
+     */
+    public JsonEventAbstractParser(boolean objectsKeysCanBeEncoded, TokenEventListener tokenEventListener, int maxDepth) {
         this.objectsKeysCanBeEncoded = objectsKeysCanBeEncoded;
         this.tokenEventListener = tokenEventListener;
+        this.maxDepth = maxDepth;
     }
 
     @Override
     public List<Token> scan(final CharSource source) {
         tokenList = new TokenList();
+        frameIndex = -1;
         this.parseWithEvents(source, base);
         return tokenList;
     }
@@ -154,61 +161,10 @@ public abstract class JsonEventAbstractParser implements JsonEventParser, JsonPa
         return new RootNode((TokenList) scan(source), source, objectsKeysCanBeEncoded);
     }
 
-    class ScalarListener implements TokenEventListener {
-        final int tokenType;
-        int startIndex;
-
-        ScalarListener(final int tokenType) {
-            this.tokenType = tokenType;
-        }
-
-        @Override
-        public void start(int tokenId, int index, CharSource source) {
-            startIndex = index;
-        }
-
-        @Override
-        public void end(int tokenId, int index, CharSource source) {
-            tokenList.add(new Token(startIndex, index, tokenType));
-        }
-
-        @Override
-        public String toString() {
-            return "ScalarListener{" +
-                    "tokenType=" + TokenTypes.getTypeName(tokenType) +
-                    ", startIndex=" + startIndex +
-                    '}';
-        }
-    }
-
-    class ComplexListener implements TokenEventListener {
-        final int tokenType;
-        int startIndex;
-        int tokenListIndex;
-
-        ComplexListener(final int tokenType) {
-            this.tokenType = tokenType;
-        }
-
-        @Override
-        public void start(int tokenId, int index, CharSource source) {
-            startIndex = index;
-            tokenListIndex = tokenList.getIndex();
-            tokenList.placeHolder();
-        }
-
-        @Override
-        public void end(int tokenId, int index, CharSource source) {
-            tokenList.set(tokenListIndex, new Token(startIndex, index, tokenType));
-        }
-
-        @Override
-        public String toString() {
-            return "ComplexListener{" +
-                    "tokenType=" + TokenTypes.getTypeName(tokenType) +
-                    ", startIndex=" + startIndex +
-                    ", tokenListIndex=" + tokenListIndex +
-                    '}';
-        }
+    private void growFrames() {
+        final int newLength = frameTypes.length * 2;
+        frameTypes = Arrays.copyOf(frameTypes, newLength);
+        frameStartIndexes = Arrays.copyOf(frameStartIndexes, newLength);
+        frameTokenListIndexes = Arrays.copyOf(frameTokenListIndexes, newLength);
     }
 }
@@ -23,81 +23,181 @@ import io.nats.jparse.source.support.UnexpectedCharacterException;
 import io.nats.jparse.token.TokenEventListener;
 import io.nats.jparse.token.TokenTypes;
 
+import java.util.Arrays;
+
 
 /**
  * Strict JSON Parser.
+ * <p>
+ * The parse loop is iterative: open objects and arrays are kept on a primitive stack instead of the call stack.
  */
 public class JsonEventStrictParser extends JsonEventAbstractParser {
 
+    private static final int STEP_VALUE = 0;
+    private static final int STEP_KEY = 1;
+    private static final int STEP_ARRAY_ITEM = 2;
+    private static final int STEP_AFTER_VALUE = 3;
 
     /**
-     * Nest level.
+     * Construct JsonEventStrictParser.
+     * @param objectsKeysCanBeEncoded can object keys be encoded
+     * @param tokenEventListener token listener
      */
-    private int nestLevel;
-
+    public JsonEventStrictParser(boolean objectsKeysCanBeEncoded, TokenEventListener tokenEventListener) {
+        super(objectsKeysCanBeEncoded, tokenEventListener);
+    }
 
     /**
      * Construct JsonEventStrictParser.
      * @param objectsKeysCanBeEncoded can object keys be encoded
      * @param tokenEventListener token listener
+     * @param maxDepth the maximum number of nested objects and arrays
      */
-    public JsonEventStrictParser(boolean objectsKeysCanBeEncoded, TokenEventListener tokenEventListener) {
-        super(objectsKeysCanBeEncoded, tokenEventListener);
+    public JsonEventStrictParser(boolean objectsKeysCanBeEncoded, TokenEventListener tokenEventListener, int maxDepth) {
+        super(objectsKeysCanBeEncoded, tokenEventListener, maxDepth);
     }
 
     @Override
     public void parseWithEvents(CharSource source, final TokenEventListener event) {
 
+        int[] stack = new int[16];
+        int depth = -1;
         int ch = source.nextSkipWhiteSpace();
+        int step = STEP_VALUE;
+
+        while (true) {
+            switch (step) {
+                case STEP_VALUE:
+                    switch (ch) {
+                        case ParseConstants.OBJECT_START_TOKEN:
+                        case ParseConstants.ARRAY_START_TOKEN:
+                            if (++depth >= maxDepth) {
+                                throw new UnexpectedCharacterException("Next level violation", "Too many levels " + (depth + 1), source);
+                            }
+                            if (depth == stack.length) {
+                                stack = Arrays.copyOf(stack, stack.length * 2);
+                            }
+                            if (ch == ParseConstants.OBJECT_START_TOKEN) {
+                                stack[depth] = TokenTypes.OBJECT_TOKEN;
+                                event.start(TokenTypes.OBJECT_TOKEN, source.getIndex(), source);
+                                step = STEP_KEY;
+                            } else {
+                                stack[depth] = TokenTypes.ARRAY_TOKEN;
+                                event.start(TokenTypes.ARRAY_TOKEN, source.getIndex(), source);
+                                step = STEP_ARRAY_ITEM;
+                            }
+                            continue;
+
+                        case ParseConstants.TRUE_BOOLEAN_START:
+                            parseTrue(source, event);
+                            break;
+
+                        case ParseConstants.FALSE_BOOLEAN_START:
+                            parseFalse(source, event);
+                            break;
+
+                        case ParseConstants.NULL_START:
+                            parseNull(source, event);
+                            break;
+
+                        case ParseConstants.STRING_START_TOKEN:
+                            parseString(source, event);
+                            break;
+
+                        case ParseConstants.NUM_0:
+                        case ParseConstants.NUM_1:
+                        case ParseConstants.NUM_2:
+                        case ParseConstants.NUM_3:
+                        case ParseConstants.NUM_4:
+                        case ParseConstants.NUM_5:
+                        case ParseConstants.NUM_6:
+                        case ParseConstants.NUM_7:
+                        case ParseConstants.NUM_8:
+                        case ParseConstants.NUM_9:
+                        case ParseConstants.MINUS:
+                        case ParseConstants.PLUS:
+                            parseNumber(source, event);
+                            break;
+
+                        default:
+                            throw new UnexpectedCharacterException(whileDoing(stack, depth), "Unexpected character", source, (char) ch);
+                    }
+                    step = STEP_AFTER_VALUE;
+                    continue;
 
+                case STEP_KEY:
+                    if (parseKey(source, event)) {
+                        source.next();
+                        event.end(TokenTypes.OBJECT_TOKEN, source.getIndex(), source);
+                        depth--;
+                        step = STEP_AFTER_VALUE;
+                    } else {
+                        ch = source.nextSkipWhiteSpace();
+                        event.start(TokenTypes.ATTRIBUTE_VALUE_TOKEN, source.getIndex(), source);
+                        step = STEP_VALUE;
+                    }
+                    continue;
+
+                case STEP_ARRAY_ITEM:
+                    final char startChar = source.getCurrentChar();
+                    ch = source.nextSkipWhiteSpace();
+                    if (ch == ParseConstants.ARRAY_END_TOKEN) {
+                        if (startChar == ParseConstants.ARRAY_SEP) {
+                            throw new UnexpectedCharacterException("Parsing Array Item", "Trailing comma", source, (char) ch);
+                        }
+                        source.next();
+                        event.end(TokenTypes.ARRAY_TOKEN, source.getIndex(), source);
+                        depth--;
+                        step = STEP_AFTER_VALUE;
+                    } else {
+                        event.start(TokenTypes.ARRAY_ITEM_TOKEN, source.getIndex(), source);
+                        step = STEP_VALUE;
+                    }
+                    continue;
 
-        switch (ch) {
-            case ParseConstants.OBJECT_START_TOKEN:
-                parseObject(source, event);
-                break;
-
-            case ParseConstants.ARRAY_START_TOKEN:
-                parseArray(source, event);
-                break;
-
-            case ParseConstants.TRUE_BOOLEAN_START:
-                parseTrue(source, event);
-                break;
-
-            case ParseConstants.FALSE_BOOLEAN_START:
-                parseFalse(source, event);
-                break;
-
-            case ParseConstants.NULL_START:
-                parseNull(source, event);
-                break;
-
-            case ParseConstants.STRING_START_TOKEN:
-                parseString(source, event);
-                break;
+                case STEP_AFTER_VALUE:
+                    if (depth < 0) {
+                        source.checkForJunk();
+                        return;
+                    }
+                    if (stack[depth] == TokenTypes.ARRAY_TOKEN) {
+                        event.end(TokenTypes.ARRAY_ITEM_TOKEN, source.getIndex(), source);
+                        if (source.findCommaOrEndForArray()) {
+                            event.end(TokenTypes.ARRAY_TOKEN, source.getIndex(), source);
+                            depth--;
+                        } else {
+                            step = STEP_ARRAY_ITEM;
+                        }
+                        continue;
+                    }
 
-            case ParseConstants.NUM_0:
-            case ParseConstants.NUM_1:
-            case ParseConstants.NUM_2:
-            case ParseConstants.NUM_3:
-            case ParseConstants.NUM_4:
-            case ParseConstants.NUM_5:
-            case ParseConstants.NUM_6:
-            case ParseConstants.NUM_7:
-            case ParseConstants.NUM_8:
-            case ParseConstants.NUM_9:
-            case ParseConstants.MINUS:
-            case ParseConstants.PLUS:
-                parseNumber(source, event);
-                break;
+                    source.skipWhiteSpace();
+                    switch (source.getCurrentChar()) {
+                        case ParseConstants.OBJECT_END_TOKEN:
+                            event.end(TokenTypes.ATTRIBUTE_VALUE_TOKEN, source.getIndex(), source);
+                            source.next();
+                            event.end(TokenTypes.OBJECT_TOKEN, source.getIndex(), source);
+                            depth--;
+                            continue;
+                        case ParseConstants.OBJECT_ATTRIBUTE_SEP:
+                            event.end(TokenTypes.ATTRIBUTE_VALUE_TOKEN, source.getIndex(), source);
+                            step = STEP_KEY;
+                            continue;
+                        default:
+                            throw new UnexpectedCharacterException("Parsing Value", "Unexpected character", source, source.getCurrentChar());
+                    }
 
-            default:
-                throw new UnexpectedCharacterException("Scanning JSON", "Unexpected character", source, (char) ch);
+                default:
+                    throw new IllegalStateException("Unknown parse step " + step);
+            }
         }
+    }
 
-        source.checkForJunk();
-
-
+    private static String whileDoing(final int[] stack, final int depth) {
+        if (depth < 0) {
+            return "Scanning JSON";
+        }
+        return stack[depth] == TokenTypes.ARRAY_TOKEN ? "Parsing Array Item" : "Parsing Value";
     }
 
     private void parseFalse(final CharSource source, final TokenEventListener event) {
@@ -115,131 +215,30 @@ public class JsonEventStrictParser extends JsonEventAbstractParser {
         event.end(TokenTypes.NULL_TOKEN, source.findNullEnd(), source);
     }
 
-    private void parseArray(final CharSource source, final TokenEventListener event) {
-        levelCheck(source);
-        event.start(TokenTypes.ARRAY_TOKEN, source.getIndex(), source);
-        boolean done = false;
-        while (!done) {
-            done = parseArrayItem(source, event);
-
-            if (!done) {
-                done = source.findCommaOrEndForArray();
-            }
-        }
-        event.end(TokenTypes.ARRAY_TOKEN, source.getIndex(), source);
-    }
-
-    private boolean parseArrayItem(CharSource source, final TokenEventListener event) {
-
-        char startChar = source.getCurrentChar();
-        int ch = source.nextSkipWhiteSpace();
-
-        switch (ch) {
-            case ParseConstants.OBJECT_START_TOKEN:
-                event.start(TokenTypes.ARRAY_ITEM_TOKEN, source.getIndex(), source);
-                parseObject(source, event);
-                event.end(TokenTypes.ARRAY_ITEM_TOKEN, source.getIndex(), source);
-                break;
-
-            case ParseConstants.ARRAY_START_TOKEN:
-                event.start(TokenTypes.ARRAY_ITEM_TOKEN, source.getIndex(), source);
-                parseArray(source, event);
-                event.end(TokenTypes.ARRAY_ITEM_TOKEN, source.getIndex(), source);
-                break;
-
-            case ParseConstants.TRUE_BOOLEAN_START:
-                event.start(TokenTypes.ARRAY_ITEM_TOKEN, source.getIndex(), source);
-                parseTrue(source, event);
-                event.end(TokenTypes.ARRAY_ITEM_TOKEN, source.getIndex(), source);
-                break;
-
-            case ParseConstants.FALSE_BOOLEAN_START:
-                event.start(TokenTypes.ARRAY_ITEM_TOKEN, source.getIndex(), source);
-                parseFalse(source, event);
-                event.end(TokenTypes.ARRAY_ITEM_TOKEN, source.getIndex(), source);
-                break;
-
-            case ParseConstants.NULL_START:
-                event.start(TokenTypes.ARRAY_ITEM_TOKEN, source.getIndex(), source);
-                parseNull(source, event);
-                event.end(TokenTypes.ARRAY_ITEM_TOKEN, source.getIndex(), source);
-                break;
-
-            case ParseConstants.STRING_START_TOKEN:
-                event.start(TokenTypes.ARRAY_ITEM_TOKEN, source.getIndex(), source);
-                parseString(source, event);
-                event.end(TokenTypes.ARRAY_ITEM_TOKEN, source.getIndex(), source);
-                break;
-
-            case ParseConstants.NUM_0:
-            case ParseConstants.NUM_1:
-            case ParseConstants.NUM_2:
-            case ParseConstants.NUM_3:
-            case ParseConstants.NUM_4:
-            case ParseConstants.NUM_5:
-            case ParseConstants.NUM_6:
-            case ParseConstants.NUM_7:
-            case ParseConstants.NUM_8:
-            case ParseConstants.NUM_9:
-            case ParseConstants.MINUS:
-            case ParseConstants.PLUS:
-                event.start(TokenTypes.ARRAY_ITEM_TOKEN, source.getIndex(), source);
-                parseNumber(source, event);
-                event.end(TokenTypes.ARRAY_ITEM_TOKEN, source.getIndex(), source);
-                if (source.getCurrentChar() == ParseConstants.ARRAY_END_TOKEN || source.getCurrentChar() == ParseConstants.ARRAY_SEP) {
-                    if (source.getCurrentChar() == ParseConstants.ARRAY_END_TOKEN) {
-                        source.next();
-                        return true;
-                    }
-                }
-                break;
-
-            case ParseConstants.ARRAY_END_TOKEN:
-                if (startChar == ParseConstants.ARRAY_SEP) {
-                    throw new UnexpectedCharacterException("Parsing Array Item", "Trailing comma", source, (char) ch);
-                }
-                source.next();
-                return true;
-
-
-            default:
-                throw new UnexpectedCharacterException("Parsing Array Item", "Unexpected character", source, (char) ch);
-
-        }
-
-        return false;
-    }
-
     private void parseNumber(final CharSource source, final TokenEventListener event) {
         final int startIndex = source.getIndex();
         final NumberParseResult numberParse = source.findEndOfNumber();
         final int tokenType = numberParse.wasFloat() ? TokenTypes.FLOAT_TOKEN : TokenTypes.INT_TOKEN;
-        event.start(tokenType, startIndex, source);
-        event.end(tokenType, numberParse.endIndex(), source);
+        event.number(tokenType, startIndex, numberParse.endIndex(), numberParse.numberFlags(), source);
     }
 
     private boolean parseKey(final CharSource source, final TokenEventListener event) {
 
         final char startChar = source.getCurrentChar();
-        int ch = source.nextSkipWhiteSpace();
-        event.start(TokenTypes.ATTRIBUTE_KEY_TOKEN, source.getIndex(), source);
-        boolean found = false;
-
+        final int ch = source.nextSkipWhiteSpace();
 
         switch (ch) {
 
-
             case ParseConstants.STRING_START_TOKEN:
                 final int strStartIndex = source.getIndex();
-                event.start(TokenTypes.STRING_TOKEN, strStartIndex + 1, source);
+                event.start(TokenTypes.ATTRIBUTE_KEY_TOKEN, strStartIndex, source);
                 final int strEndIndex;
                 if (objectsKeysCanBeEncoded) {
                     strEndIndex = source.findEndOfEncodedString();
                 } else {
                     strEndIndex = source.findEndString();
                 }
-                found = true;
-                event.end(TokenTypes.STRING_TOKEN, strEndIndex, source);
+                event.string(strStartIndex + 1, strEndIndex, source.stringEscaped(), source);
                 break;
 
             case ParseConstants.OBJECT_END_TOKEN:
@@ -252,109 +251,17 @@ public class JsonEventStrictParser extends JsonEventAbstractParser {
                 throw new UnexpectedCharacterException("Parsing key", "Unexpected character found", source);
         }
 
-
-        boolean done = source.findObjectEndOrAttributeSep();
-
-        if (!done && found) {
-            event.end(TokenTypes.ATTRIBUTE_KEY_TOKEN, source.getIndex(), source);
-        } else if (found && done) {
+        if (source.findObjectEndOrAttributeSep()) {
             throw new UnexpectedCharacterException("Parsing key", "Not found", source);
         }
-        return done;
-    }
-
-    private boolean parseValue(final CharSource source, final TokenEventListener event) {
-        int ch = source.nextSkipWhiteSpace();
-        event.start(TokenTypes.ATTRIBUTE_VALUE_TOKEN, source.getIndex(), source);
-
-        switch (ch) {
-            case ParseConstants.OBJECT_START_TOKEN:
-                parseObject(source, event);
-                break;
-
-            case ParseConstants.ARRAY_START_TOKEN:
-                parseArray(source, event);
-                break;
-
-            case ParseConstants.TRUE_BOOLEAN_START:
-                parseTrue(source, event);
-                break;
-
-            case ParseConstants.FALSE_BOOLEAN_START:
-                parseFalse(source, event);
-                break;
-
-            case ParseConstants.NULL_START:
-                parseNull(source, event);
-                break;
-
-            case ParseConstants.STRING_START_TOKEN:
-                parseString(source, event);
-                break;
-
-            case ParseConstants.NUM_0:
-            case ParseConstants.NUM_1:
-            case ParseConstants.NUM_2:
-            case ParseConstants.NUM_3:
-            case ParseConstants.NUM_4:
-            case ParseConstants.NUM_5:
-            case ParseConstants.NUM_6:
-            case ParseConstants.NUM_7:
-            case ParseConstants.NUM_8:
-            case ParseConstants.NUM_9:
-            case ParseConstants.MINUS:
-            case ParseConstants.PLUS:
-                parseNumber(source, event);
-                break;
-
-            default:
-                throw new UnexpectedCharacterException("Parsing Value", "Unexpected character", source, ch);
-        }
-
-        source.skipWhiteSpace();
-
-        switch (source.getCurrentChar()) {
-            case ParseConstants.OBJECT_END_TOKEN:
-                event.end(TokenTypes.ATTRIBUTE_VALUE_TOKEN, source.getIndex(), source);
-                return true;
-            case ParseConstants.OBJECT_ATTRIBUTE_SEP:
-                event.end(TokenTypes.ATTRIBUTE_VALUE_TOKEN, source.getIndex(), source);
-                return false;
-
-            default:
-                throw new UnexpectedCharacterException("Parsing Value", "Unexpected character", source, source.getCurrentChar());
-
-        }
+        event.end(TokenTypes.ATTRIBUTE_KEY_TOKEN, source.getIndex(), source);
+        return false;
     }
 
     private void parseString(final CharSource source, final TokenEventListener event) {
-        event.start(TokenTypes.STRING_TOKEN, source.getIndex() + 1, source);
-        event.end(TokenTypes.STRING_TOKEN, source.findEndOfEncodedString(), source);
-    }
-
-    private void parseObject(final CharSource source, final TokenEventListener event) {
-        levelCheck(source);
-        event.start(TokenTypes.OBJECT_TOKEN, source.getIndex(), source);
-
-        boolean done = false;
-        while (!done) {
-            done = parseKey(source, event);
-            if (!done)
-                done = parseValue(source, event);
-        }
-
-        if (source.getCurrentChar() != ParseConstants.OBJECT_END_TOKEN) {
-            throw new UnexpectedCharacterException("Parsing Object", "Unexpected character", source, source.getCurrentCharSafe());
-        }
-        source.next();
-        event.end(TokenTypes.OBJECT_TOKEN, source.getIndex(), source);
-    }
-
-    private void levelCheck(CharSource source) {
-        nestLevel++;
-        if (nestLevel > ParseConstants.NEST_LEVEL) {
-            throw new UnexpectedCharacterException("Next level violation", "Too many levels " + nestLevel, source);
-        }
+        final int startIndex = source.getIndex() + 1;
+        final int endIndex = source.findEndOfEncodedString();
+        event.string(startIndex, endIndex, source.stringEscaped(), source);
     }
 
 }
@@ -0,0 +1,623 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.parser.event;
+
+import io.nats.jparse.node.support.CharArrayUtils;
+import io.nats.jparse.node.support.ParseConstants;
+import io.nats.jparse.source.CharArrayOffsetCharSource;
+import io.nats.jparse.source.CharSource;
+import io.nats.jparse.source.support.UnexpectedCharacterException;
+import io.nats.jparse.token.TokenEventListener;
+import io.nats.jparse.token.TokenTypes;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A resumable push parser for JSON that arrives in chunks.
+ * <p>
+ * Each call to `feed` decodes the UTF-8 bytes of one chunk and advances a state machine over them, emitting the same
+ * `TokenEventListener` events as `JsonEventStrictParser`. The state machine can stop in the middle of any token,
+ * including a multi-byte character, and picks up where it left off on the next chunk. `endOfInput()` finishes a
+ * trailing number and checks that the document is complete.
+ * <p>
+ * Event indexes are offsets into the whole document. The `CharSource` handed to the listener holds the characters
+ * decoded so far, so listeners can read any range that has already been reported. To keep that promise the parser
+ * holds the whole decoded document until `reset()`, so its memory grows with the document rather than the chunk: a
+ * 100 MB payload needs a 100 M char buffer. The `CharSource` is created with the buffer and only replaced when the
+ * buffer grows, so it also covers capacity that has not been decoded yet; listeners should only read reported ranges.
+ * <pre>
+ *     final JsonFeedParser parser = new JsonFeedParser(listener);
+ *     parser.feed(chunk1);
+ *     parser.feed(chunk2);
+ *     parser.endOfInput();
+ * </pre>
+ */
+public class JsonFeedParser implements ParseConstants {
+
+    private static final int ROOT_VALUE = 0;
+    private static final int ROOT_DONE = 1;
+    private static final int OBJECT_KEY_OR_END = 2;
+    private static final int OBJECT_KEY = 3;
+    private static final int OBJECT_COLON = 4;
+    private static final int OBJECT_VALUE = 5;
+    private static final int OBJECT_NEXT = 6;
+    private static final int ARRAY_VALUE_OR_END = 7;
+    private static final int ARRAY_VALUE = 8;
+    private static final int ARRAY_NEXT = 9;
+
+    private static final int SCALAR_NONE = 0;
+    private static final int SCALAR_STRING = 1;
+    private static final int SCALAR_KEY = 2;
+    private static final int SCALAR_NUMBER = 3;
+    private static final int SCALAR_LITERAL = 4;
+
+    private static final char[] TRUE_CHARS = "true".toCharArray();
+    private static final char[] FALSE_CHARS = "false".toCharArray();
+    private static final char[] NULL_CHARS = "null".toCharArray();
+
+    private final TokenEventListener listener;
+    private final int maxDepth;
+
+    private char[] chars = new char[256];
+    private int length;
+    private int position;
+    private CharSource source;
+
+    private int[] states = new int[16];
+    private int depth;
+
+    private int scalar;
+    private int scalarStartIndex;
+    private boolean escaped;
+    private boolean stringEscaped;
+    private int hexDigits;
+    private boolean numberIsFloat;
+    private char[] literal;
+    private int literalIndex;
+
+    private int codePoint;
+    private int continuationBytes;
+    private int minCodePoint;
+
+    /**
+     * Construct JsonFeedParser.
+     *
+     * @param listener token listener
+     */
+    public JsonFeedParser(final TokenEventListener listener) {
+        this(listener, NEST_LEVEL);
+    }
+
+    /**
+     * Construct JsonFeedParser.
+     *
+     * @param listener token listener
+     * @param maxDepth the maximum number of nested objects and arrays
+     */
+    public JsonFeedParser(final TokenEventListener listener, final int maxDepth) {
+        this.listener = listener;
+        this.maxDepth = maxDepth;
+        reset();
+    }
+
+    /**
+     * Discards all input and state so the parser can be used for a new document. The internal buffer is kept.
+     */
+    public void reset() {
+        length = 0;
+        position = 0;
+        depth = 0;
+        states[0] = ROOT_VALUE;
+        scalar = SCALAR_NONE;
+        escaped = false;
+        hexDigits = 0;
+        codePoint = 0;
+        continuationBytes = 0;
+        source = new CharArrayOffsetCharSource(0, chars.length, chars);
+    }
+
+    /**
+     * Feeds the next chunk of UTF-8 encoded bytes.
+     *
+     * @param bytes the chunk
+     */
+    public void feed(final byte[] bytes) {
+        feed(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Feeds the next chunk of UTF-8 encoded bytes.
+     *
+     * @param bytes  the array holding the chunk
+     * @param offset the offset of the chunk in the array
+     * @param count  the number of bytes in the chunk
+     */
+    public void feed(final byte[] bytes, final int offset, final int count) {
+        ensureCapacity(count);
+        final int end = offset + count;
+        for (int i = offset; i < end; i++) {
+            decode(bytes[i]);
+        }
+        parseAvailable();
+    }
+
+    /**
+     * Feeds the remaining bytes of the buffer as the next chunk of UTF-8 encoded bytes.
+     *
+     * @param buffer the chunk, its position is advanced to its limit
+     */
+    public void feed(final ByteBuffer buffer) {
+        final int count = buffer.remaining();
+        if (buffer.hasArray()) {
+            feed(buffer.array(), buffer.arrayOffset() + buffer.position(), count);
+            buffer.position(buffer.limit());
+        } else {
+            ensureCapacity(count);
+            for (int i = 0; i < count; i++) {
+                decode(buffer.get());
+            }
+            parseAvailable();
+        }
+    }
+
+    /**
+     * Signals that no more input will arrive. Finishes a trailing number and checks the document is complete.
+     */
+    public void endOfInput() {
+        if (continuationBytes != 0) {
+            throw new UnexpectedCharacterException("Feeding JSON", "Truncated UTF-8 sequence", source, ETX, length);
+        }
+        if (scalar == SCALAR_NUMBER) {
+            endNumber(length);
+        }
+        if (scalar != SCALAR_NONE || depth != 0 || states[0] != ROOT_DONE) {
+            throw new UnexpectedCharacterException("Feeding JSON", "Unexpected end of input", source, ETX, length);
+        }
+    }
+
+    private void ensureCapacity(final int count) {
+        if (length + count > chars.length) {
+            chars = Arrays.copyOf(chars, Math.max(chars.length * 2, length + count));
+            source = new CharArrayOffsetCharSource(0, chars.length, chars);
+        }
+    }
+
+    private void decode(final byte b) {
+        if (continuationBytes > 0) {
+            if ((b & 0xC0) != 0x80) {
+                throw new UnexpectedCharacterException("Feeding JSON", "Invalid UTF-8 continuation byte", b & 0xFF, length);
+            }
+            codePoint = (codePoint << 6) | (b & 0x3F);
+            if (--continuationBytes == 0) {
+                if (codePoint < minCodePoint) {
+                    throw new UnexpectedCharacterException("Feeding JSON", "Overlong UTF-8 sequence", codePoint, length);
+                } else if (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE) {
+                    throw new UnexpectedCharacterException("Feeding JSON", "UTF-8 encoded surrogate", codePoint, length);
+                } else if (codePoint > Character.MAX_CODE_POINT) {
+                    throw new UnexpectedCharacterException("Feeding JSON", "UTF-8 code point above U+10FFFF",
+                            codePoint, length);
+                } else if (codePoint >= Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                    chars[length++] = Character.highSurrogate(codePoint);
+                    chars[length++] = Character.lowSurrogate(codePoint);
+                } else {
+                    chars[length++] = (char) codePoint;
+                }
+            }
+        } else if (b >= 0) {
+            chars[length++] = (char) b;
+        } else if ((b & 0xE0) == 0xC0) {
+            codePoint = b & 0x1F;
+            continuationBytes = 1;
+            minCodePoint = 0x80;
+        } else if ((b & 0xF0) == 0xE0) {
+            codePoint = b & 0x0F;
+            continuationBytes = 2;
+            minCodePoint = 0x800;
+        } else if ((b & 0xF8) == 0xF0) {
+            codePoint = b & 0x07;
+            continuationBytes = 3;
+            minCodePoint = Character.MIN_SUPPLEMENTARY_CODE_POINT;
+        } else {
+            throw new UnexpectedCharacterException("Feeding JSON", "Invalid UTF-8 lead byte", b & 0xFF, length);
+        }
+    }
+
+    private void parseAvailable() {
+        final char[] chars = this.chars;
+        final int length = this.length;
+        while (position < length) {
+            final char ch = chars[position];
+            if (scalar != SCALAR_NONE) {
+                scalarChar(ch);
+            } else {
+                structuralChar(ch);
+            }
+        }
+    }
+
+    private void scalarChar(final char ch) {
+        switch (scalar) {
+            case SCALAR_STRING:
+            case SCALAR_KEY:
+                if (hexDigits != 0) {
+                    if (!isHex(ch)) {
+                        throw unexpected("Parsing hex encoding in a string", ch);
+                    }
+                    hexDigits--;
+                } else if (escaped) {
+                    escaped = false;
+                    switch (ch) {
+                        case CONTROL_ESCAPE_TOKEN:
+                        case STRING_END_TOKEN:
+                        case 'n':
+                        case 'b':
+                        case '/':
+                        case 'r':
+                        case 't':
+                        case 'f':
+                            break;
+                        case U_:
+                            hexDigits = 4;
+                            break;
+                        default:
+                            throw unexpected("Parsing JSON String", ch);
+                    }
+                } else if (ch == CONTROL_ESCAPE_TOKEN) {
+                    escaped = true;
+                    stringEscaped = true;
+                } else if (ch == STRING_END_TOKEN) {
+                    endString();
+                } else if (ch < SPACE_WS) {
+                    throw unexpected("Parsing JSON String", ch);
+                }
+                position++;
+                return;
+
+            case SCALAR_NUMBER:
+                switch (ch) {
+                    case NUM_0:
+                    case NUM_1:
+                    case NUM_2:
+                    case NUM_3:
+                    case NUM_4:
+                    case NUM_5:
+                    case NUM_6:
+                    case NUM_7:
+                    case NUM_8:
+                    case NUM_9:
+                    case MINUS:
+                    case PLUS:
+                        position++;
+                        return;
+                    case DECIMAL_POINT:
+                    case EXPONENT_MARKER:
+                    case EXPONENT_MARKER2:
+                        numberIsFloat = true;
+                        position++;
+                        return;
+                    default:
+                        /* The terminating character is processed again as structure. */
+                        endNumber(position);
+                        return;
+                }
+
+            case SCALAR_LITERAL:
+                if (ch != literal[literalIndex]) {
+                    throw unexpected("Parsing JSON Literal", ch);
+                }
+                position++;
+                if (++literalIndex == literal.length) {
+                    scalar = SCALAR_NONE;
+                    final int tokenType = literal == NULL_CHARS ? TokenTypes.NULL_TOKEN : TokenTypes.BOOLEAN_TOKEN;
+                    listener.start(tokenType, scalarStartIndex, source);
+                    listener.end(tokenType, position, source);
+                    valueDone(position);
+                }
+                return;
+
+            default:
+                throw new IllegalStateException("Unknown scalar state " + scalar);
+        }
+    }
+
+    private void structuralChar(final char ch) {
+        switch (ch) {
+            case NEW_LINE_WS:
+            case CARRIAGE_RETURN_WS:
+            case TAB_WS:
+            case SPACE_WS:
+                position++;
+                return;
+        }
+
+        final int index = position;
+        switch (states[depth]) {
+            case ROOT_VALUE:
+                states[depth] = ROOT_DONE;
+                startValue(ch);
+                return;
+
+            case ROOT_DONE:
+                throw unexpected("Feeding JSON", ch);
+
+            case OBJECT_KEY_OR_END:
+                if (ch == OBJECT_END_TOKEN) {
+                    endObject();
+                    return;
+                }
+                startKey(ch);
+                return;
+
+            case OBJECT_KEY:
+                startKey(ch);
+                return;
+
+            case OBJECT_COLON:
+                if (ch != ATTRIBUTE_SEP) {
+                    throw unexpected("Parsing key", ch);
+                }
+                listener.end(TokenTypes.ATTRIBUTE_KEY_TOKEN, index, source);
+                states[depth] = OBJECT_VALUE;
+                position++;
+                return;
+
+            case OBJECT_VALUE:
+                states[depth] = OBJECT_NEXT;
+                listener.start(TokenTypes.ATTRIBUTE_VALUE_TOKEN, index, source);
+                startValue(ch);
+                return;
+
+            case OBJECT_NEXT:
+                if (ch == OBJECT_ATTRIBUTE_SEP) {
+                    listener.end(TokenTypes.ATTRIBUTE_VALUE_TOKEN, index, source);
+                    states[depth] = OBJECT_KEY;
+                    position++;
+                } else if (ch == OBJECT_END_TOKEN) {
+                    listener.end(TokenTypes.ATTRIBUTE_VALUE_TOKEN, index, source);
+                    endObject();
+                } else {
+                    throw unexpected("Parsing Value", ch);
+                }
+                return;
+
+            case ARRAY_VALUE_OR_END:
+                if (ch == ARRAY_END_TOKEN) {
+                    endArray();
+                    return;
+                }
+                states[depth] = ARRAY_NEXT;
+                listener.start(TokenTypes.ARRAY_ITEM_TOKEN, index, source);
+                startValue(ch);
+                return;
+
+            case ARRAY_VALUE:
+                states[depth] = ARRAY_NEXT;
+                listener.start(TokenTypes.ARRAY_ITEM_TOKEN, index, source);
+                startValue(ch);
+                return;
+
+            case ARRAY_NEXT:
+                if (ch == ARRAY_SEP) {
+                    states[depth] = ARRAY_VALUE;
+                    position++;
+                } else if (ch == ARRAY_END_TOKEN) {
+                    endArray();
+                } else {
+                    throw unexpected("Parsing Array Item", ch);
+                }
+                return;
+
+            default:
+                throw new IllegalStateException("Unknown parser state " + states[depth]);
+        }
+    }
+
+    private void startKey(final char ch) {
+        if (ch != STRING_START_TOKEN) {
+            throw unexpected("Parsing key", ch);
+        }
+        listener.start(TokenTypes.ATTRIBUTE_KEY_TOKEN, position, source);
+        position++;
+        scalarStartIndex = position;
+        stringEscaped = false;
+        scalar = SCALAR_KEY;
+    }
+
+    private void startValue(final char ch) {
+        final int index = position;
+        switch (ch) {
+            case OBJECT_START_TOKEN:
+                listener.start(TokenTypes.OBJECT_TOKEN, index, source);
+                push(OBJECT_KEY_OR_END);
+                position++;
+                return;
+
+            case ARRAY_START_TOKEN:
+                listener.start(TokenTypes.ARRAY_TOKEN, index, source);
+                push(ARRAY_VALUE_OR_END);
+                position++;
+                return;
+
+            case STRING_START_TOKEN:
+                position++;
+                scalarStartIndex = position;
+                stringEscaped = false;
+                scalar = SCALAR_STRING;
+                return;
+
+            case TRUE_BOOLEAN_START:
+                startLiteral(TRUE_CHARS);
+                return;
+
+            case FALSE_BOOLEAN_START:
+                startLiteral(FALSE_CHARS);
+                return;
+
+            case NULL_START:
+                startLiteral(NULL_CHARS);
+                return;
+
+            case NUM_0:
+            case NUM_1:
+            case NUM_2:
+            case NUM_3:
+            case NUM_4:
+            case NUM_5:
+            case NUM_6:
+            case NUM_7:
+            case NUM_8:
+            case NUM_9:
+            case MINUS:
+                scalarStartIndex = index;
+                numberIsFloat = false;
+                scalar = SCALAR_NUMBER;
+                position++;
+                return;
+
+            default:
+                throw unexpected("Parsing Value", ch);
+        }
+    }
+
+    private void startLiteral(final char[] literal) {
+        this.literal = literal;
+        literalIndex = 1;
+        scalarStartIndex = position;
+        scalar = SCALAR_LITERAL;
+        position++;
+    }
+
+    private void endString() {
+        final boolean key = scalar == SCALAR_KEY;
+        scalar = SCALAR_NONE;
+        listener.string(scalarStartIndex, position, stringEscaped, source);
+        if (key) {
+            states[depth] = OBJECT_COLON;
+        } else {
+            valueDone(position + 1);
+        }
+    }
+
+    private void endNumber(final int endIndex) {
+        scalar = SCALAR_NONE;
+        if (!isValidNumber(scalarStartIndex, endIndex)) {
+            throw new UnexpectedCharacterException("Parsing JSON Number", "Invalid number", source, chars[endIndex - 1], endIndex - 1);
+        }
+        if (numberIsFloat) {
+            listener.number(TokenTypes.FLOAT_TOKEN, scalarStartIndex, endIndex, floatNumberFlags(endIndex), source);
+        } else {
+            listener.number(TokenTypes.INT_TOKEN, scalarStartIndex, endIndex,
+                    CharArrayUtils.integerNumberFlags(chars, scalarStartIndex, endIndex), source);
+        }
+        valueDone(endIndex);
+    }
+
+    private int floatNumberFlags(final int endIndex) {
+        final char[] chars = this.chars;
+        boolean hasDecimalPoint = false;
+        int i = scalarStartIndex;
+        for (; i < endIndex; i++) {
+            final char ch = chars[i];
+            if (ch == DECIMAL_POINT) {
+                hasDecimalPoint = true;
+            } else if (ch == EXPONENT_MARKER || ch == EXPONENT_MARKER2) {
+                break;
+            }
+        }
+        return CharArrayUtils.floatNumberFlags(chars, scalarStartIndex, i, hasDecimalPoint, i < endIndex);
+    }
+
+    private boolean isValidNumber(final int startIndex, final int endIndex) {
+        final char[] chars = this.chars;
+        int i = startIndex;
+        if (chars[i] == MINUS) {
+            i++;
+        }
+        final int intStart = i;
+        while (i < endIndex && isDigit(chars[i])) {
+            i++;
+        }
+        if (i == intStart || (chars[intStart] == NUM_0 && i - intStart > 1)) {
+            return false;
+        }
+        if (i < endIndex && chars[i] == DECIMAL_POINT) {
+            final int fractionStart = ++i;
+            while (i < endIndex && isDigit(chars[i])) {
+                i++;
+            }
+            if (i == fractionStart) {
+                return false;
+            }
+        }
+        if (i < endIndex && (chars[i] == EXPONENT_MARKER || chars[i] == EXPONENT_MARKER2)) {
+            i++;
+            if (i < endIndex && (chars[i] == MINUS || chars[i] == PLUS)) {
+                i++;
+            }
+            final int exponentStart = i;
+            while (i < endIndex && isDigit(chars[i])) {
+                i++;
+            }
+            if (i == exponentStart) {
+                return false;
+            }
+        }
+        return i == endIndex;
+    }
+
+    private static boolean isDigit(final char ch) {
+        return ch >= NUM_0 && ch <= NUM_9;
+    }
+
+    private void endObject() {
+        position++;
+        depth--;
+        listener.end(TokenTypes.OBJECT_TOKEN, position, source);
+        valueDone(position);
+    }
+
+    private void endArray() {
+        position++;
+        depth--;
+        listener.end(TokenTypes.ARRAY_TOKEN, position, source);
+        valueDone(position);
+    }
+
+    private void valueDone(final int endIndex) {
+        if (states[depth] == ARRAY_NEXT) {
+            listener.end(TokenTypes.ARRAY_ITEM_TOKEN, endIndex, source);
+        }
+    }
+
+    private void push(final int state) {
+        if (++depth > maxDepth) {
+            throw new UnexpectedCharacterException("Next level violation", "Too many levels " + depth, source);
+        }
+        if (depth >= states.length) {
+            states = Arrays.copyOf(states, states.length * 2);
+        }
+        states[depth] = state;
+    }
+
+    private static boolean isHex(final char ch) {
+        return (ch >= '0' && ch <= '9') || (ch >= 'a' && ch <= 'f') || (ch >= 'A' && ch <= 'F');
+    }
+
+    private UnexpectedCharacterException unexpected(final String whileDoing, final char ch) {
+        return new UnexpectedCharacterException(whileDoing, "Unexpected character", source, ch, position);
+    }
+}
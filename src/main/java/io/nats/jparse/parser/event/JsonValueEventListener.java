@@ -0,0 +1,146 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.parser.event;
+
+import io.nats.jparse.node.support.ParseConstants;
+import io.nats.jparse.parser.JsonValueHandler;
+import io.nats.jparse.source.CharSource;
+import io.nats.jparse.source.support.CharSourceView;
+import io.nats.jparse.token.TokenEventListener;
+import io.nats.jparse.token.TokenTypes;
+
+import java.math.BigInteger;
+
+/**
+ * Adapts token events to typed `JsonValueHandler` callbacks.
+ * <p>
+ * Each scalar is decoded once. Keys and strings without escapes are handed over through a single reused
+ * `CharSourceView`; only escaped strings are decoded into a new `String`. Strings and numbers arrive through
+ * `string` and `number` together with what the scanner already knows (whether the string had an escape, whether the
+ * integer fits in a `long`). Scalars that arrive as plain start and end events are inspected here instead.
+ */
+public final class JsonValueEventListener implements TokenEventListener {
+
+    private final JsonValueHandler handler;
+    private final CharSourceView view = new CharSourceView();
+    private int valueStartIndex;
+    private boolean inKey;
+
+    /**
+     * Construct JsonValueEventListener.
+     *
+     * @param handler the handler to forward decoded values to
+     */
+    public JsonValueEventListener(final JsonValueHandler handler) {
+        this.handler = handler;
+    }
+
+    @Override
+    public void start(final int tokenId, final int index, final CharSource source) {
+        switch (tokenId) {
+            case TokenTypes.OBJECT_TOKEN:
+                handler.beginObject();
+                break;
+            case TokenTypes.ARRAY_TOKEN:
+                handler.beginArray();
+                break;
+            case TokenTypes.ATTRIBUTE_KEY_TOKEN:
+                inKey = true;
+                break;
+            case TokenTypes.STRING_TOKEN:
+            case TokenTypes.INT_TOKEN:
+            case TokenTypes.FLOAT_TOKEN:
+            case TokenTypes.BOOLEAN_TOKEN:
+            case TokenTypes.NULL_TOKEN:
+                valueStartIndex = index;
+                break;
+        }
+    }
+
+    @Override
+    public void end(final int tokenId, final int index, final CharSource source) {
+        switch (tokenId) {
+            case TokenTypes.OBJECT_TOKEN:
+                handler.endObject();
+                break;
+            case TokenTypes.ARRAY_TOKEN:
+                handler.endArray();
+                break;
+            case TokenTypes.ATTRIBUTE_KEY_TOKEN:
+                inKey = false;
+                break;
+            case TokenTypes.STRING_TOKEN:
+                string(valueStartIndex, index, hasEscape(valueStartIndex, index, source), source);
+                break;
+            case TokenTypes.INT_TOKEN:
+                if (index - valueStartIndex < ParseConstants.MAX_LONG_STR_LENGTH) {
+                    handler.onLong(source.getLong(valueStartIndex, index));
+                } else {
+                    onBigInteger(source.getBigInteger(valueStartIndex, index));
+                }
+                break;
+            case TokenTypes.FLOAT_TOKEN:
+                handler.onDouble(source.getDouble(valueStartIndex, index));
+                break;
+            case TokenTypes.BOOLEAN_TOKEN:
+                handler.onBoolean(source.getChartAt(valueStartIndex) == 't');
+                break;
+            case TokenTypes.NULL_TOKEN:
+                handler.onNull();
+                break;
+        }
+    }
+
+    @Override
+    public void string(final int startIndex, final int endIndex, final boolean escaped, final CharSource source) {
+        final CharSequence string = escaped ? source.getEncodedString(startIndex, endIndex)
+                : view.set(source, startIndex, endIndex);
+        if (inKey) {
+            handler.onKey(string);
+        } else {
+            handler.onString(string);
+        }
+    }
+
+    @Override
+    public void number(final int tokenId, final int startIndex, final int endIndex, final int numberFlags,
+                       final CharSource source) {
+        if (tokenId == TokenTypes.FLOAT_TOKEN) {
+            handler.onDouble(source.getDouble(startIndex, endIndex));
+        } else if ((numberFlags & TokenTypes.NUMBER_FITS_LONG_FLAG) != 0) {
+            handler.onLong(source.getLong(startIndex, endIndex));
+        } else {
+            onBigInteger(source.getBigInteger(startIndex, endIndex));
+        }
+    }
+
+    private void onBigInteger(final BigInteger value) {
+        if (value.bitLength() < Long.SIZE) {
+            handler.onLong(value.longValue());
+        } else {
+            handler.onBigInteger(value);
+        }
+    }
+
+    private static boolean hasEscape(final int startIndex, final int endIndex, final CharSource source) {
+        for (int i = startIndex; i < endIndex; i++) {
+            if (source.getChartAt(i) == ParseConstants.CONTROL_ESCAPE_TOKEN) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
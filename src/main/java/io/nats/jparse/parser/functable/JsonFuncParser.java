@@ -139,8 +139,7 @@ public class JsonFuncParser implements JsonParser {
                     return true;
 
                 case ARRAY_SEP:
-                    source.next();
-                    return false;
+                    continue;
 
                 default:
                     doParse(source, tokens, ch);
@@ -5,6 +5,7 @@ import io.nats.jparse.node.support.ParseConstants;
 import io.nats.jparse.node.support.TokenList;
 import io.nats.jparse.source.CharSource;
 import io.nats.jparse.source.support.UnexpectedCharacterException;
+import io.nats.jparse.token.NumberToken;
 import io.nats.jparse.token.Token;
 import io.nats.jparse.token.TokenTypes;
 
@@ -69,7 +70,7 @@ public class JsonParserFunctions {
     public static void parseNumber(final CharSource source, TokenList tokens) {
         final int startIndex = source.getIndex();
         final NumberParseResult numberParse = source.findEndOfNumberFast();
-        tokens.add(new Token(startIndex, numberParse.endIndex(), numberParse.wasFloat() ? TokenTypes.FLOAT_TOKEN : TokenTypes.INT_TOKEN));
+        tokens.add(new NumberToken(startIndex, numberParse.endIndex(), numberParse.tokenType(), numberParse.numberFlags()));
     }
 
     /**
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.parser.indexoverlay;
+
+import io.nats.jparse.parser.JsonParser;
+
+import java.lang.invoke.MethodHandles;
+
+/**
+ * Creates `JsonFastParser` instances specialized for their options and source type.
+ * <p>
+ * The library targets Java 8, which cannot define hidden classes, so this version returns plain instances. The jar
+ * carries a Java 17 version of this class under `META-INF/versions/17`, which defines a hidden copy of
+ * `JsonFastParser` per option set and `CharSource` class with the options passed as class data.
+ */
+final class FastParserSpecializer {
+
+    private FastParserSpecializer() {
+    }
+
+    /**
+     * Returns the options a class was specialized for.
+     *
+     * @param lookup a full privilege lookup on the class
+     * @return always `JsonFastParser.NOT_SPECIALIZED` before Java 16
+     */
+    static long classOptions(final MethodHandles.Lookup lookup) {
+        return JsonFastParser.NOT_SPECIALIZED;
+    }
+
+    /**
+     * Creates a parser for the options.
+     *
+     * @param options the encoded options
+     * @return a new parser
+     */
+    static JsonParser create(final long options) {
+        return new JsonFastParser(options);
+    }
+}
@@ -21,9 +21,12 @@ import io.nats.jparse.node.support.TokenList;
 import io.nats.jparse.parser.JsonParser;
 import io.nats.jparse.source.CharSource;
 import io.nats.jparse.source.support.UnexpectedCharacterException;
+import io.nats.jparse.token.NumberToken;
 import io.nats.jparse.token.Token;
 import io.nats.jparse.token.TokenTypes;
 
+import java.lang.invoke.MethodHandles;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -32,10 +35,51 @@ import java.util.List;
  * and returning a root node representing the parsed JSON. The class also includes default methods
  * for parsing and scanning strings,
  * and it extends the `ParseConstants` interface, which defines constants used for parsing JSON strings.
+ * <p>
+ * The parse loop is iterative: open objects and arrays are kept on a primitive stack instead of the call stack,
+ * so deeply nested input costs no Java stack and is rejected once it exceeds the maximum depth.
+ * <p>
+ * Relaxed syntax is built in behind option flags: `#`, `//` and `/* *&#47;` comments wherever whitespace may appear,
+ * and unquoted object keys. With the flags off the checks cost a test of a final field per whitespace run.
+ * <p>
+ * `JsonParserBuilder` creates instances through `specialized`, which on Java 17 and later returns a parser that runs
+ * each document through a hidden copy of this class defined for the option set and the class of the source. The
+ * copy reads its options from class data into a static final field, so the JIT treats them as constants and folds
+ * the option checks out of the scanning loop, and its `CharSource` call sites only ever see one source type.
  */
 public class JsonFastParser implements JsonParser {
 
-    private final boolean objectsKeysCanBeEncoded;
+    private static final int STEP_VALUE = 0;
+    private static final int STEP_KEY = 1;
+    private static final int STEP_ARRAY_ITEM = 2;
+    private static final int STEP_AFTER_VALUE = 3;
+
+    private static final int FRAME_TYPE = 0;
+    private static final int FRAME_START_INDEX = 1;
+    private static final int FRAME_TOKEN_INDEX = 2;
+    private static final int FRAME_VALUE_START_INDEX = 3;
+    private static final int FRAME_VALUE_TOKEN_INDEX = 4;
+    private static final int FRAME_SIZE = 5;
+
+    static final long NOT_SPECIALIZED = -1L;
+    private static final long OPTION_KEYS_ENCODED = 1L;
+    private static final long OPTION_HASH_COMMENTS = 1L << 1;
+    private static final long OPTION_SLASH_SLASH_COMMENTS = 1L << 2;
+    private static final long OPTION_SLASH_STAR_COMMENTS = 1L << 3;
+    private static final long OPTION_NO_QUOTE_KEYS = 1L << 4;
+    private static final long OPTION_COMMENTS = OPTION_HASH_COMMENTS | OPTION_SLASH_SLASH_COMMENTS
+            | OPTION_SLASH_STAR_COMMENTS;
+    private static final long OPTION_SLASH_COMMENTS = OPTION_SLASH_SLASH_COMMENTS | OPTION_SLASH_STAR_COMMENTS;
+
+    /**
+     * The options this class was specialized for, or `NOT_SPECIALIZED` for the class itself.
+     */
+    private static final long SPECIALIZED = FastParserSpecializer.classOptions(MethodHandles.lookup());
+
+    /**
+     * The option flags in the low bits and the maximum depth in the high 32 bits.
+     */
+    private final long options;
 
 
     /**
@@ -44,9 +88,82 @@ public class JsonFastParser implements JsonParser {
      * @param objectsKeysCanBeEncoded If `true`, then object keys can be encoded (e.g. `{"key\n\t": "value"}`).
      */
     public JsonFastParser(boolean objectsKeysCanBeEncoded) {
-        this.objectsKeysCanBeEncoded = objectsKeysCanBeEncoded;
+        this(objectsKeysCanBeEncoded, NEST_LEVEL);
     }
 
+    /**
+     * Create a new `JsonFastParser` instance.
+     *
+     * @param objectsKeysCanBeEncoded If `true`, then object keys can be encoded (e.g. `{"key\n\t": "value"}`).
+     * @param maxDepth                The maximum number of nested objects and arrays.
+     */
+    public JsonFastParser(boolean objectsKeysCanBeEncoded, int maxDepth) {
+        this(objectsKeysCanBeEncoded, maxDepth, false, false, false, false);
+    }
+
+    /**
+     * Create a new `JsonFastParser` instance that accepts relaxed syntax.
+     *
+     * @param objectsKeysCanBeEncoded If `true`, then object keys can be encoded (e.g. `{"key\n\t": "value"}`).
+     * @param maxDepth                The maximum number of nested objects and arrays.
+     * @param allowHashComment        If `true`, `#` starts a comment that runs to the end of the line.
+     * @param allowSlashSlashComment  If `true`, `//` starts a comment that runs to the end of the line.
+     * @param allowSlashStarComment   If `true`, `/*` starts a comment that runs to the next `*&#47;`.
+     * @param supportNoQuoteKeys      If `true`, object keys may be unquoted (e.g. `{key: "value"}`).
+     */
+    public JsonFastParser(boolean objectsKeysCanBeEncoded, int maxDepth, boolean allowHashComment,
+                          boolean allowSlashSlashComment, boolean allowSlashStarComment, boolean supportNoQuoteKeys) {
+        this(options(objectsKeysCanBeEncoded, maxDepth, allowHashComment, allowSlashSlashComment,
+                allowSlashStarComment, supportNoQuoteKeys));
+    }
+
+    JsonFastParser(final long options) {
+        this.options = options;
+    }
+
+    /**
+     * Create a `JsonFastParser` specialized for its options where the runtime supports it, see the class comment.
+     * The result behaves exactly like the public constructor with the same arguments.
+     *
+     * @param objectsKeysCanBeEncoded If `true`, then object keys can be encoded (e.g. `{"key\n\t": "value"}`).
+     * @param maxDepth                The maximum number of nested objects and arrays.
+     * @param allowHashComment        If `true`, `#` starts a comment that runs to the end of the line.
+     * @param allowSlashSlashComment  If `true`, `//` starts a comment that runs to the end of the line.
+     * @param allowSlashStarComment   If `true`, `/*` starts a comment that runs to the next `*&#47;`.
+     * @param supportNoQuoteKeys      If `true`, object keys may be unquoted (e.g. `{key: "value"}`).
+     * @return a parser for the options
+     */
+    public static JsonParser specialized(final boolean objectsKeysCanBeEncoded, final int maxDepth,
+                                         final boolean allowHashComment, final boolean allowSlashSlashComment,
+                                         final boolean allowSlashStarComment, final boolean supportNoQuoteKeys) {
+        return FastParserSpecializer.create(options(objectsKeysCanBeEncoded, maxDepth, allowHashComment,
+                allowSlashSlashComment, allowSlashStarComment, supportNoQuoteKeys));
+    }
+
+    private static long options(final boolean objectsKeysCanBeEncoded, final int maxDepth,
+                                final boolean allowHashComment, final boolean allowSlashSlashComment,
+                                final boolean allowSlashStarComment, final boolean supportNoQuoteKeys) {
+        return (objectsKeysCanBeEncoded ? OPTION_KEYS_ENCODED : 0L)
+                | (allowHashComment ? OPTION_HASH_COMMENTS : 0L)
+                | (allowSlashSlashComment ? OPTION_SLASH_SLASH_COMMENTS : 0L)
+                | (allowSlashStarComment ? OPTION_SLASH_STAR_COMMENTS : 0L)
+                | (supportNoQuoteKeys ? OPTION_NO_QUOTE_KEYS : 0L)
+                | (long) maxDepth << 32;
+    }
+
+    private long options() {
+        return SPECIALIZED == NOT_SPECIALIZED ? options : SPECIALIZED;
+    }
+
+    private boolean option(final long option) {
+        return (options() & option) != 0;
+    }
+
+    private int maxDepth() {
+        return (int) (options() >>> 32);
+    }
+
+
     /**
      * Scan a character source and return a list of tokens representing the JSON string.
      *
@@ -66,59 +183,224 @@ public class JsonFastParser implements JsonParser {
      */
     @Override
     public RootNode parse(CharSource source) {
-        return new RootNode((TokenList) scan(source), source, objectsKeysCanBeEncoded);
-    }
 
-    private List<Token> scan(final CharSource source, TokenList tokens) {
+        return new RootNode((TokenList) scan(source), source, option(OPTION_KEYS_ENCODED));
+    }
 
-        int ch = source.nextSkipWhiteSpace();
+    private List<Token> scan(final CharSource source, final TokenList tokens) {
+
+        int[] stack = new int[FRAME_SIZE * 16];
+        int frame = -FRAME_SIZE;
+        int ch = nextSkipWhiteSpace(source);
+        int step = STEP_VALUE;
+
+        while (true) {
+            switch (step) {
+                case STEP_VALUE:
+                    switch (ch) {
+                        case OBJECT_START_TOKEN:
+                        case ARRAY_START_TOKEN:
+                            frame += FRAME_SIZE;
+                            if (frame / FRAME_SIZE >= maxDepth()) {
+                                throw new UnexpectedCharacterException("Next level violation",
+                                        "Too many levels " + (frame / FRAME_SIZE + 1), source);
+                            }
+                            if (frame == stack.length) {
+                                stack = Arrays.copyOf(stack, stack.length * 2);
+                            }
+                            stack[frame + FRAME_TYPE] = ch == OBJECT_START_TOKEN ? TokenTypes.OBJECT_TOKEN : TokenTypes.ARRAY_TOKEN;
+                            stack[frame + FRAME_START_INDEX] = source.getIndex();
+                            stack[frame + FRAME_TOKEN_INDEX] = tokens.getIndex();
+                            tokens.placeHolder();
+                            step = ch == OBJECT_START_TOKEN ? STEP_KEY : STEP_ARRAY_ITEM;
+                            continue;
+
+                        case TRUE_BOOLEAN_START:
+                            parseTrue(source, tokens);
+                            break;
+
+                        case FALSE_BOOLEAN_START:
+                            parseFalse(source, tokens);
+                            break;
+
+                        case NULL_START:
+                            parseNull(source, tokens);
+                            break;
+
+                        case STRING_START_TOKEN:
+                            parseString(source, tokens);
+                            break;
+
+                        case NUM_0:
+                        case NUM_1:
+                        case NUM_2:
+                        case NUM_3:
+                        case NUM_4:
+                        case NUM_5:
+                        case NUM_6:
+                        case NUM_7:
+                        case NUM_8:
+                        case NUM_9:
+                        case MINUS:
+                        case PLUS:
+                            parseNumber(source, tokens);
+                            break;
+
+                        default:
+                            throw new UnexpectedCharacterException(whileDoing(stack, frame), "Unexpected character",
+                                    source, (char) ch);
+                    }
+                    step = STEP_AFTER_VALUE;
+                    continue;
+
+                case STEP_KEY:
+                    if (parseKey(source, tokens)) {
+                        source.next();
+                        frame = endContainer(stack, frame, source, tokens);
+                        step = STEP_AFTER_VALUE;
+                    } else {
+                        ch = nextSkipWhiteSpace(source);
+                        stack[frame + FRAME_VALUE_START_INDEX] = source.getIndex();
+                        stack[frame + FRAME_VALUE_TOKEN_INDEX] = tokens.getIndex();
+                        tokens.placeHolder();
+                        step = STEP_VALUE;
+                    }
+                    continue;
+
+                case STEP_ARRAY_ITEM:
+                    ch = nextSkipWhiteSpace(source);
+                    switch (ch) {
+                        case ARRAY_END_TOKEN:
+                            source.next();
+                            frame = endContainer(stack, frame, source, tokens);
+                            step = STEP_AFTER_VALUE;
+                            continue;
+                        case ARRAY_SEP:
+                            source.next();
+                            continue;
+                        case ETX:
+                            throw new UnexpectedCharacterException("Parsing Array Item", "Unexpected end of input", source);
+                        default:
+                            step = STEP_VALUE;
+                            continue;
+                    }
+
+                case STEP_AFTER_VALUE:
+                    if (frame < 0) {
+                        return tokens;
+                    }
+                    if (stack[frame + FRAME_TYPE] == TokenTypes.ARRAY_TOKEN) {
+                        if (skipWhiteSpaceSafe(source) == ARRAY_END_TOKEN) {
+                            source.next();
+                            frame = endContainer(stack, frame, source, tokens);
+                        } else {
+                            step = STEP_ARRAY_ITEM;
+                        }
+                        continue;
+                    }
+
+                    switch (skipWhiteSpace(source)) {
+                        case OBJECT_END_TOKEN:
+                            endAttributeValue(stack, frame, source, tokens);
+                            source.next();
+                            frame = endContainer(stack, frame, source, tokens);
+                            continue;
+                        case OBJECT_ATTRIBUTE_SEP:
+                            endAttributeValue(stack, frame, source, tokens);
+                            step = STEP_KEY;
+                            continue;
+                        default:
+                            throw new UnexpectedCharacterException("Parsing Value", "Unexpected character", source, source.getCurrentChar());
+                    }
 
-        switch (ch) {
-            case OBJECT_START_TOKEN:
-                parseObject(source, tokens);
-                break;
-
-            case ARRAY_START_TOKEN:
-                parseArray(source, tokens);
-                break;
+                default:
+                    throw new IllegalStateException("Unknown parse step " + step);
+            }
+        }
+    }
 
-            case TRUE_BOOLEAN_START:
-                parseTrue(source, tokens);
-                break;
+    private int nextSkipWhiteSpace(final CharSource source) {
+        final int ch = source.nextSkipWhiteSpace();
+        return option(OPTION_COMMENTS) ? skipComments(source, ch) : ch;
+    }
 
-            case FALSE_BOOLEAN_START:
-                parseFalse(source, tokens);
-                break;
+    private int skipWhiteSpace(final CharSource source) {
+        return option(OPTION_COMMENTS) ? skipWhiteSpaceSafe(source) : source.skipWhiteSpace();
+    }
 
-            case NULL_START:
-                parseNull(source, tokens);
-                break;
+    private int skipWhiteSpaceSafe(final CharSource source) {
+        final int ch = source.getCurrentCharSafe();
+        switch (ch) {
+            case NEW_LINE_WS:
+            case CARRIAGE_RETURN_WS:
+            case TAB_WS:
+            case SPACE_WS:
+                return nextSkipWhiteSpace(source);
+            default:
+                return option(OPTION_COMMENTS) ? skipComments(source, ch) : ch;
+        }
+    }
 
-            case STRING_START_TOKEN:
-                parseString(source, tokens);
-                break;
+    /**
+     * Skips the comments, and the whitespace after each, starting at the current character.
+     *
+     * @return the first character that does not start a comment
+     */
+    private int skipComments(final CharSource source, int ch) {
+        while (true) {
+            if (ch == '#' && option(OPTION_HASH_COMMENTS)) {
+                skipLineComment(source);
+            } else if (ch == '/' && option(OPTION_SLASH_COMMENTS)) {
+                final int next = source.next();
+                if (next == '/' && option(OPTION_SLASH_SLASH_COMMENTS)) {
+                    skipLineComment(source);
+                } else if (next == '*' && option(OPTION_SLASH_STAR_COMMENTS)) {
+                    skipBlockComment(source);
+                } else {
+                    throw new UnexpectedCharacterException("Parsing comment", "Unexpected character", source,
+                            (char) next);
+                }
+            } else {
+                return ch;
+            }
+            ch = source.nextSkipWhiteSpace();
+        }
+    }
 
-            case NUM_0:
-            case NUM_1:
-            case NUM_2:
-            case NUM_3:
-            case NUM_4:
-            case NUM_5:
-            case NUM_6:
-            case NUM_7:
-            case NUM_8:
-            case NUM_9:
-            case MINUS:
-            case PLUS:
-                parseNumber(source, tokens);
-                break;
+    private static void skipLineComment(final CharSource source) {
+        if (!source.findChar('\n')) {
+            while (source.next() != ETX) {
+                // a comment on the last line runs to the end of the input
+            }
+        }
+    }
 
-            default:
-                throw new UnexpectedCharacterException("Scanning JSON", "Unexpected character", source, (char) ch);
+    private static void skipBlockComment(final CharSource source) {
+        source.next();
+        while (source.findChar('*')) {
+            if (source.next() == '/') {
+                return;
+            }
+        }
+        throw new UnexpectedCharacterException("Parsing comment", "Unterminated comment", source);
+    }
 
+    private static String whileDoing(final int[] stack, final int frame) {
+        if (frame < 0) {
+            return "Scanning JSON";
         }
+        return stack[frame + FRAME_TYPE] == TokenTypes.ARRAY_TOKEN ? "Parsing Array Item" : "Parsing Value";
+    }
+
+    private static void endAttributeValue(final int[] stack, final int frame, final CharSource source, final TokenList tokens) {
+        tokens.set(stack[frame + FRAME_VALUE_TOKEN_INDEX], new Token(stack[frame + FRAME_VALUE_START_INDEX],
+                source.getIndex(), TokenTypes.ATTRIBUTE_VALUE_TOKEN));
+    }
 
-        return tokens;
+    private static int endContainer(final int[] stack, final int frame, final CharSource source, final TokenList tokens) {
+        tokens.set(stack[frame + FRAME_TOKEN_INDEX], new Token(stack[frame + FRAME_START_INDEX], source.getIndex(),
+                stack[frame + FRAME_TYPE]));
+        return frame - FRAME_SIZE;
     }
 
     private void parseFalse(CharSource source, TokenList tokens) {
@@ -139,100 +421,16 @@ public class JsonFastParser implements JsonParser {
         tokens.add(new Token(start, end, TokenTypes.NULL_TOKEN));
     }
 
-    private void parseArray(final CharSource source, final TokenList tokens) {
-        final int startSourceIndex = source.getIndex();
-        final int tokenListIndex = tokens.getIndex();
-        tokens.placeHolder();
-
-        boolean done = false;
-        while (!done) {
-            done = parseArrayItem(source, tokens);
-
-        }
-        final Token arrayToken = new Token(startSourceIndex, source.getIndex(), TokenTypes.ARRAY_TOKEN);
-        tokens.set(tokenListIndex, arrayToken);
-    }
-
-    private boolean parseArrayItem(CharSource source, TokenList tokens) {
-        char ch = (char) source.nextSkipWhiteSpace();
-
-        forLoop:
-        for (; ch != ETX; ch = (char) source.nextSkipWhiteSpace()) {
-
-            switch (ch) {
-                case OBJECT_START_TOKEN:
-                    parseObject(source, tokens);
-                    break forLoop;
-
-                case ARRAY_START_TOKEN:
-                    parseArray(source, tokens);
-                    break forLoop;
-
-                case TRUE_BOOLEAN_START:
-                    parseTrue(source, tokens);
-                    break forLoop;
-
-                case FALSE_BOOLEAN_START:
-                    parseFalse(source, tokens);
-                    break forLoop;
-
-
-                case NULL_START:
-                    parseNull(source, tokens);
-                    break forLoop;
-
-                case STRING_START_TOKEN:
-                    parseString(source, tokens);
-                    break forLoop;
-
-                case NUM_0:
-                case NUM_1:
-                case NUM_2:
-                case NUM_3:
-                case NUM_4:
-                case NUM_5:
-                case NUM_6:
-                case NUM_7:
-                case NUM_8:
-                case NUM_9:
-                case MINUS:
-                case PLUS:
-                    parseNumber(source, tokens);
-                    break forLoop;
-
-                case ARRAY_END_TOKEN:
-                    source.next();
-                    return true;
-
-                case ARRAY_SEP:
-                    source.next();
-                    return false;
-
-                default:
-                    throw new UnexpectedCharacterException("Parsing Array Item", "Unexpected character", source, ch);
-
-
-            }
-        }
-
-        if (source.getCurrentChar() == ARRAY_END_TOKEN) {
-            source.next();
-            return true;
-        }
-        return false;
-    }
-
-
     private void parseNumber(final CharSource source, TokenList tokens) {
         final int startIndex = source.getIndex();
         final NumberParseResult numberParse = source.findEndOfNumberFast();
-        tokens.add(new Token(startIndex, numberParse.endIndex(), numberParse.wasFloat() ? TokenTypes.FLOAT_TOKEN : TokenTypes.INT_TOKEN));
+        tokens.add(new NumberToken(startIndex, numberParse.endIndex(), numberParse.tokenType(), numberParse.numberFlags()));
     }
 
 
     private boolean parseKey(final CharSource source, final TokenList tokens) {
 
-        int ch = source.nextSkipWhiteSpace();
+        int ch = nextSkipWhiteSpace(source);
         final int startIndex = source.getIndex() - 1;
         final int tokenListIndex = tokens.getIndex();
         tokens.placeHolder();
@@ -243,7 +441,7 @@ public class JsonFastParser implements JsonParser {
             case STRING_START_TOKEN:
                 final int strStartIndex = startIndex + 1;
                 final int strEndIndex;
-                if (objectsKeysCanBeEncoded) {
+                if (option(OPTION_KEYS_ENCODED | OPTION_COMMENTS)) {
                     strEndIndex = source.findEndOfEncodedString();
                 } else {
                     strEndIndex = source.findEndString();
@@ -257,11 +455,18 @@ public class JsonFastParser implements JsonParser {
                 return true;
 
             default:
+                if (option(OPTION_NO_QUOTE_KEYS) && Character.isJavaIdentifierStart(ch)) {
+                    final int start = source.getIndex();
+                    final int end = findUnquotedKeyEnd(source);
+                    tokens.add(new Token(start, end, TokenTypes.STRING_TOKEN));
+                    found = true;
+                    break;
+                }
                 throw new UnexpectedCharacterException("Parsing key", "Unexpected character found", source);
         }
 
 
-        boolean done = source.findObjectEndOrAttributeSep();
+        boolean done = findObjectEndOrAttributeSep(source);
 
         if (!done && found) {
             tokens.set(tokenListIndex, new Token(startIndex + 1, source.getIndex(), TokenTypes.ATTRIBUTE_KEY_TOKEN));
@@ -275,78 +480,46 @@ public class JsonFastParser implements JsonParser {
 
     }
 
-
-    private boolean parseValue(final CharSource source, TokenList tokens) {
-        int ch = source.nextSkipWhiteSpace();
-        final int startIndex = source.getIndex();
-        final int tokenListIndex = tokens.getIndex();
-        tokens.placeHolder();
-
-        switch (ch) {
-            case OBJECT_START_TOKEN:
-                parseObject(source, tokens);
-                break;
-
-            case ARRAY_START_TOKEN:
-                parseArray(source, tokens);
-                break;
-
-            case TRUE_BOOLEAN_START:
-                parseTrue(source, tokens);
-                break;
-
-            case FALSE_BOOLEAN_START:
-                parseFalse(source, tokens);
-                break;
-
-            case NULL_START:
-                parseNull(source, tokens);
-                break;
-
-            case STRING_START_TOKEN:
-                parseString(source, tokens);
-                break;
-
-            case NUM_0:
-            case NUM_1:
-            case NUM_2:
-            case NUM_3:
-            case NUM_4:
-            case NUM_5:
-            case NUM_6:
-            case NUM_7:
-            case NUM_8:
-            case NUM_9:
-            case MINUS:
-            case PLUS:
-                parseNumber(source, tokens);
-                break;
-
-            default:
-                throw new UnexpectedCharacterException("Parsing Value", "Unexpected character", source, ch);
+    /**
+     * Without comments the separator search is a single scan of the source; with comments it skips them, so a
+     * `:` or `}` inside a comment is never taken for the separator. Either way the index is left on the `:`, or after
+     * the `}`.
+     */
+    private boolean findObjectEndOrAttributeSep(final CharSource source) {
+        if (!option(OPTION_COMMENTS)) {
+            return source.findObjectEndOrAttributeSep();
         }
-
-        ch = source.skipWhiteSpace();
-
-        switch (ch) {
+        switch (skipWhiteSpaceSafe(source)) {
+            case ATTRIBUTE_SEP:
+                return false;
             case OBJECT_END_TOKEN:
-                if (source.getIndex() == tokenListIndex) {
-                    throw new UnexpectedCharacterException("Parsing Value", "Key separator before value", source);
-                }
-                tokens.set(tokenListIndex, new Token(startIndex, source.getIndex(), TokenTypes.ATTRIBUTE_VALUE_TOKEN));
+                source.next();
                 return true;
-            case OBJECT_ATTRIBUTE_SEP:
-                if (source.getIndex() == tokenListIndex) {
-                    throw new UnexpectedCharacterException("Parsing Value", "Key separator before value", source);
-                }
-                tokens.set(tokenListIndex, new Token(startIndex, source.getIndex(), TokenTypes.ATTRIBUTE_VALUE_TOKEN));
-                return false;
-
             default:
-                throw new UnexpectedCharacterException("Parsing Value", "Unexpected character", source, source.getCurrentChar());
-
+                throw new UnexpectedCharacterException("Parsing Object Key", "Finding object end or separator", source);
         }
+    }
 
+    private int findUnquotedKeyEnd(final CharSource source) {
+        if (!option(OPTION_COMMENTS)) {
+            return source.findAttributeEnd();
+        }
+        int ch = source.getCurrentChar();
+        while (true) {
+            switch (ch) {
+                case NEW_LINE_WS:
+                case CARRIAGE_RETURN_WS:
+                case TAB_WS:
+                case SPACE_WS:
+                case ATTRIBUTE_SEP:
+                case ETX:
+                case '#':
+                case '/':
+                    return source.getIndex();
+                default:
+                    ch = source.next();
+            }
+        }
     }
 
     private void parseString(final CharSource source, TokenList tokens) {
@@ -355,21 +528,4 @@ public class JsonFastParser implements JsonParser {
         tokens.add(new Token(startIndex + 1, endIndex, TokenTypes.STRING_TOKEN));
     }
 
-
-    private void parseObject(final CharSource source, TokenList tokens) {
-        final int startSourceIndex = source.getIndex();
-        final int tokenListIndex = tokens.getIndex();
-        tokens.placeHolder();
-
-        boolean done = false;
-        while (!done) {
-            done = parseKey(source, tokens);
-            if (!done)
-                done = parseValue(source, tokens);
-        }
-        source.next();
-        tokens.set(tokenListIndex, new Token(startSourceIndex, source.getIndex(), TokenTypes.OBJECT_TOKEN));
-    }
-
-
 }
@@ -21,20 +21,37 @@ import io.nats.jparse.node.support.TokenList;
 import io.nats.jparse.parser.JsonParser;
 import io.nats.jparse.source.CharSource;
 import io.nats.jparse.source.support.UnexpectedCharacterException;
+import io.nats.jparse.token.NumberToken;
 import io.nats.jparse.token.Token;
 import io.nats.jparse.token.TokenTypes;
 
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * The `JsonStrictParser` class is an implementation of the `JsonParser` interface that uses a strict
  * JSON parsing algorithm. The parser does not accept JSON strings that are not strictly compliant
  * with the JSON RFC.
+ * <p>
+ * The parse loop is iterative: open objects and arrays are kept on a primitive stack instead of the call stack,
+ * so deeply nested input costs no Java stack and is rejected once it exceeds the maximum depth.
  */
 public class JsonStrictParser implements JsonParser {
 
+    private static final int STEP_VALUE = 0;
+    private static final int STEP_KEY = 1;
+    private static final int STEP_ARRAY_ITEM = 2;
+    private static final int STEP_AFTER_VALUE = 3;
+
+    private static final int FRAME_TYPE = 0;
+    private static final int FRAME_START_INDEX = 1;
+    private static final int FRAME_TOKEN_INDEX = 2;
+    private static final int FRAME_VALUE_START_INDEX = 3;
+    private static final int FRAME_VALUE_TOKEN_INDEX = 4;
+    private static final int FRAME_SIZE = 5;
+
     private final boolean objectsKeysCanBeEncoded;
-    int nestLevel;
+    private final int maxDepth;
 
 
     /**
@@ -43,7 +60,18 @@ public class JsonStrictParser implements JsonParser {
      * @param objectsKeysCanBeEncoded If `true`, then object keys can be encoded (e.g. `{"key\n\t": "value"}`).
      */
     public JsonStrictParser(boolean objectsKeysCanBeEncoded) {
+        this(objectsKeysCanBeEncoded, NEST_LEVEL);
+    }
+
+    /**
+     * Create a new `JsonStrictParser` instance.
+     *
+     * @param objectsKeysCanBeEncoded If `true`, then object keys can be encoded (e.g. `{"key\n\t": "value"}`).
+     * @param maxDepth                The maximum number of nested objects and arrays.
+     */
+    public JsonStrictParser(boolean objectsKeysCanBeEncoded, int maxDepth) {
         this.objectsKeysCanBeEncoded = objectsKeysCanBeEncoded;
+        this.maxDepth = maxDepth;
     }
 
 
@@ -70,59 +98,152 @@ public class JsonStrictParser implements JsonParser {
         return new RootNode((TokenList) scan(source), source, objectsKeysCanBeEncoded);
     }
 
-    private List<Token> scan(final CharSource source, TokenList tokens) {
-        nestLevel = 0;
+    private List<Token> scan(final CharSource source, final TokenList tokens) {
 
+        int[] stack = new int[FRAME_SIZE * 16];
+        int frame = -FRAME_SIZE;
         int ch = source.nextSkipWhiteSpace();
+        int step = STEP_VALUE;
+
+        while (true) {
+            switch (step) {
+                case STEP_VALUE:
+                    switch (ch) {
+                        case OBJECT_START_TOKEN:
+                        case ARRAY_START_TOKEN:
+                            frame += FRAME_SIZE;
+                            if (frame / FRAME_SIZE >= maxDepth) {
+                                throw new UnexpectedCharacterException("Next level violation",
+                                        "Too many levels " + (frame / FRAME_SIZE + 1), source);
+                            }
+                            if (frame == stack.length) {
+                                stack = Arrays.copyOf(stack, stack.length * 2);
+                            }
+                            stack[frame + FRAME_TYPE] = ch == OBJECT_START_TOKEN ? TokenTypes.OBJECT_TOKEN : TokenTypes.ARRAY_TOKEN;
+                            stack[frame + FRAME_START_INDEX] = source.getIndex();
+                            stack[frame + FRAME_TOKEN_INDEX] = tokens.getIndex();
+                            tokens.placeHolder();
+                            step = ch == OBJECT_START_TOKEN ? STEP_KEY : STEP_ARRAY_ITEM;
+                            continue;
+
+                        case TRUE_BOOLEAN_START:
+                            parseTrue(source, tokens);
+                            break;
+
+                        case FALSE_BOOLEAN_START:
+                            parseFalse(source, tokens);
+                            break;
+
+                        case NULL_START:
+                            parseNull(source, tokens);
+                            break;
+
+                        case STRING_START_TOKEN:
+                            parseString(source, tokens);
+                            break;
+
+                        case NUM_0:
+                        case NUM_1:
+                        case NUM_2:
+                        case NUM_3:
+                        case NUM_4:
+                        case NUM_5:
+                        case NUM_6:
+                        case NUM_7:
+                        case NUM_8:
+                        case NUM_9:
+                        case MINUS:
+                        case PLUS:
+                            parseNumber(source, tokens);
+                            break;
+
+                        default:
+                            throw new UnexpectedCharacterException(whileDoing(stack, frame), "Unexpected character",
+                                    source, (char) ch);
+                    }
+                    step = STEP_AFTER_VALUE;
+                    continue;
 
-        switch (ch) {
-            case OBJECT_START_TOKEN:
-                parseObject(source, tokens);
-                break;
-
-            case ARRAY_START_TOKEN:
-                parseArray(source, tokens);
-                break;
-
-            case TRUE_BOOLEAN_START:
-                parseTrue(source, tokens);
-                break;
-
-            case FALSE_BOOLEAN_START:
-                parseFalse(source, tokens);
-                break;
-
-            case NULL_START:
-                parseNull(source, tokens);
-                break;
+                case STEP_KEY:
+                    if (parseKey(source, tokens)) {
+                        source.next();
+                        frame = endContainer(stack, frame, source, tokens);
+                        step = STEP_AFTER_VALUE;
+                    } else {
+                        ch = source.nextSkipWhiteSpace();
+                        stack[frame + FRAME_VALUE_START_INDEX] = source.getIndex();
+                        stack[frame + FRAME_VALUE_TOKEN_INDEX] = tokens.getIndex();
+                        tokens.placeHolder();
+                        step = STEP_VALUE;
+                    }
+                    continue;
+
+                case STEP_ARRAY_ITEM:
+                    final char startChar = source.getCurrentChar();
+                    ch = source.nextSkipWhiteSpace();
+                    if (ch == ARRAY_END_TOKEN) {
+                        if (startChar == ARRAY_SEP) {
+                            throw new UnexpectedCharacterException("Parsing Array Item", "Trailing comma", source, (char) ch);
+                        }
+                        source.next();
+                        frame = endContainer(stack, frame, source, tokens);
+                        step = STEP_AFTER_VALUE;
+                    } else {
+                        step = STEP_VALUE;
+                    }
+                    continue;
 
-            case STRING_START_TOKEN:
-                parseString(source, tokens);
-                break;
+                case STEP_AFTER_VALUE:
+                    if (frame < 0) {
+                        source.checkForJunk();
+                        return tokens;
+                    }
+                    if (stack[frame + FRAME_TYPE] == TokenTypes.ARRAY_TOKEN) {
+                        if (source.findCommaOrEndForArray()) {
+                            frame = endContainer(stack, frame, source, tokens);
+                        } else {
+                            step = STEP_ARRAY_ITEM;
+                        }
+                        continue;
+                    }
 
-            case NUM_0:
-            case NUM_1:
-            case NUM_2:
-            case NUM_3:
-            case NUM_4:
-            case NUM_5:
-            case NUM_6:
-            case NUM_7:
-            case NUM_8:
-            case NUM_9:
-            case MINUS:
-            case PLUS:
-                parseNumber(source, tokens);
-                break;
+                    source.skipWhiteSpace();
+                    switch (source.getCurrentChar()) {
+                        case OBJECT_END_TOKEN:
+                            endAttributeValue(stack, frame, source, tokens);
+                            source.next();
+                            frame = endContainer(stack, frame, source, tokens);
+                            continue;
+                        case OBJECT_ATTRIBUTE_SEP:
+                            endAttributeValue(stack, frame, source, tokens);
+                            step = STEP_KEY;
+                            continue;
+                        default:
+                            throw new UnexpectedCharacterException("Parsing Value", "Unexpected character", source, source.getCurrentChar());
+                    }
 
-            default:
-                throw new UnexpectedCharacterException("Scanning JSON", "Unexpected character", source, (char) ch);
+                default:
+                    throw new IllegalStateException("Unknown parse step " + step);
+            }
+        }
+    }
 
+    private static String whileDoing(final int[] stack, final int frame) {
+        if (frame < 0) {
+            return "Scanning JSON";
         }
+        return stack[frame + FRAME_TYPE] == TokenTypes.ARRAY_TOKEN ? "Parsing Array Item" : "Parsing Value";
+    }
 
-        source.checkForJunk();
+    private static void endAttributeValue(final int[] stack, final int frame, final CharSource source, final TokenList tokens) {
+        tokens.set(stack[frame + FRAME_VALUE_TOKEN_INDEX], new Token(stack[frame + FRAME_VALUE_START_INDEX],
+                source.getIndex(), TokenTypes.ATTRIBUTE_VALUE_TOKEN));
+    }
 
-        return tokens;
+    private static int endContainer(final int[] stack, final int frame, final CharSource source, final TokenList tokens) {
+        tokens.set(stack[frame + FRAME_TOKEN_INDEX], new Token(stack[frame + FRAME_START_INDEX], source.getIndex(),
+                stack[frame + FRAME_TYPE]));
+        return frame - FRAME_SIZE;
     }
 
     private void parseFalse(CharSource source, TokenList tokens) {
@@ -143,97 +264,10 @@ public class JsonStrictParser implements JsonParser {
         tokens.add(new Token(start, end, TokenTypes.NULL_TOKEN));
     }
 
-    private void parseArray(final CharSource source, final TokenList tokens) {
-        levelCheck(source);
-        final int startSourceIndex = source.getIndex();
-        final int tokenListIndex = tokens.getIndex();
-        tokens.placeHolder();
-
-        boolean done = false;
-        while (!done) {
-            done = parseArrayItem(source, tokens);
-
-            if (!done) {
-                done = source.findCommaOrEndForArray();
-            }
-        }
-
-        final Token arrayToken = new Token(startSourceIndex, source.getIndex(), TokenTypes.ARRAY_TOKEN);
-        tokens.set(tokenListIndex, arrayToken);
-    }
-
-
-    private boolean parseArrayItem(CharSource source, TokenList tokens) {
-        char startChar = source.getCurrentChar();
-        int ch = source.nextSkipWhiteSpace();
-
-        switch (ch) {
-            case OBJECT_START_TOKEN:
-                parseObject(source, tokens);
-                break;
-
-            case ARRAY_START_TOKEN:
-                parseArray(source, tokens);
-                break;
-
-            case TRUE_BOOLEAN_START:
-                parseTrue(source, tokens);
-                break;
-
-            case FALSE_BOOLEAN_START:
-                parseFalse(source, tokens);
-                break;
-
-
-            case NULL_START:
-                parseNull(source, tokens);
-                break;
-
-            case STRING_START_TOKEN:
-                parseString(source, tokens);
-                break;
-
-            case NUM_0:
-            case NUM_1:
-            case NUM_2:
-            case NUM_3:
-            case NUM_4:
-            case NUM_5:
-            case NUM_6:
-            case NUM_7:
-            case NUM_8:
-            case NUM_9:
-            case MINUS:
-            case PLUS:
-                parseNumber(source, tokens);
-                if (source.getCurrentChar() == ARRAY_END_TOKEN || source.getCurrentChar() == ARRAY_SEP) {
-                    if (source.getCurrentChar() == ARRAY_END_TOKEN) {
-                        source.next();
-                        return true;
-                    }
-                }
-                break;
-
-            case ARRAY_END_TOKEN:
-                if (startChar == ARRAY_SEP) {
-                    throw new UnexpectedCharacterException("Parsing Array Item", "Trailing comma", source, (char) ch);
-                }
-                source.next();
-                return true;
-
-
-            default:
-                throw new UnexpectedCharacterException("Parsing Array Item", "Unexpected character", source, (char) ch);
-
-        }
-
-        return false;
-    }
-
     private void parseNumber(final CharSource source, TokenList tokens) {
         final int startIndex = source.getIndex();
         final NumberParseResult numberParse = source.findEndOfNumber();
-        tokens.add(new Token(startIndex, numberParse.endIndex(), numberParse.wasFloat() ? TokenTypes.FLOAT_TOKEN : TokenTypes.INT_TOKEN));
+        tokens.add(new NumberToken(startIndex, numberParse.endIndex(), numberParse.tokenType(), numberParse.numberFlags()));
     }
 
 
@@ -287,109 +321,10 @@ public class JsonStrictParser implements JsonParser {
 
     }
 
-
-    private boolean parseValue(final CharSource source, TokenList tokens) {
-        int ch = source.nextSkipWhiteSpace();
-        final int startIndex = source.getIndex();
-        final int tokenListIndex = tokens.getIndex();
-        tokens.placeHolder();
-
-        switch (ch) {
-            case OBJECT_START_TOKEN:
-                parseObject(source, tokens);
-                break;
-
-            case ARRAY_START_TOKEN:
-                parseArray(source, tokens);
-                break;
-
-            case TRUE_BOOLEAN_START:
-                parseTrue(source, tokens);
-                break;
-
-            case FALSE_BOOLEAN_START:
-                parseFalse(source, tokens);
-                break;
-
-            case NULL_START:
-                parseNull(source, tokens);
-                break;
-
-            case STRING_START_TOKEN:
-                parseString(source, tokens);
-                break;
-
-            case NUM_0:
-            case NUM_1:
-            case NUM_2:
-            case NUM_3:
-            case NUM_4:
-            case NUM_5:
-            case NUM_6:
-            case NUM_7:
-            case NUM_8:
-            case NUM_9:
-            case MINUS:
-            case PLUS:
-                parseNumber(source, tokens);
-                break;
-
-            default:
-                throw new UnexpectedCharacterException("Parsing Value", "Unexpected character", source, ch);
-        }
-
-        source.skipWhiteSpace();
-
-        switch (source.getCurrentChar()) {
-            case OBJECT_END_TOKEN:
-                if (source.getIndex() == tokenListIndex) {
-                    throw new UnexpectedCharacterException("Parsing Value", "Key separator before value", source);
-                }
-                tokens.set(tokenListIndex, new Token(startIndex, source.getIndex(), TokenTypes.ATTRIBUTE_VALUE_TOKEN));
-                return true;
-            case OBJECT_ATTRIBUTE_SEP:
-                if (source.getIndex() == tokenListIndex) {
-                    throw new UnexpectedCharacterException("Parsing Value", "Key separator before value", source);
-                }
-                tokens.set(tokenListIndex, new Token(startIndex, source.getIndex(), TokenTypes.ATTRIBUTE_VALUE_TOKEN));
-                return false;
-
-            default:
-                throw new UnexpectedCharacterException("Parsing Value", "Unexpected character", source, source.getCurrentChar());
-
-        }
-
-    }
-
     private void parseString(final CharSource source, TokenList tokens) {
         final int startIndex = source.getIndex();
         final int endIndex = source.findEndOfEncodedString();
         tokens.add(new Token(startIndex + 1, endIndex, TokenTypes.STRING_TOKEN));
     }
 
-
-    private void parseObject(final CharSource source, TokenList tokens) {
-        levelCheck(source);
-        final int startSourceIndex = source.getIndex();
-        final int tokenListIndex = tokens.getIndex();
-        tokens.placeHolder();
-
-        boolean done = false;
-        while (!done) {
-            done = parseKey(source, tokens);
-            if (!done)
-                done = parseValue(source, tokens);
-        }
-        source.next();
-        tokens.set(tokenListIndex, new Token(startSourceIndex, source.getIndex(), TokenTypes.OBJECT_TOKEN));
-    }
-
-    private void levelCheck(CharSource source) {
-        nestLevel++;
-        if (nestLevel > NEST_LEVEL) {
-            throw new UnexpectedCharacterException("Next level violation", "Too many levels " + nestLevel, source);
-        }
-    }
-
-
 }
@@ -0,0 +1,578 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.schema;
+
+import io.nats.jparse.source.CharSource;
+import io.nats.jparse.token.Token;
+import io.nats.jparse.token.TokenTypes;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static io.nats.jparse.token.TokenTypes.*;
+
+/**
+ * One compiled (sub)schema: every keyword is resolved to a field at compile time, and `check` runs the rules
+ * directly against the token ranges of a parsed document.
+ * <p>
+ * Tokens are laid out in document order, so a value's children are the tokens that follow it and start before it
+ * ends. Object members are a key, its string, an attribute value and the value itself; array items follow the array
+ * token directly. Values with no rule to apply are skipped without being read. Nothing is allocated unless a rule
+ * needs the value (`pattern`, `multipleOf`, escaped strings) or the check fails.
+ */
+final class CompiledSchema {
+
+    static final int TYPE_NULL = 1;
+    static final int TYPE_BOOLEAN = 1 << 1;
+    static final int TYPE_OBJECT = 1 << 2;
+    static final int TYPE_ARRAY = 1 << 3;
+    static final int TYPE_NUMBER = 1 << 4;
+    static final int TYPE_INTEGER = 1 << 5;
+    static final int TYPE_STRING = 1 << 6;
+    static final int ANY_TYPE = (1 << 7) - 1;
+
+    private static final String[] NO_NAMES = new String[0];
+
+    /** The `false` schema, nothing is valid. */
+    boolean never;
+
+    int types = ANY_TYPE;
+
+    /* Object rules. A name is listed once whether it comes from `properties`, `required` or both. */
+    String[] names = NO_NAMES;
+    CompiledSchema[] nameSchemas;
+    int[] requiredBits;
+    int requiredCount;
+    CompiledSchema additionalProperties;
+    int minProperties;
+    int maxProperties = Integer.MAX_VALUE;
+
+    /* Array rules. */
+    CompiledSchema items;
+    CompiledSchema[] tupleItems;
+    int minItems;
+    int maxItems = Integer.MAX_VALUE;
+
+    /* Number rules. */
+    double minimum = Double.NEGATIVE_INFINITY;
+    double maximum = Double.POSITIVE_INFINITY;
+    boolean exclusiveMinimum;
+    boolean exclusiveMaximum;
+    BigDecimal multipleOf;
+
+    /* String rules. */
+    int minLength;
+    int maxLength = Integer.MAX_VALUE;
+    Pattern pattern;
+
+    /* `enum` and `const`, null when unrestricted. */
+    Constant[] allowed;
+    String allowedKeyword;
+
+    CompiledSchema[] allOf;
+    CompiledSchema[] anyOf;
+    CompiledSchema[] oneOf;
+    CompiledSchema not;
+
+    /* Set by `seal` so `check` only visits the rule groups a schema uses. */
+    private boolean objectRules;
+    private boolean arrayRules;
+    private boolean numberRules;
+    private boolean stringRules;
+
+    /**
+     * Records which rule groups are in use; called once the compiler has set every field.
+     */
+    void seal() {
+        objectRules = names.length > 0 || additionalProperties != null || minProperties > 0
+                || maxProperties != Integer.MAX_VALUE;
+        arrayRules = items != null || tupleItems != null || minItems > 0 || maxItems != Integer.MAX_VALUE;
+        numberRules = minimum != Double.NEGATIVE_INFINITY || maximum != Double.POSITIVE_INFINITY
+                || multipleOf != null;
+        stringRules = minLength > 0 || maxLength != Integer.MAX_VALUE || pattern != null;
+    }
+
+    /**
+     * Checks the value at `index` against this schema.
+     *
+     * @param tokens the document tokens
+     * @param source the document source
+     * @param index  the index of the value token
+     * @return null if the value is valid, or the first failure
+     */
+    Failure check(final List<Token> tokens, final CharSource source, final int index) {
+        final Token token = tokens.get(index);
+        if (never) {
+            return new Failure("false", token.startIndex, "no value is allowed here");
+        }
+        final int type = token.type;
+        if (types != ANY_TYPE && !typeMatches(type, source, token)) {
+            return new Failure("type", token.startIndex,
+                    "expected " + typeNames(types) + " but was " + typeName(type));
+        }
+
+        Failure failure = null;
+        switch (type) {
+            case OBJECT_TOKEN:
+                if (objectRules) {
+                    failure = checkObject(tokens, source, index);
+                }
+                break;
+            case ARRAY_TOKEN:
+                if (arrayRules) {
+                    failure = checkArray(tokens, source, index);
+                }
+                break;
+            case INT_TOKEN:
+            case FLOAT_TOKEN:
+                if (numberRules) {
+                    failure = checkNumber(source, token);
+                }
+                break;
+            case STRING_TOKEN:
+                if (stringRules) {
+                    failure = checkString(source, token);
+                }
+                break;
+            default:
+        }
+        if (failure != null) {
+            return failure;
+        }
+
+        if (allowed != null && !isAllowed(source, token)) {
+            return new Failure(allowedKeyword, token.startIndex,
+                    allowed.length == 1 ? "value must be " + allowed[0] : "value is not one of the enumerated values");
+        }
+        return checkCombinators(tokens, source, index, token);
+    }
+
+    private boolean typeMatches(final int type, final CharSource source, final Token token) {
+        switch (type) {
+            case OBJECT_TOKEN:
+                return (types & TYPE_OBJECT) != 0;
+            case ARRAY_TOKEN:
+                return (types & TYPE_ARRAY) != 0;
+            case INT_TOKEN:
+                return (types & (TYPE_NUMBER | TYPE_INTEGER)) != 0;
+            case FLOAT_TOKEN:
+                if ((types & TYPE_NUMBER) != 0) {
+                    return true;
+                }
+                if ((types & TYPE_INTEGER) != 0) {
+                    final double value = source.getDouble(token.startIndex, token.endIndex);
+                    return !Double.isInfinite(value) && value == Math.rint(value);
+                }
+                return false;
+            case STRING_TOKEN:
+                return (types & TYPE_STRING) != 0;
+            case BOOLEAN_TOKEN:
+                return (types & TYPE_BOOLEAN) != 0;
+            case NULL_TOKEN:
+                return (types & TYPE_NULL) != 0;
+            default:
+                return false;
+        }
+    }
+
+    private Failure checkObject(final List<Token> tokens, final CharSource source, final int index) {
+        final Token object = tokens.get(index);
+        final int end = object.endIndex;
+        final int size = tokens.size();
+        final boolean[] seenWide = requiredCount > Long.SIZE ? new boolean[requiredCount] : null;
+        long seen = 0;
+        int count = 0;
+
+        int i = index + 1;
+        while (i < size && tokens.get(i).startIndex < end) {
+            final Token key = tokens.get(i + 1);
+            final int valueIndex = i + 3;
+            if (++count > maxProperties) {
+                return new Failure("maxProperties", object.startIndex,
+                        "object has more than " + maxProperties + " properties");
+            }
+
+            CompiledSchema schema = null;
+            final int name = names.length == 0 ? -1 : nameIndex(source, key.startIndex, key.endIndex);
+            if (name >= 0) {
+                final int bit = requiredBits[name];
+                if (bit >= 0) {
+                    if (seenWide != null) {
+                        seenWide[bit] = true;
+                    } else {
+                        seen |= 1L << bit;
+                    }
+                }
+                schema = nameSchemas[name];
+            }
+            if (schema == null && additionalProperties != null) {
+                if (additionalProperties.never) {
+                    return new Failure("additionalProperties", key.startIndex,
+                            "property '" + keyName(source, key) + "' is not allowed");
+                }
+                schema = additionalProperties;
+            }
+            if (schema != null) {
+                final Failure failure = schema.check(tokens, source, valueIndex);
+                if (failure != null) {
+                    return failure.under(keyName(source, key));
+                }
+            }
+            i = skip(tokens, valueIndex);
+        }
+
+        if (count < minProperties) {
+            return new Failure("minProperties", object.startIndex,
+                    "object has fewer than " + minProperties + " properties");
+        }
+        if (requiredCount > 0) {
+            for (int n = 0; n < names.length; n++) {
+                final int bit = requiredBits[n];
+                if (bit >= 0 && !(seenWide != null ? seenWide[bit] : (seen & 1L << bit) != 0)) {
+                    return new Failure("required", object.startIndex,
+                            "missing required property '" + names[n] + "'");
+                }
+            }
+        }
+        return null;
+    }
+
+    private int nameIndex(final CharSource source, final int start, final int end) {
+        final String[] names = this.names;
+        if (hasEscape(source, start, end)) {
+            final String key = source.getEncodedString(start, end);
+            for (int n = 0; n < names.length; n++) {
+                if (names[n].equals(key)) {
+                    return n;
+                }
+            }
+            return -1;
+        }
+        final int length = end - start;
+        for (int n = 0; n < names.length; n++) {
+            final String name = names[n];
+            if (name.length() == length && (length == 0 || source.matchChars(start, end, name))) {
+                return n;
+            }
+        }
+        return -1;
+    }
+
+    private Failure checkArray(final List<Token> tokens, final CharSource source, final int index) {
+        final Token array = tokens.get(index);
+        final int end = array.endIndex;
+        final int size = tokens.size();
+        int count = 0;
+
+        int i = index + 1;
+        while (i < size && tokens.get(i).startIndex < end) {
+            final CompiledSchema schema = tupleItems == null ? items
+                    : count < tupleItems.length ? tupleItems[count] : null;
+            if (schema != null) {
+                final Failure failure = schema.check(tokens, source, i);
+                if (failure != null) {
+                    return failure.under(Integer.toString(count));
+                }
+            }
+            if (++count > maxItems) {
+                return new Failure("maxItems", array.startIndex, "array has more than " + maxItems + " items");
+            }
+            i = skip(tokens, i);
+        }
+
+        if (count < minItems) {
+            return new Failure("minItems", array.startIndex, "array has fewer than " + minItems + " items");
+        }
+        return null;
+    }
+
+    private Failure checkNumber(final CharSource source, final Token token) {
+        if (minimum != Double.NEGATIVE_INFINITY || maximum != Double.POSITIVE_INFINITY) {
+            final double value = source.getDouble(token.startIndex, token.endIndex);
+            if (exclusiveMinimum ? value <= minimum : value < minimum) {
+                return new Failure(exclusiveMinimum ? "exclusiveMinimum" : "minimum", token.startIndex,
+                        "value must be " + (exclusiveMinimum ? "greater than " : "at least ") + format(minimum));
+            }
+            if (exclusiveMaximum ? value >= maximum : value > maximum) {
+                return new Failure(exclusiveMaximum ? "exclusiveMaximum" : "maximum", token.startIndex,
+                        "value must be " + (exclusiveMaximum ? "less than " : "at most ") + format(maximum));
+            }
+        }
+        if (multipleOf != null
+                && source.getBigDecimal(token.startIndex, token.endIndex).remainder(multipleOf).signum() != 0) {
+            return new Failure("multipleOf", token.startIndex,
+                    "value must be a multiple of " + multipleOf.toPlainString());
+        }
+        return null;
+    }
+
+    private Failure checkString(final CharSource source, final Token token) {
+        final int start = token.startIndex;
+        final int end = token.endIndex;
+        final boolean escaped = hasEscape(source, start, end);
+        if (minLength > 0 || maxLength != Integer.MAX_VALUE) {
+            final int length = escaped ? codePointLength(source.getEncodedString(start, end))
+                    : codePointLength(source, start, end);
+            if (length < minLength) {
+                return new Failure("minLength", start, "string is shorter than " + minLength);
+            }
+            if (length > maxLength) {
+                return new Failure("maxLength", start, "string is longer than " + maxLength);
+            }
+        }
+        if (pattern != null) {
+            final CharSequence value = escaped ? source.getEncodedString(start, end)
+                    : source.getCharSequence(start, end);
+            if (!pattern.matcher(value).find()) {
+                return new Failure("pattern", start, "string does not match " + pattern.pattern());
+            }
+        }
+        return null;
+    }
+
+    private boolean isAllowed(final CharSource source, final Token token) {
+        for (Constant constant : allowed) {
+            if (constant.matches(source, token)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Failure checkCombinators(final List<Token> tokens, final CharSource source, final int index,
+                                     final Token token) {
+        if (allOf != null) {
+            for (CompiledSchema schema : allOf) {
+                final Failure failure = schema.check(tokens, source, index);
+                if (failure != null) {
+                    return failure;
+                }
+            }
+        }
+        if (anyOf != null) {
+            boolean matched = false;
+            for (CompiledSchema schema : anyOf) {
+                if (schema.check(tokens, source, index) == null) {
+                    matched = true;
+                    break;
+                }
+            }
+            if (!matched) {
+                return new Failure("anyOf", token.startIndex, "value does not match any of the schemas");
+            }
+        }
+        if (oneOf != null) {
+            int matched = 0;
+            for (CompiledSchema schema : oneOf) {
+                if (schema.check(tokens, source, index) == null && ++matched > 1) {
+                    break;
+                }
+            }
+            if (matched != 1) {
+                return new Failure("oneOf", token.startIndex, matched == 0
+                        ? "value does not match any of the schemas" : "value matches more than one schema");
+            }
+        }
+        if (not != null && not.check(tokens, source, index) == null) {
+            return new Failure("not", token.startIndex, "value must not match the schema");
+        }
+        return null;
+    }
+
+    /**
+     * Returns the index of the token after the value at `index` and all of its children.
+     */
+    static int skip(final List<Token> tokens, final int index) {
+        final int end = tokens.get(index).endIndex;
+        final int size = tokens.size();
+        int i = index + 1;
+        while (i < size && tokens.get(i).startIndex < end) {
+            i++;
+        }
+        return i;
+    }
+
+    static boolean hasEscape(final CharSource source, final int start, final int end) {
+        for (int i = start; i < end; i++) {
+            if (source.getChartAt(i) == '\\') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int codePointLength(final CharSource source, final int start, final int end) {
+        int length = 0;
+        for (int i = start; i < end; i++) {
+            if (!Character.isLowSurrogate(source.getChartAt(i))) {
+                length++;
+            }
+        }
+        return length;
+    }
+
+    private static int codePointLength(final String value) {
+        return value.codePointCount(0, value.length());
+    }
+
+    private static String keyName(final CharSource source, final Token key) {
+        return source.toEncodedStringIfNeeded(key.startIndex, key.endIndex);
+    }
+
+    private static String format(final double value) {
+        return value == Math.rint(value) && Math.abs(value) < 1e15 ? Long.toString((long) value)
+                : Double.toString(value);
+    }
+
+    private static String typeName(final int tokenType) {
+        switch (tokenType) {
+            case OBJECT_TOKEN:
+                return "object";
+            case ARRAY_TOKEN:
+                return "array";
+            case INT_TOKEN:
+                return "integer";
+            case FLOAT_TOKEN:
+                return "number";
+            case STRING_TOKEN:
+                return "string";
+            case BOOLEAN_TOKEN:
+                return "boolean";
+            case NULL_TOKEN:
+                return "null";
+            default:
+                return TokenTypes.getTypeName(tokenType);
+        }
+    }
+
+    private static String typeNames(final int types) {
+        final String[] names = {"null", "boolean", "object", "array", "number", "integer", "string"};
+        final StringBuilder builder = new StringBuilder();
+        for (int bit = 0; bit < names.length; bit++) {
+            if ((types & 1 << bit) != 0) {
+                if (builder.length() > 0) {
+                    builder.append(" or ");
+                }
+                builder.append(names[bit]);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * A scalar `enum` or `const` value.
+     */
+    static final class Constant {
+
+        private final int type;
+        private final boolean bool;
+        private final double number;
+        private final String string;
+
+        private Constant(final int type, final boolean bool, final double number, final String string) {
+            this.type = type;
+            this.bool = bool;
+            this.number = number;
+            this.string = string;
+        }
+
+        static Constant ofNull() {
+            return new Constant(NULL_TOKEN, false, 0, null);
+        }
+
+        static Constant ofBoolean(final boolean value) {
+            return new Constant(BOOLEAN_TOKEN, value, 0, null);
+        }
+
+        static Constant ofNumber(final double value) {
+            return new Constant(FLOAT_TOKEN, false, value, null);
+        }
+
+        static Constant ofString(final String value) {
+            return new Constant(STRING_TOKEN, false, 0, value);
+        }
+
+        boolean matches(final CharSource source, final Token token) {
+            switch (token.type) {
+                case NULL_TOKEN:
+                    return type == NULL_TOKEN;
+                case BOOLEAN_TOKEN:
+                    return type == BOOLEAN_TOKEN && (source.getChartAt(token.startIndex) == 't') == bool;
+                case INT_TOKEN:
+                case FLOAT_TOKEN:
+                    return type == FLOAT_TOKEN && source.getDouble(token.startIndex, token.endIndex) == number;
+                case STRING_TOKEN:
+                    return type == STRING_TOKEN && stringMatches(source, token.startIndex, token.endIndex);
+                default:
+                    return false;
+            }
+        }
+
+        private boolean stringMatches(final CharSource source, final int start, final int end) {
+            if (hasEscape(source, start, end)) {
+                return string.equals(source.getEncodedString(start, end));
+            }
+            final int length = end - start;
+            return string.length() == length && (length == 0 || source.matchChars(start, end, string));
+        }
+
+        @Override
+        public String toString() {
+            switch (type) {
+                case NULL_TOKEN:
+                    return "null";
+                case BOOLEAN_TOKEN:
+                    return Boolean.toString(bool);
+                case FLOAT_TOKEN:
+                    return format(number);
+                default:
+                    return '"' + string + '"';
+            }
+        }
+    }
+
+    /**
+     * A failed check; the path is collected innermost first while the failure returns up the schema tree.
+     */
+    static final class Failure {
+
+        private final String keyword;
+        private final int offset;
+        private final String message;
+        private final List<String> segments = new ArrayList<>(4);
+
+        Failure(final String keyword, final int offset, final String message) {
+            this.keyword = keyword;
+            this.offset = offset;
+            this.message = message;
+        }
+
+        Failure under(final String segment) {
+            segments.add(segment);
+            return this;
+        }
+
+        SchemaViolation toViolation() {
+            final StringBuilder path = new StringBuilder();
+            for (int i = segments.size() - 1; i >= 0; i--) {
+                path.append('/').append(segments.get(i).replace("~", "~0").replace("/", "~1"));
+            }
+            return new SchemaViolation(keyword, path.toString(), offset, message);
+        }
+    }
+}
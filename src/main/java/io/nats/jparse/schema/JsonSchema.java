@@ -0,0 +1,111 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.schema;
+
+import io.nats.jparse.Json;
+import io.nats.jparse.node.RootNode;
+import io.nats.jparse.source.CharSource;
+
+import java.util.Optional;
+
+/**
+ * A JSON Schema compiled into a tree of rules that run directly against the tokens of a parsed document.
+ * <p>
+ * Validation reads the `RootNode` token ranges and the source characters; it never creates nodes and stops at the
+ * first violation. A document is scanned once, by the parser, and the same `RootNode` can then be validated and
+ * read. `validate(String)` does both steps.
+ * <p>
+ * Supported keywords: `type`, `properties`, `required`, `additionalProperties`, `minProperties`, `maxProperties`,
+ * `items` (schema or tuple), `minItems`, `maxItems`, `minimum`, `maximum`, `exclusiveMinimum`, `exclusiveMaximum`
+ * (boolean or numeric form), `multipleOf`, `minLength`, `maxLength`, `pattern`, scalar `enum` and `const`,
+ * `allOf`, `anyOf`, `oneOf` and `not`. Other validation keywords, such as `$ref` or `patternProperties`, are
+ * rejected when compiling. A compiled schema is immutable and can be shared between threads.
+ * <pre>
+ * JsonSchema schema = JsonSchema.compile("{\"type\":\"object\",\"required\":[\"id\"]}");
+ * Optional&lt;SchemaViolation&gt; violation = schema.validate(Json.toRootNode(message));
+ * </pre>
+ */
+public final class JsonSchema {
+
+    private final CompiledSchema root;
+
+    private JsonSchema(final CompiledSchema root) {
+        this.root = root;
+    }
+
+    /**
+     * Compiles a schema.
+     *
+     * @param schema the schema JSON
+     * @return the compiled schema
+     * @throws IllegalStateException if the schema is malformed or uses an unsupported keyword
+     */
+    public static JsonSchema compile(final String schema) {
+        return compile(Json.toRootNode(schema));
+    }
+
+    /**
+     * Compiles a parsed schema.
+     *
+     * @param schema the schema document
+     * @return the compiled schema
+     * @throws IllegalStateException if the schema is malformed or uses an unsupported keyword
+     */
+    public static JsonSchema compile(final RootNode schema) {
+        return new JsonSchema(SchemaCompiler.compile(schema.getNode(), ""));
+    }
+
+    /**
+     * Validates a parsed document.
+     *
+     * @param document the document to validate
+     * @return the first violation, or empty if the document is valid
+     */
+    public Optional<SchemaViolation> validate(final RootNode document) {
+        final CompiledSchema.Failure failure = root.check(document.tokens(), document.charSource(), 0);
+        return failure == null ? Optional.empty() : Optional.of(failure.toViolation());
+    }
+
+    /**
+     * Parses and validates a document.
+     *
+     * @param json the document to validate
+     * @return the first violation, or empty if the document is valid
+     */
+    public Optional<SchemaViolation> validate(final String json) {
+        return validate(Json.toRootNode(json));
+    }
+
+    /**
+     * Parses and validates a document.
+     *
+     * @param json the document to validate
+     * @return the first violation, or empty if the document is valid
+     */
+    public Optional<SchemaViolation> validate(final CharSource json) {
+        return validate(Json.toRootNode(json));
+    }
+
+    /**
+     * Checks a parsed document without building a violation report.
+     *
+     * @param document the document to validate
+     * @return true if the document is valid
+     */
+    public boolean isValid(final RootNode document) {
+        return root.check(document.tokens(), document.charSource(), 0) == null;
+    }
+}
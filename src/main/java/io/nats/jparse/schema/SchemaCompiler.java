@@ -0,0 +1,328 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.schema;
+
+import io.nats.jparse.node.ArrayNode;
+import io.nats.jparse.node.BooleanNode;
+import io.nats.jparse.node.Node;
+import io.nats.jparse.node.NodeType;
+import io.nats.jparse.node.NumberNode;
+import io.nats.jparse.node.ObjectNode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Turns a schema document into a tree of `CompiledSchema` rules.
+ * <p>
+ * Keywords that change which values are valid but are not supported are rejected with an
+ * `IllegalStateException`, so a schema can never be silently checked more loosely than it reads. Annotations
+ * (`title`, `description`, `format`, `default`, ...) are ignored.
+ */
+final class SchemaCompiler {
+
+    private static final Set<String> UNSUPPORTED = new HashSet<>(Arrays.asList(
+            "$ref", "$dynamicRef", "$recursiveRef", "patternProperties", "propertyNames", "dependencies",
+            "dependentRequired", "dependentSchemas", "if", "then", "else", "uniqueItems", "contains",
+            "minContains", "maxContains", "additionalItems", "prefixItems", "unevaluatedItems",
+            "unevaluatedProperties"));
+
+    private SchemaCompiler() {
+    }
+
+    static CompiledSchema compile(final Node schema, final String path) {
+        switch (schema.type()) {
+            case BOOLEAN:
+                final CompiledSchema result = new CompiledSchema();
+                result.never = !((BooleanNode) schema).booleanValue();
+                result.seal();
+                return result;
+            case OBJECT:
+                return compileObject((ObjectNode) schema, path);
+            default:
+                throw new IllegalStateException("Schema at " + pathName(path) + " must be an object or a boolean");
+        }
+    }
+
+    private static CompiledSchema compileObject(final ObjectNode schema, final String path) {
+        final CompiledSchema result = new CompiledSchema();
+        final Map<String, CompiledSchema> properties = new LinkedHashMap<>();
+        final List<String> required = new ArrayList<>();
+        Node exclusiveMinimum = null;
+        Node exclusiveMaximum = null;
+
+        for (Map.Entry<CharSequence, Node> entry : schema.entrySet()) {
+            final String keyword = entry.getKey().toString();
+            final Node value = entry.getValue();
+            final String at = path + "/" + keyword;
+            if (UNSUPPORTED.contains(keyword)) {
+                throw new IllegalStateException("Unsupported schema keyword " + keyword + " at " + pathName(path));
+            }
+            switch (keyword) {
+                case "type":
+                    result.types = types(value, at);
+                    break;
+                case "properties":
+                    for (Map.Entry<CharSequence, Node> property : object(value, at).entrySet()) {
+                        final String name = property.getKey().toString();
+                        properties.put(name, compile(property.getValue(), at + "/" + name));
+                    }
+                    break;
+                case "required":
+                    final ArrayNode names = array(value, at);
+                    for (int i = 0; i < names.size(); i++) {
+                        required.add(string(names.getNodeAt(i), at));
+                    }
+                    break;
+                case "additionalProperties":
+                    result.additionalProperties = compile(value, at);
+                    break;
+                case "minProperties":
+                    result.minProperties = count(value, at);
+                    break;
+                case "maxProperties":
+                    result.maxProperties = count(value, at);
+                    break;
+                case "items":
+                    if (value.type() == NodeType.ARRAY) {
+                        final ArrayNode tuple = (ArrayNode) value;
+                        result.tupleItems = new CompiledSchema[tuple.size()];
+                        for (int i = 0; i < tuple.size(); i++) {
+                            result.tupleItems[i] = compile(tuple.getNodeAt(i), at + "/" + i);
+                        }
+                    } else {
+                        result.items = compile(value, at);
+                    }
+                    break;
+                case "minItems":
+                    result.minItems = count(value, at);
+                    break;
+                case "maxItems":
+                    result.maxItems = count(value, at);
+                    break;
+                case "minimum":
+                    result.minimum = number(value, at).doubleValue();
+                    break;
+                case "maximum":
+                    result.maximum = number(value, at).doubleValue();
+                    break;
+                case "exclusiveMinimum":
+                    exclusiveMinimum = value;
+                    break;
+                case "exclusiveMaximum":
+                    exclusiveMaximum = value;
+                    break;
+                case "multipleOf":
+                    result.multipleOf = number(value, at).bigDecimalValue();
+                    if (result.multipleOf.signum() <= 0) {
+                        throw new IllegalStateException("multipleOf at " + pathName(path) + " must be positive");
+                    }
+                    break;
+                case "minLength":
+                    result.minLength = count(value, at);
+                    break;
+                case "maxLength":
+                    result.maxLength = count(value, at);
+                    break;
+                case "pattern":
+                    try {
+                        result.pattern = Pattern.compile(string(value, at));
+                    } catch (PatternSyntaxException e) {
+                        throw new IllegalStateException("Invalid pattern at " + pathName(at) + ": " + e.getMessage(), e);
+                    }
+                    break;
+                case "enum":
+                    final ArrayNode values = array(value, at);
+                    result.allowed = new CompiledSchema.Constant[values.size()];
+                    for (int i = 0; i < values.size(); i++) {
+                        result.allowed[i] = constant(values.getNodeAt(i), at + "/" + i);
+                    }
+                    result.allowedKeyword = keyword;
+                    break;
+                case "const":
+                    result.allowed = new CompiledSchema.Constant[]{constant(value, at)};
+                    result.allowedKeyword = keyword;
+                    break;
+                case "allOf":
+                    result.allOf = schemas(value, at);
+                    break;
+                case "anyOf":
+                    result.anyOf = schemas(value, at);
+                    break;
+                case "oneOf":
+                    result.oneOf = schemas(value, at);
+                    break;
+                case "not":
+                    result.not = compile(value, at);
+                    break;
+                default:
+            }
+        }
+
+        /* Draft 4 spells the exclusive bounds as booleans next to minimum/maximum, later drafts as numbers. */
+        if (exclusiveMinimum != null) {
+            if (exclusiveMinimum.type() == NodeType.BOOLEAN) {
+                result.exclusiveMinimum = ((BooleanNode) exclusiveMinimum).booleanValue();
+            } else {
+                final double bound = number(exclusiveMinimum, path + "/exclusiveMinimum").doubleValue();
+                if (bound >= result.minimum) {
+                    result.minimum = bound;
+                    result.exclusiveMinimum = true;
+                }
+            }
+        }
+        if (exclusiveMaximum != null) {
+            if (exclusiveMaximum.type() == NodeType.BOOLEAN) {
+                result.exclusiveMaximum = ((BooleanNode) exclusiveMaximum).booleanValue();
+            } else {
+                final double bound = number(exclusiveMaximum, path + "/exclusiveMaximum").doubleValue();
+                if (bound <= result.maximum) {
+                    result.maximum = bound;
+                    result.exclusiveMaximum = true;
+                }
+            }
+        }
+
+        /* One name table serves both `properties` and `required`, so each key is looked up once. */
+        final List<String> ordered = new ArrayList<>(properties.keySet());
+        for (String name : required) {
+            if (!ordered.contains(name)) {
+                ordered.add(name);
+            }
+        }
+        if (!ordered.isEmpty()) {
+            result.names = ordered.toArray(new String[0]);
+            result.nameSchemas = new CompiledSchema[ordered.size()];
+            result.requiredBits = new int[ordered.size()];
+            for (int i = 0; i < ordered.size(); i++) {
+                final String name = ordered.get(i);
+                result.nameSchemas[i] = properties.get(name);
+                result.requiredBits[i] = required.contains(name) ? result.requiredCount++ : -1;
+            }
+        }
+        result.seal();
+        return result;
+    }
+
+    private static int types(final Node value, final String path) {
+        if (value.type() == NodeType.STRING) {
+            return type(value.toString(), path);
+        }
+        int types = 0;
+        final ArrayNode names = array(value, path);
+        for (int i = 0; i < names.size(); i++) {
+            types |= type(string(names.getNodeAt(i), path), path);
+        }
+        return types;
+    }
+
+    private static int type(final String name, final String path) {
+        switch (name) {
+            case "null":
+                return CompiledSchema.TYPE_NULL;
+            case "boolean":
+                return CompiledSchema.TYPE_BOOLEAN;
+            case "object":
+                return CompiledSchema.TYPE_OBJECT;
+            case "array":
+                return CompiledSchema.TYPE_ARRAY;
+            case "number":
+                return CompiledSchema.TYPE_NUMBER;
+            case "integer":
+                return CompiledSchema.TYPE_INTEGER;
+            case "string":
+                return CompiledSchema.TYPE_STRING;
+            default:
+                throw new IllegalStateException("Unknown type " + name + " at " + pathName(path));
+        }
+    }
+
+    private static CompiledSchema.Constant constant(final Node value, final String path) {
+        switch (value.type()) {
+            case NULL:
+                return CompiledSchema.Constant.ofNull();
+            case BOOLEAN:
+                return CompiledSchema.Constant.ofBoolean(((BooleanNode) value).booleanValue());
+            case INT:
+            case FLOAT:
+                return CompiledSchema.Constant.ofNumber(((NumberNode) value).doubleValue());
+            case STRING:
+                return CompiledSchema.Constant.ofString(value.toString());
+            default:
+                throw new IllegalStateException("Only scalar enum and const values are supported at " + pathName(path));
+        }
+    }
+
+    private static CompiledSchema[] schemas(final Node value, final String path) {
+        final ArrayNode nodes = array(value, path);
+        if (nodes.isEmpty()) {
+            throw new IllegalStateException("Schema list at " + pathName(path) + " must not be empty");
+        }
+        final CompiledSchema[] schemas = new CompiledSchema[nodes.size()];
+        for (int i = 0; i < schemas.length; i++) {
+            schemas[i] = compile(nodes.getNodeAt(i), path + "/" + i);
+        }
+        return schemas;
+    }
+
+    private static ObjectNode object(final Node value, final String path) {
+        if (value.type() != NodeType.OBJECT) {
+            throw new IllegalStateException("Expected an object at " + pathName(path));
+        }
+        return (ObjectNode) value;
+    }
+
+    private static ArrayNode array(final Node value, final String path) {
+        if (value.type() != NodeType.ARRAY) {
+            throw new IllegalStateException("Expected an array at " + pathName(path));
+        }
+        return (ArrayNode) value;
+    }
+
+    private static String string(final Node value, final String path) {
+        if (value.type() != NodeType.STRING) {
+            throw new IllegalStateException("Expected a string at " + pathName(path));
+        }
+        return value.toString();
+    }
+
+    private static NumberNode number(final Node value, final String path) {
+        if (value.type() != NodeType.INT && value.type() != NodeType.FLOAT) {
+            throw new IllegalStateException("Expected a number at " + pathName(path));
+        }
+        return (NumberNode) value;
+    }
+
+    private static int count(final Node value, final String path) {
+        final NumberNode number = number(value, path);
+        final double count = number.doubleValue();
+        if (count < 0 || count != Math.rint(count)) {
+            throw new IllegalStateException("Expected a non-negative integer at " + pathName(path));
+        }
+        return count > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) count;
+    }
+
+    private static String pathName(final String path) {
+        return path.isEmpty() ? "/" : path;
+    }
+}
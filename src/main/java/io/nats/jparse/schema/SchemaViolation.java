@@ -0,0 +1,78 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.schema;
+
+/**
+ * The first rule of a `JsonSchema` that a document broke.
+ * <p>
+ * The path is a JSON Pointer (RFC 6901) to the offending value, for example `/items/2/price`, and is empty for the
+ * document root. The offset is the index of the offending value in the document source.
+ */
+public final class SchemaViolation {
+
+    private final String keyword;
+    private final String path;
+    private final int offset;
+    private final String message;
+
+    SchemaViolation(final String keyword, final String path, final int offset, final String message) {
+        this.keyword = keyword;
+        this.path = path;
+        this.offset = offset;
+        this.message = message;
+    }
+
+    /**
+     * Returns the schema keyword that failed, for example `required` or `maximum`.
+     *
+     * @return the failed keyword
+     */
+    public String keyword() {
+        return keyword;
+    }
+
+    /**
+     * Returns the JSON Pointer to the offending value.
+     *
+     * @return the path of the offending value, empty for the document root
+     */
+    public String path() {
+        return path;
+    }
+
+    /**
+     * Returns the index of the offending value in the document source.
+     *
+     * @return the source offset of the offending value
+     */
+    public int offset() {
+        return offset;
+    }
+
+    /**
+     * Returns a description of the violation.
+     *
+     * @return the violation message
+     */
+    public String message() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return (path.isEmpty() ? "/" : path) + ": " + message + " (" + keyword + ")";
+    }
+}
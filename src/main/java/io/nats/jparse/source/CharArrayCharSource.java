@@ -60,6 +60,9 @@ public class CharArrayCharSource implements CharSource, ParseConstants {
     /** The index into the data. */
     private int index;
 
+    /** Whether the last string found by a string scan contained an escape. */
+    private boolean stringEscaped;
+
 
     /**
      * Construct it
@@ -231,7 +234,7 @@ public class CharArrayCharSource implements CharSource, ParseConstants {
     @Override
     public BigInteger getBigInteger(int startIndex, int endIndex) {
         final int len = endIndex - startIndex;
-        if (len > MAX_LONG_STR_LENGTH) {
+        if (len >= MAX_LONG_STR_LENGTH) {
             return getBigDecimal(startIndex, endIndex).toBigInteger();
         } else {
             long value = getLong(startIndex, endIndex);
@@ -261,6 +264,7 @@ public class CharArrayCharSource implements CharSource, ParseConstants {
     @Override
     public NumberParseResult findEndOfNumberFast() {
 
+        final int startIndex = index < 0 ? 0 : index;
 
         int i = index + 1;
         char ch = 0;
@@ -281,7 +285,7 @@ public class CharArrayCharSource implements CharSource, ParseConstants {
                 case OBJECT_END_TOKEN:
                 case ARRAY_END_TOKEN:
                     index = i;
-                    return new NumberParseResult(i, false);
+                    return new NumberParseResult(i, false, CharArrayUtils.integerNumberFlags(data, startIndex, i));
 
                 case NUM_0:
                 case NUM_1:
@@ -297,13 +301,13 @@ public class CharArrayCharSource implements CharSource, ParseConstants {
 
                 case DECIMAL_POINT:
                     index = i;
-                    return findEndOfFloatFast();
+                    return findEndOfFloatFast(startIndex);
 
 
                 case EXPONENT_MARKER:
                 case EXPONENT_MARKER2:
                     index = i;
-                    return parseFloatWithExponentFast();
+                    return parseFloatWithExponentFast(startIndex, false);
 
 
                 default:
@@ -314,11 +318,11 @@ public class CharArrayCharSource implements CharSource, ParseConstants {
         }
 
         index = i;
-        return new NumberParseResult(i, false);
+        return new NumberParseResult(i, false, CharArrayUtils.integerNumberFlags(data, startIndex, i));
 
     }
 
-    private NumberParseResult findEndOfFloatFast() {
+    private NumberParseResult findEndOfFloatFast(final int startIndex) {
 
 
         int i = index + 1;
@@ -339,7 +343,7 @@ public class CharArrayCharSource implements CharSource, ParseConstants {
                 case OBJECT_END_TOKEN:
                 case ARRAY_END_TOKEN:
                     index = i;
-                    return new NumberParseResult(i, true);
+                    return new NumberParseResult(i, true, CharArrayUtils.floatNumberFlags(data, startIndex, i, true, false));
 
                 case NUM_0:
                 case NUM_1:
@@ -356,7 +360,7 @@ public class CharArrayCharSource implements CharSource, ParseConstants {
                 case EXPONENT_MARKER:
                 case EXPONENT_MARKER2:
                     index = i;
-                    return parseFloatWithExponentFast();
+                    return parseFloatWithExponentFast(startIndex, true);
 
 
                 default:
@@ -368,12 +372,13 @@ public class CharArrayCharSource implements CharSource, ParseConstants {
 
 
         index = i;
-        return new NumberParseResult(i, true);
+        return new NumberParseResult(i, true, CharArrayUtils.floatNumberFlags(data, startIndex, i, true, false));
 
     }
 
-    private NumberParseResult parseFloatWithExponentFast() {
+    private NumberParseResult parseFloatWithExponentFast(final int startIndex, final boolean hasDecimalPoint) {
 
+        final int mantissaEndIndex = index;
         int i = index + 1;
         char ch = 0;
         int signOperator = 0;
@@ -393,7 +398,7 @@ public class CharArrayCharSource implements CharSource, ParseConstants {
                 case OBJECT_END_TOKEN:
                 case ARRAY_END_TOKEN:
                     index = i;
-                    return new NumberParseResult(i, true);
+                    return new NumberParseResult(i, true, CharArrayUtils.floatNumberFlags(data, startIndex, mantissaEndIndex, hasDecimalPoint, true));
 
                 case MINUS:
                 case PLUS:
@@ -425,7 +430,7 @@ public class CharArrayCharSource implements CharSource, ParseConstants {
 
 
         index = i;
-        return new NumberParseResult(i, true);
+        return new NumberParseResult(i, true, CharArrayUtils.floatNumberFlags(data, startIndex, mantissaEndIndex, hasDecimalPoint, true));
 
     }
 
@@ -435,15 +440,18 @@ public class CharArrayCharSource implements CharSource, ParseConstants {
         final char[] data = this.data;
         final int length = data.length;
         boolean controlChar = false;
+        boolean escaped = false;
         for (; i < length; i++) {
             char ch = data[i];
             switch (ch) {
                 case CONTROL_ESCAPE_TOKEN:
                     controlChar = !controlChar;
+                    escaped = true;
                     continue;
                 case STRING_END_TOKEN:
                     if (!controlChar) {
                         index = i + 1;
+                        stringEscaped = escaped;
                         return i;
                     }
                     controlChar = false;
@@ -491,14 +499,17 @@ public class CharArrayCharSource implements CharSource, ParseConstants {
         final char[] data = this.data;
         final int length = data.length;
         char ch = 0;
+        boolean escaped = false;
         for (; i < length; i++) {
             ch = data[i];
             switch (ch) {
                 case CONTROL_ESCAPE_TOKEN:
                     i = findEndOfStringControlEncode(i + 1);
+                    escaped = true;
                     continue;
                 case STRING_END_TOKEN:
                     index = i + 1;
+                    stringEscaped = escaped;
                     return i;
                 default:
                     if (ch >= SPACE_WS) {
@@ -599,13 +610,18 @@ public class CharArrayCharSource implements CharSource, ParseConstants {
         final char[] data = this.data;
         final int length = data.length;
         char ch = 0;
+        boolean escaped = false;
 
         for (; i < length; i++) {
            ch = data[i];
             switch (ch) {
                 case STRING_END_TOKEN:
                     index = i;
+                    stringEscaped = escaped;
                     return i;
+                case CONTROL_ESCAPE_TOKEN:
+                    escaped = true;
+                    continue;
                 default:
                     if (ch >= SPACE_WS) {
                         continue;
@@ -616,6 +632,11 @@ public class CharArrayCharSource implements CharSource, ParseConstants {
         throw new UnexpectedCharacterException("Parsing JSON String", "Unable to find closing for String", this,  ch, i);
     }
 
+    @Override
+    public boolean stringEscaped() {
+        return stringEscaped;
+    }
+
     @Override
     public NumberParseResult findEndOfNumber() {
 
@@ -667,13 +688,13 @@ public class CharArrayCharSource implements CharSource, ParseConstants {
                         }
                     }
                     index = i;
-                    return findEndOfFloat();
+                    return findEndOfFloat(startIndex);
 
 
                 case EXPONENT_MARKER:
                 case EXPONENT_MARKER2:
                     index = i;
-                    return parseFloatWithExponent();
+                    return parseFloatWithExponent(startIndex, false);
 
 
                 default:
@@ -712,10 +733,10 @@ public class CharArrayCharSource implements CharSource, ParseConstants {
                         }
                 }
         }
-        return new NumberParseResult(i, false);
+        return new NumberParseResult(i, false, CharArrayUtils.integerNumberFlags(data, startIndex, i));
     }
 
-    private NumberParseResult findEndOfFloat() {
+    private NumberParseResult findEndOfFloat(final int startIndex) {
 
         int i = index + 1;
         char ch = (char) next();
@@ -739,7 +760,7 @@ public class CharArrayCharSource implements CharSource, ParseConstants {
                 case OBJECT_END_TOKEN:
                 case ARRAY_END_TOKEN:
                     index = i;
-                    return new NumberParseResult(i, true);
+                    return new NumberParseResult(i, true, CharArrayUtils.floatNumberFlags(data, startIndex, i, true, false));
 
                 case NUM_0:
                 case NUM_1:
@@ -756,7 +777,7 @@ public class CharArrayCharSource implements CharSource, ParseConstants {
                 case EXPONENT_MARKER:
                 case EXPONENT_MARKER2:
                     index = i;
-                    return parseFloatWithExponent();
+                    return parseFloatWithExponent(startIndex, true);
 
 
                 default:
@@ -768,7 +789,7 @@ public class CharArrayCharSource implements CharSource, ParseConstants {
 
 
         index = i;
-        return new NumberParseResult(i, true);
+        return new NumberParseResult(i, true, CharArrayUtils.floatNumberFlags(data, startIndex, i, true, false));
 
     }
 
@@ -790,7 +811,8 @@ public class CharArrayCharSource implements CharSource, ParseConstants {
         }
     }
 
-    private NumberParseResult parseFloatWithExponent() {
+    private NumberParseResult parseFloatWithExponent(final int startIndex, final boolean hasDecimalPoint) {
+        final int mantissaEndIndex = index;
         char ch = (char) next();
         if (!isNumberOrSign(ch)) {
             throw new UnexpectedCharacterException("Parsing exponent part of float", "After exponent expecting number or sign but got", this, ch, this.index);
@@ -821,7 +843,7 @@ public class CharArrayCharSource implements CharSource, ParseConstants {
                 case OBJECT_END_TOKEN:
                 case ARRAY_END_TOKEN:
                     index = i;
-                    return new NumberParseResult(i, true);
+                    return new NumberParseResult(i, true, CharArrayUtils.floatNumberFlags(data, startIndex, mantissaEndIndex, hasDecimalPoint, true));
 
                 case NUM_0:
                 case NUM_1:
@@ -841,7 +863,7 @@ public class CharArrayCharSource implements CharSource, ParseConstants {
             }
         }
         index = i;
-        return new NumberParseResult(i, true);
+        return new NumberParseResult(i, true, CharArrayUtils.floatNumberFlags(data, startIndex, mantissaEndIndex, hasDecimalPoint, true));
     }
 
     private boolean isNumberOrSign(char ch) {
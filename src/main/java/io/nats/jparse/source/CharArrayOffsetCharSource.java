@@ -43,6 +43,7 @@ public class CharArrayOffsetCharSource implements CharSource, ParseConstants {
     private final int sourceEndIndex;
     private final int length;
     private int index;
+    private boolean stringEscaped;
 
     /**
      * Create char source from offset into array
@@ -276,6 +277,7 @@ public class CharArrayOffsetCharSource implements CharSource, ParseConstants {
     @Override
     public NumberParseResult findEndOfNumberFast() {
 
+        final int startIndex = index < sourceStartIndex ? sourceStartIndex : index;
 
         int i = index + 1;
         char ch = 0;
@@ -296,7 +298,7 @@ public class CharArrayOffsetCharSource implements CharSource, ParseConstants {
                 case OBJECT_END_TOKEN:
                 case ARRAY_END_TOKEN:
                     index = i;
-                    return new NumberParseResult(i - sourceStartIndex, false);
+                    return new NumberParseResult(i - sourceStartIndex, false, CharArrayUtils.integerNumberFlags(data, startIndex, i));
 
                 case NUM_0:
                 case NUM_1:
@@ -312,13 +314,13 @@ public class CharArrayOffsetCharSource implements CharSource, ParseConstants {
 
                 case DECIMAL_POINT:
                     index = i;
-                    return findEndOfFloatFast();
+                    return findEndOfFloatFast(startIndex);
 
 
                 case EXPONENT_MARKER:
                 case EXPONENT_MARKER2:
                     index = i;
-                    return parseFloatWithExponentFast();
+                    return parseFloatWithExponentFast(startIndex, false);
 
 
                 default:
@@ -329,11 +331,11 @@ public class CharArrayOffsetCharSource implements CharSource, ParseConstants {
         }
 
         index = i;
-        return new NumberParseResult(i - sourceStartIndex, false);
+        return new NumberParseResult(i - sourceStartIndex, false, CharArrayUtils.integerNumberFlags(data, startIndex, i));
 
     }
 
-    private NumberParseResult findEndOfFloatFast() {
+    private NumberParseResult findEndOfFloatFast(final int startIndex) {
 
 
         int i = index + 1;
@@ -354,7 +356,7 @@ public class CharArrayOffsetCharSource implements CharSource, ParseConstants {
                 case OBJECT_END_TOKEN:
                 case ARRAY_END_TOKEN:
                     index = i;
-                    return new NumberParseResult(i - sourceStartIndex, true);
+                    return new NumberParseResult(i - sourceStartIndex, true, CharArrayUtils.floatNumberFlags(data, startIndex, i, true, false));
 
                 case NUM_0:
                 case NUM_1:
@@ -371,7 +373,7 @@ public class CharArrayOffsetCharSource implements CharSource, ParseConstants {
                 case EXPONENT_MARKER:
                 case EXPONENT_MARKER2:
                     index = i;
-                    return parseFloatWithExponentFast();
+                    return parseFloatWithExponentFast(startIndex, true);
 
 
                 default:
@@ -383,12 +385,13 @@ public class CharArrayOffsetCharSource implements CharSource, ParseConstants {
 
 
         index = i;
-        return new NumberParseResult(i - sourceStartIndex, true);
+        return new NumberParseResult(i - sourceStartIndex, true, CharArrayUtils.floatNumberFlags(data, startIndex, i, true, false));
 
     }
 
-    private NumberParseResult parseFloatWithExponentFast() {
+    private NumberParseResult parseFloatWithExponentFast(final int startIndex, final boolean hasDecimalPoint) {
 
+        final int mantissaEndIndex = index;
         int i = index + 1;
         char ch = 0;
         int signOperator = 0;
@@ -408,7 +411,7 @@ public class CharArrayOffsetCharSource implements CharSource, ParseConstants {
                 case OBJECT_END_TOKEN:
                 case ARRAY_END_TOKEN:
                     index = i;
-                    return new NumberParseResult(i - sourceStartIndex, true);
+                    return new NumberParseResult(i - sourceStartIndex, true, CharArrayUtils.floatNumberFlags(data, startIndex, mantissaEndIndex, hasDecimalPoint, true));
 
                 case MINUS:
                 case PLUS:
@@ -440,7 +443,7 @@ public class CharArrayOffsetCharSource implements CharSource, ParseConstants {
 
 
         index = i;
-        return new NumberParseResult(i - sourceStartIndex, true);
+        return new NumberParseResult(i - sourceStartIndex, true, CharArrayUtils.floatNumberFlags(data, startIndex, mantissaEndIndex, hasDecimalPoint, true));
 
     }
 
@@ -450,15 +453,18 @@ public class CharArrayOffsetCharSource implements CharSource, ParseConstants {
         final char[] data = this.data;
         final int end = sourceEndIndex;
         boolean controlChar = false;
+        boolean escaped = false;
         for (; i < end; i++) {
             char ch = data[i];
             switch (ch) {
                 case CONTROL_ESCAPE_TOKEN:
                     controlChar = !controlChar;
+                    escaped = true;
                     continue;
                 case STRING_END_TOKEN:
                     if (!controlChar) {
                         index = i + 1;
+                        stringEscaped = escaped;
                         return i;
                     }
                     controlChar = false;
@@ -506,14 +512,17 @@ public class CharArrayOffsetCharSource implements CharSource, ParseConstants {
         final char[] data = this.data;
         final int length = data.length;
         char ch = 0;
+        boolean escaped = false;
         for (; i < length; i++) {
             ch = data[i];
             switch (ch) {
                 case CONTROL_ESCAPE_TOKEN:
                     i = findEndOfStringControlEncode(i + 1);
+                    escaped = true;
                     continue;
                 case STRING_END_TOKEN:
                     index = i + 1;
+                    stringEscaped = escaped;
                     return i;
                 default:
                     if (ch >= SPACE_WS) {
@@ -576,13 +585,18 @@ public class CharArrayOffsetCharSource implements CharSource, ParseConstants {
         final char[] data = this.data;
         final int length = data.length;
         char ch = 0;
+        boolean escaped = false;
 
         for (; i < length; i++) {
            ch = data[i];
             switch (ch) {
                 case STRING_END_TOKEN:
                     index = i;
+                    stringEscaped = escaped;
                     return i;
+                case CONTROL_ESCAPE_TOKEN:
+                    escaped = true;
+                    continue;
                 default:
                     if (ch >= SPACE_WS) {
                         continue;
@@ -593,6 +607,11 @@ public class CharArrayOffsetCharSource implements CharSource, ParseConstants {
         throw new UnexpectedCharacterException("Parsing JSON String", "Unable to find closing for String", this,  ch, i);
     }
 
+    @Override
+    public boolean stringEscaped() {
+        return stringEscaped;
+    }
+
     @Override
     public NumberParseResult findEndOfNumber() {
 
@@ -644,13 +663,13 @@ public class CharArrayOffsetCharSource implements CharSource, ParseConstants {
                         }
                     }
                     index = i;
-                    return findEndOfFloat();
+                    return findEndOfFloat(startIndex);
 
 
                 case EXPONENT_MARKER:
                 case EXPONENT_MARKER2:
                     index = i;
-                    return parseFloatWithExponent();
+                    return parseFloatWithExponent(startIndex, false);
 
 
                 default:
@@ -689,10 +708,10 @@ public class CharArrayOffsetCharSource implements CharSource, ParseConstants {
                         }
                 }
         }
-        return new NumberParseResult(i - this.sourceStartIndex, false);
+        return new NumberParseResult(i - sourceStartIndex, false, CharArrayUtils.integerNumberFlags(data, startIndex, i));
     }
 
-    private NumberParseResult findEndOfFloat() {
+    private NumberParseResult findEndOfFloat(final int startIndex) {
 
         int i = index + 1;
         char ch = (char) next();
@@ -717,7 +736,7 @@ public class CharArrayOffsetCharSource implements CharSource, ParseConstants {
                 case OBJECT_END_TOKEN:
                 case ARRAY_END_TOKEN:
                     index = i;
-                    return new NumberParseResult(i - sourceStartIndex, true);
+                    return new NumberParseResult(i - sourceStartIndex, true, CharArrayUtils.floatNumberFlags(data, startIndex, i, true, false));
 
                 case NUM_0:
                 case NUM_1:
@@ -734,7 +753,7 @@ public class CharArrayOffsetCharSource implements CharSource, ParseConstants {
                 case EXPONENT_MARKER:
                 case EXPONENT_MARKER2:
                     index = i;
-                    return parseFloatWithExponent();
+                    return parseFloatWithExponent(startIndex, true);
 
 
                 default:
@@ -746,7 +765,7 @@ public class CharArrayOffsetCharSource implements CharSource, ParseConstants {
 
 
         index = i;
-        return new NumberParseResult(i - sourceStartIndex, true);
+        return new NumberParseResult(i - sourceStartIndex, true, CharArrayUtils.floatNumberFlags(data, startIndex, i, true, false));
 
     }
 
@@ -768,8 +787,8 @@ public class CharArrayOffsetCharSource implements CharSource, ParseConstants {
         }
     }
 
-    private NumberParseResult parseFloatWithExponent() {
-
+    private NumberParseResult parseFloatWithExponent(final int startIndex, final boolean hasDecimalPoint) {
+        final int mantissaEndIndex = index;
 
         char ch = (char) next();
         if (!isNumberOrSign(ch)) {
@@ -802,7 +821,7 @@ public class CharArrayOffsetCharSource implements CharSource, ParseConstants {
                 case OBJECT_END_TOKEN:
                 case ARRAY_END_TOKEN:
                     index = i;
-                    return new NumberParseResult(i - sourceStartIndex, true);
+                    return new NumberParseResult(i - sourceStartIndex, true, CharArrayUtils.floatNumberFlags(data, startIndex, mantissaEndIndex, hasDecimalPoint, true));
 
                 case NUM_0:
                 case NUM_1:
@@ -822,7 +841,7 @@ public class CharArrayOffsetCharSource implements CharSource, ParseConstants {
             }
         }
         index = i;
-        return new NumberParseResult(i - sourceStartIndex, true);
+        return new NumberParseResult(i - sourceStartIndex, true, CharArrayUtils.floatNumberFlags(data, startIndex, mantissaEndIndex, hasDecimalPoint, true));
     }
 
     private boolean isNumberOrSign(char ch) {
@@ -190,8 +190,20 @@ public interface CharSource {
      */
     int findEndString();
 
+    /**
+     * Returns whether the string found by the last `findEndOfEncodedString`, `findEndOfEncodedStringFast` or
+     * `findEndString` call contains an escape sequence, so a caller can skip decoding strings that have none.
+     * Sources that do not track this report `true`.
+     *
+     * @return `true` if the last scanned string has to be decoded
+     */
+    default boolean stringEscaped() {
+        return true;
+    }
+
     /**
      * Parses a number from the source, starting from the current index.
+     * The result also carries the number classification bits (digit count, sign, exponent, int/long fit).
      *
      * @return A `NumberParseResult` object containing the number and its end index
      */
@@ -275,6 +287,7 @@ public interface CharSource {
 
     /**
      * Parses a number from the source, starting from the current index, using a faster algorithm than `findEndOfNumber`.
+     * The result also carries the number classification bits (digit count, sign, exponent, int/long fit).
      *
      * @return A `NumberParseResult` object containing the number and its end index
      */
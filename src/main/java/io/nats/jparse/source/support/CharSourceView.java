@@ -0,0 +1,66 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.source.support;
+
+import io.nats.jparse.source.CharSource;
+
+/**
+ * A reusable `CharSequence` view over a range of a `CharSource`.
+ * <p>
+ * The view is a flyweight: calling `set` points it at a new range without allocating. It does not copy the
+ * characters, so it is only valid while the underlying source is.
+ */
+public class CharSourceView implements CharSequence {
+
+    private CharSource source;
+    private int startIndex;
+    private int length;
+
+    /**
+     * Points this view at a new range.
+     *
+     * @param source     the character source
+     * @param startIndex the start index of the range
+     * @param endIndex   the end index of the range (exclusive)
+     * @return this view
+     */
+    public CharSourceView set(final CharSource source, final int startIndex, final int endIndex) {
+        this.source = source;
+        this.startIndex = startIndex;
+        this.length = endIndex - startIndex;
+        return this;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(final int index) {
+        return source.getChartAt(startIndex + index);
+    }
+
+    @Override
+    public CharSequence subSequence(final int start, final int end) {
+        return source.getCharSequence(startIndex + start, startIndex + end);
+    }
+
+    @Override
+    public String toString() {
+        return source.getString(startIndex, startIndex + length);
+    }
+}
@@ -28,9 +28,16 @@ import java.util.Optional;
  */
 /**
  * This class represents an exception that is thrown when an unexpected character is encountered during parsing.
+ * <p>
+ * Only the parts of the error are captured when it is thrown; the description with the surrounding characters is
+ * formatted from the source when `toString()` or `getDetails()` is called. Stack traces are filled in unless the throwing thread
+ * turned them off with `captureStackTraces(false)`, which parsers built with `setStacklessErrors(true)` do while
+ * they parse.
  */
 public class UnexpectedCharacterException extends RuntimeException {
 
+    private static final ThreadLocal<Boolean> CAPTURE_STACK_TRACES = ThreadLocal.withInitial(() -> Boolean.TRUE);
+
     /**
      * The source of characters where the unexpected character was found.
      */
@@ -65,7 +72,7 @@ public class UnexpectedCharacterException extends RuntimeException {
      * @param index      the index at which the unexpected character occurred
      */
     public UnexpectedCharacterException(String whileDoing, String message, int ch, int index) {
-        super(String.format("Unexpected character while %s, Error is '%s, character is %c' at index %d.", whileDoing, message, (char) ch, index));
+        super(message, null, true, CAPTURE_STACK_TRACES.get());
         this.source = null;
         this.whileDoing = whileDoing;
         this.message = message;
@@ -84,7 +91,7 @@ public class UnexpectedCharacterException extends RuntimeException {
      * @param index      the index at which the unexpected character occurred
      */
     public UnexpectedCharacterException(String whileDoing, String message, CharSource source, int ch, int index) {
-        super(String.format("Unexpected character while %s, Error is '%s'. \n Details \n %s", whileDoing, message, source.errorDetails(message, index, ch)));
+        super(message, null, true, CAPTURE_STACK_TRACES.get());
         this.source = source;
         this.whileDoing = whileDoing;
         this.message = message;
@@ -126,6 +133,18 @@ public class UnexpectedCharacterException extends RuntimeException {
         this(whileDoing, unexpectedCharacterException.getLocalizedMessage(), charSource);
     }
 
+    /**
+     * Turns the stack traces of exceptions thrown on the current thread on or off.
+     *
+     * @param capture `false` to create exceptions without stack traces
+     * @return the previous setting, to restore when done
+     */
+    public static boolean captureStackTraces(final boolean capture) {
+        final boolean previous = CAPTURE_STACK_TRACES.get();
+        CAPTURE_STACK_TRACES.set(capture);
+        return previous;
+    }
+
     /**
      * The source of the error.
      *
@@ -180,4 +199,20 @@ public class UnexpectedCharacterException extends RuntimeException {
     public String getDetails() {
         return source.errorDetails(message, index, ch);
     }
+
+    /**
+     * The full description of the error, with the surrounding characters when the source is known. Formatted on each
+     * call.
+     *
+     * @return the class name and the full description of the error
+     */
+    @Override
+    public String toString() {
+        if (source == null) {
+            return String.format("%s: Unexpected character while %s, Error is '%s, character is %c' at index %d.",
+                    getClass().getName(), whileDoing, message, (char) ch, index);
+        }
+        return String.format("%s: Unexpected character while %s, Error is '%s'. \n Details \n %s",
+                getClass().getName(), whileDoing, message, getDetails());
+    }
 }
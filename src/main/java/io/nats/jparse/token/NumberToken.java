@@ -0,0 +1,92 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.token;
+
+/**
+ * A number token that also carries the classification bits recorded while the number was scanned
+ * (digit count, sign, exponent and whether the value fits in an `int` or a `long`).
+ * <p>
+ * Typed accessors use these bits to pick the cheapest decode without rescanning the digits.
+ *
+ * @see TokenTypes#NUMBER_DIGIT_COUNT_MASK
+ * @see TokenTypes#NUMBER_FITS_INT_FLAG
+ * @see TokenTypes#NUMBER_FITS_LONG_FLAG
+ */
+public class NumberToken extends Token {
+
+    /**
+     * The number classification bits (@see TokenTypes).
+     */
+    public final int numberFlags;
+
+    /**
+     * Creates a new NumberToken object with the specified start and end indices, type and classification bits.
+     *
+     * @param startIndex  The start index of the token
+     * @param endIndex    The end index of the token
+     * @param type        The type of the token, `INT_TOKEN` or `FLOAT_TOKEN`
+     * @param numberFlags The number classification bits
+     */
+    public NumberToken(int startIndex, int endIndex, int type, int numberFlags) {
+        super(startIndex, endIndex, type);
+        this.numberFlags = numberFlags;
+    }
+
+    /**
+     * Returns the number of digits in the number, sign, decimal point and exponent excluded.
+     *
+     * @return The number of digits (capped at 255)
+     */
+    public int digitCount() {
+        return numberFlags & TokenTypes.NUMBER_DIGIT_COUNT_MASK;
+    }
+
+    /**
+     * Returns whether the number is negative.
+     *
+     * @return `true` if the number has a leading minus sign
+     */
+    public boolean isNegative() {
+        return (numberFlags & TokenTypes.NUMBER_NEGATIVE_FLAG) != 0;
+    }
+
+    /**
+     * Returns whether the number has an exponent part.
+     *
+     * @return `true` if the number has an exponent part
+     */
+    public boolean hasExponent() {
+        return (numberFlags & TokenTypes.NUMBER_EXPONENT_FLAG) != 0;
+    }
+
+    /**
+     * Returns whether the number is an integer that fits in an `int`.
+     *
+     * @return `true` if the number fits in an `int`
+     */
+    public boolean fitsInt() {
+        return (numberFlags & TokenTypes.NUMBER_FITS_INT_FLAG) != 0;
+    }
+
+    /**
+     * Returns whether the number is an integer that fits in a `long`.
+     *
+     * @return `true` if the number fits in a `long`
+     */
+    public boolean fitsLong() {
+        return (numberFlags & TokenTypes.NUMBER_FITS_LONG_FLAG) != 0;
+    }
+}
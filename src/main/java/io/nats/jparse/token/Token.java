@@ -102,6 +102,7 @@ public class Token {
 
     /**
      * Compares this token with the specified object for equality.
+     * Only the start index, end index and type take part, so a `NumberToken` equals a plain token over the same range.
      *
      * @param o The object to compare to
      * @return `true` if the objects are equal; `false` otherwise
@@ -109,7 +110,7 @@ public class Token {
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
+        if (!(o instanceof Token)) return false;
         Token token = (Token) o;
         return startIndex == token.startIndex && endIndex == token.endIndex && type == token.type;
     }
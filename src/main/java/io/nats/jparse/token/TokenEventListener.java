@@ -47,4 +47,34 @@ public interface TokenEventListener {
      * @see TokenTypes
      */
     void end(int tokenId, int index, CharSource source);
+
+    /**
+     * Called for a string value or key once its closing quote has been found. Parsers that know whether the string
+     * contains an escape pass it on, so listeners that decode strings do not have to look again. The default reports
+     * the string as a `STRING_TOKEN` start and end.
+     *
+     * @param startIndex The index of the first character after the opening quote
+     * @param endIndex   The index of the closing quote
+     * @param escaped    Whether the string contains an escape sequence
+     * @param source     The character source being parsed
+     */
+    default void string(int startIndex, int endIndex, boolean escaped, CharSource source) {
+        start(TokenTypes.STRING_TOKEN, startIndex, source);
+        end(TokenTypes.STRING_TOKEN, endIndex, source);
+    }
+
+    /**
+     * Called for a number once its end has been found, with the classification bits the scanner recorded for it.
+     * The default reports the number as a start and end of its token type.
+     *
+     * @param tokenId     `TokenTypes.INT_TOKEN` or `TokenTypes.FLOAT_TOKEN`
+     * @param startIndex  The index of the first character of the number
+     * @param endIndex    The index after the last character of the number
+     * @param numberFlags The number classification bits (@see TokenTypes)
+     * @param source      The character source being parsed
+     */
+    default void number(int tokenId, int startIndex, int endIndex, int numberFlags, CharSource source) {
+        start(tokenId, startIndex, source);
+        end(tokenId, endIndex, source);
+    }
 }
@@ -84,6 +84,32 @@ public interface TokenTypes {
      */
     int PATH_INDEX_TOKEN = 11;
 
+    /**
+     * Number classification bits: mask for the digit count of a number (capped at 255).
+     * The classification bits are recorded while scanning and carried by a `NumberToken`.
+     */
+    int NUMBER_DIGIT_COUNT_MASK = 0xFF;
+
+    /**
+     * Number classification bits: the number has a leading minus sign.
+     */
+    int NUMBER_NEGATIVE_FLAG = 1 << 8;
+
+    /**
+     * Number classification bits: the number has an exponent part.
+     */
+    int NUMBER_EXPONENT_FLAG = 1 << 9;
+
+    /**
+     * Number classification bits: the number is an integer that fits in an `int`.
+     */
+    int NUMBER_FITS_INT_FLAG = 1 << 10;
+
+    /**
+     * Number classification bits: the number is an integer that fits in a `long`.
+     */
+    int NUMBER_FITS_LONG_FLAG = 1 << 11;
+
     /**
      * Returns a human-readable name for a token type based on its integer value.
      *
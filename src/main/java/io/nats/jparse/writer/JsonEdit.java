@@ -0,0 +1,429 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.writer;
+
+import io.nats.jparse.Path;
+import io.nats.jparse.node.ArrayNode;
+import io.nats.jparse.node.Node;
+import io.nats.jparse.node.NodeType;
+import io.nats.jparse.node.ObjectNode;
+import io.nats.jparse.node.RootNode;
+import io.nats.jparse.path.PathElement;
+import io.nats.jparse.path.PathNode;
+import io.nats.jparse.source.CharSource;
+import io.nats.jparse.token.Token;
+import io.nats.jparse.token.TokenTypes;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * An edit overlay over a parsed document. Edits are recorded against the token ranges of the original
+ * `CharSource` and nothing is materialized until the document is written out.
+ * <p>
+ * On output, untouched ranges are copied verbatim from the source and only the edited pieces are spliced in,
+ * so the cost of re-emitting is proportional to the document size, not to a full tree conversion.
+ * <pre>
+ *     final JsonEdit edit = Json.toRootNode(json).edit();
+ *     edit.setLong("header.version", 2).remove("header.trace").put("header", "republished", "true");
+ *     final String updated = edit.toString();
+ * </pre>
+ * A replaced value is written as given, so edits recorded inside it are ignored. Removing or inserting members
+ * rewrites the member separators of that one container; whitespace inside each member is kept.
+ */
+public class JsonEdit {
+
+    private final Node root;
+    private final CharSource source;
+    private final TreeMap<Integer, Edit> edits = new TreeMap<>();
+
+    /**
+     * Creates an edit overlay for a parsed node.
+     *
+     * @param root the node to edit, usually a `RootNode`
+     */
+    public JsonEdit(final Node root) {
+        this.root = root instanceof RootNode ? ((RootNode) root).getNode() : root;
+        this.source = root.charSource();
+    }
+
+    /**
+     * Replaces the value at the path with raw JSON.
+     *
+     * @param path the path of the value, e.g. `a.b[2]`
+     * @param json the JSON text of the new value
+     * @return this edit
+     */
+    public JsonEdit set(final String path, final CharSequence json) {
+        return set(Path.atPath(path, root), json);
+    }
+
+    /**
+     * Replaces a node of the document with raw JSON.
+     *
+     * @param node a node of the edited document
+     * @param json the JSON text of the new value
+     * @return this edit
+     */
+    public JsonEdit set(final Node node, final CharSequence json) {
+        final Token token = node.rootElementToken();
+        edits.put(valueStart(token), new Replacement(valueEnd(token), json.toString()));
+        return this;
+    }
+
+    /**
+     * Replaces the value at the path with a string.
+     *
+     * @param path  the path of the value
+     * @param value the new string, escaped as needed
+     * @return this edit
+     */
+    public JsonEdit setString(final String path, final CharSequence value) {
+        return set(path, JsonWriter.toBytes().writeString(value).toString());
+    }
+
+    /**
+     * Replaces a node of the document with a string.
+     *
+     * @param node  a node of the edited document
+     * @param value the new string, escaped as needed
+     * @return this edit
+     */
+    public JsonEdit setString(final Node node, final CharSequence value) {
+        return set(node, JsonWriter.toBytes().writeString(value).toString());
+    }
+
+    /**
+     * Replaces the value at the path with an integer.
+     *
+     * @param path  the path of the value
+     * @param value the new value
+     * @return this edit
+     */
+    public JsonEdit setLong(final String path, final long value) {
+        return set(path, Long.toString(value));
+    }
+
+    /**
+     * Replaces the value at the path with a floating point number.
+     *
+     * @param path  the path of the value
+     * @param value the new value, must be finite
+     * @return this edit
+     */
+    public JsonEdit setDouble(final String path, final double value) {
+        return set(path, JsonWriter.toBytes().writeDouble(value).toString());
+    }
+
+    /**
+     * Replaces the value at the path with a boolean.
+     *
+     * @param path  the path of the value
+     * @param value the new value
+     * @return this edit
+     */
+    public JsonEdit setBoolean(final String path, final boolean value) {
+        return set(path, value ? "true" : "false");
+    }
+
+    /**
+     * Removes the object attribute or array element at the path.
+     *
+     * @param path the path of the attribute or element
+     * @return this edit
+     */
+    public JsonEdit remove(final String path) {
+        final PathNode pathNode = Path.toPath(path);
+        final Node parent = resolve(pathNode, pathNode.size() - 1);
+        final PathElement last = pathNode.get(pathNode.size() - 1);
+        if (last.isIndex()) {
+            return remove(parent.asCollection().asArray(), last.asIndex().intValue());
+        }
+        return remove(parent.asCollection().asObject(), last.asKey().toCharSequence());
+    }
+
+    /**
+     * Removes an attribute of an object.
+     *
+     * @param object an object of the edited document
+     * @param key    the key of the attribute
+     * @return this edit
+     */
+    public JsonEdit remove(final ObjectNode object, final CharSequence key) {
+        final int index = indexOfKey(object, key);
+        if (index == -1) {
+            throw new IllegalStateException("Key not found " + key);
+        }
+        final Structure structure = structure(object);
+        if (structure != null) {
+            structure.removed.set(index);
+        }
+        return this;
+    }
+
+    /**
+     * Removes an element of an array.
+     *
+     * @param array an array of the edited document
+     * @param index the index of the element
+     * @return this edit
+     */
+    public JsonEdit remove(final ArrayNode array, final int index) {
+        if (index < 0 || index >= array.size()) {
+            throw new IllegalStateException("Index out of range " + index);
+        }
+        final Structure structure = structure(array);
+        if (structure != null) {
+            structure.removed.set(index);
+        }
+        return this;
+    }
+
+    /**
+     * Sets an attribute of the object at the path, replacing the value if the key exists or appending it otherwise.
+     *
+     * @param objectPath the path of the object, empty for the root
+     * @param key        the key of the attribute
+     * @param json       the JSON text of the value
+     * @return this edit
+     */
+    public JsonEdit put(final String objectPath, final CharSequence key, final CharSequence json) {
+        return put(lookup(objectPath).asCollection().asObject(), key, json);
+    }
+
+    /**
+     * Sets an attribute of an object, replacing the value if the key exists or appending it otherwise.
+     *
+     * @param object an object of the edited document
+     * @param key    the key of the attribute
+     * @param json   the JSON text of the value
+     * @return this edit
+     */
+    public JsonEdit put(final ObjectNode object, final CharSequence key, final CharSequence json) {
+        if (indexOfKey(object, key) != -1) {
+            return set(object.getNode(key), json);
+        }
+        final Structure structure = structure(object);
+        if (structure != null) {
+            structure.appended.add(JsonWriter.toBytes().writeString(key).toString() + ':' + json);
+        }
+        return this;
+    }
+
+    /**
+     * Appends an element to the array at the path.
+     *
+     * @param arrayPath the path of the array, empty for the root
+     * @param json      the JSON text of the element
+     * @return this edit
+     */
+    public JsonEdit add(final String arrayPath, final CharSequence json) {
+        return add(lookup(arrayPath).asCollection().asArray(), json);
+    }
+
+    /**
+     * Appends an element to an array.
+     *
+     * @param array an array of the edited document
+     * @param json  the JSON text of the element
+     * @return this edit
+     */
+    public JsonEdit add(final ArrayNode array, final CharSequence json) {
+        final Structure structure = structure(array);
+        if (structure != null) {
+            structure.appended.add(json.toString());
+        }
+        return this;
+    }
+
+    /**
+     * Returns true if no edits have been recorded.
+     *
+     * @return true if the output equals the original document
+     */
+    public boolean isEmpty() {
+        return edits.isEmpty();
+    }
+
+    /**
+     * Appends the edited document to a `StringBuilder`.
+     *
+     * @param out the builder to append to
+     * @return the builder
+     */
+    public StringBuilder writeTo(final StringBuilder out) {
+        final Token token = root.rootElementToken();
+        emit(out, valueStart(token), valueEnd(token));
+        return out;
+    }
+
+    /**
+     * Returns the edited document.
+     *
+     * @return the JSON text with all edits applied
+     */
+    @Override
+    public String toString() {
+        final Token token = root.rootElementToken();
+        return writeTo(new StringBuilder(valueEnd(token) - valueStart(token) + 64)).toString();
+    }
+
+    private void emit(final StringBuilder out, final int from, final int to) {
+        int cursor = from;
+        for (Map.Entry<Integer, Edit> entry : edits.subMap(from, true, to, false).entrySet()) {
+            final int start = entry.getKey();
+            if (start < cursor) {
+                continue;
+            }
+            out.append(source.getCharSequence(cursor, start));
+            cursor = entry.getValue().write(out);
+        }
+        out.append(source.getCharSequence(cursor, to));
+    }
+
+    private Node lookup(final String path) {
+        return path.isEmpty() ? root : Path.atPath(path, root);
+    }
+
+    private Node resolve(final PathNode path, final int count) {
+        Node node = root;
+        for (int index = 0; index < count; index++) {
+            final PathElement element = path.get(index);
+            node = element.isIndex() ? node.asCollection().asArray().getNodeAt(element.asIndex().intValue())
+                    : node.asCollection().asObject().getNode(element.asKey().toCharSequence());
+            if (node == null) {
+                throw new IllegalStateException("Path not found at " + path + " path element index " + index);
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Returns the structural edit of a container, or null if the container itself was replaced.
+     */
+    private Structure structure(final Node container) {
+        final Token token = container.rootElementToken();
+        final Edit edit = edits.get(token.startIndex);
+        if (edit instanceof Structure) {
+            return (Structure) edit;
+        }
+        if (edit != null) {
+            return null;
+        }
+        final Structure structure = new Structure(container);
+        edits.put(token.startIndex, structure);
+        return structure;
+    }
+
+    private static int indexOfKey(final ObjectNode object, final CharSequence key) {
+        final List<CharSequence> keys = object.getKeys();
+        for (int index = 0; index < keys.size(); index++) {
+            if (keys.get(index).toString().contentEquals(key)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private static int valueStart(final Token token) {
+        return token.type == TokenTypes.STRING_TOKEN ? token.startIndex - 1 : token.startIndex;
+    }
+
+    private static int valueEnd(final Token token) {
+        return token.type == TokenTypes.STRING_TOKEN ? token.endIndex + 1 : token.endIndex;
+    }
+
+    private abstract static class Edit {
+
+        /**
+         * Writes the edit and returns the source index where copying resumes.
+         */
+        abstract int write(StringBuilder out);
+    }
+
+    private static final class Replacement extends Edit {
+        private final int end;
+        private final String json;
+
+        private Replacement(final int end, final String json) {
+            this.end = end;
+            this.json = json;
+        }
+
+        @Override
+        int write(final StringBuilder out) {
+            out.append(json);
+            return end;
+        }
+    }
+
+    private final class Structure extends Edit {
+        private final boolean object;
+        private final int end;
+        private final int[] memberStarts;
+        private final int[] memberEnds;
+        private final BitSet removed = new BitSet();
+        private final List<String> appended = new ArrayList<>(2);
+
+        private Structure(final Node container) {
+            this.object = container.type() == NodeType.OBJECT;
+            this.end = container.rootElementToken().endIndex;
+            final List<List<Token>> children = container.asCollection().childrenTokens();
+            final int step = object ? 2 : 1;
+            final int count = children.size() / step;
+            this.memberStarts = new int[count];
+            this.memberEnds = new int[count];
+            for (int index = 0; index < count; index++) {
+                if (object) {
+                    memberStarts[index] = children.get(index * 2).get(0).startIndex;
+                    memberEnds[index] = valueEnd(children.get(index * 2 + 1).get(1));
+                } else {
+                    final Token token = children.get(index).get(0);
+                    memberStarts[index] = valueStart(token);
+                    memberEnds[index] = valueEnd(token);
+                }
+            }
+        }
+
+        @Override
+        int write(final StringBuilder out) {
+            out.append(object ? '{' : '[');
+            boolean first = true;
+            for (int index = 0; index < memberStarts.length; index++) {
+                if (removed.get(index)) {
+                    continue;
+                }
+                if (!first) {
+                    out.append(',');
+                }
+                emit(out, memberStarts[index], memberEnds[index]);
+                first = false;
+            }
+            for (String member : appended) {
+                if (!first) {
+                    out.append(',');
+                }
+                out.append(member);
+                first = false;
+            }
+            out.append(object ? '}' : ']');
+            return end;
+        }
+    }
+}
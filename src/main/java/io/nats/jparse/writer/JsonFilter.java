@@ -0,0 +1,408 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.writer;
+
+import io.nats.jparse.Json;
+import io.nats.jparse.parser.JsonEventParser;
+import io.nats.jparse.source.CharSource;
+import io.nats.jparse.source.Sources;
+import io.nats.jparse.token.TokenEventListener;
+import io.nats.jparse.token.TokenTypes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A streaming projection and redaction filter.
+ * <p>
+ * The filter runs an event parser over the input and copies the allowed regions of the `CharSource` straight to a
+ * `JsonWriter`. Values that are fully allowed are copied as raw ranges, excluded values are dropped, and masked
+ * values are replaced with fixed JSON. No nodes are created, and the working memory depends on the nesting depth and
+ * the number of paths, not on the document size.
+ * <p>
+ * Paths are dot separated keys with `[n]` for array indexes. `*` matches any key and `[*]` matches any index,
+ * for example `user.ssn`, `items[*].card` or `*.password`.
+ * <pre>
+ *     final JsonFilter filter = new JsonFilter().exclude("user.ssn").mask("user.email", "\"***\"");
+ *     final String forwarded = filter.filter(json);
+ * </pre>
+ * When include paths are given, only those paths are kept; the containers leading to them are kept as well, even if
+ * nothing inside them matched. Exclusion and masking take precedence over inclusion.
+ * <p>
+ * Configure the filter before use. A configured filter can be shared if its event parser is thread safe.
+ */
+public class JsonFilter {
+
+    private static final int SEGMENT_KEY = 0;
+    private static final int SEGMENT_INDEX = 1;
+    private static final int SEGMENT_ANY_KEY = 2;
+    private static final int SEGMENT_ANY_INDEX = 3;
+
+    private final List<CompiledPath> includes = new ArrayList<>();
+    private final List<CompiledPath> excludes = new ArrayList<>();
+    private JsonEventParser eventParser = Json.builder().setStrict(true).setObjectsKeysCanBeEncoded(true).buildEventParser();
+
+    /**
+     * Keeps only the given paths and the containers leading to them.
+     *
+     * @param paths the paths to keep
+     * @return this filter
+     */
+    public JsonFilter include(final String... paths) {
+        for (String path : paths) {
+            includes.add(compile(path, null));
+        }
+        return this;
+    }
+
+    /**
+     * Drops the given paths from the output.
+     *
+     * @param paths the paths to drop
+     * @return this filter
+     */
+    public JsonFilter exclude(final String... paths) {
+        for (String path : paths) {
+            excludes.add(compile(path, null));
+        }
+        return this;
+    }
+
+    /**
+     * Replaces the value at the given path with fixed JSON.
+     *
+     * @param path     the path to mask
+     * @param maskJson the JSON text written in place of the value, e.g. `"***"` or `null`
+     * @return this filter
+     */
+    public JsonFilter mask(final String path, final CharSequence maskJson) {
+        excludes.add(compile(path, maskJson.toString()));
+        return this;
+    }
+
+    /**
+     * Sets the event parser used to scan the input. Defaults to a strict event parser that allows escaped keys.
+     *
+     * @param eventParser the event parser
+     * @return this filter
+     */
+    public JsonFilter setEventParser(final JsonEventParser eventParser) {
+        this.eventParser = eventParser;
+        return this;
+    }
+
+    /**
+     * Filters a JSON string.
+     *
+     * @param json the input document
+     * @return the filtered document
+     */
+    public String filter(final String json) {
+        final JsonWriter writer = JsonWriter.toBytes(json.length());
+        filter(Sources.stringSource(json), writer);
+        return writer.toString();
+    }
+
+    /**
+     * Filters a document into a writer. The writer is not flushed.
+     *
+     * @param source the input document
+     * @param writer the writer that receives the filtered document
+     */
+    public void filter(final CharSource source, final JsonWriter writer) {
+        eventParser.parseWithEvents(source, new FilterListener(writer,
+                includes.toArray(new CompiledPath[0]), excludes.toArray(new CompiledPath[0])));
+    }
+
+    private static CompiledPath compile(final String path, final String mask) {
+        final List<Object> segments = new ArrayList<>();
+        int index = 0;
+        final int length = path.length();
+        while (index < length) {
+            final char ch = path.charAt(index);
+            if (ch == '.') {
+                index++;
+            } else if (ch == '[') {
+                final int close = path.indexOf(']', index);
+                if (close == -1) {
+                    throw new IllegalArgumentException("Unclosed index in path " + path);
+                }
+                final String text = path.substring(index + 1, close).trim();
+                segments.add(text.equals("*") ? (Object) Integer.valueOf(-1) : Integer.valueOf(Integer.parseInt(text)));
+                index = close + 1;
+            } else {
+                int end = index;
+                while (end < length && path.charAt(end) != '.' && path.charAt(end) != '[') {
+                    end++;
+                }
+                segments.add(path.substring(index, end));
+                index = end;
+            }
+        }
+        if (segments.isEmpty()) {
+            throw new IllegalArgumentException("Empty path");
+        }
+
+        final int size = segments.size();
+        final int[] kinds = new int[size];
+        final String[] keys = new String[size];
+        final int[] indexes = new int[size];
+        for (int i = 0; i < size; i++) {
+            final Object segment = segments.get(i);
+            if (segment instanceof Integer) {
+                indexes[i] = (Integer) segment;
+                kinds[i] = indexes[i] == -1 ? SEGMENT_ANY_INDEX : SEGMENT_INDEX;
+            } else {
+                keys[i] = (String) segment;
+                kinds[i] = keys[i].equals("*") ? SEGMENT_ANY_KEY : SEGMENT_KEY;
+            }
+        }
+        return new CompiledPath(kinds, keys, indexes, mask);
+    }
+
+    private static final class CompiledPath {
+        private final int[] kinds;
+        private final String[] keys;
+        private final int[] indexes;
+        private final String mask;
+
+        private CompiledPath(final int[] kinds, final String[] keys, final int[] indexes, final String mask) {
+            this.kinds = kinds;
+            this.keys = keys;
+            this.indexes = indexes;
+            this.mask = mask;
+        }
+
+        private int length() {
+            return kinds.length;
+        }
+    }
+
+    /**
+     * Tracks the current path while events stream by. For each path, `matched` holds the length of the longest
+     * prefix of the current location that the path matches, so leaving a container only needs a `min`.
+     */
+    private static final class FilterListener implements TokenEventListener {
+
+        private static final int MODE_DESCEND = 0;
+        private static final int MODE_COPY = 1;
+        private static final int MODE_SKIP = 2;
+
+        private final JsonWriter writer;
+        private final CompiledPath[] includes;
+        private final CompiledPath[] excludes;
+        private final int[] includeMatched;
+        private final int[] excludeMatched;
+
+        private boolean[] objectFrames = new boolean[16];
+        private boolean[] fullFrames = new boolean[16];
+        private int[] itemIndexes = new int[16];
+        private int depth;
+
+        private boolean inKey;
+        private int keyStart;
+        private int keyEnd;
+
+        private int mode = MODE_DESCEND;
+        private int passDepth;
+        private int passType;
+        private int copyStart;
+
+        private FilterListener(final JsonWriter writer, final CompiledPath[] includes, final CompiledPath[] excludes) {
+            this.writer = writer;
+            this.includes = includes;
+            this.excludes = excludes;
+            this.includeMatched = new int[includes.length];
+            this.excludeMatched = new int[excludes.length];
+            this.fullFrames[0] = includes.length == 0;
+        }
+
+        @Override
+        public void start(final int tokenId, final int index, final CharSource source) {
+            if (mode != MODE_DESCEND) {
+                if (tokenId == TokenTypes.OBJECT_TOKEN || tokenId == TokenTypes.ARRAY_TOKEN) {
+                    depth++;
+                }
+                return;
+            }
+            switch (tokenId) {
+                case TokenTypes.ATTRIBUTE_KEY_TOKEN:
+                    inKey = true;
+                    return;
+                case TokenTypes.ATTRIBUTE_VALUE_TOKEN:
+                case TokenTypes.ARRAY_ITEM_TOKEN:
+                    return;
+                case TokenTypes.STRING_TOKEN:
+                    if (inKey) {
+                        keyStart = index;
+                        return;
+                    }
+                    startValue(tokenId, index - 1, source);
+                    return;
+                default:
+                    startValue(tokenId, index, source);
+            }
+        }
+
+        @Override
+        public void end(final int tokenId, final int index, final CharSource source) {
+            final boolean container = tokenId == TokenTypes.OBJECT_TOKEN || tokenId == TokenTypes.ARRAY_TOKEN;
+            if (mode != MODE_DESCEND) {
+                if (container) {
+                    depth--;
+                }
+                if (depth == passDepth && tokenId == passType) {
+                    if (mode == MODE_COPY) {
+                        final int end = tokenId == TokenTypes.STRING_TOKEN ? index + 1 : index;
+                        writer.writeRaw(source.getCharSequence(copyStart, end));
+                    }
+                    mode = MODE_DESCEND;
+                }
+                return;
+            }
+            switch (tokenId) {
+                case TokenTypes.ATTRIBUTE_KEY_TOKEN:
+                    inKey = false;
+                    return;
+                case TokenTypes.STRING_TOKEN:
+                    if (inKey) {
+                        keyEnd = index;
+                    }
+                    return;
+                case TokenTypes.OBJECT_TOKEN:
+                    depth--;
+                    writer.endObject();
+                    return;
+                case TokenTypes.ARRAY_TOKEN:
+                    depth--;
+                    writer.endArray();
+                    return;
+                default:
+            }
+        }
+
+        private void startValue(final int tokenId, final int startIndex, final CharSource source) {
+            final boolean container = tokenId == TokenTypes.OBJECT_TOKEN || tokenId == TokenTypes.ARRAY_TOKEN;
+            final boolean inObject = depth > 0 && objectFrames[depth];
+            int itemIndex = -1;
+            if (depth > 0 && !inObject) {
+                itemIndex = itemIndexes[depth]++;
+            }
+
+            String mask = null;
+            boolean excluded = false;
+            boolean excludeBelow = false;
+            for (int i = 0; i < excludes.length; i++) {
+                final int matched = advance(excludes[i], excludeMatched, i, inObject, itemIndex, source);
+                if (matched == depth && matched == excludes[i].length()) {
+                    excluded = true;
+                    mask = excludes[i].mask;
+                    break;
+                } else if (matched == depth) {
+                    excludeBelow = true;
+                }
+            }
+
+            boolean full = fullFrames[depth];
+            boolean partial = false;
+            for (int i = 0; i < includes.length; i++) {
+                final int matched = advance(includes[i], includeMatched, i, inObject, itemIndex, source);
+                if (matched == depth) {
+                    if (matched == includes[i].length()) {
+                        full = true;
+                    } else {
+                        partial = true;
+                    }
+                }
+            }
+
+            if (excluded && mask == null || !full && !(partial && container)) {
+                pass(MODE_SKIP, tokenId, startIndex);
+                return;
+            }
+            if (inObject) {
+                writer.rawKey(source.getCharSequence(keyStart, keyEnd));
+            }
+            if (excluded) {
+                writer.writeRaw(mask);
+                pass(MODE_SKIP, tokenId, startIndex);
+            } else if (full && !excludeBelow || !container) {
+                pass(MODE_COPY, tokenId, startIndex);
+            } else {
+                if (tokenId == TokenTypes.OBJECT_TOKEN) {
+                    writer.beginObject();
+                } else {
+                    writer.beginArray();
+                }
+                push(tokenId == TokenTypes.OBJECT_TOKEN, full);
+            }
+        }
+
+        /**
+         * Extends the match of a path by the segment of the value that just started and returns the new match length.
+         */
+        private int advance(final CompiledPath path, final int[] matchedPaths, final int pathIndex, final boolean inObject,
+                            final int itemIndex, final CharSource source) {
+            final int segment = depth - 1;
+            int matched = Math.min(matchedPaths[pathIndex], Math.max(segment, 0));
+            if (depth > 0 && matched == segment && segment < path.length()) {
+                final boolean matches;
+                switch (path.kinds[segment]) {
+                    case SEGMENT_KEY:
+                        final String key = path.keys[segment];
+                        matches = inObject && keyEnd - keyStart == key.length() && source.matchChars(keyStart, keyEnd, key);
+                        break;
+                    case SEGMENT_ANY_KEY:
+                        matches = inObject;
+                        break;
+                    case SEGMENT_INDEX:
+                        matches = !inObject && itemIndex == path.indexes[segment];
+                        break;
+                    default:
+                        matches = !inObject;
+                }
+                if (matches) {
+                    matched = depth;
+                }
+            }
+            matchedPaths[pathIndex] = matched;
+            return matched;
+        }
+
+        private void pass(final int mode, final int tokenId, final int startIndex) {
+            this.mode = mode;
+            this.passType = tokenId;
+            this.passDepth = depth;
+            this.copyStart = startIndex;
+            if (tokenId == TokenTypes.OBJECT_TOKEN || tokenId == TokenTypes.ARRAY_TOKEN) {
+                depth++;
+            }
+        }
+
+        private void push(final boolean object, final boolean full) {
+            depth++;
+            if (depth == objectFrames.length) {
+                objectFrames = Arrays.copyOf(objectFrames, depth * 2);
+                fullFrames = Arrays.copyOf(fullFrames, depth * 2);
+                itemIndexes = Arrays.copyOf(itemIndexes, depth * 2);
+            }
+            objectFrames[depth] = object;
+            fullFrames[depth] = full;
+            itemIndexes[depth] = 0;
+        }
+    }
+}
@@ -0,0 +1,621 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.writer;
+
+import io.nats.jparse.node.Node;
+import io.nats.jparse.node.NodeType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A streaming JSON generator that writes UTF-8 bytes.
+ * <p>
+ * Bytes are written into an internal buffer. A writer created with `toBytes()` grows the buffer and keeps the whole
+ * document; writers created with `to(OutputStream)` or `to(ByteBuffer)` drain the buffer into their target whenever it
+ * fills up and on `flush()`.
+ * <p>
+ * Commas and colons are inserted automatically. Numbers are formatted straight into the buffer, strings are escaped
+ * with a lookup table, and `writeNode` copies the original text of a parsed `Node` without re-encoding it.
+ * <pre>
+ *     final JsonWriter writer = JsonWriter.toBytes();
+ *     writer.beginObject().key("id").writeLong(42).key("tags").beginArray().writeString("a").endArray().endObject();
+ *     final byte[] json = writer.toByteArray();
+ * </pre>
+ */
+public class JsonWriter {
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TRUE = "true".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] FALSE = "false".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] MIN_LONG = Long.toString(Long.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Escape table for ASCII characters: 0 means no escape, 'u' means a six character unicode escape, anything else
+     * is the character to write after the backslash.
+     */
+    private static final byte[] ESCAPES = new byte[128];
+
+    /**
+     * Powers of ten that are exactly representable as doubles.
+     */
+    private static final double[] POWERS_OF_TEN = new double[18];
+
+    /**
+     * Largest integer below which all integers are exactly representable as doubles.
+     */
+    private static final double MAX_EXACT_INTEGER = 9007199254740992.0;
+
+    private static final int CONTEXT_ROOT = 0;
+    private static final int CONTEXT_OBJECT = 1;
+    private static final int CONTEXT_ARRAY = 2;
+
+    static {
+        for (int i = 0; i < 0x20; i++) {
+            ESCAPES[i] = 'u';
+        }
+        ESCAPES['"'] = '"';
+        ESCAPES['\\'] = '\\';
+        ESCAPES['\b'] = 'b';
+        ESCAPES['\f'] = 'f';
+        ESCAPES['\n'] = 'n';
+        ESCAPES['\r'] = 'r';
+        ESCAPES['\t'] = 't';
+
+        double power = 1;
+        for (int i = 0; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = power;
+            power *= 10;
+        }
+    }
+
+    private final OutputStream outputStream;
+    private final ByteBuffer byteBuffer;
+    private byte[] buffer;
+    private int position;
+
+    private int[] contexts = new int[16];
+    private int depth;
+    private boolean needComma;
+    private boolean afterKey;
+
+    private JsonWriter(final int capacity, final OutputStream outputStream, final ByteBuffer byteBuffer) {
+        this.buffer = new byte[capacity];
+        this.outputStream = outputStream;
+        this.byteBuffer = byteBuffer;
+        this.contexts[0] = CONTEXT_ROOT;
+    }
+
+    /**
+     * Creates a writer that keeps the document in a growable byte array.
+     *
+     * @return a new writer
+     */
+    public static JsonWriter toBytes() {
+        return toBytes(256);
+    }
+
+    /**
+     * Creates a writer that keeps the document in a growable byte array.
+     *
+     * @param initialCapacity the initial capacity of the byte array
+     * @return a new writer
+     */
+    public static JsonWriter toBytes(final int initialCapacity) {
+        return new JsonWriter(Math.max(initialCapacity, 32), null, null);
+    }
+
+    /**
+     * Creates a writer that drains into an `OutputStream`. Call `flush()` when done.
+     *
+     * @param outputStream the target stream
+     * @return a new writer
+     */
+    public static JsonWriter to(final OutputStream outputStream) {
+        return new JsonWriter(8192, outputStream, null);
+    }
+
+    /**
+     * Creates a writer that drains into a `ByteBuffer`, heap or direct. Call `flush()` when done.
+     * A `java.nio.BufferOverflowException` is thrown if the document does not fit.
+     *
+     * @param byteBuffer the target buffer
+     * @return a new writer
+     */
+    public static JsonWriter to(final ByteBuffer byteBuffer) {
+        return new JsonWriter(8192, null, byteBuffer);
+    }
+
+    /**
+     * Starts a JSON object.
+     *
+     * @return this writer
+     */
+    public JsonWriter beginObject() {
+        beforeValue();
+        ensure(1);
+        buffer[position++] = '{';
+        push(CONTEXT_OBJECT);
+        return this;
+    }
+
+    /**
+     * Ends the current JSON object.
+     *
+     * @return this writer
+     */
+    public JsonWriter endObject() {
+        pop(CONTEXT_OBJECT);
+        ensure(1);
+        buffer[position++] = '}';
+        return this;
+    }
+
+    /**
+     * Starts a JSON array.
+     *
+     * @return this writer
+     */
+    public JsonWriter beginArray() {
+        beforeValue();
+        ensure(1);
+        buffer[position++] = '[';
+        push(CONTEXT_ARRAY);
+        return this;
+    }
+
+    /**
+     * Ends the current JSON array.
+     *
+     * @return this writer
+     */
+    public JsonWriter endArray() {
+        pop(CONTEXT_ARRAY);
+        ensure(1);
+        buffer[position++] = ']';
+        return this;
+    }
+
+    /**
+     * Writes an attribute key. Must be followed by a value.
+     *
+     * @param key the key, escaped as needed
+     * @return this writer
+     */
+    public JsonWriter key(final CharSequence key) {
+        if (contexts[depth] != CONTEXT_OBJECT || afterKey) {
+            throw new IllegalStateException("A key can only be written inside an object, before a value");
+        }
+        if (needComma) {
+            ensure(1);
+            buffer[position++] = ',';
+        }
+        writeQuoted(key);
+        ensure(1);
+        buffer[position++] = ':';
+        afterKey = true;
+        return this;
+    }
+
+    /**
+     * Writes an attribute key whose text is already escaped, such as a key range copied from a `CharSource`.
+     * Must be followed by a value.
+     *
+     * @param escapedKey the key text without the surrounding quotes
+     * @return this writer
+     */
+    public JsonWriter rawKey(final CharSequence escapedKey) {
+        if (contexts[depth] != CONTEXT_OBJECT || afterKey) {
+            throw new IllegalStateException("A key can only be written inside an object, before a value");
+        }
+        ensure(2);
+        if (needComma) {
+            buffer[position++] = ',';
+        }
+        buffer[position++] = '"';
+        writeUtf8(escapedKey);
+        ensure(2);
+        buffer[position++] = '"';
+        buffer[position++] = ':';
+        afterKey = true;
+        return this;
+    }
+
+    /**
+     * Writes a string value.
+     *
+     * @param value the string, escaped as needed
+     * @return this writer
+     */
+    public JsonWriter writeString(final CharSequence value) {
+        if (value == null) {
+            return writeNull();
+        }
+        beforeValue();
+        writeQuoted(value);
+        return this;
+    }
+
+    /**
+     * Writes an integer value without allocating.
+     *
+     * @param value the value
+     * @return this writer
+     */
+    public JsonWriter writeLong(final long value) {
+        beforeValue();
+        ensure(20);
+        if (value == Long.MIN_VALUE) {
+            System.arraycopy(MIN_LONG, 0, buffer, position, MIN_LONG.length);
+            position += MIN_LONG.length;
+            return this;
+        }
+        long remaining = value;
+        if (remaining < 0) {
+            buffer[position++] = '-';
+            remaining = -remaining;
+        }
+        writeDigits(remaining, digitCount(remaining));
+        return this;
+    }
+
+    /**
+     * Writes a floating point value in a decimal form that reads back as the same double.
+     * <p>
+     * Values with up to 17 fraction digits and a magnitude below 2^53 are formatted into the buffer without
+     * allocating, using the fewest fraction digits that round-trip. Other values fall back to `Double.toString`,
+     * which also round-trips but before JDK 19 is not always the shortest form (`4.9E-324` rather than `5E-324`).
+     *
+     * @param value the value, must be finite
+     * @return this writer
+     */
+    public JsonWriter writeDouble(final double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new IllegalArgumentException("JSON has no representation for " + value);
+        }
+        beforeValue();
+        ensure(26);
+        final double magnitude = Math.abs(value);
+        if (magnitude < MAX_EXACT_INTEGER) {
+            for (int scale = 0; scale < POWERS_OF_TEN.length; scale++) {
+                final double scaled = Math.rint(magnitude * POWERS_OF_TEN[scale]);
+                if (scaled >= MAX_EXACT_INTEGER) {
+                    break;
+                }
+                if (scaled / POWERS_OF_TEN[scale] == magnitude) {
+                    writeDecimal(value < 0 || (value == 0 && 1 / value < 0), (long) scaled, scale);
+                    return this;
+                }
+            }
+        }
+        writeAscii(Double.toString(value));
+        return this;
+    }
+
+    /**
+     * Writes a boolean value.
+     *
+     * @param value the value
+     * @return this writer
+     */
+    public JsonWriter writeBoolean(final boolean value) {
+        beforeValue();
+        writeBytes(value ? TRUE : FALSE);
+        return this;
+    }
+
+    /**
+     * Writes a null value.
+     *
+     * @return this writer
+     */
+    public JsonWriter writeNull() {
+        beforeValue();
+        writeBytes(NULL);
+        return this;
+    }
+
+    /**
+     * Writes a value that is already valid JSON, without escaping it.
+     *
+     * @param json the JSON text of a single value
+     * @return this writer
+     */
+    public JsonWriter writeRaw(final CharSequence json) {
+        beforeValue();
+        writeUtf8(json);
+        return this;
+    }
+
+    /**
+     * Writes a parsed node by copying its original text from the source. String nodes keep their original escapes.
+     *
+     * @param node the node to copy
+     * @return this writer
+     */
+    public JsonWriter writeNode(final Node node) {
+        beforeValue();
+        if (node.type() == NodeType.STRING) {
+            ensure(1);
+            buffer[position++] = '"';
+            writeUtf8(node.originalCharSequence());
+            ensure(1);
+            buffer[position++] = '"';
+        } else {
+            writeUtf8(node.originalCharSequence());
+        }
+        return this;
+    }
+
+    /**
+     * Drains buffered bytes into the target `OutputStream` or `ByteBuffer` and flushes the stream.
+     * Does nothing for writers created with `toBytes()`.
+     */
+    public void flush() {
+        drain();
+        if (outputStream != null) {
+            try {
+                outputStream.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of bytes currently held in the buffer.
+     *
+     * @return the number of buffered bytes
+     */
+    public int size() {
+        return position;
+    }
+
+    /**
+     * Returns the buffered bytes. For writers created with `toBytes()` this is the whole document.
+     *
+     * @return a copy of the buffered bytes
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    /**
+     * Clears the buffer and the nesting state so the writer can produce a new document.
+     */
+    public void reset() {
+        position = 0;
+        depth = 0;
+        needComma = false;
+        afterKey = false;
+    }
+
+    /**
+     * Decodes the buffered bytes as a String.
+     *
+     * @return the buffered JSON
+     */
+    @Override
+    public String toString() {
+        return new String(buffer, 0, position, StandardCharsets.UTF_8);
+    }
+
+    private void beforeValue() {
+        switch (contexts[depth]) {
+            case CONTEXT_OBJECT:
+                if (!afterKey) {
+                    throw new IllegalStateException("A value inside an object must follow a key");
+                }
+                afterKey = false;
+                break;
+            case CONTEXT_ARRAY:
+                if (needComma) {
+                    ensure(1);
+                    buffer[position++] = ',';
+                }
+                break;
+            default:
+                if (needComma) {
+                    throw new IllegalStateException("Only one root value can be written");
+                }
+        }
+        needComma = true;
+    }
+
+    private void push(final int context) {
+        if (++depth == contexts.length) {
+            contexts = Arrays.copyOf(contexts, contexts.length * 2);
+        }
+        contexts[depth] = context;
+        needComma = false;
+    }
+
+    private void pop(final int context) {
+        if (contexts[depth] != context || afterKey) {
+            throw new IllegalStateException("Mismatched end of " + (context == CONTEXT_OBJECT ? "object" : "array"));
+        }
+        depth--;
+        needComma = true;
+    }
+
+    private void writeDecimal(final boolean negative, final long unscaled, final int scale) {
+        if (negative) {
+            buffer[position++] = '-';
+        }
+        if (scale == 0) {
+            writeDigits(unscaled, digitCount(unscaled));
+            buffer[position++] = '.';
+            buffer[position++] = '0';
+            return;
+        }
+        final long divisor = (long) POWERS_OF_TEN[scale];
+        final long integerPart = unscaled / divisor;
+        writeDigits(integerPart, digitCount(integerPart));
+        buffer[position++] = '.';
+        final long fraction = unscaled - integerPart * divisor;
+        for (int zeros = scale - digitCount(fraction); zeros > 0; zeros--) {
+            buffer[position++] = '0';
+        }
+        writeDigits(fraction, digitCount(fraction));
+    }
+
+    private void writeDigits(long value, final int digitCount) {
+        final byte[] buffer = this.buffer;
+        final int end = position + digitCount;
+        int index = end;
+        do {
+            buffer[--index] = (byte) ('0' + (value % 10));
+            value /= 10;
+        } while (value != 0);
+        position = end;
+    }
+
+    private static int digitCount(final long value) {
+        long limit = 10;
+        for (int count = 1; count < 19; count++) {
+            if (value < limit) {
+                return count;
+            }
+            limit *= 10;
+        }
+        return 19;
+    }
+
+    private void writeQuoted(final CharSequence value) {
+        ensure(1);
+        buffer[position++] = '"';
+        final int length = value.length();
+        for (int i = 0; i < length; i++) {
+            final char ch = value.charAt(i);
+            if (ch < 128) {
+                final byte escape = ESCAPES[ch];
+                if (escape == 0) {
+                    ensure(1);
+                    buffer[position++] = (byte) ch;
+                } else if (escape == 'u') {
+                    writeUnicodeEscape(ch);
+                } else {
+                    ensure(2);
+                    buffer[position++] = '\\';
+                    buffer[position++] = escape;
+                }
+            } else if (Character.isSurrogate(ch)) {
+                if (Character.isHighSurrogate(ch) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    writeCodePoint(Character.toCodePoint(ch, value.charAt(++i)));
+                } else {
+                    writeUnicodeEscape(ch);
+                }
+            } else {
+                writeCodePoint(ch);
+            }
+        }
+        ensure(1);
+        buffer[position++] = '"';
+    }
+
+    private void writeUnicodeEscape(final char ch) {
+        ensure(6);
+        final byte[] buffer = this.buffer;
+        buffer[position++] = '\\';
+        buffer[position++] = 'u';
+        buffer[position++] = HEX[(ch >> 12) & 0xF];
+        buffer[position++] = HEX[(ch >> 8) & 0xF];
+        buffer[position++] = HEX[(ch >> 4) & 0xF];
+        buffer[position++] = HEX[ch & 0xF];
+    }
+
+    private void writeUtf8(final CharSequence chars) {
+        final int length = chars.length();
+        for (int i = 0; i < length; i++) {
+            final char ch = chars.charAt(i);
+            if (ch < 128) {
+                ensure(1);
+                buffer[position++] = (byte) ch;
+            } else if (Character.isHighSurrogate(ch) && i + 1 < length && Character.isLowSurrogate(chars.charAt(i + 1))) {
+                writeCodePoint(Character.toCodePoint(ch, chars.charAt(++i)));
+            } else {
+                writeCodePoint(ch);
+            }
+        }
+    }
+
+    private void writeCodePoint(final int codePoint) {
+        ensure(4);
+        final byte[] buffer = this.buffer;
+        if (codePoint < 0x80) {
+            buffer[position++] = (byte) codePoint;
+        } else if (codePoint < 0x800) {
+            buffer[position++] = (byte) (0xC0 | (codePoint >> 6));
+            buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+        } else if (codePoint < 0x10000) {
+            buffer[position++] = (byte) (0xE0 | (codePoint >> 12));
+            buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+        } else {
+            buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+            buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+            buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+        }
+    }
+
+    private void writeAscii(final String ascii) {
+        final int length = ascii.length();
+        ensure(length);
+        for (int i = 0; i < length; i++) {
+            buffer[position++] = (byte) ascii.charAt(i);
+        }
+    }
+
+    private void writeBytes(final byte[] bytes) {
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void ensure(final int count) {
+        if (position + count > buffer.length) {
+            if (outputStream != null || byteBuffer != null) {
+                drain();
+            }
+            if (position + count > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + count));
+            }
+        }
+    }
+
+    private void drain() {
+        if (position == 0) {
+            return;
+        }
+        if (outputStream != null) {
+            try {
+                outputStream.write(buffer, 0, position);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            position = 0;
+        } else if (byteBuffer != null) {
+            byteBuffer.put(buffer, 0, position);
+            position = 0;
+        }
+    }
+}
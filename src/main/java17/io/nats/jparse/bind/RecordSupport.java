@@ -0,0 +1,58 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.bind;
+
+import java.lang.reflect.RecordComponent;
+
+/**
+ * Record introspection for the binder, Java 17 version.
+ * <p>
+ * Loaded from `META-INF/versions/17` of the multi-release jar in place of the Java 8 version, which never reports
+ * a record.
+ */
+final class RecordSupport {
+
+    private RecordSupport() {
+    }
+
+    /**
+     * Returns true if the type is a record.
+     *
+     * @param type the type
+     * @return true if the type is a record
+     */
+    static boolean isRecord(final Class<?> type) {
+        return type.isRecord();
+    }
+
+    /**
+     * Returns the component names of a record in canonical constructor order.
+     *
+     * @param type the record type
+     * @return the component names
+     */
+    static String[] componentNames(final Class<?> type) {
+        final RecordComponent[] components = type.getRecordComponents();
+        if (components == null) {
+            throw new IllegalStateException(type.getName() + " is not a record");
+        }
+        final String[] names = new String[components.length];
+        for (int index = 0; index < components.length; index++) {
+            names[index] = components[index].getName();
+        }
+        return names;
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.parser.indexoverlay;
+
+import io.nats.jparse.node.RootNode;
+import io.nats.jparse.parser.JsonParser;
+import io.nats.jparse.source.CharSource;
+import io.nats.jparse.token.Token;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.constant.ConstantDescs;
+import java.lang.invoke.MethodHandles;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Creates `JsonFastParser` instances specialized for their options and their source type, Java 17 version.
+ * <p>
+ * Loaded from `META-INF/versions/17` of the multi-release jar in place of the Java 8 version. For each option set and
+ * `CharSource` class a hidden class is defined from the bytes of `JsonFastParser` with the options as class data,
+ * which the copy reads into a static final field when it initializes. Type profiles are kept per class, so the
+ * `CharSource` calls in a copy only ever see one receiver type and stay monomorphic and inlined, however many source
+ * types the JVM uses. The parser handed out is a `SourceDispatch` that picks the copy for each source; that costs
+ * one type check per document instead of a megamorphic call per character.
+ * <p>
+ * The number of copies is bounded; beyond the bound, or once the runtime fails to read, define or link a copy, plain
+ * instances are used. That failure is logged once through `System.Logger` and kept for `fallbackCause()`. The
+ * template has to be compiled by a javac that emits stack maps a hidden copy can verify against, which is why
+ * `compileJava` is pinned to a JDK 11 toolchain with `--release 8`.
+ */
+final class FastParserSpecializer {
+
+    private static final int MAX_SPECIALIZED_CLASSES = 64;
+
+    /**
+     * Parsers by source class and options. Held by the source class, so the map never keeps a class alive.
+     */
+    private static final ClassValue<ConcurrentMap<Long, JsonParser>> PARSERS =
+            new ClassValue<ConcurrentMap<Long, JsonParser>>() {
+                @Override
+                protected ConcurrentMap<Long, JsonParser> computeValue(final Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
+    private static int definedClasses;
+    private static byte[] templateBytes;
+    private static Throwable fallbackCause;
+
+    private FastParserSpecializer() {
+    }
+
+    /**
+     * Returns the options a class was specialized for.
+     *
+     * @param lookup a full privilege lookup on the class
+     * @return the options passed as class data, or `JsonFastParser.NOT_SPECIALIZED` if there are none
+     */
+    static long classOptions(final MethodHandles.Lookup lookup) {
+        try {
+            final Long options = MethodHandles.classData(lookup, ConstantDescs.DEFAULT_NAME, Long.class);
+            return options == null ? JsonFastParser.NOT_SPECIALIZED : options;
+        } catch (IllegalAccessException e) {
+            return JsonFastParser.NOT_SPECIALIZED;
+        }
+    }
+
+    /**
+     * Creates a parser for the options.
+     *
+     * @param options the encoded options
+     * @return a new parser that runs each source through the copy specialized for its class
+     */
+    static JsonParser create(final long options) {
+        return new SourceDispatch(options);
+    }
+
+    /**
+     * Returns the parser for the options and source class. Parsers hold no state besides their options, so one
+     * instance per copy is shared.
+     */
+    static JsonParser parserFor(final long options, final Class<?> sourceType) {
+        final ConcurrentMap<Long, JsonParser> parsers = PARSERS.get(sourceType);
+        final JsonParser parser = parsers.get(options);
+        return parser != null ? parser : define(parsers, options);
+    }
+
+    private static synchronized JsonParser define(final ConcurrentMap<Long, JsonParser> parsers, final long options) {
+        JsonParser parser = parsers.get(options);
+        if (parser != null) {
+            return parser;
+        }
+        if (fallbackCause == null && definedClasses < MAX_SPECIALIZED_CLASSES) {
+            try {
+                final MethodHandles.Lookup hidden = MethodHandles.lookup()
+                        .defineHiddenClassWithClassData(templateBytes(), options, true);
+                parser = (JsonParser) hidden.lookupClass().getDeclaredConstructor(long.class).newInstance(options);
+                definedClasses++;
+            } catch (IOException | ReflectiveOperationException | LinkageError e) {
+                /* The template could not be read, defined or linked on this runtime; plain instances still work. */
+                fallbackCause = e;
+                System.getLogger(FastParserSpecializer.class.getName()).log(System.Logger.Level.WARNING,
+                        "JsonFastParser specialization disabled, using plain parsers", e);
+            }
+        }
+        if (parser == null) {
+            parser = new JsonFastParser(options);
+        }
+        parsers.put(options, parser);
+        return parser;
+    }
+
+    /**
+     * Returns why specialization was turned off.
+     *
+     * @return the failure to read, define or link a copy, or `null` while copies are still being defined
+     */
+    static synchronized Throwable fallbackCause() {
+        return fallbackCause;
+    }
+
+    private static byte[] templateBytes() throws IOException {
+        if (templateBytes == null) {
+            try (InputStream in = JsonFastParser.class.getResourceAsStream("JsonFastParser.class")) {
+                if (in == null) {
+                    throw new IOException("JsonFastParser.class not found");
+                }
+                templateBytes = in.readAllBytes();
+            }
+        }
+        return templateBytes;
+    }
+
+    /**
+     * The parser returned by `JsonParserBuilder`: forwards each document to the parser specialized for the class of
+     * its source. The last few source classes seen are kept in a small copy-on-write array, so the lookup is a
+     * couple of reference compares.
+     */
+    static final class SourceDispatch implements JsonParser {
+
+        private static final int MAX_CACHED = 8;
+
+        private final long options;
+        private volatile Object[] cache = new Object[0];
+
+        SourceDispatch(final long options) {
+            this.options = options;
+        }
+
+        @Override
+        public List<Token> scan(final CharSource source) {
+            return parserFor(source).scan(source);
+        }
+
+        @Override
+        public RootNode parse(final CharSource source) {
+            return parserFor(source).parse(source);
+        }
+
+        private JsonParser parserFor(final CharSource source) {
+            final Class<?> type = source.getClass();
+            final Object[] cache = this.cache;
+            for (int index = 0; index < cache.length; index += 2) {
+                if (cache[index] == type) {
+                    return (JsonParser) cache[index + 1];
+                }
+            }
+            final JsonParser parser = FastParserSpecializer.parserFor(options, type);
+            if (cache.length < MAX_CACHED * 2) {
+                final Object[] grown = Arrays.copyOf(cache, cache.length + 2);
+                grown[cache.length] = type;
+                grown[cache.length + 1] = parser;
+                this.cache = grown;
+            }
+            return parser;
+        }
+
+        @Override
+        public String toString() {
+            return "JsonFastParser specialized per source type";
+        }
+    }
+}
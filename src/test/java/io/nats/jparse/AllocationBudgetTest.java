@@ -0,0 +1,139 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse;
+
+import io.nats.jparse.node.ArrayNode;
+import io.nats.jparse.node.ObjectNode;
+import io.nats.jparse.parser.JsonEventParser;
+import io.nats.jparse.parser.JsonParser;
+import io.nats.jparse.source.CharSource;
+import io.nats.jparse.source.Sources;
+import io.nats.jparse.token.TokenEventListener;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Bytes allocated per operation on the hot paths, checked against fixed budgets.
+ * <p>
+ * Each operation is warmed up, then measured over several rounds with the thread's allocation counter, and the
+ * lowest round is compared to its budget. The budgets sit a little above what the code allocates today, so a stray
+ * `toString()` or boxed value in `CharArrayCharSource` or `ObjectNode` fails the build. If a change legitimately
+ * allocates more, raise the budget in the same change and say why.
+ */
+class AllocationBudgetTest {
+
+    private static final int WARMUP = 20_000;
+    private static final int ROUNDS = 5;
+    private static final int OPERATIONS = 1_000;
+
+    private static final long ARRAY_HEADER = 16;
+
+    private static final char[] glossary;
+
+    private static Object sink;
+
+    static {
+        try {
+            glossary = new String(Files.readAllBytes(Paths.get("./src/test/resources/json/glossary.json")),
+                    StandardCharsets.UTF_8).toCharArray();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long bytesPerOperation(final Supplier<Object> operation) {
+        final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean, "thread allocation counter not available");
+        final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "thread allocation counter not supported");
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        for (int i = 0; i < WARMUP; i++) {
+            sink = operation.get();
+        }
+        final long threadId = Thread.currentThread().getId();
+        long lowest = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            final long before = threads.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < OPERATIONS; i++) {
+                sink = operation.get();
+            }
+            final long after = threads.getThreadAllocatedBytes(threadId);
+            lowest = Math.min(lowest, (after - before) / OPERATIONS);
+        }
+        return lowest;
+    }
+
+    private static void assertWithinBudget(final String name, final long budget, final Supplier<Object> operation) {
+        final long allocated = bytesPerOperation(operation);
+        assertTrue(allocated <= budget, name + " allocated " + allocated + " bytes per operation, budget is " + budget);
+    }
+
+    @Test
+    void fastParseOfGlossary() {
+        final JsonParser parser = Json.builder().build();
+        assertWithinBudget("fast parse of glossary.json", 4_096, () -> parser.parse(Sources.charSource(glossary)));
+    }
+
+    @Test
+    void eventParseOfGlossary() {
+        final JsonEventParser parser = Json.builder().buildEventParser();
+        final TokenEventListener listener = new TokenEventListener() {
+            @Override
+            public void start(int tokenId, int index, CharSource source) {
+            }
+
+            @Override
+            public void end(int tokenId, int index, CharSource source) {
+            }
+        };
+        assertWithinBudget("event parse of glossary.json", 256, () -> {
+            parser.parseWithEvents(Sources.charSource(glossary), listener);
+            return listener;
+        });
+    }
+
+    @Test
+    void keyLookup() {
+        final JsonParser parser = Json.builder().build();
+        final ObjectNode glossaryNode = parser.parse(Sources.charSource(glossary)).getObjectNode()
+                .getObjectNode("glossary");
+
+        assertWithinBudget("repeated key lookup", 0, () -> glossaryNode.getNode("GlossDiv"));
+        assertWithinBudget("parse and first key lookup", 5_120, () -> parser.parse(Sources.charSource(glossary))
+                .getObjectNode().getObjectNode("glossary").getNode("GlossDiv"));
+    }
+
+    @Test
+    void numericArrayExtraction() {
+        final ArrayNode doubles = Json.toArrayNode(Sources.fileSource("./src/test/resources/json/doubles.json"));
+        final ArrayNode ints = Json.toArrayNode(Sources.fileSource("./src/test/resources/json/ints.json"));
+
+        assertWithinBudget("getDoubleArray", ARRAY_HEADER + 8L * doubles.length() + 64, doubles::getDoubleArray);
+        assertWithinBudget("getIntArray", ARRAY_HEADER + 4L * ints.length() + 64, ints::getIntArray);
+        assertWithinBudget("getLongArray", ARRAY_HEADER + 8L * ints.length() + 64, ints::getLongArray);
+    }
+}
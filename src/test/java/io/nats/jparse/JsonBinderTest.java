@@ -0,0 +1,190 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse;
+
+import io.nats.jparse.examples.Employee;
+import io.nats.jparse.source.Sources;
+import io.nats.jparse.source.support.UnexpectedCharacterException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonBinderTest {
+
+    enum Level {LOW, HIGH}
+
+    static class Settings {
+        private String name;
+        private int count;
+        private long big;
+        private double ratio;
+        private boolean enabled;
+        private float weight;
+        private char grade;
+        private Integer boxed;
+        private BigDecimal price;
+        private Level level;
+        private List<Employee> employees;
+        private Set<String> tags;
+        private Map<String, Integer> limits;
+        private int[] scores;
+        private String[] names;
+        private Settings child;
+        private Object extra;
+        private boolean viaSetter;
+
+        public void setViaSetter(boolean viaSetter) {
+            this.viaSetter = !viaSetter;
+        }
+    }
+
+    static final class Point {
+        private final int x;
+        private final int y;
+        private final String label;
+
+        Point(int x, int y, String label) {
+            this.x = x;
+            this.y = y;
+            this.label = label;
+        }
+    }
+
+    static final class Name {
+        private final String first;
+        private final String last;
+
+        Name(String last, String first) {
+            this.first = first;
+            this.last = last;
+        }
+    }
+
+    static class Narrow {
+        short s;
+        byte b;
+    }
+
+    static final class NarrowValue {
+        private final short s;
+        private final byte b;
+
+        NarrowValue(short s, byte b) {
+            this.s = s;
+            this.b = b;
+        }
+    }
+
+    @Test
+    void bindsImmutableClassThroughConstructor() {
+        final Employee employee = Json.bind(Json.niceJson("{'firstName':'Rick','lastName':'Hightower','dob':'1990',"
+                + "'manager':true,'id':7,'managerId':-1,'unknown':{'a':[1,2]}}"), Employee.class);
+
+        assertEquals(new Employee("Rick", "Hightower", "1990", true, 7, -1), employee);
+    }
+
+    @Test
+    void bindsMutableClassThroughFieldsAndSetters() {
+        final Settings settings = Json.bind(Sources.stringSource(Json.niceJson("{'name':'s`n1','count':3,"
+                + "'big':9007199254740993,'ratio':0.25,'enabled':true,'weight':1.5,'grade':'A','boxed':null,"
+                + "'price':'12.50','level':'HIGH','employees':[{'firstName':'a','id':1}],'tags':['x','y','x'],"
+                + "'limits':{'a':1,'b':2},'scores':[1,2,3],'names':['p','q'],"
+                + "'child':{'name':'kid','count':null,'child':null},'extra':{'k':[1,2.5,'s',false,null]},"
+                + "'viaSetter':true}")), Settings.class);
+
+        assertEquals("s\n1", settings.name);
+        assertEquals(3, settings.count);
+        assertEquals(9007199254740993L, settings.big);
+        assertEquals(0.25, settings.ratio);
+        assertTrue(settings.enabled);
+        assertEquals(1.5f, settings.weight);
+        assertEquals('A', settings.grade);
+        assertNull(settings.boxed);
+        assertEquals(new BigDecimal("12.50"), settings.price);
+        assertEquals(Level.HIGH, settings.level);
+        assertEquals(1, settings.employees.size());
+        assertEquals("a", settings.employees.get(0).firstName());
+        assertNull(settings.employees.get(0).lastName());
+        assertEquals(2, settings.tags.size());
+        assertEquals(Integer.valueOf(2), settings.limits.get("b"));
+        assertArrayEquals(new int[]{1, 2, 3}, settings.scores);
+        assertArrayEquals(new String[]{"p", "q"}, settings.names);
+        assertEquals("kid", settings.child.name);
+        assertEquals(0, settings.child.count);
+        assertNull(settings.child.child);
+        assertEquals(Arrays.asList(1L, 2.5, "s", false, null), ((Map<?, ?>) settings.extra).get("k"));
+        assertFalse(settings.viaSetter);
+    }
+
+    @Test
+    void bindsConstructorParametersByNameNotFieldOrder() {
+        final String json = "{\"first\":\"F\",\"last\":\"L\"}";
+        if (Name.class.getDeclaredConstructors()[0].getParameters()[0].isNamePresent()) {
+            final Name name = Json.bind(json, Name.class);
+            assertEquals("F", name.first);
+            assertEquals("L", name.last);
+        } else {
+            assertThrows(IllegalStateException.class, () -> Json.bind(json, Name.class));
+        }
+    }
+
+    @Test
+    void bindsLists() {
+        final List<Point> points = Json.bindList(Json.niceJson("[{'x':1,'y':2,'label':'a'}, {'y':5}, null]"),
+                Point.class);
+
+        assertEquals(3, points.size());
+        assertEquals(2, points.get(0).y);
+        assertEquals("a", points.get(0).label);
+        assertEquals(0, points.get(1).x);
+        assertEquals(5, points.get(1).y);
+        assertNull(points.get(2));
+    }
+
+    @Test
+    void reportsMismatches() {
+        assertThrows(IllegalStateException.class, () -> Json.bind("{\"count\":\"three\"}", Settings.class));
+        assertThrows(IllegalStateException.class, () -> Json.bind("{\"level\":\"MEDIUM\"}", Settings.class));
+        assertThrows(IllegalStateException.class, () -> Json.bind("[1]", Settings.class));
+        assertThrows(IllegalStateException.class, () -> Json.bind("{}", Runnable.class));
+    }
+
+    @Test
+    void rejectsPlusSign() {
+        assertThrows(UnexpectedCharacterException.class, () -> Json.bind("{\"count\":+12}", Settings.class));
+    }
+
+    @Test
+    void rangeChecksNarrowPrimitives() {
+        final Narrow narrow = Json.bind("{\"s\":-32768,\"b\":127}", Narrow.class);
+        assertEquals(Short.MIN_VALUE, narrow.s);
+        assertEquals(Byte.MAX_VALUE, narrow.b);
+        final NarrowValue value = Json.bind("{\"s\":32767,\"b\":-128}", NarrowValue.class);
+        assertEquals(Short.MAX_VALUE, value.s);
+        assertEquals(Byte.MIN_VALUE, value.b);
+
+        assertThrows(IllegalStateException.class, () -> Json.bind("{\"s\":70000}", Narrow.class));
+        assertThrows(IllegalStateException.class, () -> Json.bind("{\"b\":300}", Narrow.class));
+        assertThrows(IllegalStateException.class, () -> Json.bind("{\"s\":70000,\"b\":1}", NarrowValue.class));
+        assertThrows(IllegalStateException.class, () -> Json.bind("{\"s\":1,\"b\":-129}", NarrowValue.class));
+    }
+}
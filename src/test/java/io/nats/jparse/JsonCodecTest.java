@@ -0,0 +1,177 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse;
+
+import io.nats.jparse.bind.JsonBinder;
+import io.nats.jparse.bind.JsonCodec;
+import io.nats.jparse.writer.JsonWriter;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonCodecTest {
+
+    @JsonCodec
+    static class Order {
+        String id;
+        int quantity;
+        long total;
+        double discount;
+        boolean shipped;
+        List<Line> lines;
+        Map<String, Integer> counts;
+        private String note;
+
+        public String getNote() {
+            return note;
+        }
+
+        public void setNote(String note) {
+            this.note = note;
+        }
+    }
+
+    @JsonCodec
+    static final class Line {
+        private final String sku;
+        private final int amount;
+
+        Line(String sku, int amount) {
+            this.sku = sku;
+            this.amount = amount;
+        }
+
+        String sku() {
+            return sku;
+        }
+
+        int amount() {
+            return amount;
+        }
+    }
+
+    @JsonCodec
+    static final class Name {
+        final String first;
+        final String last;
+        final int age;
+
+        Name(int age, String last, String first) {
+            this.first = first;
+            this.last = last;
+            this.age = age;
+        }
+    }
+
+    static class Plain {
+        String name;
+        int[] values;
+    }
+
+    @Test
+    void generatesCodecForAnnotatedClasses() throws Exception {
+        assertEquals("io.nats.jparse.JsonCodecTest_OrderJsonCodec", JsonBinder.codecClassName(Order.class));
+        assertNotNull(Class.forName(JsonBinder.codecClassName(Order.class)));
+        assertNotNull(Class.forName(JsonBinder.codecClassName(Line.class)));
+        assertTrue(JsonBinder.encoder(Order.class).getClass().getName().endsWith("JsonCodec"));
+    }
+
+    @Test
+    void decodesThroughGeneratedCodec() {
+        final Order order = Json.bind(Json.niceJson("{'id':'A-1','quantity':3,'total':12345678901,'discount':0.25,"
+                + "'shipped':true,'lines':[{'sku':'x','amount':2},{'amount':1,'sku':'y'}],"
+                + "'counts':{'a':1,'b':2},'note':'fragile','unknown':[1,{'a':2}],'quantity2':9}"), Order.class);
+
+        assertEquals("A-1", order.id);
+        assertEquals(3, order.quantity);
+        assertEquals(12345678901L, order.total);
+        assertEquals(0.25, order.discount);
+        assertTrue(order.shipped);
+        assertEquals(2, order.lines.size());
+        assertEquals("y", order.lines.get(1).sku());
+        assertEquals(1, order.lines.get(1).amount());
+        assertEquals(Integer.valueOf(2), order.counts.get("b"));
+        assertEquals("fragile", order.getNote());
+    }
+
+    @Test
+    void passesConstructorArgumentsByParameterName() {
+        final Name name = Json.bind("{\"first\":\"F\",\"last\":\"L\",\"age\":3}", Name.class);
+
+        assertEquals("F", name.first);
+        assertEquals("L", name.last);
+        assertEquals(3, name.age);
+        assertTrue(JsonBinder.encoder(Name.class).getClass().getName().endsWith("JsonCodec"));
+    }
+
+    @Test
+    void leavesPrimitiveDefaultsForNull() {
+        final Order order = Json.bind(Json.niceJson("{'id':null,'quantity':null,'lines':null}"), Order.class);
+
+        assertNull(order.id);
+        assertEquals(0, order.quantity);
+        assertNull(order.lines);
+    }
+
+    @Test
+    void rejectsMismatchedTypes() {
+        assertThrows(IllegalStateException.class, () -> Json.bind("[1]", Order.class));
+        assertThrows(IllegalStateException.class, () -> Json.bind(Json.niceJson("{'quantity':'x'}"), Order.class));
+    }
+
+    @Test
+    void encodesThroughGeneratedCodec() {
+        final Order order = new Order();
+        order.id = "B\"2";
+        order.quantity = 1;
+        order.total = 10;
+        order.discount = 1.5;
+        order.lines = Collections.singletonList(new Line("z", 4));
+        order.counts = new LinkedHashMap<>();
+        order.counts.put("k", 7);
+        order.setNote(null);
+
+        final JsonWriter writer = JsonWriter.toBytes();
+        JsonBinder.encode(order, writer);
+
+        assertEquals("{\"id\":\"B\\\"2\",\"quantity\":1,\"total\":10,\"discount\":1.5,\"shipped\":false,"
+                + "\"lines\":[{\"sku\":\"z\",\"amount\":4}],\"counts\":{\"k\":7},\"note\":null}", writer.toString());
+
+        final Order copy = Json.bind(writer.toString(), Order.class);
+        assertEquals(order.id, copy.id);
+        assertEquals("z", copy.lines.get(0).sku());
+    }
+
+    @Test
+    void encodesUnannotatedClassReflectively() {
+        final Plain plain = new Plain();
+        plain.name = "p";
+        plain.values = new int[]{1, 2};
+
+        final JsonWriter writer = JsonWriter.toBytes();
+        JsonBinder.encode(Arrays.asList(plain, null), writer);
+
+        assertEquals("[{\"name\":\"p\",\"values\":[1,2]},null]", writer.toString());
+        final List<Plain> copy = Json.bindList(writer.toString(), Plain.class);
+        assertArrayEquals(plain.values, copy.get(0).values);
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse;
+
+import io.nats.jparse.node.ObjectNode;
+import io.nats.jparse.node.RootNode;
+import io.nats.jparse.writer.JsonEdit;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonEditTest {
+
+    private static final String JSON = Json.niceJson(
+            "{ 'id' : 7, 'name': 'rick', 'tags' : [ 'a' , 'b', {'c': 1} ], 'meta': {'trace': 'x', 'v': 1.5} }");
+
+    @Test
+    void noEditsCopiesOriginal() {
+        final JsonEdit edit = Json.toRootNode(JSON).edit();
+        assertTrue(edit.isEmpty());
+        assertEquals(JSON.trim(), edit.toString());
+    }
+
+    @Test
+    void setsValuesInPlace() {
+        final String result = Json.toRootNode(JSON).edit()
+                .setLong("id", 8)
+                .setString("name", "geoff \"g\"")
+                .set("tags[2].c", "[true]")
+                .setDouble("meta.v", 2.25)
+                .toString();
+
+        assertEquals(Json.niceJson("{ 'id' : 8, 'name': 'geoff \\'g\\'', 'tags' : [ 'a' , 'b', {'c': [true]} ], "
+                + "'meta': {'trace': 'x', 'v': 2.25} }"), result);
+    }
+
+    @Test
+    void setByNode() {
+        final RootNode root = Json.toRootNode(JSON);
+        final ObjectNode meta = root.asObject().getObjectNode("meta");
+
+        final String result = root.edit().set(meta, "null").setString(root.asObject().getNode("name"), "x").toString();
+
+        assertEquals(Json.niceJson("{ 'id' : 7, 'name': 'x', 'tags' : [ 'a' , 'b', {'c': 1} ], 'meta': null }"), result);
+    }
+
+    @Test
+    void removesMembers() {
+        final String result = Json.toRootNode(JSON).edit()
+                .remove("name")
+                .remove("tags[0]")
+                .remove("meta.trace")
+                .remove("meta.v")
+                .toString();
+
+        assertEquals(Json.niceJson("{'id' : 7,'tags' : ['b',{'c': 1}],'meta': {}}"), result);
+        final RootNode reparsed = Json.toRootNode(result);
+        assertEquals(2, reparsed.asObject().getArrayNode("tags").size());
+    }
+
+    @Test
+    void insertsMembers() {
+        final String result = Json.toRootNode(JSON).edit()
+                .put("meta", "added", "[1,2]")
+                .put("meta", "v", "3")
+                .add("tags", "'d'".replace('\'', '"'))
+                .remove("tags[1]")
+                .put("", "last", "false")
+                .toString();
+
+        final ObjectNode object = Json.toRootNode(result).asObject();
+        assertEquals(3, object.getObjectNode("meta").size());
+        assertEquals(3, object.getObjectNode("meta").getInt("v"));
+        assertEquals(2, object.getObjectNode("meta").getArrayNode("added").size());
+        assertEquals("d", object.getArrayNode("tags").getNodeAt(2).toString());
+        assertFalse(object.getBoolean("last"));
+        assertEquals(Json.niceJson("{'id' : 7,'name': 'rick','tags' : ['a',{'c': 1},'d'],"
+                + "'meta': {'trace': 'x','v': 3,'added':[1,2]},'last':false}"), result);
+    }
+
+    @Test
+    void replacedContainerWins() {
+        final String result = Json.toRootNode(JSON).edit()
+                .remove("meta.trace")
+                .set("meta", "{}")
+                .setLong("meta.v", 5)
+                .toString();
+
+        assertEquals(Json.niceJson("{ 'id' : 7, 'name': 'rick', 'tags' : [ 'a' , 'b', {'c': 1} ], 'meta': {} }"), result);
+    }
+
+    @Test
+    void editsNestedObject() {
+        final ObjectNode meta = Json.toRootNode(JSON).asObject().getObjectNode("meta");
+        assertEquals(Json.niceJson("{'v': 1.5,'x':1}"), meta.edit().remove("trace").put("", "x", "1").toString());
+    }
+
+    @Test
+    void missingPathThrows() {
+        assertThrows(IllegalStateException.class, () -> Json.toRootNode(JSON).edit().remove("nope"));
+        assertThrows(IllegalStateException.class, () -> Json.toRootNode(JSON).edit().remove("tags[9]"));
+    }
+}
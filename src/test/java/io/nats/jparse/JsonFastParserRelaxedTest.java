@@ -0,0 +1,116 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse;
+
+import io.nats.jparse.node.ObjectNode;
+import io.nats.jparse.parser.JsonParser;
+import io.nats.jparse.parser.functable.JsonFuncParser;
+import io.nats.jparse.parser.functable.JsonParserFunctions;
+import io.nats.jparse.source.support.UnexpectedCharacterException;
+import io.nats.jparse.token.Token;
+import io.nats.jparse.token.TokenTypes;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonFastParserRelaxedTest {
+
+    private static final String CONFIG = "# service config\n" +
+            "{\n" +
+            "  // where to listen\n" +
+            "  host: \"localhost\", /* inline */ port : /* before value */ 4222,\n" +
+            "  \"tls\" /* before sep */ : { enabled: true # trailing\n" +
+            "  },\n" +
+            "  routes: [ \"a\", // first\n" +
+            "            \"b\" /* last */ ]\n" +
+            "}\n" +
+            "// done";
+
+    private final JsonParser relaxed = Json.builder().setAllowComments(true).setSupportNoQuoteKeys(true).build();
+
+    @Test
+    void relaxedOptionsUseFastParser() {
+        assertFalse(relaxed instanceof JsonFuncParser);
+        assertTrue(relaxed.getClass().getName().startsWith("io.nats.jparse.parser.indexoverlay."));
+        assertTrue(Json.builder().setAllowComments(true).setParseKey(JsonParserFunctions::parseKeyNoQuote)
+                .build() instanceof JsonFuncParser);
+    }
+
+    @Test
+    void commentsWhereverWhitespaceIsAllowed() {
+        final ObjectNode config = relaxed.parse(CONFIG).getObjectNode();
+        assertEquals("localhost", config.getString("host"));
+        assertEquals(4222, config.getInt("port"));
+        assertTrue(config.getObjectNode("tls").getBoolean("enabled"));
+        assertEquals("b", config.getArrayNode("routes").getStringNode(1).toString());
+        assertEquals(4, config.size());
+    }
+
+    @Test
+    void matchesPlainJsonTokens() {
+        final String plain = "{\"host\":\"localhost\",\"port\":4222,\"tls\":{\"enabled\":true},\"routes\":[\"a\",\"b\"]}";
+        final JsonParser parser = Json.builder().build();
+        assertEquals(types(parser.parse(plain).tokens()), types(relaxed.parse(CONFIG).tokens()));
+    }
+
+    private static String types(final List<Token> tokens) {
+        return tokens.stream().map(token -> TokenTypes.getTypeName(token.type)).collect(Collectors.joining(","));
+    }
+
+    @Test
+    void separatorInsideCommentIsIgnored() {
+        final ObjectNode object = relaxed.parse("{\"a\" /* : } */ : 1, b /* , */ : 2}").getObjectNode();
+        assertEquals(1, object.getInt("a"));
+        assertEquals(2, object.getInt("b"));
+    }
+
+    @Test
+    void escapedQuoteInKey() {
+        final String json = "{\"a\\\"b\" /* c */ : 1, \"d\":2}";
+        final JsonParser commentsOnly = Json.builder().setAllowComments(true).build();
+        for (JsonParser parser : new JsonParser[]{relaxed, commentsOnly}) {
+            final ObjectNode object = parser.parse(json).getObjectNode();
+            assertEquals(2, object.size());
+            assertEquals("a\\\"b", object.getKeys().get(0).toString());
+            assertEquals(2, object.getInt("d"));
+        }
+    }
+
+    @Test
+    void onlyEnabledCommentStylesAreAccepted() {
+        final JsonParser hash = Json.builder().setAllowHashComment(true).build();
+        assertEquals(2, hash.parse("[1, # one\n 2]").getArrayNode().size());
+        assertThrows(UnexpectedCharacterException.class, () -> hash.parse("[1, // one\n 2]"));
+
+        final JsonParser slashStar = Json.builder().setAllowSlashStarComment(true).build();
+        assertEquals(2, slashStar.parse("[1, /* one */ 2]").getArrayNode().size());
+        assertThrows(UnexpectedCharacterException.class, () -> slashStar.parse("[1, // one\n 2]"));
+
+        assertThrows(UnexpectedCharacterException.class, () -> Json.builder().build().parse("[1, # one\n 2]"));
+        assertThrows(UnexpectedCharacterException.class, () -> Json.builder().build().parse("{a: 1}"));
+    }
+
+    @Test
+    void unterminatedComments() {
+        assertThrows(UnexpectedCharacterException.class, () -> relaxed.parse("[1, /* open"));
+        assertThrows(UnexpectedCharacterException.class, () -> relaxed.parse("[1, // open"));
+        assertThrows(UnexpectedCharacterException.class, () -> relaxed.parse("[1, /*/ 2]"));
+        assertEquals(1, relaxed.parse("1 // trailing").getInt());
+    }
+}
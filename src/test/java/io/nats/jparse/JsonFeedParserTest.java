@@ -0,0 +1,178 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse;
+
+import io.nats.jparse.parser.event.JsonFeedParser;
+import io.nats.jparse.source.CharSource;
+import io.nats.jparse.source.support.UnexpectedCharacterException;
+import io.nats.jparse.token.TokenEventListener;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JsonFeedParserTest {
+
+    private static TokenEventListener recorder(final List<String> events) {
+        return new TokenEventListener() {
+            @Override
+            public void start(int tokenId, int index, CharSource source) {
+                events.add("start " + tokenId + " " + index);
+            }
+
+            @Override
+            public void end(int tokenId, int index, CharSource source) {
+                events.add("end " + tokenId + " " + index);
+            }
+        };
+    }
+
+    private static List<String> expectedEvents(final String json) {
+        final List<String> events = new ArrayList<>();
+        Json.builder().setStrict(true).buildEventParser().parseWithEvents(json, recorder(events));
+        return events;
+    }
+
+    @Test
+    void feedOneByteAtATime() {
+        final String json = Json.niceJson("{'name': 'Jörg 😀 `'q`'', 'n': [1, -2.5e3, true, false, null, []], " +
+                "'o': {'x': 10}}");
+        final List<String> events = new ArrayList<>();
+        final JsonFeedParser parser = new JsonFeedParser(recorder(events));
+        for (byte b : json.getBytes(StandardCharsets.UTF_8)) {
+            parser.feed(new byte[]{b});
+        }
+        parser.endOfInput();
+
+        assertEquals(expectedEvents(json), events);
+    }
+
+    @Test
+    void feedByteBuffersAndTrailingNumber() {
+        final List<String> events = new ArrayList<>();
+        final JsonFeedParser parser = Json.builder().setTokenEventListener(recorder(events)).buildFeedParser();
+        parser.feed(ByteBuffer.wrap("123".getBytes(StandardCharsets.UTF_8)));
+        parser.feed(ByteBuffer.wrap("45".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(0, events.size());
+        parser.endOfInput();
+
+        assertEquals(expectedEvents("12345"), events);
+
+        events.clear();
+        parser.reset();
+        final ByteBuffer direct = ByteBuffer.allocateDirect(16);
+        direct.put("[\"a\", 1]".getBytes(StandardCharsets.UTF_8)).flip();
+        parser.feed(direct);
+        parser.endOfInput();
+        assertEquals(expectedEvents("[\"a\", 1]"), events);
+    }
+
+    @Test
+    void emptyObjectEventsAreBalanced() {
+        final List<String> events = new ArrayList<>();
+        final JsonFeedParser parser = new JsonFeedParser(recorder(events));
+        parser.feed("[{}]".getBytes(StandardCharsets.UTF_8));
+        parser.endOfInput();
+
+        assertEquals("[start 3 0, start 4 1, start 0 1, end 0 3, end 4 3, end 3 4]", events.toString());
+    }
+
+    @Test
+    void badInput() {
+        assertThrows(UnexpectedCharacterException.class, () -> {
+            final JsonFeedParser parser = new JsonFeedParser(recorder(new ArrayList<>()));
+            parser.feed("{\"a\": [1, 2".getBytes(StandardCharsets.UTF_8));
+            parser.endOfInput();
+        });
+        assertThrows(UnexpectedCharacterException.class, () -> {
+            final JsonFeedParser parser = new JsonFeedParser(recorder(new ArrayList<>()));
+            parser.feed("[1, 2,]".getBytes(StandardCharsets.UTF_8));
+        });
+        assertThrows(UnexpectedCharacterException.class, () -> {
+            final JsonFeedParser parser = new JsonFeedParser(recorder(new ArrayList<>()));
+            parser.feed("[01]".getBytes(StandardCharsets.UTF_8));
+        });
+        assertThrows(UnexpectedCharacterException.class, () -> {
+            final JsonFeedParser parser = new JsonFeedParser(recorder(new ArrayList<>()));
+            parser.feed("{\"a\": tru}".getBytes(StandardCharsets.UTF_8));
+        });
+    }
+
+    @Test
+    void escapesAreValidatedAcrossChunks() {
+        for (String json : new String[]{"[\"\\q\"]", "[\"\\u12\"]", "[\"\\uZZZZ\"]", "{\"\\x\":1}"}) {
+            assertThrows(UnexpectedCharacterException.class, () -> {
+                final JsonFeedParser parser = new JsonFeedParser(recorder(new ArrayList<>()));
+                parser.feed(json.getBytes(StandardCharsets.UTF_8));
+                parser.endOfInput();
+            }, json);
+            assertThrows(UnexpectedCharacterException.class, () -> {
+                final JsonFeedParser parser = new JsonFeedParser(recorder(new ArrayList<>()));
+                for (byte b : json.getBytes(StandardCharsets.UTF_8)) {
+                    parser.feed(new byte[]{b});
+                }
+                parser.endOfInput();
+            }, json);
+        }
+
+        final String json = "[\"\\u00e9\\uD83D\\ude00\\\"\\\\\\/\\b\\f\\n\\r\\t\"]";
+        final List<String> events = new ArrayList<>();
+        final JsonFeedParser parser = new JsonFeedParser(recorder(events));
+        for (byte b : json.getBytes(StandardCharsets.UTF_8)) {
+            parser.feed(new byte[]{b});
+        }
+        parser.endOfInput();
+        assertEquals(expectedEvents(json), events);
+    }
+
+    @Test
+    void invalidUtf8IsRejected() {
+        final byte[][] sequences = {
+                {(byte) 0xC0, (byte) 0xAF},
+                {(byte) 0xE0, (byte) 0x80, (byte) 0xAF},
+                {(byte) 0xF0, (byte) 0x80, (byte) 0x80, (byte) 0xAF},
+                {(byte) 0xED, (byte) 0xA0, (byte) 0x80},
+                {(byte) 0xED, (byte) 0xBF, (byte) 0xBF},
+                {(byte) 0xF4, (byte) 0x90, (byte) 0x80, (byte) 0x80},
+                {(byte) 0xF7, (byte) 0xBF, (byte) 0xBF, (byte) 0xBF}};
+        for (byte[] sequence : sequences) {
+            final byte[] json = new byte[sequence.length + 4];
+            json[0] = '[';
+            json[1] = '"';
+            System.arraycopy(sequence, 0, json, 2, sequence.length);
+            json[json.length - 2] = '"';
+            json[json.length - 1] = ']';
+            assertThrows(UnexpectedCharacterException.class, () -> {
+                final JsonFeedParser parser = new JsonFeedParser(recorder(new ArrayList<>()));
+                parser.feed(json);
+                parser.endOfInput();
+            }, Arrays.toString(sequence));
+        }
+
+        final String json = "[\"\u00e9\u07ff\u0800\ud7ff\ue000\uffff\ud800\udc00\udbff\udfff\"]";
+        final List<String> events = new ArrayList<>();
+        final JsonFeedParser parser = new JsonFeedParser(recorder(events));
+        parser.feed(json.getBytes(StandardCharsets.UTF_8));
+        parser.endOfInput();
+        assertEquals(expectedEvents(json), events);
+    }
+}
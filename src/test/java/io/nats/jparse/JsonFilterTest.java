@@ -0,0 +1,98 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse;
+
+import io.nats.jparse.source.Sources;
+import io.nats.jparse.writer.JsonFilter;
+import io.nats.jparse.writer.JsonWriter;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonFilterTest {
+
+    private static final String JSON = Json.niceJson("{ 'user': { 'name': 'rick', 'ssn': '123-45', 'email': 'r@x.io', "
+            + "'tags': [ 'a', 'b' ] }, 'items': [ {'id': 1, 'card': '4111'}, {'id': 2, 'card': '5500', 'note': null} ], "
+            + "'ok' : true }");
+
+    @Test
+    void noPathsCopiesDocument() {
+        assertEquals(JSON, new JsonFilter().filter(JSON));
+    }
+
+    @Test
+    void excludesPaths() {
+        final String result = new JsonFilter().exclude("user.ssn", "items[*].card", "ok").filter(JSON);
+
+        assertEquals(Json.niceJson("{'user':{'name':'rick','email':'r@x.io','tags':[ 'a', 'b' ]},"
+                + "'items':[{'id':1},{'id':2,'note':null}]}"), result);
+    }
+
+    @Test
+    void masksPaths() {
+        final String result = new JsonFilter().mask("user.email", "\"***\"").mask("*.tags", "[]")
+                .exclude("items").filter(JSON);
+
+        assertEquals(Json.niceJson("{'user':{'name':'rick','ssn':'123-45','email':\"***\",'tags':[]},'ok':true}"),
+                result);
+    }
+
+    @Test
+    void includesPaths() {
+        final String result = new JsonFilter().include("user.name", "items[1]", "items[0].id").filter(JSON);
+
+        assertEquals(Json.niceJson("{'user':{'name':'rick'},'items':[{'id':1},{'id': 2, 'card': '5500', 'note': null}]}"),
+                result);
+    }
+
+    @Test
+    void includeWithNestedExclude() {
+        final String result = new JsonFilter().include("items").exclude("items[*].card").filter(JSON);
+
+        assertEquals(Json.niceJson("{'items':[{'id':1},{'id':2,'note':null}]}"), result);
+    }
+
+    @Test
+    void keepsEscapedKeysAndStrings() {
+        final String json = "{\"a\\\"b\": \"x\\ny\", \"drop\": [1, {\"z\": [2]}], \"n\": -1.5e3}";
+        final String result = new JsonFilter().exclude("drop").filter(json);
+
+        assertEquals("{\"a\\\"b\":\"x\\ny\",\"n\":-1.5e3}", result);
+        assertEquals(2, Json.toRootNode(result).asObject().size());
+    }
+
+    @Test
+    void worksWithFastEventParserAndStreams() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final JsonWriter writer = JsonWriter.to(out);
+        new JsonFilter().setEventParser(Json.builder().setStrict(false).buildEventParser())
+                .exclude("user", "items[0]").filter(Sources.stringSource(JSON), writer);
+        writer.flush();
+
+        assertEquals(Json.niceJson("{'items':[{'id': 2, 'card': '5500', 'note': null}],'ok':true}"),
+                new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void rootScalarAndBadPaths() {
+        assertEquals("5", new JsonFilter().exclude("a").filter("5"));
+        assertThrows(IllegalArgumentException.class, () -> new JsonFilter().exclude("a[1"));
+        assertThrows(IllegalArgumentException.class, () -> new JsonFilter().exclude(""));
+    }
+}
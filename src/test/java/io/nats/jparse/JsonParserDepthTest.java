@@ -0,0 +1,91 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse;
+
+import io.nats.jparse.parser.JsonParser;
+import io.nats.jparse.parser.JsonParserBuilder;
+import io.nats.jparse.source.support.UnexpectedCharacterException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JsonParserDepthTest {
+
+    private static List<JsonParser> parsers(final JsonParserBuilder builder) {
+        return Arrays.asList(builder.cloneBuilder().setStrict(true).build(),
+                builder.cloneBuilder().setStrict(false).build(),
+                (JsonParser) builder.cloneBuilder().setStrict(true).buildEventParser(),
+                (JsonParser) builder.cloneBuilder().setStrict(false).buildEventParser());
+    }
+
+    private static String nested(final int depth) {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < depth; i++) {
+            builder.append(i % 2 == 0 ? "[" : "{\"a\":");
+        }
+        builder.append("1");
+        for (int i = depth - 1; i >= 0; i--) {
+            builder.append(i % 2 == 0 ? "]" : "}");
+        }
+        return builder.toString();
+    }
+
+    @Test
+    void deepOpeningArraysAreRejectedWithoutStackOverflow() {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            builder.append('[');
+        }
+        final String json = builder.toString();
+        for (JsonParser parser : parsers(Json.builder())) {
+            assertThrows(UnexpectedCharacterException.class, () -> parser.scan(json));
+        }
+    }
+
+    @Test
+    void maxDepth() {
+        final JsonParserBuilder builder = Json.builder().setMaxDepth(4);
+        final String ok = nested(4);
+        final String tooDeep = nested(5);
+        final List<?> expected = Json.toTokens(ok);
+        for (JsonParser parser : parsers(builder)) {
+            assertEquals(expected, parser.scan(ok));
+            assertThrows(UnexpectedCharacterException.class, () -> parser.scan(tooDeep));
+        }
+    }
+
+    @Test
+    void deepNestingWithinLimit() {
+        final String json = nested(1_999);
+        final List<?> expected = Json.toTokens(json);
+        for (JsonParser parser : parsers(Json.builder())) {
+            assertEquals(expected, parser.scan(json));
+        }
+    }
+
+    @Test
+    void emptyContainersProduceSameTokens() {
+        final String json = Json.niceJson("[{}, [], {'a': {}}, [[]], {'b': []}]");
+        final List<?> expected = Json.toTokens(json);
+        for (JsonParser parser : parsers(Json.builder())) {
+            assertEquals(expected, parser.scan(json));
+        }
+    }
+}
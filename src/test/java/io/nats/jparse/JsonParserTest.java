@@ -67,6 +67,14 @@ class JsonParserTest {
         return (List<Object>) (Object) parser.parse(json).getArrayNode();
     }
 
+    @Test
+    public void testArrayWhitespaceAfterStringItem() {
+        final RootNode root = jsonParser().parse(niceJson("['s' ,{'c': 2} ]"));
+        final ArrayNode array = root.asArray();
+        assertEquals(2, array.size());
+        assertEquals(2, array.getNodeAt(1).asCollection().asObject().getInt("c"));
+    }
+
     @Test
     public void testDoubleArray() {
         //................012345678901234567890123
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse;
+
+import io.nats.jparse.parser.JsonReader;
+import io.nats.jparse.source.CharArrayOffsetCharSource;
+import io.nats.jparse.source.Sources;
+import io.nats.jparse.source.support.UnexpectedCharacterException;
+import org.junit.jupiter.api.Test;
+
+import static io.nats.jparse.parser.JsonReader.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonReaderTest {
+
+    @Test
+    void readsTokens() {
+        final JsonReader reader = Json.reader(Json.niceJson(
+                " { 'id' : 9223372036854775807, 'tags': ['a', 'b`n'], 'ok':true, 'ratio':0.5, 'none':null } "));
+
+        assertEquals(START_OBJECT, reader.nextToken());
+        assertEquals(KEY, reader.nextToken());
+        assertEquals("id", reader.stringView().toString());
+        assertEquals(INT, reader.nextToken());
+        assertEquals(Long.MAX_VALUE, reader.longValue());
+        assertEquals(KEY, reader.nextToken());
+        assertEquals(START_ARRAY, reader.nextToken());
+        assertEquals(2, reader.depth());
+        assertEquals(STRING, reader.nextToken());
+        assertEquals("a", reader.stringValue());
+        assertEquals(STRING, reader.nextToken());
+        assertEquals("b\n", reader.stringView().toString());
+        assertEquals(END_ARRAY, reader.nextToken());
+        assertEquals(KEY, reader.nextToken());
+        assertEquals(BOOLEAN, reader.nextToken());
+        assertTrue(reader.booleanValue());
+        assertEquals(KEY, reader.nextToken());
+        assertEquals(FLOAT, reader.nextToken());
+        assertEquals(0.5, reader.doubleValue());
+        assertEquals(KEY, reader.nextToken());
+        assertEquals(NULL, reader.nextToken());
+        assertEquals(END_OBJECT, reader.nextToken());
+        assertEquals(END_DOCUMENT, reader.nextToken());
+        assertEquals(END_DOCUMENT, reader.nextToken());
+    }
+
+    @Test
+    void skipChildren() {
+        final JsonReader reader = Json.reader(Json.niceJson("{'skip': {'a': [1, {'b': 2}], 'c': []}, 'keep': 3}"));
+
+        assertEquals(START_OBJECT, reader.nextToken());
+        assertEquals(KEY, reader.nextToken());
+        assertEquals(START_OBJECT, reader.nextToken());
+        reader.skipChildren();
+        assertEquals(END_OBJECT, reader.currentType());
+        assertEquals(KEY, reader.nextToken());
+        assertEquals("keep", reader.stringValue());
+        assertEquals(INT, reader.nextToken());
+        assertEquals(3, reader.intValue());
+        assertEquals(END_OBJECT, reader.nextToken());
+        assertEquals(END_DOCUMENT, reader.nextToken());
+    }
+
+    @Test
+    void scalarRootAndOffsetSource() {
+        final String json = "xxxx[-12, 1e3]yyyy";
+        final JsonReader reader = Json.reader(new CharArrayOffsetCharSource(4, json.length() - 4, json.toCharArray()));
+
+        assertEquals(START_ARRAY, reader.nextToken());
+        assertEquals(INT, reader.nextToken());
+        assertEquals(-12, reader.intValue());
+        assertEquals(FLOAT, reader.nextToken());
+        assertEquals(1000.0, reader.doubleValue());
+        assertEquals(END_ARRAY, reader.nextToken());
+        assertEquals(END_DOCUMENT, reader.nextToken());
+
+        final JsonReader scalar = Json.reader("42");
+        assertEquals(INT, scalar.nextToken());
+        assertEquals(42L, scalar.longValue());
+        assertEquals(END_DOCUMENT, scalar.nextToken());
+    }
+
+    @Test
+    void badInput() {
+        assertThrows(UnexpectedCharacterException.class, () -> {
+            final JsonReader reader = Json.reader("{\"a\" 1}");
+            reader.nextToken();
+            reader.nextToken();
+        });
+        assertThrows(UnexpectedCharacterException.class, () -> {
+            final JsonReader reader = Json.reader("[1 2]");
+            reader.nextToken();
+            reader.nextToken();
+            reader.nextToken();
+        });
+        assertThrows(UnexpectedCharacterException.class, () -> {
+            final JsonReader reader = Json.reader("1 2");
+            reader.nextToken();
+            reader.nextToken();
+        });
+    }
+
+    private static JsonReader atNumber(final String json) {
+        final JsonReader reader = Json.reader(json);
+        reader.nextToken();
+        return reader;
+    }
+
+    @Test
+    void numbersOutOfRangeAreRejected() {
+        assertEquals(2147483647, atNumber("2147483647").intValue());
+        assertEquals(-2147483648, atNumber("-2147483648").intValue());
+        assertEquals(-9223372036854775808L, atNumber("-9223372036854775808").longValue());
+        assertEquals(2, atNumber("2.9").intValue());
+        assertEquals(99999999999L, atNumber("99999999999").longValue());
+
+        assertThrows(IllegalStateException.class, () -> atNumber("99999999999").intValue());
+        assertThrows(IllegalStateException.class, () -> atNumber("-2147483649").intValue());
+        assertThrows(IllegalStateException.class, () -> atNumber("123456789012345678901234").longValue());
+        assertThrows(IllegalStateException.class, () -> atNumber("9223372036854775808").longValue());
+        assertThrows(IllegalStateException.class, () -> atNumber("3e10").intValue());
+        assertThrows(IllegalStateException.class, () -> atNumber("1e19").longValue());
+    }
+
+    @Test
+    void invalidNumbersAreRejected() {
+        for (String json : new String[]{"+1", "01", "-", "1.", "1e", "-01", "01.5", "[+1]", "[01]", "[1.]", "[1e]", "[-]"}) {
+            assertThrows(UnexpectedCharacterException.class, () -> {
+                final JsonReader reader = Json.reader(json);
+                while (reader.nextToken() != END_DOCUMENT) {
+                }
+            }, json);
+        }
+        assertEquals(0.5, atNumber("0.5").doubleValue());
+        assertEquals(-0.5, atNumber("-0.5").doubleValue());
+        assertEquals(0, atNumber("0").longValue());
+        assertEquals(10.0, atNumber("1e1").doubleValue());
+    }
+
+    @Test
+    void escapedStringsAreDecoded() {
+        final JsonReader reader = Json.reader("[\"a\\tb\", \"plain\"]");
+        reader.nextToken();
+        reader.nextToken();
+        assertEquals("a\tb", reader.stringView().toString());
+        reader.nextToken();
+        assertEquals("plain", reader.stringView().toString());
+    }
+
+    @Test
+    void bindingOutOfRangeNumberFails() {
+        assertThrows(IllegalStateException.class, () -> Json.bind("{\"n\":99999999999}", Counter.class));
+        assertEquals(7, Json.bind("{\"n\":7}", Counter.class).n);
+    }
+
+    static class Counter {
+        int n;
+    }
+
+    @Test
+    void maxDepth() {
+        final JsonReader ok = Json.builder().setMaxDepth(2).buildReader(Sources.stringSource("[[1]]"));
+        while (ok.nextToken() != END_DOCUMENT) {
+            assertTrue(ok.depth() <= 2);
+        }
+
+        final JsonReader tooDeep = Json.builder().setMaxDepth(2).buildReader(Sources.stringSource("[[[1]]]"));
+        assertThrows(UnexpectedCharacterException.class, () -> {
+            while (tooDeep.nextToken() != END_DOCUMENT) {
+                assertTrue(tooDeep.depth() <= 2);
+            }
+        });
+    }
+}
@@ -17,7 +17,13 @@ package io.nats.jparse;
 
 import io.nats.jparse.parser.JsonParser;
 import io.nats.jparse.source.CharSource;
+import io.nats.jparse.token.Token;
 import io.nats.jparse.token.TokenEventListener;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 public class JsonScannerEventsTest extends JsonScannerTest{
     @Override
@@ -34,4 +40,22 @@ public class JsonScannerEventsTest extends JsonScannerTest{
             }
         }).buildEventParser();
     }
+
+    @Test
+    void deepNestingReusesFrames() {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            builder.append("{\"a\":[");
+        }
+        builder.append("1");
+        for (int i = 0; i < 40; i++) {
+            builder.append("]}");
+        }
+        final String json = builder.toString();
+
+        final JsonParser parser = jsonParser();
+        final List<Token> expected = Json.builder().build().scan(json);
+        assertEquals(expected, parser.scan(json));
+        assertEquals(expected, parser.scan(json));
+    }
 }
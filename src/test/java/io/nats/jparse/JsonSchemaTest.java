@@ -0,0 +1,175 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse;
+
+import io.nats.jparse.schema.JsonSchema;
+import io.nats.jparse.schema.SchemaViolation;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonSchemaTest {
+
+    private static final JsonSchema ORDER = JsonSchema.compile(Json.niceJson("{" +
+            "'type':'object'," +
+            "'required':['id','items']," +
+            "'additionalProperties':false," +
+            "'properties':{" +
+            "  'id':{'type':'integer','minimum':1}," +
+            "  'status':{'enum':['new','paid','shipped']}," +
+            "  'note':{'type':['string','null'],'maxLength':5}," +
+            "  'items':{'type':'array','minItems':1,'items':{" +
+            "    'type':'object','required':['sku','price']," +
+            "    'properties':{" +
+            "      'sku':{'type':'string','pattern':'^[A-Z]{3}-[0-9]+$'}," +
+            "      'price':{'type':'number','exclusiveMinimum':0,'multipleOf':0.01}}}}}}"));
+
+    private static SchemaViolation violation(final JsonSchema schema, final String json) {
+        final Optional<SchemaViolation> violation = schema.validate(Json.niceJson(json));
+        assertTrue(violation.isPresent(), json);
+        return violation.get();
+    }
+
+    @Test
+    void validDocument() {
+        final String json = Json.niceJson("{'id':7,'status':'paid','note':null," +
+                "'items':[{'sku':'ABC-1','price':9.99},{'sku':'XYZ-22','price':10,'extra':[1,{'x':2}]}]}");
+        assertEquals(Optional.empty(), ORDER.validate(json));
+        assertTrue(ORDER.isValid(Json.toRootNode(json)));
+    }
+
+    @Test
+    void reportsFirstViolationWithPath() {
+        SchemaViolation violation = violation(ORDER, "{'id':7,'items':[{'sku':'ABC-1','price':1},{'sku':'abc','price':1}]}");
+        assertEquals("pattern", violation.keyword());
+        assertEquals("/items/1/sku", violation.path());
+
+        violation = violation(ORDER, "{'id':0,'items':[]}");
+        assertEquals("minimum", violation.keyword());
+        assertEquals("/id", violation.path());
+        assertEquals(6, violation.offset());
+
+        violation = violation(ORDER, "{'id':1,'items':[]}");
+        assertEquals("minItems", violation.keyword());
+
+        violation = violation(ORDER, "{'id':1,'items':[{'sku':'ABC-1','price':0}]}");
+        assertEquals("exclusiveMinimum", violation.keyword());
+        assertEquals("/items/0/price", violation.path());
+
+        violation = violation(ORDER, "{'id':1,'items':[{'sku':'ABC-1','price':1.005}]}");
+        assertEquals("multipleOf", violation.keyword());
+    }
+
+    @Test
+    void objectKeywords() {
+        assertEquals("required", violation(ORDER, "{'id':1}").keyword());
+        assertEquals("", violation(ORDER, "{'id':1}").path());
+        assertEquals("required", violation(ORDER, "{'id':1,'items':[{'sku':'ABC-1'}]}").keyword());
+
+        final SchemaViolation extra = violation(ORDER, "{'id':1,'items':[{'sku':'A-1','price':1}],'other':true}");
+        assertEquals("pattern", extra.keyword());
+        assertEquals("additionalProperties", violation(ORDER,
+                "{'id':1,'other':true,'items':[{'sku':'ABC-1','price':1}]}").keyword());
+
+        final JsonSchema sized = JsonSchema.compile("{\"minProperties\":1,\"maxProperties\":2}");
+        assertFalse(sized.isValid(Json.toRootNode("{}")));
+        assertTrue(sized.isValid(Json.toRootNode("{\"a\":1}")));
+        assertFalse(sized.isValid(Json.toRootNode("{\"a\":1,\"b\":2,\"c\":3}")));
+        assertTrue(sized.isValid(Json.toRootNode("[1,2,3]")));
+
+        final JsonSchema typed = JsonSchema.compile("{\"additionalProperties\":{\"type\":\"integer\"}}");
+        assertTrue(typed.isValid(Json.toRootNode("{\"a\":1,\"b\":2.0}")));
+        assertEquals("/b", typed.validate("{\"a\":1,\"b\":2.5}").get().path());
+    }
+
+    @Test
+    void typeAndEnum() {
+        SchemaViolation violation = violation(ORDER, "{'id':'7','items':[]}");
+        assertEquals("type", violation.keyword());
+        assertEquals("expected integer but was string", violation.message());
+
+        violation = violation(ORDER, "{'id':1,'status':'lost','items':[{'sku':'ABC-1','price':1}]}");
+        assertEquals("enum", violation.keyword());
+        assertEquals("/status", violation.path());
+
+        final JsonSchema constant = JsonSchema.compile("{\"const\":2}");
+        assertTrue(constant.isValid(Json.toRootNode("2.0")));
+        assertFalse(constant.isValid(Json.toRootNode("3")));
+        assertFalse(constant.isValid(Json.toRootNode("\"2\"")));
+
+        final JsonSchema flags = JsonSchema.compile("{\"enum\":[true,null]}");
+        assertTrue(flags.isValid(Json.toRootNode("true")));
+        assertTrue(flags.isValid(Json.toRootNode("null")));
+        assertFalse(flags.isValid(Json.toRootNode("false")));
+    }
+
+    @Test
+    void stringsAreDecodedOnlyWhenEscaped() {
+        final JsonSchema schema = JsonSchema.compile("{\"type\":\"string\",\"minLength\":2,\"maxLength\":3," +
+                "\"pattern\":\"^a\"}");
+        assertTrue(schema.isValid(Json.toRootNode("\"abc\"")));
+        assertTrue(schema.isValid(Json.toRootNode("\"a\\u0041\"")));
+        assertFalse(schema.isValid(Json.toRootNode("\"a\\u0041bc\"")));
+        assertFalse(schema.isValid(Json.toRootNode("\"a\"")));
+        assertEquals("pattern", schema.validate("\"bcd\"").get().keyword());
+
+        final JsonSchema keys = JsonSchema.compile("{\"properties\":{\"a/b\":{\"type\":\"string\"}}," +
+                "\"additionalProperties\":false}");
+        assertTrue(keys.isValid(Json.toRootNode("{\"a\\/b\":\"x\"}")));
+        assertEquals("/a~1b", keys.validate("{\"a/b\":1}").get().path());
+    }
+
+    @Test
+    void tuplesAndCombinators() {
+        final JsonSchema tuple = JsonSchema.compile("{\"items\":[{\"type\":\"string\"},{\"type\":\"number\"}]," +
+                "\"maxItems\":3}");
+        assertTrue(tuple.isValid(Json.toRootNode("[\"a\",1,{\"any\":[]}]")));
+        assertEquals("/1", tuple.validate("[\"a\",\"b\"]").get().path());
+        assertEquals("maxItems", tuple.validate("[\"a\",1,2,3]").get().keyword());
+
+        final JsonSchema anyOf = JsonSchema.compile("{\"anyOf\":[{\"type\":\"string\"},{\"minimum\":10}]}");
+        assertTrue(anyOf.isValid(Json.toRootNode("\"x\"")));
+        assertTrue(anyOf.isValid(Json.toRootNode("11")));
+        assertEquals("anyOf", anyOf.validate("5").get().keyword());
+
+        final JsonSchema oneOf = JsonSchema.compile("{\"oneOf\":[{\"type\":\"integer\"},{\"minimum\":10}]}");
+        assertTrue(oneOf.isValid(Json.toRootNode("5")));
+        assertTrue(oneOf.isValid(Json.toRootNode("10.5")));
+        assertFalse(oneOf.isValid(Json.toRootNode("11")));
+
+        final JsonSchema allOfNot = JsonSchema.compile("{\"allOf\":[{\"type\":\"integer\"}],\"not\":{\"const\":0}}");
+        assertTrue(allOfNot.isValid(Json.toRootNode("1")));
+        assertEquals("not", allOfNot.validate("0").get().keyword());
+        assertEquals("type", allOfNot.validate("0.5").get().keyword());
+
+        assertFalse(JsonSchema.compile("false").isValid(Json.toRootNode("1")));
+        assertTrue(JsonSchema.compile("true").isValid(Json.toRootNode("1")));
+        assertTrue(JsonSchema.compile("{\"exclusiveMaximum\":true,\"maximum\":3}").isValid(Json.toRootNode("2.9")));
+        assertFalse(JsonSchema.compile("{\"exclusiveMaximum\":true,\"maximum\":3}").isValid(Json.toRootNode("3")));
+    }
+
+    @Test
+    void rejectsUnsupportedSchemas() {
+        assertThrows(IllegalStateException.class, () -> JsonSchema.compile("{\"$ref\":\"#/defs/a\"}"));
+        assertThrows(IllegalStateException.class, () -> JsonSchema.compile("{\"properties\":{\"a\":{\"uniqueItems\":true}}}"));
+        assertThrows(IllegalStateException.class, () -> JsonSchema.compile("{\"type\":\"thing\"}"));
+        assertThrows(IllegalStateException.class, () -> JsonSchema.compile("{\"enum\":[[1]]}"));
+        assertThrows(IllegalStateException.class, () -> JsonSchema.compile("[]"));
+        assertNotNull(JsonSchema.compile("{\"title\":\"x\",\"format\":\"date\",\"description\":\"ignored\"}"));
+    }
+}
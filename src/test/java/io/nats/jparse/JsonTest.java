@@ -2,6 +2,7 @@ package io.nats.jparse;
 
 import io.nats.jparse.node.ArrayNode;
 import io.nats.jparse.node.ObjectNode;
+import io.nats.jparse.parser.JsonReader;
 import io.nats.jparse.source.Sources;
 import io.nats.jparse.source.support.UnexpectedCharacterException;
 import io.nats.jparse.token.Token;
@@ -15,6 +16,7 @@ import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class JsonTest {
 
@@ -142,4 +144,29 @@ class JsonTest {
         assertEquals(2, ((Number)result.get(1)).intValue());
         assertEquals(3, ((Number)result.get(2)).intValue());
     }
+
+    @Test
+    public void testNumberValueUsesScannedWidth() {
+        ArrayNode arrayNode = Json.toArrayNode("[1, -2147483649, 9223372036854775808, 1.5, 12345678901]");
+
+        assertEquals(Integer.class, arrayNode.getNumberNode(0).value().getClass());
+        assertEquals(-2147483649L, arrayNode.getNumberNode(1).value());
+        assertTrue(arrayNode.getNumberNode(1).isLong());
+        assertEquals(new java.math.BigInteger("9223372036854775808"), arrayNode.getNumberNode(2).value());
+        assertEquals(1.5, arrayNode.getNumberNode(3).value());
+        assertEquals(12345678901.0, arrayNode.getNumberNode(4).doubleValue());
+    }
+
+    @Test
+    public void testNegativeZeroKeepsSign() {
+        ArrayNode arrayNode = Json.toArrayNode("[-0, 0]");
+
+        assertEquals(Double.doubleToRawLongBits(-0.0), Double.doubleToRawLongBits(arrayNode.getNumberNode(0).doubleValue()));
+        assertEquals(Double.doubleToRawLongBits(0.0), Double.doubleToRawLongBits(arrayNode.getNumberNode(1).doubleValue()));
+        assertEquals(Double.doubleToRawLongBits(-0.0), Double.doubleToRawLongBits(arrayNode.getDoubleArray()[0]));
+
+        JsonReader reader = Json.reader("-0");
+        reader.nextToken();
+        assertEquals(Double.doubleToRawLongBits(-0.0), Double.doubleToRawLongBits(reader.doubleValue()));
+    }
 }
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse;
+
+import io.nats.jparse.parser.JsonParser;
+import io.nats.jparse.parser.JsonValidator;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static io.nats.jparse.parser.JsonValidator.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonValidatorTest {
+
+    private final JsonValidator validator = Json.builder().buildValidator();
+
+    private void assertError(final int code, final int offset, final String json) {
+        final long result = validator.validate(json);
+        assertFalse(isValid(result), json);
+        assertEquals(code, errorCode(result), () -> message(result, json));
+        assertEquals(offset, errorOffset(result), () -> message(result, json));
+    }
+
+    @Test
+    void agreesWithStrictParserOnTestSuite() throws IOException {
+        final JsonParser parser = Json.builder().setStrict(true).build();
+        final File[] files = new File("./src/test/resources/validation").listFiles();
+        assertNotNull(files);
+        for (File file : files) {
+            final String json = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+            final long result = validator.validate(json);
+            if (file.getName().startsWith("y_")) {
+                assertTrue(isValid(result), () -> file.getName() + " " + message(result, json));
+            } else if (file.getName().startsWith("n_")) {
+                assertFalse(isValid(result), file.getName());
+            }
+            boolean parsed;
+            try {
+                parser.parse(json);
+                parsed = true;
+            } catch (Exception e) {
+                parsed = false;
+            }
+            assertEquals(parsed, isValid(result), file.getName());
+        }
+    }
+
+    @Test
+    void acceptsValidDocuments() {
+        assertEquals(VALID, validator.validate(" {\"a\" : [1, -0.5e+3, true, false, null, \"x\\u00e9\\n\"], \"b\":{}} "));
+        assertEquals(VALID, validator.validate("[]"));
+        assertEquals(VALID, validator.validate("0"));
+        assertEquals(-1, errorOffset(VALID));
+        assertEquals("Valid JSON", message(VALID));
+    }
+
+    @Test
+    void reportsErrorCodeAndOffset() {
+        assertError(ERROR_UNEXPECTED_END, 2, "  ");
+        assertError(ERROR_UNEXPECTED_END, 7, "{\"a\":[1");
+        assertError(ERROR_UNEXPECTED_CHARACTER, 1, "{a:1}");
+        assertError(ERROR_UNEXPECTED_CHARACTER, 5, "{\"a\" 1}");
+        assertError(ERROR_UNEXPECTED_CHARACTER, 3, "[1 2]");
+        assertError(ERROR_INVALID_NUMBER, 2, "[01]");
+        assertError(ERROR_INVALID_NUMBER, 3, "[1.]");
+        assertError(ERROR_INVALID_NUMBER, 1, "-a");
+        assertError(ERROR_CONTROL_CHARACTER, 2, "\"a\tb\"");
+        assertError(ERROR_INVALID_ESCAPE, 3, "[\"\\x\"]");
+        assertError(ERROR_INVALID_ESCAPE, 5, "\"\\u12g4\"");
+        assertError(ERROR_INVALID_LITERAL, 4, "[tru]");
+        assertError(ERROR_TRAILING_COMMA, 3, "[1,]");
+        assertError(ERROR_TRAILING_COMMA, 8, "{\"a\":1, }");
+        assertError(ERROR_TRAILING_CONTENT, 3, "{} x");
+    }
+
+    @Test
+    void limitsDepth() {
+        final JsonValidator shallow = Json.builder().setMaxDepth(3).buildValidator();
+        assertEquals(VALID, shallow.validate("[[{\"a\":1}]]"));
+        final long result = shallow.validate("[[[[1]]]]");
+        assertEquals(ERROR_TOO_DEEP, errorCode(result));
+        assertEquals(3, errorOffset(result));
+
+        final JsonValidator deep = Json.builder().setMaxDepth(200).buildValidator();
+        final StringBuilder json = new StringBuilder();
+        for (int index = 0; index < 150; index++) {
+            json.append(index % 2 == 0 ? "[" : "{\"k\":");
+        }
+        json.append(0);
+        for (int index = 149; index >= 0; index--) {
+            json.append(index % 2 == 0 ? "]" : "}");
+        }
+        assertEquals(VALID, deep.validate(json));
+    }
+
+    @Test
+    void buildsMessageOnDemand() {
+        final String json = "{\"name\": tru}";
+        final long result = validator.validate(json);
+
+        assertEquals("Invalid literal at offset 12", message(result));
+        assertEquals("Invalid literal at offset 12\n{\"name\": tru}\n............^", message(result, json));
+    }
+}
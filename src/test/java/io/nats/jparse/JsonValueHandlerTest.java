@@ -0,0 +1,185 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse;
+
+import io.nats.jparse.parser.JsonEventParser;
+import io.nats.jparse.parser.JsonValueHandler;
+import io.nats.jparse.parser.event.JsonFeedParser;
+import io.nats.jparse.parser.event.JsonValueEventListener;
+import io.nats.jparse.source.CharSource;
+import io.nats.jparse.token.TokenEventListener;
+import io.nats.jparse.token.TokenTypes;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class JsonValueHandlerTest {
+
+    private static class Recorder implements JsonValueHandler {
+
+        final List<String> events = new ArrayList<>();
+
+        @Override
+        public void beginObject() {
+            events.add("{");
+        }
+
+        @Override
+        public void endObject() {
+            events.add("}");
+        }
+
+        @Override
+        public void beginArray() {
+            events.add("[");
+        }
+
+        @Override
+        public void endArray() {
+            events.add("]");
+        }
+
+        @Override
+        public void onKey(CharSequence key) {
+            events.add("key:" + key);
+        }
+
+        @Override
+        public void onLong(long value) {
+            events.add("long:" + value);
+        }
+
+        @Override
+        public void onDouble(double value) {
+            events.add("double:" + value);
+        }
+
+        @Override
+        public void onString(CharSequence value) {
+            events.add("string:" + value);
+        }
+
+        @Override
+        public void onBoolean(boolean value) {
+            events.add("boolean:" + value);
+        }
+
+        @Override
+        public void onNull() {
+            events.add("null");
+        }
+    }
+
+    private static List<String> parse(final JsonEventParser parser, final String json) {
+        final Recorder recorder = new Recorder();
+        parser.parseWithValues(json, recorder);
+        return recorder.events;
+    }
+
+    @Test
+    void typedValues() {
+        final String json = Json.niceJson("{'a': 1, 'b': [1.5, true, false, null], 'c': 'hi `n', " +
+                "'d': -9223372036854775808, 'e': 18446744073709551616, 'f': {}}");
+        final List<String> expected = Arrays.asList("{", "key:a", "long:1", "key:b", "[", "double:1.5",
+                "boolean:true", "boolean:false", "null", "]", "key:c", "string:hi \n", "key:d",
+                "long:-9223372036854775808", "key:e", "double:1.8446744073709552E19", "key:f", "{", "}", "}");
+
+        assertEquals(expected, parse(Json.builder().setStrict(true).buildEventParser(), json));
+        assertEquals(expected, parse(Json.builder().buildEventParser(), json));
+    }
+
+    @Test
+    void escapesAreReportedByTheScanner() {
+        final String json = Json.niceJson("{'a`tb': 'x`\"y', 'plain': 'a/b', 'u': '`u0041'}");
+        final List<String> expected = Arrays.asList("{", "key:a\tb", "string:x\"y", "key:plain", "string:a/b",
+                "key:u", "string:A", "}");
+
+        assertEquals(expected, parse(Json.builder().setStrict(true).buildEventParser(), json));
+        assertEquals(expected, parse(Json.builder().buildEventParser(), json));
+
+        final Recorder recorder = new Recorder();
+        final JsonFeedParser feedParser = new JsonFeedParser(new JsonValueEventListener(recorder));
+        final byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        for (byte b : bytes) {
+            feedParser.feed(new byte[]{b});
+        }
+        feedParser.endOfInput();
+        assertEquals(expected, recorder.events);
+    }
+
+    @Test
+    void integersBeyondLongCanBeKeptExact() {
+        final List<Object> values = new ArrayList<>();
+        Json.builder().buildEventParser().parseWithValues("[18446744073709551616, 9223372036854775807]", new Recorder() {
+            @Override
+            public void onLong(long value) {
+                values.add(value);
+            }
+
+            @Override
+            public void onBigInteger(BigInteger value) {
+                values.add(value);
+            }
+        });
+
+        assertEquals(Arrays.asList(new BigInteger("18446744073709551616"), Long.MAX_VALUE), values);
+    }
+
+    @Test
+    void listenersReceiveScannerInfo() {
+        final List<String> events = new ArrayList<>();
+        final TokenEventListener listener = new TokenEventListener() {
+            @Override
+            public void start(int tokenId, int index, CharSource source) {
+            }
+
+            @Override
+            public void end(int tokenId, int index, CharSource source) {
+            }
+
+            @Override
+            public void string(int startIndex, int endIndex, boolean escaped, CharSource source) {
+                events.add(source.getString(startIndex, endIndex) + ":" + escaped);
+            }
+
+            @Override
+            public void number(int tokenId, int startIndex, int endIndex, int numberFlags, CharSource source) {
+                events.add(source.getString(startIndex, endIndex) + ":"
+                        + ((numberFlags & TokenTypes.NUMBER_FITS_LONG_FLAG) != 0));
+            }
+        };
+        final String json = "{\"a\\n\":\"b\",\"c\":[12,99999999999999999999,1.5]}";
+        final List<String> expected = Arrays.asList("a\\n:true", "b:false", "c:false", "12:true",
+                "99999999999999999999:false", "1.5:false");
+
+        Json.builder().setStrict(true).buildEventParser().parseWithEvents(json, listener);
+        assertEquals(expected, events);
+        events.clear();
+        Json.builder().buildEventParser().parseWithEvents(json, listener);
+        assertEquals(expected, events);
+        events.clear();
+        final JsonFeedParser feedParser = new JsonFeedParser(listener);
+        feedParser.feed(json.getBytes(StandardCharsets.UTF_8));
+        feedParser.endOfInput();
+        assertEquals(expected, events);
+    }
+}
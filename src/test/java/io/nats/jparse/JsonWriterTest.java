@@ -0,0 +1,138 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse;
+
+import io.nats.jparse.node.ObjectNode;
+import io.nats.jparse.node.RootNode;
+import io.nats.jparse.writer.JsonWriter;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonWriterTest {
+
+    @Test
+    void writesDocument() {
+        final JsonWriter writer = JsonWriter.toBytes();
+        writer.beginObject()
+                .key("id").writeLong(42)
+                .key("tags").beginArray().writeString("a").writeString("b").endArray()
+                .key("ok").writeBoolean(true)
+                .key("ratio").writeDouble(0.5)
+                .key("none").writeNull()
+                .key("empty").beginObject().endObject()
+                .endObject();
+
+        assertEquals("{\"id\":42,\"tags\":[\"a\",\"b\"],\"ok\":true,\"ratio\":0.5,\"none\":null,\"empty\":{}}",
+                writer.toString());
+        final ObjectNode object = Json.toRootNode(writer.toString()).asObject();
+        assertEquals(42, object.getInt("id"));
+    }
+
+    @Test
+    void writesLongs() {
+        final long[] values = {0, 1, -1, 9, 10, 99, 100, Integer.MAX_VALUE, Integer.MIN_VALUE,
+                999_999_999_999_999_999L, Long.MAX_VALUE, Long.MIN_VALUE};
+        for (long value : values) {
+            final JsonWriter writer = JsonWriter.toBytes();
+            writer.writeLong(value);
+            assertEquals(Long.toString(value), writer.toString());
+        }
+    }
+
+    @Test
+    void writesDoublesThatRoundTrip() {
+        final double[] values = {0.0, -0.0, 1.0, -1.5, 0.1, 0.2, 0.1 + 0.2, 1.0 / 3, 123.456, 1e-7, 2.5e-300,
+                1e21, 9007199254740993.0, Double.MAX_VALUE, Double.MIN_VALUE, Math.PI, -Math.E, 100.0};
+        for (double value : values) {
+            final JsonWriter writer = JsonWriter.toBytes();
+            writer.writeDouble(value);
+            final String text = writer.toString();
+            assertEquals(Double.doubleToLongBits(value), Double.doubleToLongBits(Double.parseDouble(text)), text);
+        }
+        final JsonWriter writer = JsonWriter.toBytes();
+        writer.beginArray().writeDouble(0.1).writeDouble(100).writeDouble(-0.25).writeDouble(0.001).endArray();
+        assertEquals("[0.1,100.0,-0.25,0.001]", writer.toString());
+        assertThrows(IllegalArgumentException.class, () -> JsonWriter.toBytes().writeDouble(Double.NaN));
+    }
+
+    @Test
+    void escapesStrings() {
+        final JsonWriter writer = JsonWriter.toBytes();
+        writer.writeString("q\"b\\n\n\t\u0001é€😀\uD800");
+
+        assertEquals("\"q\\\"b\\\\n\\n\\t\\u0001é€😀\\ud800\"", writer.toString());
+        assertArrayEquals(writer.toString().getBytes(StandardCharsets.UTF_8), writer.toByteArray());
+    }
+
+    @Test
+    void copiesParsedNodes() {
+        final RootNode root = Json.toRootNode(Json.niceJson(
+                "{'name':'a`nb', 'list':[1, 2.5, {'x':null}], 'flag':false}"));
+        final ObjectNode object = root.asObject();
+
+        final JsonWriter writer = JsonWriter.toBytes();
+        writer.beginObject()
+                .key("name").writeNode(object.getNode("name"))
+                .key("list").writeNode(object.getNode("list"))
+                .key("flag").writeNode(object.getNode("flag"))
+                .endObject();
+
+        assertEquals("{\"name\":\"a\\nb\",\"list\":[1, 2.5, {\"x\":null}],\"flag\":false}", writer.toString());
+    }
+
+    @Test
+    void drainsToOutputStream() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final JsonWriter writer = JsonWriter.to(out);
+        final StringBuilder expected = new StringBuilder("[");
+        writer.beginArray();
+        for (int i = 0; i < 5000; i++) {
+            writer.writeString("item" + i);
+            expected.append(i == 0 ? "" : ",").append("\"item").append(i).append('"');
+        }
+        writer.endArray();
+        writer.flush();
+        expected.append(']');
+
+        assertEquals(expected.toString(), new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void drainsToDirectByteBuffer() {
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(64);
+        final JsonWriter writer = JsonWriter.to(buffer);
+        writer.beginArray().writeLong(1).writeRaw("{\"a\":true}").endArray();
+        writer.flush();
+
+        buffer.flip();
+        final byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        assertEquals("[1,{\"a\":true}]", new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void rejectsMisuse() {
+        assertThrows(IllegalStateException.class, () -> JsonWriter.toBytes().beginObject().writeLong(1));
+        assertThrows(IllegalStateException.class, () -> JsonWriter.toBytes().beginArray().key("a"));
+        assertThrows(IllegalStateException.class, () -> JsonWriter.toBytes().beginArray().endObject());
+        assertThrows(IllegalStateException.class, () -> JsonWriter.toBytes().writeLong(1).writeLong(2));
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse;
+
+import io.nats.jparse.node.RootNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParseCacheTest {
+
+    @Test
+    void countsHitsAndMisses() {
+        final ParseCache cache = Json.enableParseCache(8);
+        try {
+            final String json = Json.niceJson("{'a':1,'b':[true,null]}");
+            final RootNode first = Json.toRootNode(json);
+            final RootNode second = Json.toRootNode(new String(json.toCharArray()));
+
+            assertEquals(1, cache.misses());
+            assertEquals(1, cache.hits());
+            assertNotSame(first, second);
+            assertSame(first.tokens(), second.tokens());
+            assertEquals(first.getMap(), second.getMap());
+            assertEquals(1L, Json.toObjectNode(json).getLong("a"));
+            assertEquals(2, cache.hits());
+        } finally {
+            Json.disableParseCache();
+        }
+    }
+
+    @Test
+    void doesNotConfuseDocumentsOfSameLength() {
+        final ParseCache cache = Json.enableParseCache(8);
+        try {
+            assertEquals(1L, Json.toObjectNode("{\"a\":1}").getLong("a"));
+            assertEquals(2L, Json.toObjectNode("{\"a\":2}").getLong("a"));
+            assertEquals(2, cache.misses());
+            assertEquals(0, cache.hits());
+        } finally {
+            Json.disableParseCache();
+        }
+    }
+
+    @Test
+    void evictsLeastRecentlyUsed() {
+        final ParseCache cache = Json.enableParseCache(2);
+        try {
+            Json.toRootNode("[1]");
+            Json.toRootNode("[2]");
+            Json.toRootNode("[1]");
+            Json.toRootNode("[3]");
+            assertEquals(2, cache.size());
+
+            Json.toRootNode("[1]");
+            assertEquals(2, cache.hits());
+            Json.toRootNode("[2]");
+            assertEquals(2, cache.hits());
+            assertEquals(4, cache.misses());
+
+            cache.clear();
+            assertEquals(0, cache.size());
+        } finally {
+            Json.disableParseCache();
+        }
+        assertNull(Json.parseCache());
+        assertThrows(IllegalArgumentException.class, () -> Json.enableParseCache(0));
+    }
+
+    @Test
+    void servesHitsToConcurrentReaders() throws Exception {
+        final ParseCache cache = Json.enableParseCache(4);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final StringBuilder json = new StringBuilder("{");
+            for (int index = 0; index < 200; index++) {
+                json.append(index == 0 ? "" : ",").append("\"key").append(index).append("\":").append(index);
+            }
+            final String document = json.append('}').toString();
+            final List<Future<Long>> results = new ArrayList<>();
+            for (int task = 0; task < 64; task++) {
+                results.add(executor.submit(() -> {
+                    final Map<String, Object> map = Json.toMap(document);
+                    long sum = 0;
+                    for (int index = 0; index < 200; index++) {
+                        sum += ((Number) map.get("key" + index)).longValue();
+                    }
+                    return sum;
+                }));
+            }
+            for (Future<Long> result : results) {
+                assertEquals(19900L, result.get().longValue());
+            }
+            assertEquals(64, cache.hits() + cache.misses());
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+            Json.disableParseCache();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse;
+
+import io.nats.jparse.parser.JsonEventParser;
+import io.nats.jparse.parser.JsonParser;
+import io.nats.jparse.parser.JsonParserBuilder;
+import io.nats.jparse.source.support.UnexpectedCharacterException;
+import io.nats.jparse.token.TokenEventListener;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StacklessErrorsTest {
+
+    private static final String BAD = "{\"a\": [1, @]}";
+
+    @Test
+    void throwsWithoutStackTraceWhenEnabled() {
+        final JsonParserBuilder builder = Json.builder().setStacklessErrors(true);
+        for (JsonParser parser : new JsonParser[]{builder.cloneBuilder().setStrict(true).build(),
+                builder.cloneBuilder().setStrict(false).build(),
+                (JsonParser) builder.cloneBuilder().setStrict(true).buildEventParser()}) {
+            final UnexpectedCharacterException error = assertThrows(UnexpectedCharacterException.class,
+                    () -> parser.parse(BAD));
+            assertEquals(0, error.getStackTrace().length, parser.toString());
+            assertTrue(error.toString().contains("Unexpected character while"), error.toString());
+            assertEquals(error.source().get().errorDetails(error.getMessage(), error.getIndex(), error.getCh()),
+                    error.getDetails());
+        }
+    }
+
+    @Test
+    void keepsStackTracesByDefault() {
+        final UnexpectedCharacterException error = assertThrows(UnexpectedCharacterException.class,
+                () -> Json.builder().setStrict(true).build().parse(BAD));
+
+        assertTrue(error.getStackTrace().length > 0);
+        assertFalse(Json.builder().stacklessErrors());
+    }
+
+    @Test
+    void restoresThreadSettingAfterParse() {
+        final JsonParser parser = Json.builder().setStacklessErrors(true).build();
+        assertThrows(UnexpectedCharacterException.class, () -> parser.parse(BAD));
+        assertEquals("b", parser.parse("{\"a\":\"b\"}").asObject().getString("a"));
+
+        final UnexpectedCharacterException error = assertThrows(UnexpectedCharacterException.class,
+                () -> Json.builder().build().parse(BAD));
+        assertTrue(error.getStackTrace().length > 0);
+    }
+
+    @Test
+    void passesEventsThrough() {
+        final AtomicInteger starts = new AtomicInteger();
+        final JsonEventParser parser = Json.builder().setStacklessErrors(true)
+                .setTokenEventListener(new TokenEventListener() {
+                    @Override
+                    public void start(int tokenId, int index, io.nats.jparse.source.CharSource source) {
+                        starts.incrementAndGet();
+                    }
+
+                    @Override
+                    public void end(int tokenId, int index, io.nats.jparse.source.CharSource source) {
+                    }
+                }).buildEventParser();
+
+        parser.parseWithEvents("[1,2]");
+        assertEquals(5, starts.get());
+
+        final UnexpectedCharacterException error = assertThrows(UnexpectedCharacterException.class,
+                () -> parser.parseWithEvents(BAD));
+        assertEquals(0, error.getStackTrace().length);
+        assertTrue(Json.builder().setStacklessErrors(true).cloneBuilder().stacklessErrors());
+    }
+}
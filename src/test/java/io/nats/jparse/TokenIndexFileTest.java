@@ -0,0 +1,149 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse;
+
+import io.nats.jparse.node.RootNode;
+import io.nats.jparse.node.support.TokenIndexFile;
+import io.nats.jparse.node.support.TokenList;
+import io.nats.jparse.parser.JsonParser;
+import io.nats.jparse.token.NumberToken;
+import io.nats.jparse.token.Token;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenIndexFileTest {
+
+    private static Path copyOf(final String resource) throws IOException {
+        final Path json = Files.createTempFile("jparse", ".json");
+        json.toFile().deleteOnExit();
+        Files.copy(Paths.get(resource), json, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+        return json;
+    }
+
+    private static Path sidecarFor(final Path json) {
+        final Path sidecar = Paths.get(json + ".idx");
+        sidecar.toFile().deleteOnExit();
+        return sidecar;
+    }
+
+    @Test
+    void writesSidecarOnFirstOpenAndReusesItAfter() throws IOException {
+        final Path json = copyOf("./src/test/resources/json/glossary.json");
+        final Path sidecar = sidecarFor(json);
+        final JsonParser parser = Json.builder().setStrict(true).build();
+
+        final RootNode parsed = TokenIndexFile.open(json, sidecar, parser);
+        assertTrue(Files.exists(sidecar));
+
+        final RootNode loaded = TokenIndexFile.open(json, sidecar, null);
+
+        assertEquals(parsed.tokens(), loaded.tokens());
+        assertEquals("SGML", io.nats.jparse.Path.atPath("glossary.GlossDiv.GlossList.GlossEntry.Acronym", loaded)
+                .asScalar().toString());
+        assertEquals(parsed.getMap(), loaded.getMap());
+    }
+
+    @Test
+    void keepsNumberClassificationBits() throws IOException {
+        final Path json = Files.createTempFile("jparse", ".json");
+        json.toFile().deleteOnExit();
+        Files.write(json, "[1, -2.5e3, 12345678901, \"été\"]".getBytes(StandardCharsets.UTF_8));
+        final Path sidecar = sidecarFor(json);
+        final List<Token> tokens = Json.builder().build().scan(new String(Files.readAllBytes(json),
+                StandardCharsets.UTF_8));
+
+        TokenIndexFile.write(json, tokens, sidecar);
+        final TokenList loaded = TokenIndexFile.read(json, sidecar);
+
+        assertEquals(tokens, loaded);
+        for (int index = 0; index < tokens.size(); index++) {
+            assertEquals(tokens.get(index).getClass(), loaded.get(index).getClass());
+            if (tokens.get(index) instanceof NumberToken) {
+                assertEquals(((NumberToken) tokens.get(index)).numberFlags, ((NumberToken) loaded.get(index)).numberFlags);
+            }
+        }
+        final RootNode root = TokenIndexFile.open(json, sidecar, null);
+        assertEquals("été", root.asArray().getStringNode(3).toString());
+        assertEquals(12345678901L, root.asArray().getNumberNode(2).longValue());
+    }
+
+    @Test
+    void rejectsSidecarOfChangedSource() throws IOException {
+        final Path json = copyOf("./src/test/resources/json/depts.json");
+        final Path sidecar = sidecarFor(json);
+        TokenIndexFile.write(json, Json.toTokens(new String(Files.readAllBytes(json), StandardCharsets.UTF_8)),
+                sidecar);
+
+        final String changed = new String(Files.readAllBytes(json), StandardCharsets.UTF_8).replaceFirst(" ", "\t");
+        Files.write(json, changed.getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(IllegalStateException.class, () -> TokenIndexFile.read(json, sidecar));
+
+        final RootNode reparsed = TokenIndexFile.open(json, sidecar, Json.builder().build());
+        assertNotNull(reparsed.getNode());
+        assertEquals(reparsed.tokens(), TokenIndexFile.read(json, sidecar));
+    }
+
+    @Test
+    void rejectsCorruptSidecar() throws IOException {
+        final Path json = copyOf("./src/test/resources/json/types.json");
+        final Path sidecar = sidecarFor(json);
+        TokenIndexFile.write(json, Json.toTokens(new String(Files.readAllBytes(json), StandardCharsets.UTF_8)),
+                sidecar);
+
+        final byte[] bytes = Files.readAllBytes(sidecar);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(sidecar, bytes, StandardOpenOption.TRUNCATE_EXISTING);
+
+        assertThrows(IllegalStateException.class, () -> TokenIndexFile.read(json, sidecar));
+
+        Files.write(sidecar, new byte[]{1, 2, 3}, StandardOpenOption.TRUNCATE_EXISTING);
+        assertThrows(IllegalStateException.class, () -> TokenIndexFile.read(json, sidecar));
+    }
+
+    @Test
+    void replacesSidecarWithoutLeavingTempFiles() throws IOException {
+        final Path directory = Files.createTempDirectory("jparse");
+        final Path json = directory.resolve("types.json");
+        Files.copy(Paths.get("./src/test/resources/json/types.json"), json);
+        final Path sidecar = directory.resolve("types.json.idx");
+        final List<Token> tokens = Json.toTokens(new String(Files.readAllBytes(json), StandardCharsets.UTF_8));
+        try {
+            Files.write(sidecar, new byte[]{1, 2, 3});
+            TokenIndexFile.write(json, tokens, sidecar);
+            TokenIndexFile.write(json, tokens, sidecar);
+
+            assertEquals(tokens, TokenIndexFile.read(json, sidecar));
+            try (Stream<Path> files = Files.list(directory)) {
+                assertEquals(2, files.count());
+            }
+        } finally {
+            Files.deleteIfExists(sidecar);
+            Files.deleteIfExists(json);
+            Files.deleteIfExists(directory);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse;
+
+import io.nats.jparse.node.RootNode;
+import io.nats.jparse.node.support.TokenListCodec;
+import io.nats.jparse.token.NumberToken;
+import io.nats.jparse.token.Token;
+import io.nats.jparse.token.TokenTypes;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenListCodecTest {
+
+    @Test
+    void roundTripsTokensOfMessage() throws IOException {
+        final byte[] message = Files.readAllBytes(Paths.get("./src/test/resources/json/webxml.json"));
+        final List<Token> tokens = Json.toTokens(new String(message, StandardCharsets.UTF_8));
+
+        final byte[] encoded = TokenListCodec.encode(tokens, message);
+
+        assertEquals(tokens, TokenListCodec.decode(encoded, message));
+        assertTrue(encoded.length < tokens.size() * 5, "encoded " + encoded.length + " bytes");
+    }
+
+    @Test
+    void rebuildsRootNodeWithoutScanning() {
+        final String json = Json.niceJson("{'name':'café','sizes':[1,-2.5,12345678901],'ok':true,'none':null}");
+        final byte[] message = json.getBytes(StandardCharsets.UTF_8);
+        final List<Token> tokens = Json.toTokens(json);
+
+        final RootNode root = TokenListCodec.toRootNode(TokenListCodec.encode(tokens, message), message);
+
+        assertEquals(Json.toRootNode(json).getMap(), root.getMap());
+        assertEquals("café", root.asObject().getString("name"));
+        assertEquals(12345678901L, root.asObject().getArrayNode("sizes").getLong(2));
+        for (int index = 0; index < tokens.size(); index++) {
+            if (tokens.get(index) instanceof NumberToken) {
+                assertEquals(((NumberToken) tokens.get(index)).numberFlags,
+                        ((NumberToken) root.tokens().get(index)).numberFlags);
+            }
+        }
+    }
+
+    @Test
+    void rejectsEncodingOfAnotherMessage() {
+        final byte[] message = "{\"a\":1}".getBytes(StandardCharsets.UTF_8);
+        final byte[] other = "{\"a\":2}".getBytes(StandardCharsets.UTF_8);
+        final byte[] encoded = TokenListCodec.encode(Json.toTokens("{\"a\":1}"), message);
+
+        assertThrows(IllegalStateException.class, () -> TokenListCodec.decode(encoded, other));
+        assertThrows(IllegalStateException.class, () -> TokenListCodec.toRootNode(encoded, "{}".getBytes()));
+    }
+
+    @Test
+    void rejectsMalformedEncodings() {
+        final byte[] message = "[1,2]".getBytes(StandardCharsets.UTF_8);
+        final byte[] encoded = TokenListCodec.encode(Json.toTokens("[1,2]"), message);
+
+        final byte[] truncated = Arrays.copyOf(encoded, encoded.length - 1);
+        assertThrows(IllegalStateException.class, () -> TokenListCodec.decode(truncated, message));
+
+        final byte[] trailing = Arrays.copyOf(encoded, encoded.length + 1);
+        assertThrows(IllegalStateException.class, () -> TokenListCodec.decode(trailing, message));
+
+        final byte[] version = encoded.clone();
+        version[2] = 9;
+        assertThrows(IllegalStateException.class, () -> TokenListCodec.decode(version, message));
+
+        final byte[] outOfRange = encoded.clone();
+        outOfRange[outOfRange.length - 1] = 0x7E;
+        assertThrows(IllegalStateException.class, () -> TokenListCodec.decode(outOfRange, message));
+
+        assertThrows(IllegalStateException.class, () -> TokenListCodec.decode(new byte[]{1}, message));
+    }
+
+    @Test
+    void boundsTokensByCharactersNotBytes() {
+        final String json = "[\"caf\u00e9\"]";
+        final byte[] message = json.getBytes(StandardCharsets.UTF_8);
+        assertEquals(json.length() + 1, message.length);
+        final List<Token> pastEnd = Arrays.asList(new Token(0, message.length, TokenTypes.ARRAY_TOKEN),
+                new Token(2, message.length - 1, TokenTypes.STRING_TOKEN));
+        final byte[] encoded = TokenListCodec.encode(pastEnd, message);
+
+        assertThrows(IllegalStateException.class, () -> TokenListCodec.decode(encoded, message));
+        assertThrows(IllegalStateException.class, () -> TokenListCodec.toRootNode(encoded, message));
+        assertEquals(Json.toTokens(json), TokenListCodec.decode(TokenListCodec.encode(Json.toTokens(json), message),
+                message));
+    }
+}
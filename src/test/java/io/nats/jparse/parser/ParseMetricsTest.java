@@ -0,0 +1,187 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.parser;
+
+import io.nats.jparse.Json;
+import io.nats.jparse.source.CharSource;
+import io.nats.jparse.source.Sources;
+import io.nats.jparse.source.support.UnexpectedCharacterException;
+import io.nats.jparse.token.TokenEventListener;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParseMetricsTest {
+
+    private static final String JSON = "{\"a\":[1,2.5,{\"b\":\"c\"}],\"d\":true}";
+
+    private static long sum(final long[] counts) {
+        return Arrays.stream(counts).sum();
+    }
+
+    @Test
+    void builderReturnsParserItselfWithoutMetrics() {
+        assertFalse(Json.builder().build() instanceof MeteredParser);
+        assertFalse(Json.builder().buildEventParser() instanceof MeteredParser);
+        assertTrue(Json.builder().setParseMetrics(new ParseMetrics()).build() instanceof MeteredParser);
+    }
+
+    @Test
+    void recordsParsedDocument() {
+        final ParseMetrics metrics = new ParseMetrics();
+        final JsonParser parser = Json.builder().setParseMetrics(metrics).build();
+
+        assertEquals(JSON, parser.parse(JSON).getObjectNode().toString());
+        parser.scan(JSON);
+
+        final ParseMetrics.Snapshot snapshot = metrics.snapshot();
+        final int tokens = Json.builder().build().scan(JSON).size();
+        assertEquals(2, snapshot.documents());
+        assertEquals(0, snapshot.failures());
+        assertEquals(2L * JSON.length(), snapshot.characters());
+        assertEquals(2L * tokens, snapshot.tokens());
+        assertEquals(tokens, snapshot.maxTokens());
+        assertEquals(tokens, snapshot.tokensPerDocument(), 0.0);
+        assertEquals(3, snapshot.maxDepth());
+        assertEquals(4, snapshot.numbers());
+        assertEquals(8, snapshot.strings());
+        assertEquals(0, snapshot.tokenListGrowths());
+        assertEquals(2, sum(snapshot.parseTimes().get("JsonFastParser")));
+    }
+
+    @Test
+    void recordsFailuresAndTimesPerParser() {
+        final ParseMetrics metrics = new ParseMetrics();
+        final JsonParser fast = Json.builder().setParseMetrics(metrics).build();
+        final JsonParser strict = Json.builder().setStrict(true).setParseMetrics(metrics).build();
+
+        fast.parse(JSON);
+        assertThrows(UnexpectedCharacterException.class, () -> strict.parse("{\"a\":}"));
+
+        final ParseMetrics.Snapshot snapshot = metrics.snapshot();
+        assertEquals(1, snapshot.documents());
+        assertEquals(1, snapshot.failures());
+        assertEquals(1, sum(snapshot.parseTimes().get("JsonFastParser")));
+        assertEquals(1, sum(snapshot.parseTimes().get("JsonStrictParser")));
+    }
+
+    @Test
+    void recordsTokenListGrowth() {
+        final ParseMetrics metrics = new ParseMetrics();
+        final StringBuilder json = new StringBuilder("[0");
+        for (int i = 1; i < 100; i++) {
+            json.append(',').append(i);
+        }
+        Json.builder().setParseMetrics(metrics).build().parse(json.append(']').toString());
+
+        assertEquals(2, metrics.snapshot().tokenListGrowths());
+        assertEquals(100, metrics.snapshot().numbers());
+    }
+
+    @Test
+    void recordsEventParse() {
+        final ParseMetrics metrics = new ParseMetrics();
+        final List<String> strings = new ArrayList<>();
+        final JsonEventParser parser = Json.builder().setParseMetrics(metrics).buildEventParser();
+
+        parser.parseWithEvents(Sources.stringSource(JSON), new TokenEventListener() {
+            @Override
+            public void start(int tokenId, int index, CharSource source) {
+            }
+
+            @Override
+            public void end(int tokenId, int index, CharSource source) {
+            }
+
+            @Override
+            public void string(int startIndex, int endIndex, boolean escaped, CharSource source) {
+                strings.add(source.getString(startIndex, endIndex));
+            }
+        });
+
+        final ParseMetrics.Snapshot snapshot = metrics.snapshot();
+        assertEquals(Arrays.asList("a", "b", "c", "d"), strings);
+        assertEquals(1, snapshot.documents());
+        assertEquals(Json.builder().build().scan(JSON).size(), snapshot.tokens());
+        assertEquals(3, snapshot.maxDepth());
+        assertEquals(2, snapshot.numbers());
+        assertEquals(4, snapshot.strings());
+        assertEquals(1, sum(snapshot.parseTimes().get("JsonEventFastParser")));
+    }
+
+    @Test
+    void countsTokensAlikeForEveryParserType() {
+        final ParseMetrics metrics = new ParseMetrics();
+        Json.builder().setParseMetrics(metrics).build().parse(JSON);
+        Json.builder().setStrict(true).setParseMetrics(metrics).build().parse(JSON);
+        Json.builder().setParseMetrics(metrics).buildEventParser().parseWithEvents(JSON, new TokenEventListener() {
+            @Override
+            public void start(int tokenId, int index, CharSource source) {
+            }
+
+            @Override
+            public void end(int tokenId, int index, CharSource source) {
+            }
+        });
+
+        final ParseMetrics.Snapshot snapshot = metrics.snapshot();
+        assertEquals(3, snapshot.documents());
+        assertEquals(3L * Json.builder().build().scan(JSON).size(), snapshot.tokens());
+        assertEquals(6, snapshot.numbers());
+        assertEquals(12, snapshot.strings());
+    }
+
+    @Test
+    void sharedAcrossThreads() throws Exception {
+        final ParseMetrics metrics = new ParseMetrics();
+        final JsonParser parser = Json.builder().setParseMetrics(metrics).build();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        parser.parse(JSON);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(4000, metrics.snapshot().documents());
+        assertEquals(4000, sum(metrics.snapshot().parseTimes().get("JsonFastParser")));
+    }
+
+    @Test
+    void bucketBounds() {
+        assertEquals(1, ParseMetrics.bucketUpperBoundNanos(0));
+        assertEquals(1024, ParseMetrics.bucketUpperBoundNanos(10));
+        assertEquals(Long.MAX_VALUE, ParseMetrics.bucketUpperBoundNanos(ParseMetrics.TIME_BUCKETS - 1));
+        assertThrows(IllegalArgumentException.class, () -> ParseMetrics.bucketUpperBoundNanos(ParseMetrics.TIME_BUCKETS));
+    }
+}
@@ -18,6 +18,7 @@ package io.nats.jparse.source;
 import io.nats.jparse.Json;
 import io.nats.jparse.node.support.NumberParseResult;
 import io.nats.jparse.node.support.ParseConstants;
+import io.nats.jparse.token.TokenTypes;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -679,4 +680,55 @@ class CharArrayCharSourceTest {
         assertFalse(charSource.isInteger(0, s.length()));
 
     }
+
+    @Test
+    void findEndOfNumberFastNumberFlags() {
+        NumberParseResult result = source("123 ").findEndOfNumberFast();
+        assertEquals(3, result.numberFlags() & TokenTypes.NUMBER_DIGIT_COUNT_MASK);
+        assertTrue((result.numberFlags() & TokenTypes.NUMBER_FITS_INT_FLAG) != 0);
+        assertTrue((result.numberFlags() & TokenTypes.NUMBER_FITS_LONG_FLAG) != 0);
+        assertFalse((result.numberFlags() & TokenTypes.NUMBER_NEGATIVE_FLAG) != 0);
+
+        result = source("" + Integer.MIN_VALUE).findEndOfNumberFast();
+        assertTrue((result.numberFlags() & TokenTypes.NUMBER_FITS_INT_FLAG) != 0);
+        assertTrue((result.numberFlags() & TokenTypes.NUMBER_NEGATIVE_FLAG) != 0);
+
+        result = source("" + (Integer.MAX_VALUE + 1L)).findEndOfNumberFast();
+        assertFalse((result.numberFlags() & TokenTypes.NUMBER_FITS_INT_FLAG) != 0);
+        assertTrue((result.numberFlags() & TokenTypes.NUMBER_FITS_LONG_FLAG) != 0);
+
+        result = source("" + Long.MIN_VALUE).findEndOfNumberFast();
+        assertTrue((result.numberFlags() & TokenTypes.NUMBER_FITS_LONG_FLAG) != 0);
+
+        result = source("9223372036854775808]").findEndOfNumberFast();
+        assertEquals(19, result.numberFlags() & TokenTypes.NUMBER_DIGIT_COUNT_MASK);
+        assertFalse((result.numberFlags() & TokenTypes.NUMBER_FITS_LONG_FLAG) != 0);
+
+        result = source("-1.5e10,").findEndOfNumberFast();
+        assertTrue(result.wasFloat());
+        assertTrue((result.numberFlags() & TokenTypes.NUMBER_EXPONENT_FLAG) != 0);
+        assertTrue((result.numberFlags() & TokenTypes.NUMBER_NEGATIVE_FLAG) != 0);
+        assertFalse((result.numberFlags() & TokenTypes.NUMBER_FITS_LONG_FLAG) != 0);
+    }
+
+    @Test
+    void findEndOfNumberNumberFlags() {
+        NumberParseResult result = source("2147483648 ").findEndOfNumber();
+        assertEquals(10, result.endIndex());
+        assertFalse((result.numberFlags() & TokenTypes.NUMBER_FITS_INT_FLAG) != 0);
+        assertTrue((result.numberFlags() & TokenTypes.NUMBER_FITS_LONG_FLAG) != 0);
+
+        result = source("2147483647 ").findEndOfNumber();
+        assertTrue((result.numberFlags() & TokenTypes.NUMBER_FITS_INT_FLAG) != 0);
+
+        result = source("1.25E-3 ").findEndOfNumber();
+        assertTrue(result.wasFloat());
+        assertTrue((result.numberFlags() & TokenTypes.NUMBER_EXPONENT_FLAG) != 0);
+    }
+
+    private static CharSource source(final String json) {
+        final CharSource source = Sources.stringSource(json);
+        source.next();
+        return source;
+    }
 }
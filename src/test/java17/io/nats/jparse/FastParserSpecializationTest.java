@@ -0,0 +1,84 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse;
+
+import io.nats.jparse.node.RootNode;
+import io.nats.jparse.parser.JsonParser;
+import io.nats.jparse.parser.indexoverlay.JsonFastParser;
+import io.nats.jparse.source.CharArrayCharSource;
+import io.nats.jparse.source.CharSource;
+import io.nats.jparse.source.Sources;
+import io.nats.jparse.source.support.UnexpectedCharacterException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FastParserSpecializationTest {
+
+    private static final String JSON = Json.niceJson("{'a':[1,2.5,{'b':null}],'k\\\\u0041':1,'t':true,'s':'x\\\\ny'}");
+
+    @Test
+    void buildReturnsSourceDispatchingParser() {
+        final JsonParser parser = Json.builder().build();
+        assertFalse(parser instanceof JsonFastParser);
+        assertEquals("JsonFastParser specialized per source type", parser.toString());
+        assertFalse(Json.builder().setStrict(true).build().getClass().isHidden());
+    }
+
+    @Test
+    void specializedCopiesParseLikeTemplate() {
+        final JsonParser template = new JsonFastParser(true);
+        final JsonParser parser = Json.builder().setObjectsKeysCanBeEncoded(true).build();
+        final char[] padded = ("  " + JSON).toCharArray();
+        final List<Supplier<CharSource>> sources = new ArrayList<>();
+        sources.add(() -> Sources.stringSource(JSON));
+        sources.add(() -> Sources.charSource(2, padded));
+        sources.add(() -> new CharArrayCharSource(JSON) {
+        });
+
+        for (int round = 0; round < 2; round++) {
+            for (Supplier<CharSource> source : sources) {
+                assertEquals(template.parse(source.get()).tokens(), parser.parse(source.get()).tokens());
+            }
+        }
+        final RootNode root = parser.parse(JSON);
+        assertEquals(1, root.getObjectNode().getArrayNode("a").getInt(0));
+        assertTrue(root.getObjectNode().getBoolean("t"));
+    }
+
+    @Test
+    void manySourceTypesStayCorrect() {
+        final JsonParser parser = Json.builder().setAllowComments(true).build();
+        for (int i = 0; i < 80; i++) {
+            final CharSource source = i % 2 == 0
+                    ? Sources.stringSource("[1, /* c */ " + i + "]")
+                    : new CharArrayCharSource("[1, # c\n " + i + "]") {
+            };
+            assertEquals(i, parser.parse(source).getArrayNode().getInt(1));
+        }
+    }
+
+    @Test
+    void specializedCopyKeepsMaxDepth() {
+        final JsonParser parser = Json.builder().setMaxDepth(3).build();
+        parser.parse("[[[1]]]");
+        assertThrows(UnexpectedCharacterException.class, () -> parser.parse("[[[[1]]]]"));
+    }
+}
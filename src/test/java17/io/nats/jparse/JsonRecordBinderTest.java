@@ -0,0 +1,82 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse;
+
+import io.nats.jparse.bind.JsonBinder;
+import io.nats.jparse.writer.JsonWriter;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonRecordBinderTest {
+
+    record Point(int x, int y, String label) {
+    }
+
+    record Trade(long id, double price, float quantity, boolean buy, char side, short venue, byte flags,
+                 Integer boxed, List<Point> points, Map<String, Long> limits) {
+    }
+
+    record Defaulted(int count, String name) {
+        Defaulted() {
+            this(-1, "none");
+        }
+    }
+
+    @Test
+    void bindsRecordThroughCanonicalConstructor() {
+        final Trade trade = Json.bind(Json.niceJson("{'price':10.5,'id':12345678901,'quantity':2.5,'buy':true,"
+                + "'side':'S','venue':7,'flags':3,'boxed':null,'unknown':{'a':[1]},"
+                + "'points':[{'x':1,'y':2,'label':'a'},{'y':4,'x':3}],'limits':{'max':9}}"), Trade.class);
+
+        assertEquals(new Trade(12345678901L, 10.5, 2.5f, true, 'S', (short) 7, (byte) 3, null,
+                List.of(new Point(1, 2, "a"), new Point(3, 4, null)), Map.of("max", 9L)), trade);
+    }
+
+    @Test
+    void leavesPrimitiveComponentsAtDefaultsWhenMissingOrNull() {
+        final Point point = Json.bind(Json.niceJson("{'x':null,'label':'only'}"), Point.class);
+
+        assertEquals(new Point(0, 0, "only"), point);
+    }
+
+    @Test
+    void prefersCanonicalConstructorOverNoArgumentConstructor() {
+        final Defaulted defaulted = Json.bind(Json.niceJson("{'count':5,'name':'set'}"), Defaulted.class);
+
+        assertEquals(new Defaulted(5, "set"), defaulted);
+    }
+
+    @Test
+    void rejectsMismatchedComponentTypes() {
+        assertThrows(IllegalStateException.class, () -> Json.bind(Json.niceJson("{'x':'one'}"), Point.class));
+        assertThrows(IllegalStateException.class, () -> Json.bind(Json.niceJson("{'buy':1}"), Trade.class));
+    }
+
+    @Test
+    void roundTripsRecordsThroughEncoder() {
+        final List<Point> points = List.of(new Point(1, -2, "a\"b"), new Point(0, 0, null));
+
+        final JsonWriter writer = JsonWriter.toBytes();
+        JsonBinder.encode(points, writer);
+
+        assertEquals("[{\"x\":1,\"y\":-2,\"label\":\"a\\\"b\"},{\"x\":0,\"y\":0,\"label\":null}]", writer.toString());
+        assertEquals(points, Json.bindList(writer.toString(), Point.class));
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2013-2023 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.nats.jparse.parser.indexoverlay;
+
+import io.nats.jparse.parser.JsonParser;
+import io.nats.jparse.source.CharArrayCharSource;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FastParserSpecializerTest {
+
+    /* Keys encoded, max depth 7: an option set no other test uses. */
+    private static final long OPTIONS = 1L | 7L << 32;
+
+    @Test
+    void parserForDefinesHiddenCopy() {
+        final JsonParser parser = FastParserSpecializer.parserFor(OPTIONS, CharArrayCharSource.class);
+        assertNull(FastParserSpecializer.fallbackCause());
+        assertTrue(parser.getClass().isHidden());
+        assertSame(parser, FastParserSpecializer.parserFor(OPTIONS, CharArrayCharSource.class));
+        assertEquals(2, parser.parse("{\"a\":[1,2]}").getObjectNode().getArrayNode("a").getInt(1));
+    }
+}